@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class AsyncConfig {
@@ -19,4 +21,24 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "kundliBatchExecutor")
+    public Executor kundliBatchExecutor() {
+        // Chart math is CPU bound; one worker per core matches the ephemeris engine pool
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(5000);
+        executor.setThreadNamePrefix("kundli-batch-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "kundliSectionExecutor", destroyMethod = "close")
+    public ExecutorService kundliSectionExecutor() {
+        // Sections of one kundli mostly wait on the pooled SwissEph instances and caches, so a
+        // virtual thread per section is cheap; the ephemeris pool still bounds the CPU work
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kundli-section-", 0).factory());
+    }
 }
@@ -0,0 +1,65 @@
+package com.astro.backend.Contlorer;
+
+import com.astro.backend.Services.ChartArtifactStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Serves stored kundli chart artifacts. Artifacts are content-addressed, so the key is the
+ * ETag; a chart is personal data, so only the user's own client may cache it, and no longer
+ * than the store keeps it.
+ */
+@RestController
+@RequestMapping("/kundli-charts")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ChartArtifactController {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final ChartArtifactStore chartArtifactStore;
+
+    @Value("${astro.artifacts.local.max-age-days:30}")
+    private long maxAgeDays;
+
+    /**
+     * GET /kundli-charts/{key}.html
+     */
+    @GetMapping("/{key}.html")
+    public ResponseEntity<Resource> getChart(@PathVariable String key,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + key + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(maxAgeDays, TimeUnit.DAYS).cachePrivate().immutable();
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            // An evicted artifact is gone for the client too
+            if (!chartArtifactStore.contains(key)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        Resource artifact = chartArtifactStore.get(key);
+        if (artifact == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(artifact);
+    }
+}
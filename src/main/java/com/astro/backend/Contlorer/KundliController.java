@@ -1,17 +1,30 @@
 package com.astro.backend.Contlorer;
 
+import com.astro.backend.RequestDTO.KundliBatchRequest;
 import com.astro.backend.RequestDTO.KundliSvgRequest;
 import com.astro.backend.RequestDTO.PlanetaryPositionRequest;
 import com.astro.backend.ResponseDTO.PlanetaryPositionResponse;
+import com.astro.backend.Services.KundliBatchService;
+import com.astro.backend.Services.KundliHtmlRenderer;
 import com.astro.backend.Services.KundliSvgService;
 import com.astro.backend.Services.PlanetaryCalculationService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 @RestController
+@Slf4j
 @RequestMapping("/api/kundli")
 @CrossOrigin(origins = "*")
 public class KundliController {
@@ -22,6 +35,12 @@ public class KundliController {
     @Autowired
     private PlanetaryCalculationService planetaryCalculationService;
 
+    @Autowired
+    private KundliBatchService kundliBatchService;
+
+    @Autowired
+    private KundliHtmlRenderer kundliHtmlRenderer;
+
     /**
      * Generate Kundli SVG Chart
      * POST /api/kundli/generate-svg
@@ -147,28 +166,15 @@ public class KundliController {
                 return ResponseEntity.badRequest().build();
             }
             
-            // Set defaults for missing parameters
-            if (request.getHours() == null) request.setHours(0);
-            if (request.getMinutes() == null) request.setMinutes(0);
-            if (request.getSeconds() == null) request.setSeconds(0);
-            if (request.getLatitude() == null) request.setLatitude(28.7041); // Default: Delhi
-            if (request.getLongitude() == null) request.setLongitude(77.1025);
-            if (request.getTimezone() == null) request.setTimezone(5.5);
-            
-            // Set default config if not provided
-            if (request.getConfig() == null) {
-                request.setConfig(PlanetaryPositionRequest.Config.builder()
-                        .observationPoint("topocentric")
-                        .ayanamsha("lahiri")
-                        .build());
-            }
+            // Set defaults for missing parameters and config
+            planetaryCalculationService.applyRequestDefaults(request);
             
             // Calculate planetary positions
             PlanetaryPositionResponse response = planetaryCalculationService
                     .calculatePlanetaryPositions(request, userId);
             
-            // Save SVG to file using planetary data and get URL
-            String svgUrl = planetaryCalculationService.saveSvgToFile(response);
+            // Store the chart artifact (deduplicated by content hash) and get its URL
+            String svgUrl = planetaryCalculationService.saveChartArtifact(response);
             
             // Add SVG URL to response
             response.setSvgUrl(svgUrl);
@@ -179,4 +185,71 @@ public class KundliController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Kundli HTML report streamed directly to the response
+     * POST /api/kundli/planetary-positions/html
+     *
+     * Request Body: same as /planetary-positions
+     */
+    @PostMapping("/planetary-positions/html")
+    public ResponseEntity<?> streamKundliHtml(@RequestBody PlanetaryPositionRequest request) {
+        if (request.getYear() == null || request.getMonth() == null || request.getDate() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "year, month and date are required"));
+        }
+        planetaryCalculationService.applyRequestDefaults(request);
+        PlanetaryPositionResponse response = planetaryCalculationService
+                .calculatePlanetaryPositions(request, null, false);
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            kundliHtmlRenderer.writeReport(response.getChart(), writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    /**
+     * Calculate Planetary Positions for many birth inputs at once
+     * POST /api/kundli/batch
+     *
+     * Request Body:
+     * {
+     *   "includeHtml": false,
+     *   "items": [ { same fields as /planetary-positions }, ... ]
+     * }
+     *
+     * Response is NDJSON streamed in completion order, one line per item:
+     * {"index":0,"status":"success","data":{...}} or {"index":3,"status":"error","error":"..."}
+     * followed by a {"status":"complete",...} summary line. The stream is cut off after
+     * astro.batch.timeout-ms, which applies to this endpoint only.
+     */
+    @PostMapping("/batch")
+    public WebAsyncTask<ResponseEntity<?>> calculateBatch(@RequestBody KundliBatchRequest request,
+                                                          HttpServletResponse servletResponse) {
+        long timeoutMs = kundliBatchService.getTimeoutMs();
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return new WebAsyncTask<>(timeoutMs, () -> ResponseEntity.badRequest()
+                    .body(Map.of("error", "items are required")));
+        }
+        if (request.getItems().size() > kundliBatchService.getMaxItems()) {
+            return new WebAsyncTask<>(timeoutMs, () -> ResponseEntity.badRequest().body(Map.of("error",
+                    "A batch can contain at most " + kundliBatchService.getMaxItems() + " items")));
+        }
+
+        boolean includeHtml = Boolean.TRUE.equals(request.getIncludeHtml());
+        WebAsyncTask<ResponseEntity<?>> task = new WebAsyncTask<>(timeoutMs, () -> {
+            servletResponse.setContentType("application/x-ndjson");
+            kundliBatchService.streamBatch(request.getItems(), includeHtml, servletResponse.getOutputStream());
+            // Already written; nothing left for Spring to render
+            return null;
+        });
+        task.onTimeout(() -> {
+            // The streaming thread is interrupted and cancels the charts still running
+            log.warn("Kundli batch of {} charts cut off after {} ms", request.getItems().size(), timeoutMs);
+            return null;
+        });
+        return task;
+    }
 }
@@ -3,16 +3,29 @@ package com.astro.backend.Contlorer.Mobile;
 import com.astro.backend.Entity.MobileUserProfile;
 import com.astro.backend.Repositry.MobileUserProfileRepository;
 import com.astro.backend.RequestDTO.PlanetaryPositionRequest;
+import com.astro.backend.ResponseDTO.DashaResponse;
 import com.astro.backend.ResponseDTO.FullKundliResponse;
 import com.astro.backend.ResponseDTO.PlanetaryPositionResponse;
 import com.astro.backend.Services.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/v1/astro-services")
@@ -29,6 +42,19 @@ public class AstroServicesController {
     private final PredictionService predictionService;
     private final PlanetaryCalculationService planetaryCalculationService;
     private final MobileUserProfileRepository mobileUserProfileRepository;
+    private final EphemerisEngine ephemerisEngine;
+    private final NatalChartCache natalChartCache;
+    private final EphemerisInterpolator ephemerisInterpolator;
+    private final RiseSetService riseSetService;
+    private final PanchangRangeService panchangRangeService;
+    private final TransitionEngine transitionEngine;
+    private final MuhuratCalendarService muhuratCalendarService;
+    private final GrahaEventIndex grahaEventIndex;
+    private final HoroscopeCacheService horoscopeCacheService;
+    private final VedicRuleEngine vedicRuleEngine;
+    private final KundliSectionRunner kundliSectionRunner;
+    private final LagnaService lagnaService;
+    private final TodayCacheService todayCacheService;
 
     /**
      * Generate complete birth chart (Kundli) with Planetary Positions and HTML rendering
@@ -55,27 +81,22 @@ public class AstroServicesController {
             double lon = coordinates.longitude();
             double tz = timezone != null ? parseTimezone(timezone) : 5.5;
 
-            FullKundliResponse kundliData = advancedKundliService.generateFullKundli(
-                    lat,
-                    lon,
-                    dob[0],
-                    dob[1],
-                    dob[2],
-                    birthTime,
-                    resolveKundliName(userId, name),
-                    timeOfBirth,
-                    tz
-            );
+            // Natal chart computed once and memoized; the planetary positions and every kundli
+            // section below read it from the natal chart cache and run concurrently; sections still
+            // running when the scope closes (e.g. because the kundli failed) are interrupted
+            FullKundliResponse kundliData;
+            try (KundliSectionRunner.Scope sections = kundliSectionRunner.open()) {
+                advancedKundliService.getNatalChart(lat, lon, dob[0], dob[1], dob[2], birthTime, tz);
 
-            // Add Planetary Positions with HTML rendering
-            try {
+                // Planetary Positions with HTML rendering, at the same birth second as the kundli
+                int birthSeconds = (int) Math.round(birthTime * 3600);
                 PlanetaryPositionRequest planetaryRequest = PlanetaryPositionRequest.builder()
                         .year(dob[2])
                         .month(dob[1])
                         .date(dob[0])
-                        .hours((int) birthTime)
-                        .minutes((int) ((birthTime - (int) birthTime) * 60))
-                        .seconds(0)
+                        .hours(birthSeconds / 3600)
+                        .minutes(birthSeconds % 3600 / 60)
+                        .seconds(birthSeconds % 60)
                         .latitude(lat)
                         .longitude(lon)
                         .timezone(tz)
@@ -84,18 +105,30 @@ public class AstroServicesController {
                                 .ayanamsha("lahiri")
                                 .build())
                         .build();
+                KundliSectionRunner.Section<PlanetaryPositionResponse> planetarySection = sections.fork("planetaryPositions", () -> {
+                    PlanetaryPositionResponse planetaryData = planetaryCalculationService
+                            .calculatePlanetaryPositions(planetaryRequest, userId);
+                    planetaryData.setSvgUrl(planetaryCalculationService.saveChartArtifact(planetaryData));
+                    return planetaryData;
+                });
+
+                kundliData = advancedKundliService.generateFullKundli(
+                        lat,
+                        lon,
+                        dob[0],
+                        dob[1],
+                        dob[2],
+                        birthTime,
+                        resolveKundliName(userId, name),
+                        timeOfBirth,
+                        tz,
+                        parseVargaDivisions(payload.get("vargas")),
+                        sections
+                );
 
-                PlanetaryPositionResponse planetaryData = planetaryCalculationService
-                        .calculatePlanetaryPositions(planetaryRequest, userId);
-
-                String svgUrl = planetaryCalculationService.saveSvgToFile(planetaryData);
-                planetaryData.setSvgUrl(svgUrl);
-
-                kundliData.setPlanetaryPositions(planetaryData);
-                log.info("Planetary positions added to kundli response");
-            } catch (Exception e) {
-                log.warn("Failed to add planetary positions: {}", e.getMessage());
-                // Continue without planetary positions if calculation fails
+                // Continue without planetary positions if calculation fails or times out
+                kundliData.setPlanetaryPositions(sections.join(planetarySection, null));
+                kundliData.setDegradedSections(sections.degraded().isEmpty() ? null : List.copyOf(sections.degraded()));
             }
 
             return ResponseEntity.ok(Map.of(
@@ -198,7 +231,86 @@ public class AstroServicesController {
     }
 
     /**
-     * Get today's Lagna (Ascendant) chart
+     * Evaluate every Vedic astrology rule (placements, lordships, aspects, conjunctions, dignity,
+     * running dasha, current transits and the built-in yogas/doshas) against one birth chart
+     */
+    @PostMapping("/kundli/rules")
+    public ResponseEntity<?> evaluateRules(@RequestBody RuleEvaluationRequest request) {
+        try {
+            if (request == null || request.chart() == null) {
+                throw new IllegalArgumentException("chart is required in request body");
+            }
+            int language = validateLanguage(request.language() != null ? request.language() : PredictionService.ENGLISH);
+            VedicRuleEngine.RuleMatches matches = vedicRuleEngine.evaluate(toRuleChart(request.chart()));
+            List<Map<String, Object>> rules = matches.rules(
+                    request.categories(), language, Boolean.TRUE.equals(request.includeDescriptions()));
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "count", rules.size(),
+                    "data", rules
+            ));
+        } catch (Exception e) {
+            log.error("Error evaluating astrology rules", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Evaluate the rules against many birth charts at once; returns the matched rule codes per chart
+     */
+    @PostMapping("/kundli/rules/batch")
+    public ResponseEntity<?> evaluateRulesBatch(@RequestBody BulkRuleRequest request) {
+        try {
+            if (request == null || request.charts() == null) {
+                throw new IllegalArgumentException("charts are required in request body");
+            }
+            if (request.charts().size() > vedicRuleEngine.getMaxBatchCharts()) {
+                throw new IllegalArgumentException("At most " + vedicRuleEngine.getMaxBatchCharts() + " charts are allowed");
+            }
+            List<RuleChart> charts = new ArrayList<>();
+            for (PersonDetails person : request.charts()) {
+                if (person == null) {
+                    throw new IllegalArgumentException("charts must not contain null entries");
+                }
+                charts.add(toRuleChart(person));
+            }
+            log.info("Evaluating astrology rules for {} charts", charts.size());
+
+            List<VedicRuleEngine.RuleMatches> results = vedicRuleEngine.evaluateAll(charts);
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("index", i);
+                row.put("name", request.charts().get(i).name());
+                row.put("rules", results.get(i).codes(request.categories()));
+                rows.add(row);
+            }
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "charts", rows.size(),
+                    "data", rows
+            ));
+        } catch (Exception e) {
+            log.error("Error evaluating astrology rules in batch", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private RuleChart toRuleChart(PersonDetails person) {
+        int[] dob = parseDate(person.dateOfBirth());
+        double time = parseTimeToHours(person.timeOfBirth());
+        double tz = person.timezone() != null ? parseTimezone(person.timezone()) : 5.5;
+        if (!isValidCoordinatePair(person.latitude(), person.longitude())) {
+            throw new IllegalArgumentException("Latitude and longitude are required and cannot be 0.0");
+        }
+        return advancedKundliService.buildRuleChart(
+                person.latitude(), person.longitude(), dob[0], dob[1], dob[2], time, tz);
+    }
+
+    /**
+     * Get today's Lagna (Ascendant) chart for the user's district centre or grid cell (see computedFor)
      */
     @GetMapping("/lagna/today")
     public ResponseEntity<?> getTodayLagnaChart(
@@ -209,7 +321,7 @@ public class AstroServicesController {
             double longitude = coordinates.longitude();
             log.info("Calculating today's Lagna chart for lat: {}, lon: {}", latitude, longitude);
             
-            var lagnaData = advancedKundliService.calculateTodayLagna(latitude, longitude);
+            var lagnaData = todayCacheService.getTodayLagna(latitude, longitude);
             
             return ResponseEntity.ok(Map.of(
                     "status", "success",
@@ -223,7 +335,45 @@ public class AstroServicesController {
     }
 
     /**
-     * Get today's Panchang
+     * Lagna timetable of a local day: when each lagna rises and sets at the location's grid cell
+     */
+    @GetMapping("/lagna/day")
+    public ResponseEntity<?> getLagnaDay(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) String date,
+            @RequestParam(defaultValue = "Asia/Kolkata") String timezone) {
+        try {
+            Coordinates coordinates = isValidCoordinatePair(latitude, longitude)
+                    ? new Coordinates(latitude, longitude)
+                    : resolveCoordinatesFromProfile(userId);
+            ZoneId zone = ZoneId.of(timezone);
+            LocalDate day = date != null ? LocalDate.parse(date) : LocalDate.now(zone);
+            log.info("Calculating lagna table for {} at lat: {}, lon: {}", day, coordinates.latitude(), coordinates.longitude());
+
+            LagnaService.LagnaTable table = lagnaService.getDayTable(coordinates.latitude(), coordinates.longitude(), day, zone);
+
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("date", day.toString());
+            data.put("timezone", timezone);
+            data.put("latitude", lagnaService.snapToGrid(coordinates.latitude()));
+            data.put("longitude", lagnaService.snapToGrid(coordinates.longitude()));
+            data.put("lagnas", table.toList(zone));
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "message", "Lagna table calculated successfully",
+                    "data", data
+            ));
+        } catch (Exception e) {
+            log.error("Error calculating lagna table", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get today's Panchang at the nearest district centre or grid cell, with that day's rise/set times shared there
      */
     @GetMapping("/panchang/today")
     public ResponseEntity<?> getTodayPanchang(
@@ -234,7 +384,7 @@ public class AstroServicesController {
             double longitude = coordinates.longitude();
             log.info("Calculating today's Panchang for lat: {}, lon: {}", latitude, longitude);
             
-            var panchangData = advancedKundliService.calculateTodayPanchang(latitude, longitude);
+            var panchangData = todayCacheService.getTodayPanchang(latitude, longitude);
             
             return ResponseEntity.ok(Map.of(
                     "status", "success",
@@ -248,21 +398,62 @@ public class AstroServicesController {
     }
 
     /**
-     * Get Dasha calculations
+     * Get Panchang for every day of a date range (e.g. a calendar month), with limb start/end times.
+     * Location is the profile location unless latitude/longitude are given.
+     */
+    @GetMapping("/panchang/range")
+    public ResponseEntity<?> getPanchangRange(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "Asia/Kolkata") String timezone) {
+        try {
+            Coordinates coordinates = isValidCoordinatePair(latitude, longitude)
+                    ? new Coordinates(latitude, longitude)
+                    : resolveCoordinatesFromProfile(userId);
+            log.info("Calculating Panchang range {}..{} for lat: {}, lon: {}",
+                    from, to, coordinates.latitude(), coordinates.longitude());
+
+            var days = panchangRangeService.getRange(coordinates.latitude(), coordinates.longitude(),
+                    LocalDate.parse(from), LocalDate.parse(to), timezone);
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "message", "Panchang range calculated successfully",
+                    "data", days
+            ));
+        } catch (Exception e) {
+            log.error("Error calculating panchang range", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get Dasha calculations. The Vimshottari timeline of a profile (chartId = userId) is stored
+     * when its birth details are saved, so the birth data is only needed for other charts.
      */
     @GetMapping("/dasha/{chartId}")
     public ResponseEntity<?> getDashaCalculations(
             @PathVariable Long chartId,
-            @RequestParam String dateOfBirth,
-            @RequestParam String nakshatra,
+            @RequestParam(required = false) String dateOfBirth,
+            @RequestParam(required = false) String nakshatra,
+            @RequestParam(required = false) Double moonLongitude,
             @RequestParam(defaultValue = "Vimshottari") String dashaType) {
         try {
             log.info("Getting {} dasha for chart: {}", dashaType, chartId);
 
-            LocalDate dob = parseDateToLocalDate(dateOfBirth);
-            var dasha = "Yogini".equalsIgnoreCase(dashaType)
-                ? dashaCalculationService.calculateYoginiDasha(dob, nakshatra)
-                : dashaCalculationService.calculateVimshottariDasha(dob, nakshatra);
+            LocalDate dob = dateOfBirth != null ? parseDateToLocalDate(dateOfBirth) : null;
+            DashaResponse dasha;
+            if ("Yogini".equalsIgnoreCase(dashaType)) {
+                if (dob == null || nakshatra == null) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "dateOfBirth and nakshatra are required"));
+                }
+                dasha = dashaCalculationService.calculateYoginiDasha(dob, nakshatra);
+            } else {
+                dasha = dashaCalculationService.getVimshottariDashaForChart(chartId, dob, nakshatra, moonLongitude);
+            }
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
@@ -274,6 +465,40 @@ public class AstroServicesController {
         }
     }
 
+    /**
+     * Page through Vimshottari periods of one level (1 = mahadasha .. 5 = prana) from a date (default today)
+     */
+    @GetMapping("/dasha/{chartId}/periods")
+    public ResponseEntity<?> getDashaPeriods(
+            @PathVariable Long chartId,
+            @RequestParam(required = false) String dateOfBirth,
+            @RequestParam(required = false) String nakshatra,
+            @RequestParam(required = false) Double moonLongitude,
+            @RequestParam(defaultValue = "3") int level,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "Asia/Kolkata") String timezone) {
+        try {
+            LocalDate dob = dateOfBirth != null ? parseDateToLocalDate(dateOfBirth) : null;
+            var periods = dashaCalculationService.getVimshottariPeriods(
+                    dashaCalculationService.loadVimshottariTimeline(chartId, dob, nakshatra, moonLongitude),
+                    level,
+                    from != null ? LocalDate.parse(from) : null,
+                    Math.max(0, offset),
+                    Math.max(1, Math.min(limit, 500)),
+                    ZoneId.of(timezone));
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "data", periods
+            ));
+        } catch (Exception e) {
+            log.error("Error getting dasha periods", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get Yogini Dasha
      */
@@ -398,20 +623,15 @@ int[] groomDob = parseDate(groom.dateOfBirth());
                     brideTz
                 );
 
-                Map<String, Integer> groomGunas = compatibilityService.buildGunasFromChart(
+                var compatibility = compatibilityService.calculateGunMilan(
                     groomChart.getMoonSign(),
                     groomChart.getNakshatra(),
-                    isPresent(groomChart.getMangalDosha())
-                );
-
-                Map<String, Integer> brideGunas = compatibilityService.buildGunasFromChart(
+                    isPresent(groomChart.getMangalDosha()),
                     brideChart.getMoonSign(),
                     brideChart.getNakshatra(),
                     isPresent(brideChart.getMangalDosha())
                 );
 
-                var compatibility = compatibilityService.calculateGunMilan(groomGunas, brideGunas);
-
                 return ResponseEntity.ok(Map.of(
                     "status", "success",
                     "groom", Map.of(
@@ -436,6 +656,51 @@ int[] groomDob = parseDate(groom.dateOfBirth());
             }
             }
 
+    /**
+     * Score one chart against many candidates (Moon sign, nakshatra, Mangal dosha each) and
+     * return the best topK by total guna with their dosha flags.
+     */
+    @PostMapping("/compatibility/bulk-match")
+    public ResponseEntity<?> bulkMatch(@RequestBody BulkMatchRequest request) {
+        try {
+            if (request == null || request.chart() == null || request.candidates() == null) {
+                throw new IllegalArgumentException("chart and candidates are required in request body");
+            }
+            int chart = CompatibilityMatchingService.encodeChart(
+                    request.chart().moonSign(),
+                    request.chart().nakshatra(),
+                    Boolean.TRUE.equals(request.chart().mangalDosha()));
+            List<MatchChart> candidates = request.candidates();
+            int[] encoded = new int[candidates.size()];
+            for (int i = 0; i < encoded.length; i++) {
+                MatchChart candidate = candidates.get(i);
+                encoded[i] = candidate == null ? 0 : CompatibilityMatchingService.encodeChart(
+                        candidate.moonSign(), candidate.nakshatra(), Boolean.TRUE.equals(candidate.mangalDosha()));
+            }
+            int topK = request.topK() != null ? request.topK() : 20;
+            log.info("Bulk matching against {} candidates (top {})", encoded.length, topK);
+
+            List<Map<String, Object>> matches = new ArrayList<>();
+            for (var match : compatibilityService.findTopMatches(chart, encoded, topK)) {
+                MatchChart candidate = candidates.get(match.index());
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", candidate != null ? candidate.id() : null);
+                row.put("index", match.index());
+                row.put("compatibility", match.compatibility());
+                matches.add(row);
+            }
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "candidates", encoded.length,
+                    "data", matches
+            ));
+        } catch (Exception e) {
+            log.error("Error in bulk compatibility match", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get remedy suggestions for a chart
      */
@@ -482,6 +747,35 @@ int[] groomDob = parseDate(groom.dateOfBirth());
         ) {
         }
 
+    public record BulkMatchRequest(
+            MatchChart chart,
+            List<MatchChart> candidates,
+            Integer topK
+    ) {
+    }
+
+    public record RuleEvaluationRequest(
+            PersonDetails chart,
+            List<String> categories,
+            Integer language,
+            Boolean includeDescriptions
+    ) {
+    }
+
+    public record BulkRuleRequest(
+            List<PersonDetails> charts,
+            List<String> categories
+    ) {
+    }
+
+    public record MatchChart(
+            String id,
+            String moonSign,
+            String nakshatra,
+            Boolean mangalDosha
+    ) {
+    }
+
     public record RemedyRequest(
             Map<String, Boolean> doshas,
             Map<String, String> planets
@@ -494,12 +788,19 @@ int[] groomDob = parseDate(groom.dateOfBirth());
     @GetMapping("/muhurat/find")
     public ResponseEntity<?> findMuhurat(
             @RequestParam String eventType,
-            @RequestParam(defaultValue = "30") int durationDays) {
+            @RequestParam(defaultValue = "30") int durationDays,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude) {
         try {
             log.info("Finding muhurat for event: {}", eventType);
-            
+            if (durationDays < 1 || durationDays > 366) {
+                throw new IllegalArgumentException("durationDays must be between 1 and 366");
+            }
+
             LocalDate startDate = LocalDate.now().plusDays(1);
-            var muhurats = muhuratService.findAuspiciousMuhurat(eventType, startDate, durationDays);
+            var muhurats = isValidCoordinatePair(latitude, longitude)
+                    ? muhuratService.findAuspiciousMuhurat(eventType, startDate, durationDays, latitude, longitude)
+                    : muhuratService.findAuspiciousMuhurat(eventType, startDate, durationDays);
             
             return ResponseEntity.ok(Map.of(
                     "status", "success",
@@ -519,18 +820,21 @@ int[] groomDob = parseDate(groom.dateOfBirth());
     public ResponseEntity<?> getMonthlyMuhurat(
             @RequestParam(defaultValue = "Marriage") String eventType,
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) Integer year) {
+            @RequestParam(required = false) Integer year,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            LocalDate now = LocalDate.now();
+            ZoneId zone = muhuratCalendarService.zone();
+            LocalDate now = LocalDate.now(zone);
             int targetMonth = month != null ? month : now.getMonthValue();
             int targetYear = year != null ? year : now.getYear();
-            LocalDate monthStart = LocalDate.of(targetYear, targetMonth, 1);
-            var monthlyData = muhuratService.getMonthlyAuspiciousDates(monthStart, eventType);
-            
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "data", monthlyData
-            ));
+            var calendar = muhuratCalendarService.getMonthlyCalendar(eventType, YearMonth.of(targetYear, targetMonth));
+
+            return cachedResponse(calendar.etag(), ifNoneMatch, ok -> ok
+                    .lastModified(calendar.computedAt().atZone(zone))
+                    .body(Map.of(
+                            "status", "success",
+                            "data", calendar.data()
+                    )));
         } catch (Exception e) {
             log.error("Error getting monthly muhurat", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -538,22 +842,45 @@ int[] groomDob = parseDate(groom.dateOfBirth());
     }
 
     /**
-     * Get daily horoscope
+     * Divisional charts requested as "all" or a list such as [2, 9, 60]; none when absent
+     */
+    private static List<Integer> parseVargaDivisions(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if ("all".equalsIgnoreCase(value.toString().trim())) {
+            return Arrays.stream(VargaEngine.DIVISIONS).boxed().toList();
+        }
+        if (!(value instanceof List<?> list)) {
+            throw new IllegalArgumentException("vargas must be \"all\" or a list of divisions");
+        }
+        List<Integer> divisions = new ArrayList<>();
+        for (Object item : list) {
+            int division = Integer.parseInt(item.toString().trim());
+            if (Arrays.stream(VargaEngine.DIVISIONS).noneMatch(d -> d == division)) {
+                throw new IllegalArgumentException("Unsupported divisional chart: D" + division);
+            }
+            divisions.add(division);
+        }
+        return divisions;
+    }
+
+    /**
+     * Get daily horoscope (language 1 = English, 2 = Hindi), served pre-rendered with an ETag
      */
     @GetMapping("/prediction/daily-horoscope")
     public ResponseEntity<?> getDailyHoroscope(
             @RequestParam String sunSign,
-            @RequestParam(required = false) String date) {
+            @RequestParam(required = false) String date,
+            @RequestParam(defaultValue = "1") int language,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             log.info("Getting daily horoscope for sign: {}", sunSign);
             
-            LocalDate checkDate = date != null ? LocalDate.parse(date) : LocalDate.now();
-            var horoscope = predictionService.generateDailyHoroscope(sunSign, checkDate);
+            LocalDate checkDate = date != null ? LocalDate.parse(date) : horoscopeCacheService.today();
+            var horoscope = horoscopeCacheService.getDaily(sunSign, checkDate, validateLanguage(language));
             
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "horoscope", horoscope
-            ));
+            return horoscopeResponse(horoscope, ifNoneMatch);
         } catch (Exception e) {
             log.error("Error getting daily horoscope", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -565,17 +892,16 @@ int[] groomDob = parseDate(groom.dateOfBirth());
      */
     @GetMapping("/prediction/weekly-horoscope")
     public ResponseEntity<?> getWeeklyHoroscope(
-            @RequestParam String sunSign) {
+            @RequestParam String sunSign,
+            @RequestParam(defaultValue = "1") int language,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             log.info("Getting weekly horoscope for sign: {}", sunSign);
             
-            LocalDate weekStart = LocalDate.now();
-            var horoscope = predictionService.generateWeeklyHoroscope(sunSign, weekStart);
+            LocalDate weekStart = horoscopeCacheService.today();
+            var horoscope = horoscopeCacheService.getWeekly(sunSign, weekStart, validateLanguage(language));
             
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "horoscope", horoscope
-            ));
+            return horoscopeResponse(horoscope, ifNoneMatch);
         } catch (Exception e) {
             log.error("Error getting weekly horoscope", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -589,37 +915,75 @@ int[] groomDob = parseDate(groom.dateOfBirth());
     public ResponseEntity<?> getMonthlyHoroscope(
             @RequestParam String sunSign,
             @RequestParam(defaultValue = "1") int month,
-            @RequestParam(defaultValue = "2024") int year) {
+            @RequestParam(defaultValue = "2024") int year,
+            @RequestParam(defaultValue = "1") int language,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             log.info("Getting monthly horoscope for sign: {}", sunSign);
             
-            var horoscope = predictionService.generateMonthlyHoroscope(sunSign, month, year);
+            var horoscope = horoscopeCacheService.getMonthly(sunSign, YearMonth.of(year, month), validateLanguage(language));
             
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "horoscope", horoscope
-            ));
+            return horoscopeResponse(horoscope, ifNoneMatch);
         } catch (Exception e) {
             log.error("Error getting monthly horoscope", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    private static int validateLanguage(int language) {
+        if (!HoroscopeCacheService.LANGUAGES.contains(language)) {
+            throw new RuntimeException("Invalid language value. Use 1 for English, 2 for Hindi");
+        }
+        return language;
+    }
+
+    /**
+     * Pre-rendered horoscope body, or 304 when the client already has it.
+     */
+    private static ResponseEntity<?> horoscopeResponse(HoroscopeCacheService.Entry horoscope, String ifNoneMatch) {
+        return cachedResponse(horoscope.etag(), ifNoneMatch, ok -> ok
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(horoscope.body()));
+    }
+
+    /**
+     * 304 when If-None-Match already names this ETag, else the body built on a 200 that carries
+     * the ETag and an hour of public caching.
+     */
+    private static ResponseEntity<?> cachedResponse(String etag, String ifNoneMatch,
+                                                    Function<ResponseEntity.BodyBuilder, ResponseEntity<?>> body) {
+        String quoted = "\"" + etag + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+        if (ifNoneMatch != null && ifNoneMatch.contains(quoted)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(quoted).cacheControl(cacheControl).build();
+        }
+        return body.apply(ResponseEntity.ok().eTag(quoted).cacheControl(cacheControl));
+    }
+
     /**
      * Get transit analysis
      */
     @GetMapping("/prediction/transit-analysis")
     public ResponseEntity<?> getTransitAnalysis(
             @RequestParam(required = false) String birthChart,
-            @RequestParam(required = false) String moonSign) {
+            @RequestParam(required = false) String moonSign,
+            @RequestParam(required = false) String dateOfBirth,
+            @RequestParam(required = false) String timeOfBirth,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) String timezone) {
         try {
             String chartReference = birthChart;
             if (chartReference == null || chartReference.isBlank()) {
                 chartReference = (moonSign != null && !moonSign.isBlank()) ? moonSign : "General";
             }
             log.info("Getting transit analysis for chart: {}", chartReference);
-            
-            var transit = predictionService.getTransitAnalysis(chartReference, LocalDate.now());
+
+            // Birth details, when given, weigh the transits by the native's Ashtakavarga
+            AshtakavargaEngine.Ashtakavarga ashtakavarga = dateOfBirth != null && !dateOfBirth.isBlank()
+                    ? calculateAshtakavarga(new PersonDetails(null, dateOfBirth, timeOfBirth, latitude, longitude, timezone))
+                    : null;
+            var transit = predictionService.getTransitAnalysis(chartReference, LocalDate.now(), ashtakavarga);
             
             return ResponseEntity.ok(Map.of(
                     "status", "success",
@@ -631,6 +995,46 @@ int[] groomDob = parseDate(groom.dateOfBirth());
         }
     }
 
+    /**
+     * Ashtakavarga transit score of a birth chart for each day from a date (default today)
+     */
+    @GetMapping("/prediction/transit-scores")
+    public ResponseEntity<?> getTransitScores(
+            @RequestParam String dateOfBirth,
+            @RequestParam String timeOfBirth,
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false) String timezone,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "30") int days) {
+        try {
+            AshtakavargaEngine.Ashtakavarga ashtakavarga = calculateAshtakavarga(
+                    new PersonDetails(null, dateOfBirth, timeOfBirth, latitude, longitude, timezone));
+            LocalDate start = from != null && !from.isBlank() ? LocalDate.parse(from) : LocalDate.now();
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "success",
+                    "from", start.toString(),
+                    "days", days,
+                    "data", predictionService.getTransitScores(ashtakavarga, start, days)
+            ));
+        } catch (Exception e) {
+            log.error("Error getting transit scores", e);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private AshtakavargaEngine.Ashtakavarga calculateAshtakavarga(PersonDetails person) {
+        int[] dob = parseDate(person.dateOfBirth());
+        double time = parseTimeToHours(person.timeOfBirth());
+        double tz = person.timezone() != null ? parseTimezone(person.timezone()) : 5.5;
+        if (!isValidCoordinatePair(person.latitude(), person.longitude())) {
+            throw new IllegalArgumentException("Latitude and longitude are required and cannot be 0.0");
+        }
+        return advancedKundliService.calculateAshtakavarga(
+                person.latitude(), person.longitude(), dob[0], dob[1], dob[2], time, tz);
+    }
+
     /**
      * Get Sade Sati analysis
      */
@@ -673,6 +1077,27 @@ int[] groomDob = parseDate(groom.dateOfBirth());
         }
     }
 
+    /**
+     * Ephemeris pool ("data") and cache/index metrics, one entry per service keyed as below
+     */
+    @GetMapping("/ephemeris/metrics")
+    public ResponseEntity<?> getEphemerisMetrics() {
+        return ResponseEntity.ok(Map.ofEntries(
+                Map.entry("status", "success"),
+                Map.entry("data", ephemerisEngine.getMetrics()),
+                Map.entry("chartCache", natalChartCache.getMetrics()),
+                Map.entry("interpolation", ephemerisInterpolator.getMetrics()),
+                Map.entry("riseSetCache", riseSetService.getMetrics()),
+                Map.entry("lagnaCache", lagnaService.getMetrics()),
+                Map.entry("todayCache", todayCacheService.getMetrics()),
+                Map.entry("transitions", transitionEngine.getMetrics()),
+                Map.entry("muhuratCalendar", muhuratCalendarService.getMetrics()),
+                Map.entry("grahaEvents", grahaEventIndex.getMetrics()),
+                Map.entry("horoscopeCache", horoscopeCacheService.getMetrics()),
+                Map.entry("rules", vedicRuleEngine.getMetrics())
+        ));
+    }
+
     /**
      * Health check for astrology module
      */
@@ -8,7 +8,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "dasha_calculations")
+@Table(name = "dasha_calculations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_dasha_calculations_chart_type",
+                columnNames = {"birth_chart_id", "dasha_type"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -43,7 +45,7 @@ public class DashaCalculation {
     private LocalDate pratyantardashaEnd;
 
     @Column(columnDefinition = "TEXT")
-    private String dashaTimeline;  // JSON array of all dasha periods
+    private String dashaTimeline;  // Serialized VimshottariTimeline (Base64 of version, birth epoch day, Moon longitude)
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,51 @@
+package com.astro.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed monthly muhurat calendar for one event type at the configured muhurat location.
+ */
+@Entity
+@Table(
+        name = "muhurat_calendar",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_muhurat_calendar_event_month",
+                        columnNames = {"event_type", "calendar_year", "calendar_month"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MuhuratCalendar {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "calendar_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "calendar_month", nullable = false)
+    private Integer month;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;  // JSON of the monthly result
+
+    @Column(nullable = false)
+    private String etag;  // SHA-256 of the payload
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
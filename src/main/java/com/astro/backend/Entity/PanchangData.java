@@ -8,7 +8,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "panchang_data")
+@Table(name = "panchang_data",
+        uniqueConstraints = @UniqueConstraint(name = "uk_panchang_data_cell_day",
+                columnNames = {"lat_cell", "lon_cell", "timezone", "date"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,18 +25,40 @@ public class PanchangData {
     @Column(nullable = false)
     private LocalDate date;
 
+    private Integer latCell;  // Rise/set grid cell the day was computed for (index in astro.rise-set.grid-degrees)
+
+    private Integer lonCell;
+
+    private String timezone;
+
+    private String vara;
+
+    private String paksha;
+
     private String tithi;  // Lunar day
 
+    private Double tithiStartTime;  // Julian day (UT) the tithi prevailing at sunrise began
+
     private Double tithiEndTime;  // When current tithi ends
 
     private String nakshatra;  // Star position
 
+    private Double nakshatraStartTime;
+
     private Double nakshatraEndTime;
 
     private String yoga;  // Auspicious combination
 
+    private Double yogaStartTime;
+
+    private Double yogaEndTime;
+
     private String karana;  // Half tithi
 
+    private Double karanaStartTime;
+
+    private Double karanaEndTime;
+
     private String rahu_kaal_start;  // Inauspicious time period
 
     private String rahu_kaal_end;
@@ -13,6 +13,67 @@ public class AstrologyHelper {
         return nakList[idx % 27];
     }
 
+    private static final String[] rashiList = {
+            "Aries", "Taurus", "Gemini", "Cancer", "Leo", "Virgo",
+            "Libra", "Scorpio", "Sagittarius", "Capricorn", "Aquarius", "Pisces"
+    };
+
+    public static String getRashiByIndex(int idx) {
+        return rashiList[idx % 12];
+    }
+
+    private static final String[] tithiList = {
+            "Pratipada", "Dwitiya", "Tritiya", "Chaturthi", "Panchami",
+            "Shashthi", "Saptami", "Ashtami", "Navami", "Dashami",
+            "Ekadashi", "Dwadashi", "Trayodashi", "Chaturdashi", "Purnima",
+            "Pratipada", "Dwitiya", "Tritiya", "Chaturthi", "Panchami",
+            "Shashthi", "Saptami", "Ashtami", "Navami", "Dashami",
+            "Ekadashi", "Dwadashi", "Trayodashi", "Chaturdashi", "Amavasya"
+    };
+
+    private static final String[] yogaList = {
+            "Vishkambha", "Priti", "Ayushman", "Saubhagya", "Shobhana",
+            "Atiganda", "Sukarman", "Dhriti", "Shula", "Ganda",
+            "Vriddhi", "Dhruva", "Vyaghata", "Harshana", "Vajra",
+            "Siddhi", "Vyatipata", "Variyan", "Parigha", "Shiva",
+            "Siddha", "Sadhya", "Shubha", "Shukla", "Brahma",
+            "Indra", "Vaidhriti"
+    };
+
+    private static final String[] movableKaranas = {
+            "Bava", "Balava", "Kaulava", "Taitila", "Gara", "Vanija", "Vishti"
+    };
+
+    /**
+     * Tithi name by index 0..29 (0..14 Shukla paksha, 15..29 Krishna paksha)
+     */
+    public static String getTithiByIndex(int idx) {
+        return tithiList[idx % 30];
+    }
+
+    public static String getPakshaByTithiIndex(int idx) {
+        return idx % 30 < 15 ? "Shukla" : "Krishna";
+    }
+
+    public static String getYogaByIndex(int idx) {
+        return yogaList[idx % 27];
+    }
+
+    /**
+     * Karana name by index 0..59 (half-tithis of the lunar month):
+     * 0 Kimstughna, 1..56 the seven movable karanas in rotation, 57..59 Shakuni, Chatushpada, Naga
+     */
+    public static String getKaranaByIndex(int idx) {
+        int k = idx % 60;
+        if (k == 0) {
+            return "Kimstughna";
+        }
+        if (k >= 57) {
+            return k == 57 ? "Shakuni" : k == 58 ? "Chatushpada" : "Naga";
+        }
+        return movableKaranas[(k - 1) % 7];
+    }
+
     // ===== UTILITY METHODS =====
 
     /**
@@ -2,8 +2,12 @@ package com.astro.backend.Repositry;
 
 import com.astro.backend.Entity.DashaCalculation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +15,31 @@ import java.util.Optional;
 public interface DashaCalculationRepository extends JpaRepository<DashaCalculation, Long> {
     List<DashaCalculation> findByBirthChartId(Long birthChartId);
     Optional<DashaCalculation> findByBirthChartIdAndDashaType(Long birthChartId, String dashaType);
+
+    @Modifying
+    @Query(
+            value = """
+                    INSERT INTO dasha_calculations
+                        (birth_chart_id, dasha_type, mahadasha_lord, mahadasha_start, mahadasha_end,
+                         mahadasha_years, dasha_timeline, is_active, created_at)
+                    VALUES (:birthChartId, :dashaType, :mahadashaLord, :mahadashaStart, :mahadashaEnd,
+                            :mahadashaYears, :dashaTimeline, 1, NOW())
+                    ON DUPLICATE KEY UPDATE
+                        mahadasha_lord = VALUES(mahadasha_lord),
+                        mahadasha_start = VALUES(mahadasha_start),
+                        mahadasha_end = VALUES(mahadasha_end),
+                        mahadasha_years = VALUES(mahadasha_years),
+                        dasha_timeline = VALUES(dasha_timeline),
+                        is_active = 1,
+                        updated_at = NOW()
+                    """,
+            nativeQuery = true
+    )
+    int upsertTimeline(@Param("birthChartId") Long birthChartId,
+                       @Param("dashaType") String dashaType,
+                       @Param("mahadashaLord") String mahadashaLord,
+                       @Param("mahadashaStart") LocalDate mahadashaStart,
+                       @Param("mahadashaEnd") LocalDate mahadashaEnd,
+                       @Param("mahadashaYears") Integer mahadashaYears,
+                       @Param("dashaTimeline") String dashaTimeline);
 }
@@ -1,9 +1,12 @@
 package com.astro.backend.Repositry;
 
 import com.astro.backend.Entity.MobileUserProfile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -40,4 +43,11 @@ public interface MobileUserProfileRepository extends JpaRepository<MobileUserPro
      * Delete by user ID
      */
     void deleteByUserId(Long userId);
+
+    /**
+     * District IDs ordered by how many profiles are in them, most first
+     */
+    @Query("SELECT p.districtMasterId FROM MobileUserProfile p WHERE p.districtMasterId IS NOT NULL " +
+           "GROUP BY p.districtMasterId ORDER BY COUNT(p) DESC")
+    List<Long> findTopDistrictIds(Pageable pageable);
 }
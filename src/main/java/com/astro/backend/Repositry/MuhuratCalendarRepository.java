@@ -0,0 +1,15 @@
+package com.astro.backend.Repositry;
+
+import com.astro.backend.Entity.MuhuratCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MuhuratCalendarRepository extends JpaRepository<MuhuratCalendar, Long> {
+    Optional<MuhuratCalendar> findByEventTypeAndYearAndMonth(String eventType, Integer year, Integer month);
+
+    List<MuhuratCalendar> findByYearGreaterThanEqual(Integer year);
+}
@@ -5,9 +5,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PanchangDataRepository extends JpaRepository<PanchangData, Long> {
     Optional<PanchangData> findByDate(LocalDate date);
+
+    List<PanchangData> findByLatCellAndLonCellAndTimezoneAndDateBetweenOrderByDateAsc(
+            Integer latCell, Integer lonCell, String timezone, LocalDate from, LocalDate to);
 }
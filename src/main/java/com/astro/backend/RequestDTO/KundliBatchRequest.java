@@ -0,0 +1,17 @@
+package com.astro.backend.RequestDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KundliBatchRequest {
+    private List<PlanetaryPositionRequest> items;
+    private Boolean includeHtml;   // HTML report per chart is skipped unless true
+}
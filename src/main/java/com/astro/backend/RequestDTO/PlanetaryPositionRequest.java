@@ -27,6 +27,7 @@ public class PlanetaryPositionRequest {
     public static class Config {
         private String observationPoint;  // "topocentric" or "geocentric"
         private String ayanamsha;         // "lahiri", etc.
+        private String houseSystem;       // "P" (Placidus, default), "W" (whole sign), etc.
     }
     
     private Config config;
@@ -28,6 +28,10 @@ public class DashaResponse {
     private String pratyantarStartDate;
     private String pratyantarEndDate;
 
+    private String currentSookshma;
+    private String sookshmaStartDate;
+    private String sookshmaEndDate;
+
     private String mahadashaSignification;  // What this dasha period represents
     private String upcomingChanges;  // What's coming next
     private String remedyAdvice;
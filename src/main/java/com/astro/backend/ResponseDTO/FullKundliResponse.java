@@ -1,5 +1,6 @@
 package com.astro.backend.ResponseDTO;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +39,13 @@ public class FullKundliResponse {
     private String navamsaChart;  // D9 chart JSON
     @ToString.Exclude
     private String dashamsa;  // D10 chart JSON
+    @ToString.Exclude
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, String>> divisionalCharts;  // "D2".."D60" -> point -> sign, only when requested
+
+    // Ashtakavarga
+    @ToString.Exclude
+    private Map<String, Object> ashtakavarga;  // bhinnashtakavarga (graha -> sign -> bindus), sarvashtakavarga, totals
 
     // Panchang
     @ToString.Exclude
@@ -75,6 +83,10 @@ public class FullKundliResponse {
     @ToString.Exclude
     private PlanetaryPositionResponse planetaryPositions;
 
+    // Sections left empty because they failed or timed out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> degradedSections;
+
     @Getter
     @Setter
     @NoArgsConstructor
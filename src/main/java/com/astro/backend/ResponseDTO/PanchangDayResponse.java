@@ -0,0 +1,38 @@
+package com.astro.backend.ResponseDTO;
+
+import lombok.*;
+
+/**
+ * One day of a Panchang range. Each limb is the one prevailing at sunrise, with the
+ * ISO-8601 start and end instants of that limb in the requested zone.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PanchangDayResponse {
+    private String date;
+    private String vara;
+    private String paksha;
+    private String tithi;
+    private String tithiStart;
+    private String tithiEnd;
+    private String nakshatra;
+    private String nakshatraStart;
+    private String nakshatraEnd;
+    private String yoga;
+    private String yogaStart;
+    private String yogaEnd;
+    private String karana;
+    private String karanaStart;
+    private String karanaEnd;
+    private String sunrise;
+    private String sunset;
+    private String moonrise;
+    private String moonset;
+    private String rahuKaalStart;
+    private String rahuKaalEnd;
+    private String yamagandamStart;
+    private String yamagandamEnd;
+}
@@ -9,10 +9,18 @@ import lombok.*;
 @Builder
 public class PanchangResponse {
     private String tithi;
+    private String tithiStart;
+    private String tithiEnd;
     private String vara;
     private String nakshatra;
+    private String nakshatraStart;
+    private String nakshatraEnd;
     private String yoga;
+    private String yogaEnd;
     private String karana;
+    private String karanaEnd;
     private String sunrise;
     private String sunset;
+    private String moonrise;
+    private String moonset;
 }
@@ -0,0 +1,54 @@
+package com.astro.backend.ResponseDTO;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Typed result of a planetary position calculation (rasi, navamsha and transit).
+ * Serialized in the legacy nested "output" JSON shape by {@link PlanetaryChartJsonSerializer}.
+ */
+@JsonSerialize(using = PlanetaryChartJsonSerializer.class)
+public record PlanetaryChart(
+        double ascendant,               // sidereal longitude of the lagna
+        int ascendantSign,              // 1..12
+        int navamshaAscendantSign,      // 1..12
+        int navamshaAscendantDegree,    // 0..29
+        double ayanamsa,
+        String ayanamsaName,
+        String observationPoint,
+        Graha[] natal,                  // Sun, Moon, Mars, Mercury, Jupiter, Venus, Saturn, Rahu, Ketu, Uranus, Neptune, Pluto
+        Graha[] transit                 // same order; house is counted from the natal ascendant
+) {
+
+    public double ascendantNormDegree() {
+        return ascendant % 30;
+    }
+
+    /**
+     * Natal graha by name, or null.
+     */
+    public Graha natal(String name) {
+        for (Graha graha : natal) {
+            if (graha.name().equals(name)) {
+                return graha;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One graha; navamsha fields are 0 for transit entries.
+     */
+    public record Graha(
+            String name,
+            double longitude,
+            double speed,
+            int sign,                   // 1..12
+            double normDegree,          // degree within sign
+            boolean retro,
+            int house,                  // 1..12
+            int navamshaSign,
+            int navamshaDegree,
+            int navamshaHouse
+    ) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.astro.backend.ResponseDTO;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PlanetaryChart} straight to the generator in the legacy
+ * {@code output: [{kundli: [indexed, named], navamsha: [...], transit: [...]}]} shape,
+ * without building intermediate maps.
+ */
+public class PlanetaryChartJsonSerializer extends StdSerializer<PlanetaryChart> {
+
+    public PlanetaryChartJsonSerializer() {
+        super(PlanetaryChart.class);
+    }
+
+    @Override
+    public void serialize(PlanetaryChart chart, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray();
+        gen.writeStartObject();
+
+        gen.writeArrayFieldStart("kundli");
+        writeKundliIndexed(chart, gen);
+        writeKundliNamed(chart, gen);
+        gen.writeEndArray();
+
+        gen.writeArrayFieldStart("navamsha");
+        writeNavamsha(chart, gen, true);
+        writeNavamsha(chart, gen, false);
+        gen.writeEndArray();
+
+        gen.writeArrayFieldStart("transit");
+        writeTransit(chart, gen, true);
+        writeTransit(chart, gen, false);
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+        gen.writeEndArray();
+    }
+
+    private void writeKundliIndexed(PlanetaryChart chart, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeObjectFieldStart("0");
+        gen.writeStringField("name", "Ascendant");
+        gen.writeNumberField("fullDegree", chart.ascendant());
+        gen.writeNumberField("normDegree", chart.ascendantNormDegree());
+        gen.writeStringField("isRetro", "false");
+        gen.writeNumberField("current_sign", chart.ascendantSign());
+        gen.writeEndObject();
+
+        PlanetaryChart.Graha[] natal = chart.natal();
+        for (int i = 0; i < natal.length; i++) {
+            PlanetaryChart.Graha graha = natal[i];
+            // Legacy indexing: Ketu shares key "9" with Uranus, which overwrote it,
+            // so Ketu only appears in the named map
+            if ("Ketu".equals(graha.name())) {
+                continue;
+            }
+            gen.writeObjectFieldStart(String.valueOf(i < 8 ? i + 1 : i));
+            gen.writeStringField("name", graha.name());
+            gen.writeNumberField("fullDegree", graha.longitude());
+            gen.writeNumberField("normDegree", graha.normDegree());
+            gen.writeStringField("isRetro", String.valueOf(graha.retro()));
+            gen.writeNumberField("current_sign", graha.sign());
+            gen.writeNumberField("house_number", graha.house());
+            gen.writeNumberField("navamsha_sign", graha.navamshaSign());
+            gen.writeNumberField("navamsha_degree", graha.navamshaDegree());
+            gen.writeEndObject();
+        }
+
+        writeAyanamsaAndDebug(chart, gen);
+        gen.writeEndObject();
+    }
+
+    private void writeKundliNamed(PlanetaryChart chart, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeObjectFieldStart("Ascendant");
+        gen.writeNumberField("current_sign", chart.ascendantSign());
+        gen.writeNumberField("fullDegree", chart.ascendant());
+        gen.writeNumberField("normDegree", chart.ascendantNormDegree());
+        gen.writeStringField("isRetro", "false");
+        gen.writeEndObject();
+
+        for (PlanetaryChart.Graha graha : chart.natal()) {
+            gen.writeObjectFieldStart(graha.name());
+            gen.writeNumberField("current_sign", graha.sign());
+            gen.writeNumberField("house_number", graha.house());
+            gen.writeNumberField("fullDegree", graha.longitude());
+            gen.writeNumberField("normDegree", graha.normDegree());
+            gen.writeStringField("isRetro", String.valueOf(graha.retro()));
+            gen.writeNumberField("navamsha_sign", graha.navamshaSign());
+            gen.writeNumberField("navamsha_degree", graha.navamshaDegree());
+            gen.writeEndObject();
+        }
+
+        gen.writeEndObject();
+    }
+
+    private void writeNavamsha(PlanetaryChart chart, JsonGenerator gen, boolean indexed) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeObjectFieldStart(indexed ? "0" : "Ascendant");
+        if (indexed) {
+            gen.writeStringField("name", "Ascendant");
+        }
+        gen.writeNumberField("navamsha_sign", chart.navamshaAscendantSign());
+        gen.writeNumberField("navamsha_degree", chart.navamshaAscendantDegree());
+        gen.writeEndObject();
+
+        for (PlanetaryChart.Graha graha : chart.natal()) {
+            gen.writeObjectFieldStart(graha.name());
+            if (indexed) {
+                gen.writeStringField("name", graha.name());
+            }
+            gen.writeNumberField("navamsha_sign", graha.navamshaSign());
+            gen.writeNumberField("navamsha_degree", graha.navamshaDegree());
+            gen.writeNumberField("navamsha_house", graha.navamshaHouse());
+            gen.writeStringField("isRetro", String.valueOf(graha.retro()));
+            gen.writeEndObject();
+        }
+
+        if (indexed) {
+            writeAyanamsaAndDebug(chart, gen);
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeTransit(PlanetaryChart chart, JsonGenerator gen, boolean indexed) throws IOException {
+        gen.writeStartObject();
+
+        for (PlanetaryChart.Graha graha : chart.transit()) {
+            gen.writeObjectFieldStart(graha.name());
+            gen.writeStringField("name", graha.name());
+            gen.writeNumberField("current_sign", graha.sign());
+            gen.writeNumberField("fullDegree", graha.longitude());
+            gen.writeNumberField("normDegree", graha.normDegree());
+            gen.writeNumberField("transit_house", graha.house());
+            gen.writeStringField("isRetro", String.valueOf(graha.retro()));
+            gen.writeEndObject();
+        }
+
+        gen.writeObjectFieldStart("Ascendant");
+        gen.writeStringField("name", "Ascendant");
+        gen.writeNumberField("current_sign", chart.ascendantSign());
+        gen.writeNumberField("fullDegree", chart.ascendant());
+        gen.writeNumberField("transit_house", 1);
+        gen.writeEndObject();
+
+        if (indexed) {
+            writeAyanamsaAndDebug(chart, gen);
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeAyanamsaAndDebug(PlanetaryChart chart, JsonGenerator gen) throws IOException {
+        gen.writeObjectFieldStart("13");
+        gen.writeStringField("name", "ayanamsa");
+        gen.writeNumberField("value", chart.ayanamsa());
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("debug");
+        gen.writeStringField("observation_point", chart.observationPoint());
+        gen.writeStringField("ayanamsa", chart.ayanamsaName());
+        gen.writeEndObject();
+    }
+}
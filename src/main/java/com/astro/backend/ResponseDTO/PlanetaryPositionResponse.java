@@ -1,11 +1,11 @@
 package com.astro.backend.ResponseDTO;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
 import java.util.Map;
 
 @Data
@@ -15,7 +15,8 @@ import java.util.Map;
 public class PlanetaryPositionResponse {
     private Integer statusCode;
     private InputData input;
-    private List<Map<String, Object>> output;
+    @JsonProperty("output")
+    private PlanetaryChart chart;
     private Long chartId;  // Database record ID
     private String svgUrl;  // URL to access the saved SVG file
     private String htmlContent;  // HTML content for Kundli chart
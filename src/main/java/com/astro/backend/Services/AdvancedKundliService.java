@@ -8,10 +8,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import swisseph.SweConst;
 import swisseph.SweDate;
-import swisseph.SwissEph;
 
-import java.time.LocalDate;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Service
@@ -21,7 +23,8 @@ public class AdvancedKundliService {
 
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    private static final SwissEph swissEph = new SwissEph("libs/ephe");
+    private static final String LAGNA = "Lagna";
+
 
     private static final Map<Integer, String> RASHI_MAP = Map.ofEntries(
             Map.entry(0, "Aries"), Map.entry(1, "Taurus"), Map.entry(2, "Gemini"),
@@ -30,15 +33,15 @@ public class AdvancedKundliService {
             Map.entry(9, "Capricorn"), Map.entry(10, "Aquarius"), Map.entry(11, "Pisces")
     );
 
-    private static final Map<String, Integer> RASHI_INDEX_MAP = Map.ofEntries(
-            Map.entry("Aries", 0), Map.entry("Taurus", 1), Map.entry("Gemini", 2),
-            Map.entry("Cancer", 3), Map.entry("Leo", 4), Map.entry("Virgo", 5),
-            Map.entry("Libra", 6), Map.entry("Scorpio", 7), Map.entry("Sagittarius", 8),
-            Map.entry("Capricorn", 9), Map.entry("Aquarius", 10), Map.entry("Pisces", 11)
-        );
-
+    private final EphemerisEngine ephemerisEngine;
+    private final NatalChartCache natalChartCache;
+    private final TransitSnapshotService transitSnapshotService;
     private final RemedyRecommendationService remedyRecommendationService;
     private final DashaCalculationService dashaCalculationService;
+    private final TransitionEngine transitionEngine;
+    private final VedicRuleEngine vedicRuleEngine;
+    private final KundliSectionRunner kundliSectionRunner;
+    private final LagnaService lagnaService;
 
     private static final String[] NAKSHATRAS = {
             "Ashwini", "Bharani", "Krittika", "Rohini", "Mrigashirsha", "Ardra", "Punarvasu",
@@ -98,47 +101,42 @@ public class AdvancedKundliService {
         );
 
     /**
-     * Calculate today's Lagna (Ascendant) chart
+     * Calculate today's Lagna (Ascendant) chart. The lagna, since when it rises and the next one
+     * come from the lagna timetable; the ascendant degree and houses from swe_houses at the same instant.
      */
     public Map<String, Object> calculateTodayLagna(double lat, double lon) {
         try {
-            LocalDateTime now = LocalDateTime.now();
-            int yyyy = now.getYear();
-            int mm = now.getMonthValue();
-            int dd = now.getDayOfMonth();
-            double time = now.getHour() + now.getMinute() / 60.0 + now.getSecond() / 3600.0;
-            
-            // Convert IST to UT
-            double[] dateTimeUT = convertToUT(yyyy, mm, dd, time, 5.5);
-            int yyyyUT = (int) dateTimeUT[0];
-            int mmUT = (int) dateTimeUT[1];
-            int ddUT = (int) dateTimeUT[2];
-            double timeUT = dateTimeUT[3];
-            
-            SweDate sd = new SweDate(yyyyUT, mmUT, ddUT, timeUT);
-            double julDay = sd.getJulDay();
+            ZoneId ist = ZoneId.of("Asia/Kolkata");
+            Instant now = Instant.now();
+            double julDay = TransitSnapshotService.toJulDayUt(now);
             
-            // Set sidereal mode with Lahiri Ayanamsa
-            swissEph.swe_set_sid_mode(SweConst.SE_SIDM_LAHIRI, 0, 0);
-            double ayanamsaValue = swissEph.swe_get_ayanamsa(julDay);
+            // Planets come from the shared minute transit snapshot (Lahiri); only houses depend on location
+            TransitSnapshotService.TransitSnapshot transit = transitSnapshotService.current(SweConst.SE_SIDM_LAHIRI);
+            double ayanamsaValue = transit.ayanamsa();
+            EphemerisEngine.Houses localHouses = ephemerisEngine.houses(julDay, SweConst.SEFLG_SIDEREAL,
+                    lat, lon, 'P', SweConst.SE_SIDM_LAHIRI);
             
             // Calculate ascendant
-            double ascendantLong = getAscendantLongitude(julDay, lat, lon);
-            int ascRashi = (int) (ascendantLong / 30);
+            double ascendantLong = localHouses.ascendant();
             double ascDegree = ascendantLong % 30;
-            String lagna = RASHI_MAP.get(ascRashi);
             
             // Calculate houses
-            Map<Integer, String> houses = calculateHouses(julDay, lat, lon);
+            Map<Integer, String> houses = calculateHouses(localHouses.cusps());
             
             // Calculate planetary positions
-            List<PlanetPosition> planets = calculatePlanetaryPositions(julDay);
+            List<PlanetPosition> planets = calculatePlanetaryPositions(transit.positions());
+
+            // The lagna, when it rose and when the next one rises, from the day's lagna table
+            LagnaService.CurrentLagna currentLagna = lagnaService.getCurrent(lat, lon, now, ist);
             
             Map<String, Object> result = new LinkedHashMap<>();
-            result.put("dateTime", now.toString());
-            result.put("lagna", lagna);
+            result.put("dateTime", now.atZone(ist).toLocalDateTime().toString());
+            result.put("lagna", currentLagna.name());
             result.put("ascendantDegree", String.format("%.2f", ascDegree));
             result.put("ascendantLongitude", ascendantLong);
+            result.put("lagnaSince", LagnaService.format(currentLagna.since(), ist));
+            result.put("nextLagna", currentLagna.nextName());
+            result.put("nextLagnaChange", LagnaService.format(currentLagna.nextChange(), ist));
             result.put("houses", houses);
             result.put("planets", planets);
             result.put("latitude", lat);
@@ -174,12 +172,12 @@ public class AdvancedKundliService {
             SweDate sd = new SweDate(yyyyUT, mmUT, ddUT, timeUT);
             double julDay = sd.getJulDay();
             
-            // Set sidereal mode with Lahiri Ayanamsa
-            swissEph.swe_set_sid_mode(SweConst.SE_SIDM_LAHIRI, 0, 0);
-            double ayanamsaValue = swissEph.swe_get_ayanamsa(julDay);
+            // Planets come from the shared minute transit snapshot (Lahiri)
+            TransitSnapshotService.TransitSnapshot transit = transitSnapshotService.current(SweConst.SE_SIDM_LAHIRI);
+            double ayanamsaValue = transit.ayanamsa();
             
             // Calculate planetary positions
-            List<PlanetPosition> planets = calculatePlanetaryPositions(julDay);
+            List<PlanetPosition> planets = calculatePlanetaryPositions(transit.positions());
             
             double sunLong = getPlanetLongitude(planets, "Sun");
             double moonLong = getPlanetLongitude(planets, "Moon");
@@ -237,9 +235,10 @@ public class AdvancedKundliService {
             panchang.put("dateTime", now.toString());
             panchang.put("dayOfWeek", dayOfWeek);
             panchang.put("weekdayLord", weekdayLord);
-            panchang.put("tithi", buildTithiDetails(tithiNumber));
+            ZoneOffset ist = ZoneOffset.ofHoursMinutes(5, 30);
+            panchang.put("tithi", buildTithiDetails(tithiNumber, julDay, ist));
             panchang.put("tithiNumber", tithiNumber);
-            panchang.put("nakshatra", buildNakshatraDetails(nakshatra, padaNumber));
+            panchang.put("nakshatra", buildNakshatraDetails(nakshatra, padaNumber, nakshatraNumber, julDay, ist));
             panchang.put("nakshatraNumber", nakshatraNumber);
             panchang.put("padaNumber", padaNumber);
             panchang.put("yoga", Map.of(
@@ -310,58 +309,126 @@ public class AdvancedKundliService {
         return Math.round(value * base) / base;
     }
 
+    /**
+     * Birth chart packed for the Vedic rule engine, with the current transits and running
+     * mahadasha/antardasha so transit and dasha rules apply too
+     */
+    public RuleChart buildRuleChart(double lat, double lon, int dd, int mm, int yyyy, double time, double timezoneOffset) {
+        try {
+            NatalChartCache.NatalChart chart = getNatalChart(lat, lon, dd, mm, yyyy, time, timezoneOffset);
+
+            TransitSnapshotService.TransitSnapshot transit = transitSnapshotService.current(SweConst.SE_SIDM_LAHIRI);
+            VimshottariTimeline timeline = dashaCalculationService.getVimshottariTimeline(
+                    chart.julDayUt(), chart.longitude(SweConst.SE_MOON));
+            VimshottariTimeline.Period antardasha = timeline.at(VimshottariTimeline.ANTARDASHA,
+                    Math.max(System.currentTimeMillis() / 86_400_000.0, timeline.getBirthEpochDay()));
+
+            return toRuleChart(chart, grahaLongitudes(transit.positions()), antardasha);
+        } catch (Exception e) {
+            log.error("Error building rule chart", e);
+            throw new RuntimeException("Failed to build rule chart: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bhinnashtakavarga and Sarvashtakavarga of a birth chart
+     */
+    public AshtakavargaEngine.Ashtakavarga calculateAshtakavarga(double lat, double lon, int dd, int mm, int yyyy, double time, double timezoneOffset) {
+        try {
+            NatalChartCache.NatalChart chart = getNatalChart(lat, lon, dd, mm, yyyy, time, timezoneOffset);
+            return AshtakavargaEngine.compute(grahaLongitudes(chart.positions()), chart.ascendant());
+        } catch (Exception e) {
+            log.error("Error calculating ashtakavarga", e);
+            throw new RuntimeException("Failed to calculate Ashtakavarga: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lahiri natal chart (Placidus cusps) for a local birth date and time, memoized in the natal chart cache
+     */
+    public NatalChartCache.NatalChart getNatalChart(double lat, double lon, int dd, int mm, int yyyy, double time, double timezoneOffset) {
+        double[] dateTimeUT = convertToUT(yyyy, mm, dd, time, timezoneOffset);
+        SweDate sd = new SweDate((int) dateTimeUT[0], (int) dateTimeUT[1], (int) dateTimeUT[2], dateTimeUT[3]);
+        return natalChartCache.getChart(sd.getJulDay(), lat, lon, SweConst.SE_SIDM_LAHIRI, 'P');
+    }
+
     /**
      * Generate full Kundli with all divisional charts and doshas
      */
     public FullKundliResponse generateFullKundli(double lat, double lon, int dd, int mm, int yyyy, double time, String name, String originalTimeString, double timezoneOffset) {
-        try {
-            // Convert local time to UT (Universal Time)
-            double[] dateTimeUT = convertToUT(yyyy, mm, dd, time, timezoneOffset);
-            int yyyyUT = (int) dateTimeUT[0];
-            int mmUT = (int) dateTimeUT[1];
-            int ddUT = (int) dateTimeUT[2];
-            double timeUT = dateTimeUT[3];
-            
-            SweDate sd = new SweDate(yyyyUT, mmUT, ddUT, timeUT);
-            double julDay = sd.getJulDay();
+        return generateFullKundli(lat, lon, dd, mm, yyyy, time, name, originalTimeString, timezoneOffset, List.of());
+    }
+
+    /**
+     * Full Kundli that also carries the requested Shodashavarga charts (divisions such as 2, 9, 60)
+     */
+    public FullKundliResponse generateFullKundli(double lat, double lon, int dd, int mm, int yyyy, double time, String name, String originalTimeString, double timezoneOffset, Collection<Integer> vargaDivisions) {
+        try (KundliSectionRunner.Scope sections = kundliSectionRunner.open()) {
+            return generateFullKundli(lat, lon, dd, mm, yyyy, time, name, originalTimeString, timezoneOffset, vargaDivisions, sections);
+        }
+    }
 
-            // Set sidereal mode with Lahiri Ayanamsa at the beginning
-            swissEph.swe_set_sid_mode(SweConst.SE_SIDM_LAHIRI, 0, 0);
-            double ayanamsaValue = swissEph.swe_get_ayanamsa(julDay);
+    /**
+     * Full Kundli assembled as concurrent sections of the given scope. The natal chart and the
+     * placements every section reads are computed once up front; doshas/yogas, remedies, vargas,
+     * ashtakavarga, panchang and dasha then run side by side. A section that fails or misses the
+     * scope deadline is left empty and listed in degradedSections. The caller closes the scope.
+     */
+    public FullKundliResponse generateFullKundli(double lat, double lon, int dd, int mm, int yyyy, double time, String name, String originalTimeString, double timezoneOffset, Collection<Integer> vargaDivisions, KundliSectionRunner.Scope sections) {
+        try {
+            // Lahiri Ayanamsa (natal chart is memoized per birth moment and location)
+            NatalChartCache.NatalChart chart = getNatalChart(lat, lon, dd, mm, yyyy, time, timezoneOffset);
+            double julDay = chart.julDayUt();
+            double ayanamsaValue = chart.ayanamsa();
 
-            List<PlanetPosition> planets = calculatePlanetaryPositions(julDay);
-            Map<Integer, String> houses = calculateHouses(julDay, lat, lon);
+            List<PlanetPosition> planets = calculatePlanetaryPositions(chart.positions());
+            Map<Integer, String> houses = calculateHouses(chart.cusps());
 
-            double ascendantLong = getAscendantLongitude(julDay, lat, lon);
+            double ascendantLong = chart.ascendant();
             String lagna = RASHI_MAP.get((int) (ascendantLong / 30));
 
+            double moonLong = getPlanetLongitude(planets, "Moon");
             String sunSign = getPlanetRashi(planets, "Sun");
             String moonSign = getPlanetRashi(planets, "Moon");
-            String nakshatra = getNakshatra(getPlanetLongitude(planets, "Moon"));
-            String pada = getPada(getPlanetLongitude(planets, "Moon"));
+            String nakshatra = getNakshatra(moonLong);
+            String pada = getPada(moonLong);
 
             // Calculate element distribution
             Map<String, Double> elements = calculateElements(planets, lagna);
 
-            // Detect doshas
-            DoshaDetection doshaDetection = detectAllDoshas(julDay, planets, lagna);
-
-                // Calculate yogas
-                List<String> yogas = detectYogas(planets, lagna);
-
-                List<String> inauspiciousYogas = detectInauspiciousYogas(doshaDetection);
-                String navamsaChart = buildDivisionalChartJson(planets, 9);
-                String dashamsaChart = buildDivisionalChartJson(planets, 10);
-                Map<String, Object> panchang = buildPanchang(julDay, planets, nakshatra, pada);
-                DashaResponse vimshottariDasha = dashaCalculationService.calculateVimshottariDasha(
-                    LocalDate.of(yyyy, mm, dd),
-                    nakshatra,
-                    getPlanetLongitude(planets, "Moon")
-                );
-                Map<String, Object> remedies = buildRemedies(doshaDetection, planets);
-                String place = buildPlace(lat, lon);
-                String timezone = TimeZone.getDefault().getID();
-                double julianDay = julDay;
+            // Doshas and yogas (natal placements only) in one rule engine pass; remedies follow the doshas
+            KundliSectionRunner.Section<DoshaDetection> doshaSection = sections.fork("doshas", () -> {
+                RuleChart ruleChart = toRuleChart(chart, null, null);
+                VedicRuleEngine.RuleMatches ruleMatches = vedicRuleEngine.evaluate(ruleChart);
+                DoshaDetection detection = detectAllDoshas(ruleMatches, ruleChart);
+                detection.yogas = detectYogas(ruleMatches);
+                return detection;
+            });
+            KundliSectionRunner.Section<Map<String, Object>> remedySection = sections.then("remedies", doshaSection,
+                    detection -> buildRemedies(detection, planets));
+            KundliSectionRunner.Section<VargaEngine.Shodashavarga> vargaSection = sections.fork("vargas",
+                    () -> calculateVargas(planets, ascendantLong));
+            KundliSectionRunner.Section<AshtakavargaEngine.Ashtakavarga> ashtakavargaSection = sections.fork("ashtakavarga",
+                    () -> AshtakavargaEngine.compute(grahaLongitudes(chart.positions()), ascendantLong));
+            KundliSectionRunner.Section<Map<String, Object>> panchangSection = sections.fork("panchang",
+                    () -> buildPanchang(julDay, planets, nakshatra, pada,
+                            ZoneOffset.ofTotalSeconds((int) Math.round(timezoneOffset * 3600))));
+            KundliSectionRunner.Section<DashaResponse> dashaSection = sections.fork("vimshottariDasha",
+                    () -> dashaCalculationService.calculateVimshottariDasha(julDay, moonLong));
+
+            DoshaDetection doshaDetection = sections.join(doshaSection, null);
+            Map<String, Object> remedies = sections.join(remedySection, null);
+            VargaEngine.Shodashavarga vargas = sections.join(vargaSection, null);
+            AshtakavargaEngine.Ashtakavarga ashtakavarga = sections.join(ashtakavargaSection, null);
+            Map<String, Object> panchang = sections.join(panchangSection, null);
+            DashaResponse vimshottariDasha = sections.join(dashaSection, null);
+
+            boolean doshasKnown = doshaDetection != null;
+            if (!doshasKnown) {
+                doshaDetection = new DoshaDetection();
+            }
+            String place = buildPlace(lat, lon);
+            String timezone = TimeZone.getDefault().getID();
 
         return FullKundliResponse.builder()
         .chartId(null)
@@ -379,8 +446,10 @@ public class AdvancedKundliService {
 
         .planets(planets)
         .houses(houses)
-        .navamsaChart(navamsaChart)
-        .dashamsa(dashamsaChart)
+        .navamsaChart(vargas != null ? buildDivisionalChartJson(vargas, 9) : null)
+        .dashamsa(vargas != null ? buildDivisionalChartJson(vargas, 10) : null)
+        .divisionalCharts(vargas == null || vargaDivisions.isEmpty() ? null : vargas.charts(vargaDivisions))
+        .ashtakavarga(ashtakavarga != null ? ashtakavarga.toMap() : null)
 
         .panchang(panchang)
 
@@ -389,8 +458,8 @@ public class AdvancedKundliService {
         .pitruDosha(doshaDetection.pitruDosha)
         .grahanDosha(doshaDetection.grahanDosha)
 
-        .auspiciousYogas(yogas)
-        .inauspiciousYogas(inauspiciousYogas)
+        .auspiciousYogas(doshaDetection.yogas)
+        .inauspiciousYogas(doshasKnown ? detectInauspiciousYogas(doshaDetection) : null)
 
         .elements(elements)
 
@@ -398,16 +467,18 @@ public class AdvancedKundliService {
 
         .remedies(remedies)
 
-        .overallMessage(generateOverallMessage(doshaDetection))
-        .healthScore(calculateHealthScore(doshaDetection))
+        .overallMessage(doshasKnown ? generateOverallMessage(doshaDetection) : null)
+        .healthScore(doshasKnown ? calculateHealthScore(doshaDetection) : null)
 
         .locationMeta(FullKundliResponse.LocationMeta.builder()
                 .place(place)
                 .timezone(timezone)
             .ayanamsa(String.format("Lahiri %.6f", ayanamsaValue))
-                .julianDay(julianDay)
+                .julianDay(julDay)
                 .build())
 
+        .degradedSections(sections.degraded().isEmpty() ? null : List.copyOf(sections.degraded()))
+
         .build();
 
         } catch (Exception e) {
@@ -420,7 +491,8 @@ public class AdvancedKundliService {
             double julDay,
             List<PlanetPosition> planets,
             String nakshatra,
-            String pada
+            String pada,
+            ZoneOffset zoneOffset
     ) {
         double sunLong = getPlanetLongitude(planets, "Sun");
         double moonLong = getPlanetLongitude(planets, "Moon");
@@ -430,13 +502,14 @@ public class AdvancedKundliService {
         int yogaNumber = (int) Math.floor(((sunLong + moonLong) % 360.0) / (360.0 / 27.0)) + 1;
         int karanaNumber = (int) Math.floor(diff / 6.0) + 1;
         int padaNumber = getPadaNumber(moonLong);
+        int nakshatraNumber = ((int) Math.floor(moonLong / (360.0 / 27.0))) + 1;
 
         Map<String, Object> panchang = new LinkedHashMap<>();
         panchang.put("tithiNumber", tithiNumber);
         panchang.put("nakshatra", nakshatra);
         panchang.put("pada", pada);
-        panchang.put("tithi", buildTithiDetails(tithiNumber));
-        panchang.put("nakshatraDetails", buildNakshatraDetails(nakshatra, padaNumber));
+        panchang.put("tithi", buildTithiDetails(tithiNumber, julDay, zoneOffset));
+        panchang.put("nakshatraDetails", buildNakshatraDetails(nakshatra, padaNumber, nakshatraNumber, julDay, zoneOffset));
         panchang.put("yogaNumber", yogaNumber);
         panchang.put("karanaNumber", karanaNumber);
         panchang.put("julianDay", julDay);
@@ -444,13 +517,25 @@ public class AdvancedKundliService {
         return panchang;
     }
 
-    private String buildDivisionalChartJson(List<PlanetPosition> planets, int division) {
-        Map<String, String> divisional = new LinkedHashMap<>();
-        for (PlanetPosition planet : planets) {
-            double longitude = planet.getLongitude();
-            int signIndex = (int) Math.floor((longitude * division) / 30.0) % 12;
-            divisional.put(planet.getPlanet(), RASHI_MAP.get(signIndex));
+    /**
+     * All sixteen vargas of the planets and the lagna (last point) in one pass
+     */
+    private VargaEngine.Shodashavarga calculateVargas(List<PlanetPosition> planets, double ascendantLong) {
+        String[] points = new String[planets.size() + 1];
+        double[] longitudes = new double[points.length];
+        for (int i = 0; i < planets.size(); i++) {
+            points[i] = planets.get(i).getPlanet();
+            longitudes[i] = planets.get(i).getLongitude();
         }
+        points[planets.size()] = LAGNA;
+        longitudes[planets.size()] = ascendantLong;
+        return VargaEngine.compute(points, longitudes);
+    }
+
+    private String buildDivisionalChartJson(VargaEngine.Shodashavarga vargas, int division) {
+        // The stored D9/D10 strings list the planets only
+        Map<String, String> divisional = vargas.chart(division);
+        divisional.remove(LAGNA);
 
         try {
             return OBJECT_MAPPER.writeValueAsString(divisional);
@@ -498,7 +583,7 @@ public class AdvancedKundliService {
     /**
      * Calculate planetary positions for all planets
      */
-    private List<PlanetPosition> calculatePlanetaryPositions(double julDay) {
+    private List<PlanetPosition> calculatePlanetaryPositions(double[][] positionsByBody) {
         int[] planets = {
                 SweConst.SE_SUN, SweConst.SE_MOON, SweConst.SE_MARS,
                 SweConst.SE_MERCURY, SweConst.SE_JUPITER, SweConst.SE_VENUS,
@@ -508,11 +593,7 @@ public class AdvancedKundliService {
         List<PlanetPosition> planetPositions = new ArrayList<>();
 
         for (int p : planets) {
-            double[] xx = new double[6];
-            StringBuffer serr = new StringBuffer();
-
-            // Use SEFLG_SIDEREAL for Vedic astrology (sidereal calculations)
-            swissEph.swe_calc(julDay, p, SweConst.SEFLG_SIDEREAL, xx, serr);
+            double[] xx = positionsByBody[p];
             double lonDeg = xx[0];
             int rashi = (int) (lonDeg / 30);
             double degree = lonDeg % 30;
@@ -533,12 +614,7 @@ public class AdvancedKundliService {
     /**
      * Calculate 12 houses
      */
-    private Map<Integer, String> calculateHouses(double julDay, double lat, double lon) {
-        double[] cusps = new double[13];
-        double[] ascmc = new double[10];
-
-        // Use SEFLG_SIDEREAL for Vedic astrology
-        swissEph.swe_houses(julDay, SweConst.SEFLG_SIDEREAL, lat, lon, 'P', cusps, ascmc);
+    private Map<Integer, String> calculateHouses(double[] cusps) {
 
         Map<Integer, String> houses = new LinkedHashMap<>();
         for (int i = 1; i <= 12; i++) {
@@ -550,49 +626,37 @@ public class AdvancedKundliService {
     }
 
     /**
-     * Detect all doshas
+     * Detect all doshas from the built-in dosha rules the chart matched
      */
-    private DoshaDetection detectAllDoshas(double julDay, List<PlanetPosition> planets, String lagna) {
+    private DoshaDetection detectAllDoshas(VedicRuleEngine.RuleMatches matches, RuleChart ruleChart) {
         DoshaDetection detection = new DoshaDetection();
 
         // Mangal Dosha
-        detection.mangalDosha = detectMangalDosha(planets, lagna);
+        detection.mangalDosha = detectMangalDosha(matches, ruleChart);
 
         // Kaal Sarp Dosha
-        detection.kaalSarpDosha = detectKaalSarpDosha(planets);
+        detection.kaalSarpDosha = detectKaalSarpDosha(matches, ruleChart);
 
         // Pitru Dosha
-        detection.pitruDosha = detectPitruDosha(planets);
+        detection.pitruDosha = detectPitruDosha(matches, ruleChart);
 
         // Grahan Dosha
-        detection.grahanDosha = detectGrahanDosha(planets);
+        detection.grahanDosha = detectGrahanDosha(matches);
 
         return detection;
     }
 
     /**
-     * Mangal Dosha - Mars in 1, 4, 7, 8, 12 houses or 2nd from Moon
+     * Mangal Dosha - Mars in 1, 4, 7, 8, 12 houses from Lagna or from Moon
      */
-    private FullKundliResponse.Dosha detectMangalDosha(List<PlanetPosition> planets, String lagna) {
-        PlanetPosition mars = planets.stream()
-                .filter(p -> "Mars".equals(p.getPlanet()))
-                .findFirst()
-                .orElse(null);
-
-        if (mars == null) {
-            return FullKundliResponse.Dosha.builder()
-                    .present(false)
-                    .description("No Mangal Dosha")
-                    .build();
-        }
-
-        // Simplified: Check if Mars is in certain houses
-        // In real implementation, calculate exact house position
-        boolean hasMangal = false;  // Simplified logic
+    private FullKundliResponse.Dosha detectMangalDosha(VedicRuleEngine.RuleMatches matches, RuleChart ruleChart) {
+        boolean hasMangal = matches.contains(VedicRuleEngine.MANGAL_DOSHA);
 
         return FullKundliResponse.Dosha.builder()
                 .present(hasMangal)
-                .description(hasMangal ? "Mangal Dosha Detected" : "No Mangal Dosha")
+                .description(hasMangal
+                        ? "Mangal Dosha Detected (Mars in house " + ruleChart.house(RuleChart.MARS) + " from Lagna)"
+                        : "No Mangal Dosha")
                 .remedyAdvice(hasMangal ? "Wear Red Coral, perform Hanuman Puja" : "")
                 .build();
     }
@@ -600,66 +664,88 @@ public class AdvancedKundliService {
     /**
      * Kaal Sarp Dosha - All planets between Rahu and Ketu
      */
-    private FullKundliResponse.Dosha detectKaalSarpDosha(List<PlanetPosition> planets) {
-        // Simplified detection
+    private FullKundliResponse.Dosha detectKaalSarpDosha(VedicRuleEngine.RuleMatches matches, RuleChart ruleChart) {
+        boolean hasKaalSarp = matches.contains(VedicRuleEngine.KAAL_SARP_DOSHA);
+
         return FullKundliResponse.Dosha.builder()
-                .present(false)
-                .description("No Kaal Sarp Dosha detected")
+                .present(hasKaalSarp)
+                .description(hasKaalSarp
+                        ? "Kaal Sarp Dosha Detected (all planets hemmed between Rahu in house "
+                                + ruleChart.house(RuleChart.RAHU) + " and Ketu in house " + ruleChart.house(RuleChart.KETU) + ")"
+                        : "No Kaal Sarp Dosha detected")
+                .remedyAdvice(hasKaalSarp ? "Perform Nag Puja, recite Maha Mrityunjaya Mantra" : "")
                 .build();
     }
 
     /**
-     * Pitru Dosha - Various conditions based on Sun and Rahu
+     * Pitru Dosha - Sun with Rahu, Rahu in the 9th house, or Sun in the 9th with Saturn
      */
-    private FullKundliResponse.Dosha detectPitruDosha(List<PlanetPosition> planets) {
+    private FullKundliResponse.Dosha detectPitruDosha(VedicRuleEngine.RuleMatches matches, RuleChart ruleChart) {
+        boolean hasPitru = matches.contains(VedicRuleEngine.PITRU_DOSHA);
+
         return FullKundliResponse.Dosha.builder()
-                .present(false)
-                .description("No Pitru Dosha detected")
+                .present(hasPitru)
+                .description(hasPitru
+                        ? "Pitru Dosha Detected (Sun in house " + ruleChart.house(RuleChart.SUN)
+                                + ", Rahu in house " + ruleChart.house(RuleChart.RAHU) + ")"
+                        : "No Pitru Dosha detected")
+                .remedyAdvice(hasPitru ? "Perform Shraddha and Tarpan, offer water to the Sun" : "")
                 .build();
     }
 
     /**
      * Grahan Dosha - Sun or Moon with Rahu/Ketu
      */
-    private FullKundliResponse.Dosha detectGrahanDosha(List<PlanetPosition> planets) {
+    private FullKundliResponse.Dosha detectGrahanDosha(VedicRuleEngine.RuleMatches matches) {
+        boolean hasGrahan = matches.contains(VedicRuleEngine.GRAHAN_DOSHA);
+
         return FullKundliResponse.Dosha.builder()
-                .present(false)
-                .description("No Grahan Dosha detected")
+                .present(hasGrahan)
+                .description(hasGrahan ? "Grahan Dosha Detected (Sun or Moon with Rahu/Ketu)" : "No Grahan Dosha detected")
+                .remedyAdvice(hasGrahan ? "Chant Surya and Chandra mantras, donate on eclipse days" : "")
                 .build();
     }
 
     /**
-     * Detect auspicious yogas
+     * Detect auspicious yogas from the built-in yoga rules the chart matched
      */
-    private List<String> detectYogas(List<PlanetPosition> planets, String lagna) {
+    private List<String> detectYogas(VedicRuleEngine.RuleMatches matches) {
         List<String> yogas = new ArrayList<>();
 
-        String moonRashi = getPlanetRashi(planets, "Moon");
-        String jupiterRashi = getPlanetRashi(planets, "Jupiter");
-        String sunRashi = getPlanetRashi(planets, "Sun");
-        String mercuryRashi = getPlanetRashi(planets, "Mercury");
-
-        if (moonRashi != null && jupiterRashi != null && isKendraRelation(moonRashi, jupiterRashi)) {
+        if (matches.contains(VedicRuleEngine.GAJ_KESARI_YOGA)) {
             yogas.add("Gaj Kesari Yoga");
         }
 
-        if (sunRashi != null && sunRashi.equals(mercuryRashi)) {
+        if (matches.contains(VedicRuleEngine.BUDHADITYA_YOGA)) {
             yogas.add("Budhaditya Yoga");
         }
 
         return yogas;
     }
 
-    private boolean isKendraRelation(String fromRashi, String toRashi) {
-        Integer from = RASHI_INDEX_MAP.get(fromRashi);
-        Integer to = RASHI_INDEX_MAP.get(toRashi);
+    /**
+     * Natal chart packed for the rule engine; transits and dasha are left out when not needed.
+     */
+    private RuleChart toRuleChart(NatalChartCache.NatalChart chart, double[] transits, VimshottariTimeline.Period antardasha) {
+        int mahadasha = antardasha == null ? -1 : RuleChart.graha(antardasha.lord(VimshottariTimeline.MAHADASHA));
+        int antardashaLord = antardasha == null ? -1 : RuleChart.graha(antardasha.lord(VimshottariTimeline.ANTARDASHA));
+        return RuleChart.of(grahaLongitudes(chart.positions()), chart.ascendant(), transits, mahadasha, antardashaLord);
+    }
 
-        if (from == null || to == null) {
-            return false;
+    /**
+     * Sidereal longitudes of the nine grahas in RuleChart order (true node for Rahu, Ketu opposite).
+     */
+    private static double[] grahaLongitudes(double[][] positionsByBody) {
+        int[] bodies = {
+                SweConst.SE_SUN, SweConst.SE_MOON, SweConst.SE_MARS, SweConst.SE_MERCURY,
+                SweConst.SE_JUPITER, SweConst.SE_VENUS, SweConst.SE_SATURN, SweConst.SE_TRUE_NODE
+        };
+        double[] longitudes = new double[RuleChart.GRAHAS.length];
+        for (int g = 0; g < bodies.length; g++) {
+            longitudes[g] = positionsByBody[bodies[g]][0];
         }
-
-        int diff = (to - from + 12) % 12;
-        return diff == 0 || diff == 3 || diff == 6 || diff == 9;
+        longitudes[RuleChart.KETU] = (longitudes[RuleChart.RAHU] + 180.0) % 360.0;
+        return longitudes;
     }
 
     private String getPlanetRashi(List<PlanetPosition> planets, String planetName) {
@@ -678,14 +764,6 @@ public class AdvancedKundliService {
                 .orElse(0.0);
     }
 
-    private double getAscendantLongitude(double julDay, double lat, double lon) {
-        double[] cusps = new double[13];
-        double[] ascmc = new double[10];
-        // Use SEFLG_SIDEREAL for Vedic astrology
-        swissEph.swe_houses(julDay, SweConst.SEFLG_SIDEREAL, lat, lon, 'P', cusps, ascmc);
-        return ascmc[0];
-    }
-
     private String getNakshatra(double moonLong) {
         int nak = (int) (moonLong / (360.0 / 27.0));
         return NAKSHATRAS[nak % 27];
@@ -700,7 +778,7 @@ public class AdvancedKundliService {
         return ((int) ((moonLong % (360.0 / 27.0)) / (360.0 / 108.0)) + 1);
     }
 
-    private Map<String, Object> buildTithiDetails(int tithiNumber) {
+    private Map<String, Object> buildTithiDetails(int tithiNumber, double julDay, ZoneOffset zoneOffset) {
         int index = Math.max(1, Math.min(30, tithiNumber)) - 1;
         String name = TITHI_NAMES[index];
         String meaning = TITHI_MEANINGS[index];
@@ -711,18 +789,41 @@ public class AdvancedKundliService {
         details.put("name", name);
         details.put("meaning", meaning);
         details.put("paksha", paksha);
+        putSpanTimes(details, TransitionEngine.Limb.TITHI, tithiNumber, julDay, zoneOffset);
         return details;
     }
 
-    private Map<String, Object> buildNakshatraDetails(String nakshatra, int padaNumber) {
+    private Map<String, Object> buildNakshatraDetails(String nakshatra, int padaNumber, int nakshatraNumber,
+                                                      double julDay, ZoneOffset zoneOffset) {
         Map<String, Object> details = new LinkedHashMap<>();
         details.put("name", nakshatra);
         details.put("pada", padaNumber);
         details.put("padaName", "Pada " + padaNumber);
         details.put("padaMeaning", PADA_MEANINGS.getOrDefault(padaNumber, ""));
+        putSpanTimes(details, TransitionEngine.Limb.NAKSHATRA, nakshatraNumber, julDay, zoneOffset);
         return details;
     }
 
+    /**
+     * Add startTime/endTime of the limb occurrence at julDay. Skipped when the transition index
+     * disagrees with the given (1-based) number, i.e. right at a boundary.
+     */
+    private void putSpanTimes(Map<String, Object> details, TransitionEngine.Limb limb, int number,
+                              double julDay, ZoneOffset zoneOffset) {
+        try {
+            TransitionEngine.Span span = transitionEngine.current(limb, julDay);
+            if (span.index() + 1 != number) {
+                return;
+            }
+            details.put("startTime", TransitSnapshotService.toInstant(span.startJd()).atOffset(zoneOffset)
+                    .truncatedTo(ChronoUnit.SECONDS).toString());
+            details.put("endTime", TransitSnapshotService.toInstant(span.endJd()).atOffset(zoneOffset)
+                    .truncatedTo(ChronoUnit.SECONDS).toString());
+        } catch (Exception e) {
+            log.warn("Failed to find {} boundaries: {}", limb, e.getMessage());
+        }
+    }
+
     private String getPlanetName(int id) {
         return switch (id) {
             case SweConst.SE_SUN -> "Sun";
@@ -883,5 +984,6 @@ public class AdvancedKundliService {
         FullKundliResponse.Dosha kaalSarpDosha;
         FullKundliResponse.Dosha pitruDosha;
         FullKundliResponse.Dosha grahanDosha;
+        List<String> yogas;
     }
 }
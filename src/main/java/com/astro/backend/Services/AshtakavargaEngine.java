@@ -0,0 +1,206 @@
+package com.astro.backend.Services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parashari Ashtakavarga: Bhinnashtakavarga bindus of the seven grahas in every sign and the
+ * Sarvashtakavarga totals.
+ * <p>
+ * The houses where a graha gets a bindu from each of its eight contributors (the seven grahas and
+ * the lagna) are a 12-bit mask. Rotated to every contributor sign once here, each becomes a set of
+ * per-sign byte lanes (one bit per contributor), so a chart is eight ORs per graha and the bindus
+ * of a sign are the popcount of its lane.
+ */
+public final class AshtakavargaEngine {
+
+    public static final String[] PLANETS = {"Sun", "Moon", "Mars", "Mercury", "Jupiter", "Venus", "Saturn"};
+
+    public static final String[] CONTRIBUTORS = {"Sun", "Moon", "Mars", "Mercury", "Jupiter", "Venus", "Saturn", "Lagna"};
+
+    public static final String[] SIGNS = VargaEngine.SIGNS;
+
+    public static final int LAGNA = 7;
+
+    private static final int P = PLANETS.length;
+    private static final int C = CONTRIBUTORS.length;
+
+    // Benefic houses counted from each contributor (Sun .. Saturn, Lagna), per graha
+    private static final int[][][] BENEFIC_HOUSES = {
+            {   // Sun: 48
+                    {1, 2, 4, 7, 8, 9, 10, 11}, {3, 6, 10, 11}, {1, 2, 4, 7, 8, 9, 10, 11}, {3, 5, 6, 9, 10, 11, 12},
+                    {5, 6, 9, 11}, {6, 7, 12}, {1, 2, 4, 7, 8, 9, 10, 11}, {3, 4, 6, 10, 11, 12}
+            },
+            {   // Moon: 49
+                    {3, 6, 7, 8, 10, 11}, {1, 3, 6, 7, 10, 11}, {2, 3, 5, 6, 9, 10, 11}, {1, 3, 4, 5, 7, 8, 10, 11},
+                    {1, 4, 7, 8, 10, 11, 12}, {3, 4, 5, 7, 9, 10, 11}, {3, 5, 6, 11}, {3, 6, 10, 11}
+            },
+            {   // Mars: 39
+                    {3, 5, 6, 10, 11}, {3, 6, 11}, {1, 2, 4, 7, 8, 10, 11}, {3, 5, 6, 11},
+                    {6, 10, 11, 12}, {6, 8, 11, 12}, {1, 4, 7, 8, 9, 10, 11}, {1, 3, 6, 10, 11}
+            },
+            {   // Mercury: 54
+                    {5, 6, 9, 11, 12}, {2, 4, 6, 8, 10, 11}, {1, 2, 4, 7, 8, 9, 10, 11}, {1, 3, 5, 6, 9, 10, 11, 12},
+                    {6, 8, 11, 12}, {1, 2, 3, 4, 5, 8, 9, 11}, {1, 2, 4, 7, 8, 9, 10, 11}, {1, 2, 4, 6, 8, 10, 11}
+            },
+            {   // Jupiter: 56
+                    {1, 2, 3, 4, 7, 8, 9, 10, 11}, {2, 5, 7, 9, 11}, {1, 2, 4, 7, 8, 10, 11}, {1, 2, 4, 5, 6, 9, 10, 11},
+                    {1, 2, 3, 4, 7, 8, 10, 11}, {2, 5, 6, 9, 10, 11}, {3, 5, 6, 12}, {1, 2, 4, 5, 6, 7, 9, 10, 11}
+            },
+            {   // Venus: 52
+                    {8, 11, 12}, {1, 2, 3, 4, 5, 8, 9, 11, 12}, {3, 5, 6, 9, 11, 12}, {3, 5, 6, 9, 11},
+                    {5, 8, 9, 10, 11}, {1, 2, 3, 4, 5, 8, 9, 10, 11}, {3, 4, 5, 8, 9, 10, 11}, {1, 2, 3, 4, 5, 8, 9, 11}
+            },
+            {   // Saturn: 39
+                    {1, 2, 4, 7, 8, 10, 11}, {3, 6, 11}, {3, 5, 6, 10, 11, 12}, {6, 8, 9, 10, 11, 12},
+                    {5, 6, 11, 12}, {6, 11, 12}, {3, 5, 6, 11}, {1, 3, 4, 6, 10, 11}
+            }
+    };
+
+    // Byte lanes of signs 0-7 (LOW) and 8-11 (HIGH) at [(graha * 8 + contributor) * 12 + contributor sign]
+    private static final long[] LOW = new long[P * C * 12];
+    private static final long[] HIGH = new long[P * C * 12];
+
+    static {
+        for (int p = 0; p < P; p++) {
+            for (int c = 0; c < C; c++) {
+                for (int from = 0; from < 12; from++) {
+                    int slot = (p * C + c) * 12 + from;
+                    for (int house : BENEFIC_HOUSES[p][c]) {
+                        int sign = (from + house - 1) % 12;
+                        if (sign < 8) {
+                            LOW[slot] |= 1L << (sign * 8 + c);
+                        } else {
+                            HIGH[slot] |= 1L << ((sign - 8) * 8 + c);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private AshtakavargaEngine() {
+    }
+
+    /**
+     * @param longitudes sidereal longitudes of Sun .. Saturn (in {@link #PLANETS} order)
+     * @param ascendant  sidereal lagna longitude
+     */
+    public static Ashtakavarga compute(double[] longitudes, double ascendant) {
+        int[] signs = new int[C];
+        for (int c = 0; c < P; c++) {
+            signs[c] = signOf(longitudes[c]);
+        }
+        signs[LAGNA] = signOf(ascendant);
+        return compute(signs);
+    }
+
+    /**
+     * @param signs sign (0 = Aries) of each contributor in {@link #CONTRIBUTORS} order
+     */
+    public static Ashtakavarga compute(int[] signs) {
+        long[] low = new long[P];
+        long[] high = new long[P];
+        for (int p = 0; p < P; p++) {
+            int base = p * C * 12;
+            for (int c = 0; c < C; c++) {
+                low[p] |= LOW[base + c * 12 + signs[c]];
+                high[p] |= HIGH[base + c * 12 + signs[c]];
+            }
+        }
+        return new Ashtakavarga(low, high);
+    }
+
+    private static int signOf(double longitude) {
+        return Math.min((int) ((((longitude % 360.0) + 360.0) % 360.0) / 30.0), 11);
+    }
+
+    /**
+     * One chart's Ashtakavarga. Bindus are kept as a flat table (row per graha, then the
+     * Sarvashtakavarga row) so scoring a transit is one array read per graha.
+     */
+    public static final class Ashtakavarga {
+        private final long[] low;
+        private final long[] high;
+        private final byte[] bindus = new byte[(P + 1) * 12];
+
+        private Ashtakavarga(long[] low, long[] high) {
+            this.low = low;
+            this.high = high;
+            for (int p = 0; p < P; p++) {
+                for (int sign = 0; sign < 12; sign++) {
+                    int count = Long.bitCount(lane(p, sign));
+                    bindus[p * 12 + sign] = (byte) count;
+                    bindus[P * 12 + sign] += (byte) count;
+                }
+            }
+        }
+
+        /**
+         * Bhinnashtakavarga bindus (0-8) of a graha (index into {@link #PLANETS}) in a sign.
+         */
+        public int bindus(int planet, int sign) {
+            return bindus[planet * 12 + sign];
+        }
+
+        /**
+         * Sarvashtakavarga bindus (0-56) of a sign.
+         */
+        public int sarva(int sign) {
+            return bindus[P * 12 + sign];
+        }
+
+        /**
+         * Contributors (bit per {@link #CONTRIBUTORS} index) that gave a graha its bindus in a sign.
+         */
+        public int contributors(int planet, int sign) {
+            return (int) lane(planet, sign);
+        }
+
+        /**
+         * Bindus the seven grahas collect in their transit signs (Sun .. Saturn order), 0-56.
+         */
+        public int transitScore(int[] transitSigns) {
+            int score = 0;
+            for (int p = 0; p < P; p++) {
+                score += bindus[p * 12 + transitSigns[p]];
+            }
+            return score;
+        }
+
+        /**
+         * Kundli section: bindus per graha and sign, Sarvashtakavarga per sign and the totals.
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Map<String, Integer>> bhinna = new LinkedHashMap<>();
+            Map<String, Integer> totals = new LinkedHashMap<>();
+            for (int p = 0; p < P; p++) {
+                Map<String, Integer> row = new LinkedHashMap<>();
+                int total = 0;
+                for (int sign = 0; sign < 12; sign++) {
+                    row.put(SIGNS[sign], bindus(p, sign));
+                    total += bindus(p, sign);
+                }
+                bhinna.put(PLANETS[p], row);
+                totals.put(PLANETS[p], total);
+            }
+            Map<String, Integer> sarva = new LinkedHashMap<>();
+            int sarvaTotal = 0;
+            for (int sign = 0; sign < 12; sign++) {
+                sarva.put(SIGNS[sign], sarva(sign));
+                sarvaTotal += sarva(sign);
+            }
+            totals.put("Sarvashtakavarga", sarvaTotal);
+
+            Map<String, Object> section = new LinkedHashMap<>();
+            section.put("bhinnashtakavarga", bhinna);
+            section.put("sarvashtakavarga", sarva);
+            section.put("totals", totals);
+            return section;
+        }
+
+        private long lane(int planet, int sign) {
+            return sign < 8 ? (low[planet] >>> (sign * 8)) & 0xFF : (high[planet] >>> ((sign - 8) * 8)) & 0xFF;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.astro.backend.Services;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Content-addressed storage for rendered chart artifacts (kundli HTML reports).
+ * Keys are hashes of everything the artifact depends on, so an entry never changes
+ * once written and identical charts are stored only once.
+ */
+public interface ChartArtifactStore {
+
+    boolean contains(String key);
+
+    /**
+     * Store the artifact unless the key already exists. Implementations must never expose
+     * a partially written artifact.
+     */
+    void putIfAbsent(String key, ContentWriter content) throws IOException;
+
+    /**
+     * Stored artifact, or null if absent (or evicted).
+     */
+    Resource get(String key);
+
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
+}
@@ -2,9 +2,11 @@ package com.astro.backend.Services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -51,16 +53,88 @@ public class CompatibilityMatchingService {
         5, 12, 13, 12, 13, 1, 14, 8, 2
     };
 
+    private static final List<String> RASHI_LIST = List.of(
+        "Aries", "Taurus", "Gemini", "Cancer", "Leo", "Virgo",
+        "Libra", "Scorpio", "Sagittarius", "Capricorn", "Aquarius", "Pisces"
+    );
+
+    private static final String[] RASHI_KOOTAS = {
+        "Varna (Caste Harmony)", "Vasya (Attraction)", "Graha Maitri (Planetary Friendship)", "Bhakoot (Health/Wealth)"
+    };
+    private static final String[] NAKSHATRA_KOOTAS = {
+        "Tara (Longevity)", "Yoni (Sexual Compatibility)", "Gana (Temperament)", "Nadi (Health Compatibility)"
+    };
+
+    // Koota points for every pair of Moon signs (index 1-12, 0 = unknown) and of nakshatras
+    // (1-27, 0 = unknown), precomputed with the same rules as calculateGunMilan. Rashi kootas
+    // are indexed [koota][groom * 13 + bride], nakshatra kootas [koota][groom * 28 + bride].
+    private static final int RASHI_SLOTS = 13;
+    private static final int NAKSHATRA_SLOTS = 28;
+    private static final byte[][] RASHI_KOOTA_POINTS = new byte[RASHI_KOOTAS.length][RASHI_SLOTS * RASHI_SLOTS];
+    private static final byte[][] NAKSHATRA_KOOTA_POINTS = new byte[NAKSHATRA_KOOTAS.length][NAKSHATRA_SLOTS * NAKSHATRA_SLOTS];
+    private static final byte[] RASHI_POINTS = new byte[RASHI_SLOTS * RASHI_SLOTS];
+    private static final byte[] NAKSHATRA_POINTS = new byte[NAKSHATRA_SLOTS * NAKSHATRA_SLOTS];
+    private static final boolean[] BHAKOOT_DOSHA = new boolean[RASHI_SLOTS * RASHI_SLOTS];
+    private static final boolean[] NADI_DOSHA = new boolean[NAKSHATRA_SLOTS * NAKSHATRA_SLOTS];
+
+    // Below this many candidates a bulk match is scored on the calling thread
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    static {
+        for (int g = 0; g < RASHI_SLOTS; g++) {
+            String groomSign = g == 0 ? null : RASHI_LIST.get(g - 1);
+            for (int b = 0; b < RASHI_SLOTS; b++) {
+                String brideSign = b == 0 ? null : RASHI_LIST.get(b - 1);
+                int cell = g * RASHI_SLOTS + b;
+                int[] points = {
+                    calculateVarnaMatch(getVarnaFromRashi(groomSign), getVarnaFromRashi(brideSign)),
+                    calculateVasyaMatch(getVasyaFromRashi(groomSign), getVasyaFromRashi(brideSign)),
+                    calculateGrahaMaitri(rashiLord(groomSign), rashiLord(brideSign)),
+                    calculateBhakootMatch(g, b)
+                };
+                for (int k = 0; k < points.length; k++) {
+                    RASHI_KOOTA_POINTS[k][cell] = (byte) points[k];
+                    RASHI_POINTS[cell] += (byte) points[k];
+                }
+                int diff = Math.abs(g - b);
+                BHAKOOT_DOSHA[cell] = diff == 3 || diff == 4;
+            }
+        }
+        for (int g = 0; g < NAKSHATRA_SLOTS; g++) {
+            for (int b = 0; b < NAKSHATRA_SLOTS; b++) {
+                int cell = g * NAKSHATRA_SLOTS + b;
+                int[] points = {
+                    calculateTaraMatch(g, b),
+                    calculateYoniMatch(getYoniFromNakshatra(g), getYoniFromNakshatra(b)),
+                    calculateGanaMatch(getGanaFromNakshatra(g), getGanaFromNakshatra(b)),
+                    calculateNadiMatch(getNadiFromNakshatra(g), getNadiFromNakshatra(b))
+                };
+                for (int k = 0; k < points.length; k++) {
+                    NAKSHATRA_KOOTA_POINTS[k][cell] = (byte) points[k];
+                    NAKSHATRA_POINTS[cell] += (byte) points[k];
+                }
+                NADI_DOSHA[cell] = getNadiFromNakshatra(g) == getNadiFromNakshatra(b) && getNadiFromNakshatra(g) != 0;
+            }
+        }
+    }
+
+    @Value("${astro.compatibility.bulk.max-candidates:50000}")
+    private int maxBulkCandidates;
+
+    @Value("${astro.compatibility.bulk.max-top-k:500}")
+    private int maxTopK;
+
     public Map<String, Integer> buildGunasFromChart(String moonSign, String nakshatra, boolean mangalDosha) {
     Map<String, Integer> gunas = new LinkedHashMap<>();
-    int rashiIndex = RASHI_INDEX.getOrDefault(moonSign, 0);
+    String rashi = rashiName(moonSign);
+    int rashiIndex = rashiNumber(rashi);
     int nakshatraIndex = getNakshatraIndex(nakshatra);
 
-    gunas.put("Varna", getVarnaFromRashi(moonSign));
-    gunas.put("Vasya", getVasyaFromRashi(moonSign));
+    gunas.put("Varna", getVarnaFromRashi(rashi));
+    gunas.put("Vasya", getVasyaFromRashi(rashi));
     gunas.put("Tara", nakshatraIndex);
     gunas.put("Yoni", getYoniFromNakshatra(nakshatraIndex));
-    gunas.put("Graha Maitri", RASHI_LORD.getOrDefault(moonSign, 0));
+    gunas.put("Graha Maitri", rashiLord(rashi));
     gunas.put("Gana", getGanaFromNakshatra(nakshatraIndex));
     gunas.put("Bhakoot", rashiIndex);
     gunas.put("Nadi", getNadiFromNakshatra(nakshatraIndex));
@@ -69,6 +143,92 @@ public class CompatibilityMatchingService {
     return gunas;
     }
 
+    /**
+     * Moon sign, nakshatra and Mangal dosha of one chart packed into an int for table lookups:
+     * bits 0-3 rashi (1-12), bits 4-8 nakshatra (1-27), bit 9 Mangal dosha. Unknown names map to 0.
+     */
+    public static int encodeChart(String moonSign, String nakshatra, boolean mangalDosha) {
+        return rashiNumber(rashiName(moonSign)) | (getNakshatraIndex(nakshatra) << 4) | (mangalDosha ? 1 << 9 : 0);
+    }
+
+    /**
+     * Gun Milan of two charts from the precomputed koota tables; same result as
+     * calculateGunMilan over buildGunasFromChart of both.
+     */
+    public CompatibilityResult calculateGunMilan(String groomMoonSign, String groomNakshatra, boolean groomMangalDosha,
+                                                 String brideMoonSign, String brideNakshatra, boolean brideMangalDosha) {
+        return toResult(encodeChart(groomMoonSign, groomNakshatra, groomMangalDosha),
+                encodeChart(brideMoonSign, brideNakshatra, brideMangalDosha));
+    }
+
+    /**
+     * Score one chart against many candidates (packed with encodeChart) and keep the topK by total
+     * guna; ties keep candidate order. Large batches are scored in parallel, each worker keeping
+     * its own bounded heap that are merged at the end.
+     *
+     * @return candidate indexes with their results, best first
+     */
+    public List<RankedMatch> findTopMatches(int chart, int[] candidates, int topK) {
+        if (candidates.length > maxBulkCandidates) {
+            throw new IllegalArgumentException("At most " + maxBulkCandidates + " candidates are allowed");
+        }
+        if (topK < 1 || topK > maxTopK) {
+            throw new IllegalArgumentException("topK must be between 1 and " + maxTopK);
+        }
+        try {
+            IntStream indexes = IntStream.range(0, candidates.length);
+            if (candidates.length >= PARALLEL_THRESHOLD) {
+                indexes = indexes.parallel();
+            }
+            TopMatches top = indexes.collect(
+                    () -> new TopMatches(topK),
+                    (heap, i) -> heap.offer(totalPoints(chart, candidates[i]), i),
+                    TopMatches::merge);
+
+            List<RankedMatch> result = new ArrayList<>();
+            for (int index : top.indexesBestFirst()) {
+                result.add(new RankedMatch(index, toResult(chart, candidates[index])));
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("Error calculating bulk gun milan", e);
+            throw new RuntimeException("Failed to calculate compatibility: " + e.getMessage());
+        }
+    }
+
+    private static int totalPoints(int groom, int bride) {
+        return RASHI_POINTS[(groom & 0xF) * RASHI_SLOTS + (bride & 0xF)]
+                + NAKSHATRA_POINTS[((groom >> 4) & 0x1F) * NAKSHATRA_SLOTS + ((bride >> 4) & 0x1F)];
+    }
+
+    private CompatibilityResult toResult(int groom, int bride) {
+        int rashiCell = (groom & 0xF) * RASHI_SLOTS + (bride & 0xF);
+        int nakshatraCell = ((groom >> 4) & 0x1F) * NAKSHATRA_SLOTS + ((bride >> 4) & 0x1F);
+
+        Map<String, Integer> categoryMatches = new HashMap<>();
+        for (int k = 0; k < RASHI_KOOTAS.length; k++) {
+            categoryMatches.put(RASHI_KOOTAS[k], (int) RASHI_KOOTA_POINTS[k][rashiCell]);
+        }
+        for (int k = 0; k < NAKSHATRA_KOOTAS.length; k++) {
+            categoryMatches.put(NAKSHATRA_KOOTAS[k], (int) NAKSHATRA_KOOTA_POINTS[k][nakshatraCell]);
+        }
+        int totalMatch = RASHI_POINTS[rashiCell] + NAKSHATRA_POINTS[nakshatraCell];
+        boolean nadiDosha = NADI_DOSHA[nakshatraCell];
+        boolean bhakootDosha = BHAKOOT_DOSHA[rashiCell];
+        boolean mangalDosha = ((groom | bride) & (1 << 9)) != 0;
+
+        return CompatibilityResult.builder()
+                .totalPoints(totalMatch)
+                .outOf(36)
+                .percentage((totalMatch / 36.0) * 100)
+                .categoryMatches(categoryMatches)
+                .nadiDosha(nadiDosha)
+                .bhakootDosha(bhakootDosha)
+                .mangalDosha(mangalDosha)
+                .prediction(getPrediction(totalMatch, nadiDosha, bhakootDosha, mangalDosha))
+                .build();
+    }
+
     /**
      * Calculate 36 Gun Milan (compatibility matching)
      * @param groom36Guns Map of 12 guna with their points
@@ -168,16 +328,16 @@ public class CompatibilityMatchingService {
         }
     }
 
-    private int calculateVarnaMatch(int groomVarna, int brideVarna) {
+    private static int calculateVarnaMatch(int groomVarna, int brideVarna) {
         return groomVarna == brideVarna ? 1 : 0;
     }
 
-    private int calculateVasyaMatch(int groomVasya, int brideVasya) {
+    private static int calculateVasyaMatch(int groomVasya, int brideVasya) {
         // Vasya rules: Quadruped, Bipedal, Insect, Aquatic, Reptile
         return groomVasya == brideVasya ? 2 : 0;
     }
 
-    private int calculateTaraMatch(int groomTara, int brideTara) {
+    private static int calculateTaraMatch(int groomTara, int brideTara) {
         int diff = Math.abs(groomTara - brideTara);
         return switch (diff % 9) {
             case 2, 4, 6, 8 -> 3;
@@ -185,19 +345,19 @@ public class CompatibilityMatchingService {
         };
     }
 
-    private int calculateYoniMatch(int groomYoni, int brideYoni) {
+    private static int calculateYoniMatch(int groomYoni, int brideYoni) {
         return groomYoni == brideYoni ? 4 : 0;
     }
 
-    private int calculateGrahaMaitri(int groomMaitri, int brideMaitri) {
+    private static int calculateGrahaMaitri(int groomMaitri, int brideMaitri) {
         return groomMaitri == brideMaitri ? 5 : (Math.abs(groomMaitri - brideMaitri) == 1 ? 2 : 0);
     }
 
-    private int calculateGanaMatch(int groomGana, int brideGana) {
+    private static int calculateGanaMatch(int groomGana, int brideGana) {
         return groomGana == brideGana ? 6 : 0;
     }
 
-    private int calculateBhakootMatch(int groomBhakoot, int brideBhakoot) {
+    private static int calculateBhakootMatch(int groomBhakoot, int brideBhakoot) {
         int diff = Math.abs(groomBhakoot - brideBhakoot);
         return switch (diff) {
             case 0, 1, 2, 5 -> 7;
@@ -206,7 +366,7 @@ public class CompatibilityMatchingService {
         };
     }
 
-    private int calculateNadiMatch(int groomNadi, int brideNadi) {
+    private static int calculateNadiMatch(int groomNadi, int brideNadi) {
         // Same nadi is considered Nadi Dosha, so points should be zero.
         return groomNadi == brideNadi ? 0 : 8;
     }
@@ -229,7 +389,7 @@ public class CompatibilityMatchingService {
         return groomMangal || brideMangal;
     }
 
-    private String getPrediction(int totalMatch, boolean nadiDosha, boolean bhakootDosha, boolean mangalDosha) {
+    private static String getPrediction(int totalMatch, boolean nadiDosha, boolean bhakootDosha, boolean mangalDosha) {
         String base = "";
 
         if (totalMatch >= 32) {
@@ -348,7 +508,7 @@ public class CompatibilityMatchingService {
         return yourSign + " and " + partnerSign + " may face compatibility challenges that require conscious effort and patience.";
     }
 
-    private int getNakshatraIndex(String nakshatra) {
+    private static int getNakshatraIndex(String nakshatra) {
         if (nakshatra == null) {
             return 0;
         }
@@ -356,7 +516,22 @@ public class CompatibilityMatchingService {
         return index >= 0 ? index + 1 : 0;
     }
 
-    private int getVarnaFromRashi(String rashi) {
+    /**
+     * Moon sign as the rashi lookups below expect it: trimmed, null when missing.
+     */
+    private static String rashiName(String moonSign) {
+        return moonSign == null || moonSign.isBlank() ? null : moonSign.trim();
+    }
+
+    private static int rashiNumber(String rashi) {
+        return rashi == null ? 0 : RASHI_INDEX.getOrDefault(rashi, 0);
+    }
+
+    private static int rashiLord(String rashi) {
+        return rashi == null ? 0 : RASHI_LORD.getOrDefault(rashi, 0);
+    }
+
+    private static int getVarnaFromRashi(String rashi) {
         if (rashi == null) return 0;
         return switch (rashi) {
             case "Aries", "Leo", "Sagittarius" -> 2; // Kshatriya
@@ -367,7 +542,7 @@ public class CompatibilityMatchingService {
         };
     }
 
-    private int getVasyaFromRashi(String rashi) {
+    private static int getVasyaFromRashi(String rashi) {
         if (rashi == null) return 0;
         return switch (rashi) {
             case "Aries", "Cancer", "Libra", "Capricorn" -> 1; // Movable
@@ -377,21 +552,101 @@ public class CompatibilityMatchingService {
         };
     }
 
-    private int getGanaFromNakshatra(int nakshatraIndex) {
+    private static int getGanaFromNakshatra(int nakshatraIndex) {
         if (nakshatraIndex < 1 || nakshatraIndex > 27) return 0;
         return NAKSHATRA_TO_GANA[nakshatraIndex - 1];
     }
 
-    private int getNadiFromNakshatra(int nakshatraIndex) {
+    private static int getNadiFromNakshatra(int nakshatraIndex) {
         if (nakshatraIndex < 1 || nakshatraIndex > 27) return 0;
         return NAKSHATRA_TO_NADI[nakshatraIndex - 1];
     }
 
-    private int getYoniFromNakshatra(int nakshatraIndex) {
+    private static int getYoniFromNakshatra(int nakshatraIndex) {
         if (nakshatraIndex < 1 || nakshatraIndex > 27) return 0;
         return NAKSHATRA_TO_YONI[nakshatraIndex - 1];
     }
 
+    /**
+     * Bounded min-heap of (points, candidate index) packed into longs; the weakest kept match is
+     * at the root, so a candidate only enters when it beats it.
+     */
+    private static final class TopMatches {
+        private final long[] heap;
+        private int size;
+
+        TopMatches(int limit) {
+            this.heap = new long[limit];
+        }
+
+        void offer(int points, int index) {
+            // Higher points rank first; among equal points the earlier candidate does
+            long key = ((long) points << 32) | (Integer.MAX_VALUE - index);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        void merge(TopMatches other) {
+            for (int i = 0; i < other.size; i++) {
+                long key = other.heap[i];
+                offer((int) (key >>> 32), Integer.MAX_VALUE - (int) key);
+            }
+        }
+
+        int[] indexesBestFirst() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = Integer.MAX_VALUE - (int) sorted[size - 1 - i];
+            }
+            return indexes;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (heap[parent] <= heap[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && heap[left] < heap[smallest]) smallest = left;
+                if (right < size && heap[right] < heap[smallest]) smallest = right;
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    /**
+     * One bulk match result; index is the candidate's position in the request.
+     */
+    public record RankedMatch(int index, CompatibilityResult compatibility) {
+    }
+
     public static class CompatibilityResult {
         public int totalPoints;
         public int outOf;
@@ -1,11 +1,16 @@
 package com.astro.backend.Services;
 
+import com.astro.backend.Entity.DashaCalculation;
+import com.astro.backend.Repositry.DashaCalculationRepository;
 import com.astro.backend.ResponseDTO.DashaResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -14,22 +19,15 @@ import java.util.*;
 @Slf4j
 public class DashaCalculationService {
 
-        private static final String[] VIMSHOTTARI_SEQUENCE = {
-            "Ketu", "Venus", "Sun", "Moon", "Mars", "Rahu", "Jupiter", "Saturn", "Mercury"
-        };
+    private static final String VIMSHOTTARI = "Vimshottari";
+
+    private static final double NAKSHATRA_SPAN = 360.0 / 27.0;
+    private static final double UNIX_EPOCH_JD = 2440587.5;
 
-    // Vimshottari Dasha years for each planet
-    private static final Map<String, Integer> VIMSHOTTARI_YEARS = Map.ofEntries(
-            Map.entry("Sun", 6),
-            Map.entry("Moon", 10),
-            Map.entry("Mars", 7),
-            Map.entry("Mercury", 17),
-            Map.entry("Jupiter", 16),
-            Map.entry("Venus", 20),
-            Map.entry("Saturn", 19),
-            Map.entry("Rahu", 18),
-            Map.entry("Ketu", 7)
-    );
+    // Pratyantar dashas listed in DashaResponse.dashaTable
+    private static final int DASHA_TABLE_ENTRIES = 15;
+
+    private final DashaCalculationRepository dashaCalculationRepository;
 
     /**
      * Calculate Vimshottari Dasha
@@ -39,11 +37,7 @@ public class DashaCalculationService {
      */
     public DashaResponse calculateVimshottariDasha(LocalDate dateOfBirth, String nakshatra) {
         try {
-            // Calculate Nakshatra number (0-26)
-            int nakshatraNum = getNakshatraNumber(nakshatra);
-
-            // Without Moon longitude we cannot compute precise balance; fall back to simplified
-            return buildSimplifiedDasha(dateOfBirth, nakshatraNum);
+            return buildVimshottariResponse(getVimshottariTimeline(dateOnlyJulDay(dateOfBirth), getNakshatraMidpoint(nakshatra)));
 
         } catch (Exception e) {
             log.error("Error calculating Vimshottari Dasha", e);
@@ -52,94 +46,185 @@ public class DashaCalculationService {
     }
 
     /**
-     * Preferred: Calculate Vimshottari Dasha using Moon longitude at birth for exact balance
+     * Preferred: Calculate Vimshottari Dasha from the birth moment (Julian day, UT) and the Moon
+     * longitude at birth for exact balance
      */
-    public DashaResponse calculateVimshottariDasha(LocalDate dateOfBirth, String nakshatra, double moonLongitudeAtBirth) {
+    public DashaResponse calculateVimshottariDasha(double birthJulDayUt, double moonLongitudeAtBirth) {
         try {
-            final double NAK_DEG = 360.0 / 27.0; // 13°20'
-
-            // Derive nakshatra index from Moon longitude for consistency
-            int nakshatraIndex = (int) Math.floor(moonLongitudeAtBirth / NAK_DEG);
-            String mahadashaLord = getDashaLordFromNakshatra(nakshatraIndex);
-
-            // Fraction within current nakshatra at birth
-            double offsetInNak = moonLongitudeAtBirth - (nakshatraIndex * NAK_DEG);
-            double elapsedFrac = offsetInNak / NAK_DEG; // 0..1 progressed within nakshatra
-            double balanceFrac = 1.0 - elapsedFrac;     // remaining fraction in start nakshatra
-
-            // Balance years of start Mahadasha
-            double startMahaYears = VIMSHOTTARI_YEARS.get(mahadashaLord);
-            double startMahaBalanceYears = startMahaYears * balanceFrac;
-            long startMahaBalanceDays = Math.round(startMahaBalanceYears * 365.2422);
-
-            LocalDate mahaStartDate = dateOfBirth; // Mahadasha starts at birth
-            LocalDate mahaEndDate = mahaStartDate.plusDays(startMahaBalanceDays);
-
-            // Determine current antardasha at birth by consuming progressed units across antardashas
-            // Progressed units within Mahadasha measured on 120-base
-            double progressedUnits = elapsedFrac * 120.0;
-            int startMahadashaIndex = getPlanetIndex(mahadashaLord);
-
-            // Build upcoming 15 pratyantar entries from today's date
-            List<Map<String, String>> dashaTable = generateDetailedDashaTableFromToday(
-                    dateOfBirth,
-                    startMahadashaIndex,
-                    startMahaYears,
-                    progressedUnits,
-                    15
-            );
-
-            LocalDate today = LocalDate.now();
-            double progressionPercentage = calculateProgression(mahaStartDate, mahaEndDate);
-            String currentAntardasha = calculateAntardasha(mahadashaLord);
-
-            return DashaResponse.builder()
-                    .dashaType("Vimshottari")
-                    .currentMahadasha(mahadashaLord)
-                    .mahadashaLord(mahadashaLord)
-                    .mahadashaStartDate(mahaStartDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")))
-                    .mahadashaEndDate(mahaEndDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")))
-                    .mahadashaRemainingYears((int) calculateYearsDifference(today, mahaEndDate))
-                    .currentAntardasha(currentAntardasha)
-                    .antardashaLord(currentAntardasha)
-                    .mahadashaSignification(getSignification(mahadashaLord))
-                    .upcomingChanges(getUpcomingChanges(mahadashaLord))
-                    .remedyAdvice(getRemedy(mahadashaLord))
-                    .progressionPercentage((int) Math.round(progressionPercentage))
-                    .dashaTable(dashaTable)
-                    .build();
+            return buildVimshottariResponse(getVimshottariTimeline(birthJulDayUt, moonLongitudeAtBirth));
         } catch (Exception e) {
             log.error("Error calculating Vimshottari Dasha (exact)", e);
             throw new RuntimeException("Failed to calculate dasha: " + e.getMessage());
         }
     }
 
-    private DashaResponse buildSimplifiedDasha(LocalDate dateOfBirth, int nakshatraNum) {
-        // Determine starting dasha lord
-        String mahadashaLord = getDashaLordFromNakshatra(nakshatraNum);
+    /**
+     * Vimshottari Dasha of a chart from its stored timeline, or from the birth data given when
+     * nothing is stored for the chart or it does not agree with that data. Never writes.
+     */
+    public DashaResponse getVimshottariDashaForChart(Long chartId, LocalDate dateOfBirth, String nakshatra,
+                                                     Double moonLongitudeAtBirth) {
+        try {
+            return buildVimshottariResponse(loadVimshottariTimeline(chartId, dateOfBirth, nakshatra, moonLongitudeAtBirth));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error calculating Vimshottari Dasha for chart {}", chartId, e);
+            throw new RuntimeException("Failed to calculate dasha: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stored Vimshottari timeline of a chart when it agrees with whatever birth data is given,
+     * otherwise one computed from that data. Timelines are only stored through
+     * {@link #storeVimshottariTimeline}, when the owning profile's birth details are saved.
+     */
+    public VimshottariTimeline loadVimshottariTimeline(Long chartId, LocalDate dateOfBirth, String nakshatra,
+                                                       Double moonLongitudeAtBirth) {
+        DashaCalculation row = chartId != null
+                ? dashaCalculationRepository.findByBirthChartIdAndDashaType(chartId, VIMSHOTTARI).orElse(null)
+                : null;
+        VimshottariTimeline stored = row != null ? VimshottariTimeline.deserialize(row.getDashaTimeline()) : null;
+        if (stored != null && matches(stored, dateOfBirth, nakshatra, moonLongitudeAtBirth)) {
+            return stored;
+        }
+
+        if (dateOfBirth == null) {
+            throw new IllegalArgumentException("dateOfBirth is required");
+        }
+        if (moonLongitudeAtBirth == null && (nakshatra == null || nakshatra.isBlank())) {
+            throw new IllegalArgumentException("moonLongitude or nakshatra is required");
+        }
+        return getVimshottariTimeline(dateOnlyJulDay(dateOfBirth),
+                moonLongitudeAtBirth != null ? moonLongitudeAtBirth : getNakshatraMidpoint(nakshatra));
+    }
+
+    /**
+     * Insert or replace the Vimshottari timeline of a chart (keyed by the profile userId), in its own
+     * transaction so a failure cannot roll back the caller's.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void storeVimshottariTimeline(Long chartId, VimshottariTimeline timeline) {
+        try {
+            VimshottariTimeline.Period first = timeline.at(VimshottariTimeline.MAHADASHA, timeline.getBirthEpochDay());
+            dashaCalculationRepository.upsertTimeline(chartId, VIMSHOTTARI, first.lord(), first.startDate(),
+                    first.endDate(), VimshottariTimeline.YEARS[first.lords()[0]], timeline.serialize());
+        } catch (Exception e) {
+            log.error("Error storing dasha timeline for chart {}", chartId, e);
+            throw new RuntimeException("Failed to store dasha timeline: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the stored dasha timelines of a chart (keyed by the profile userId) after its birth details changed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void invalidateChart(Long chartId) {
+        if (chartId == null) {
+            return;
+        }
+        List<DashaCalculation> rows = dashaCalculationRepository.findByBirthChartId(chartId);
+        if (!rows.isEmpty()) {
+            dashaCalculationRepository.deleteAll(rows);
+            log.info("Invalidated {} stored dasha timelines for chart {}", rows.size(), chartId);
+        }
+    }
+
+    /**
+     * Stand-in Moon longitude when only the birth nakshatra is known: the balance of the first
+     * mahadasha is then taken as half.
+     */
+    private double getNakshatraMidpoint(String nakshatra) {
+        return (getNakshatraNumber(nakshatra) + 0.5) * NAKSHATRA_SPAN;
+    }
+
+    /**
+     * Full Vimshottari timeline (mahadasha down to prana) for a birth moment (Julian day, UT);
+     * deeper levels are built on first use.
+     */
+    public VimshottariTimeline getVimshottariTimeline(double birthJulDayUt, double moonLongitudeAtBirth) {
+        return VimshottariTimeline.of(birthJulDayUt, moonLongitudeAtBirth);
+    }
+
+    /**
+     * Stand-in birth moment when only the date of birth is known: its start, UTC.
+     */
+    private static double dateOnlyJulDay(LocalDate dateOfBirth) {
+        return dateOfBirth.toEpochDay() + UNIX_EPOCH_JD;
+    }
+
+    /**
+     * Page through the periods of one level (1 = mahadasha .. 5 = prana) from the one running on a date.
+     */
+    public List<Map<String, String>> getVimshottariPeriods(VimshottariTimeline timeline, int level,
+                                                          LocalDate from, int offset, int limit, ZoneId zone) {
+        try {
+            double fromEpochDay = from != null ? from.toEpochDay() : nowEpochDay();
+            List<Map<String, String>> rows = new ArrayList<>();
+            for (VimshottariTimeline.Period period : timeline.periods(level, fromEpochDay, offset, limit)) {
+                Map<String, String> row = new LinkedHashMap<>();
+                row.put("period", periodName(period));
+                row.put("lord", period.lord());
+                row.put("level", VimshottariTimeline.LEVEL_NAMES[level]);
+                row.put("start", period.startInstant().atZone(zone).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+                row.put("end", period.endInstant().atZone(zone).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+                rows.add(row);
+            }
+            return rows;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error listing Vimshottari periods", e);
+            throw new RuntimeException("Failed to list dasha periods: " + e.getMessage());
+        }
+    }
+
+    private DashaResponse buildVimshottariResponse(VimshottariTimeline timeline) {
+        double now = Math.max(nowEpochDay(), timeline.getBirthEpochDay());
+        VimshottariTimeline.Period maha = timeline.at(VimshottariTimeline.MAHADASHA, now);
+        VimshottariTimeline.Period antar = timeline.at(VimshottariTimeline.ANTARDASHA, now);
+        VimshottariTimeline.Period praty = timeline.at(VimshottariTimeline.PRATYANTARDASHA, now);
+        VimshottariTimeline.Period sookshma = timeline.at(VimshottariTimeline.SOOKSHMA, now);
+        if (maha == null) {
+            throw new IllegalStateException("Date is outside the Vimshottari cycle");
+        }
+        List<VimshottariTimeline.Period> next = timeline.periods(VimshottariTimeline.MAHADASHA, now, 1, 1);
 
-        // Calculate dasha periods (simplified fall-back)
-        LocalDate[] dashaPeriod = calculateDashaPeriod(dateOfBirth, nakshatraNum);
-        LocalDate today = LocalDate.now();
-        String antardashaLord = calculateAntardasha(mahadashaLord);
-        double progressionPercentage = calculateProgression(dashaPeriod[0], dashaPeriod[1]);
+        // Upcoming pratyantar dashas from the one running today
+        List<Map<String, String>> dashaTable = new ArrayList<>();
+        for (VimshottariTimeline.Period period : timeline.periods(VimshottariTimeline.PRATYANTARDASHA, now, 0, DASHA_TABLE_ENTRIES)) {
+            LocalDate end = period.endDate();
+            Map<String, String> entry = new LinkedHashMap<>();
+            entry.put("period", periodName(period));
+            entry.put("day", end.getDayOfWeek().toString().substring(0, 3));
+            entry.put("endDate", end.format(DateTimeFormatter.ofPattern("dd-MM-yyyy")));
+            dashaTable.add(entry);
+        }
 
-        // Generate detailed dasha table (simplified)
-        List<Map<String, String>> dashaTable = generateDetailedDashaTable(dateOfBirth, nakshatraNum);
+        String mahadashaLord = maha.lord();
+        double progression = (now - maha.startEpochDay()) / (maha.endEpochDay() - maha.startEpochDay()) * 100.0;
 
         return DashaResponse.builder()
-                .dashaType("Vimshottari")
+                .dashaType(VIMSHOTTARI)
                 .currentMahadasha(mahadashaLord)
                 .mahadashaLord(mahadashaLord)
-                .mahadashaStartDate(dashaPeriod[0].format(DateTimeFormatter.ofPattern("yyyy-MM-dd")))
-                .mahadashaEndDate(dashaPeriod[1].format(DateTimeFormatter.ofPattern("yyyy-MM-dd")))
-                .mahadashaRemainingYears((int) calculateYearsDifference(today, dashaPeriod[1]))
-                .currentAntardasha(antardashaLord)
-                .antardashaLord(antardashaLord)
+                .mahadashaStartDate(formatDate(maha))
+                .mahadashaEndDate(formatEndDate(maha))
+                .mahadashaRemainingYears((int) calculateYearsDifference(LocalDate.now(), maha.endDate()))
+                .currentAntardasha(antar != null ? antar.lord() : null)
+                .antardashaLord(antar != null ? antar.lord() : null)
+                .antardashaStartDate(formatDate(antar))
+                .antardashaEndDate(formatEndDate(antar))
+                .currentPratyantar(praty != null ? praty.lord() : null)
+                .pratyantarStartDate(formatDate(praty))
+                .pratyantarEndDate(formatEndDate(praty))
+                .currentSookshma(sookshma != null ? sookshma.lord() : null)
+                .sookshmaStartDate(formatDate(sookshma))
+                .sookshmaEndDate(formatEndDate(sookshma))
                 .mahadashaSignification(getSignification(mahadashaLord))
-                .upcomingChanges(getUpcomingChanges(mahadashaLord))
+                .upcomingChanges(next.isEmpty() ? null : getUpcomingChanges(next.get(0).lord()))
                 .remedyAdvice(getRemedy(mahadashaLord))
-                .progressionPercentage((int) Math.round(progressionPercentage))
+                .progressionPercentage((int) Math.round(progression))
                 .dashaTable(dashaTable)
                 .build();
     }
@@ -199,54 +284,6 @@ public class DashaCalculationService {
         return 0;
     }
 
-    /**
-     * Determine dasha lord based on birth nakshatra
-     */
-    private String getDashaLordFromNakshatra(int nakshatraNum) {
-        // Dasha sequence follows 9-planet Vimshottari order
-        int planetIndex = (nakshatraNum / 3) % VIMSHOTTARI_SEQUENCE.length;
-        return VIMSHOTTARI_SEQUENCE[planetIndex];
-    }
-
-    /**
-     * Calculate dasha start and end dates
-     */
-    private LocalDate[] calculateDashaPeriod(LocalDate dateOfBirth, int nakshatraNum) {
-        // Simplified calculation
-        String lord = getDashaLordFromNakshatra(nakshatraNum);
-        int years = VIMSHOTTARI_YEARS.getOrDefault(lord, 10);
-
-        LocalDate start = dateOfBirth.plusYears(2);  // Simplified
-        LocalDate end = start.plusYears(years);
-
-        return new LocalDate[]{start, end};
-    }
-
-    /**
-     * Calculate antardasha lord
-     */
-    private String calculateAntardasha(String mahadashaLord) {
-        for (int i = 0; i < VIMSHOTTARI_SEQUENCE.length; i++) {
-            if (VIMSHOTTARI_SEQUENCE[i].equalsIgnoreCase(mahadashaLord)) {
-                int next = (i + 1) % VIMSHOTTARI_SEQUENCE.length;
-                return VIMSHOTTARI_SEQUENCE[next];
-            }
-        }
-        return "Ketu";
-    }
-
-    /**
-     * Calculate percentage progression of dasha
-     */
-    private double calculateProgression(LocalDate start, LocalDate end) {
-        LocalDate today = LocalDate.now();
-        long totalDays = java.time.temporal.ChronoUnit.DAYS.between(start, end);
-        long passedDays = java.time.temporal.ChronoUnit.DAYS.between(start, today);
-
-        if (totalDays == 0) return 0;
-        return (double) passedDays / totalDays * 100;
-    }
-
     /**
      * Calculate years difference
      */
@@ -294,261 +331,52 @@ public class DashaCalculationService {
     }
 
     /**
-     * Generate detailed Vimshottari dasha table using exact formula
-     * Generates 15+ days of dasha periods with proper calculations
+     * A stored timeline still applies when it has the birth date, Moon longitude or nakshatra asked for.
      */
-    private List<Map<String, String>> generateDetailedDashaTable(LocalDate dateOfBirth, int nakshatraNum) {
-        List<Map<String, String>> dashaTable = new ArrayList<>();
-        
-        try {
-            // Step 1: Get starting Mahadasha lord from Nakshatra
-            String startMahadashaLord = getDashaLordFromNakshatra(nakshatraNum);
-            int startMahadashaIndex = getPlanetIndex(startMahadashaLord);
-            
-            LocalDate currentDate = LocalDate.now();
-            int entriesGenerated = 0;
-            final int TARGET_ENTRIES = 15; // Generate 15 dasha entries
-            
-            // Iterate through Mahadashas
-            for (int mahaIndex = 0; mahaIndex < VIMSHOTTARI_SEQUENCE.length && entriesGenerated < TARGET_ENTRIES; mahaIndex++) {
-                String mahadashaLord = VIMSHOTTARI_SEQUENCE[(startMahadashaIndex + mahaIndex) % VIMSHOTTARI_SEQUENCE.length];
-                double mahadashaYears = VIMSHOTTARI_YEARS.get(mahadashaLord);
-                
-                // Iterate through Antardashas
-                for (int antarIndex = 0; antarIndex < VIMSHOTTARI_SEQUENCE.length && entriesGenerated < TARGET_ENTRIES; antarIndex++) {
-                    String antardashaLord = VIMSHOTTARI_SEQUENCE[(startMahadashaIndex + antarIndex) % VIMSHOTTARI_SEQUENCE.length];
-                    
-                    // Step 5: Calculate Antardasha duration using exact formula
-                    // Antar Duration = (MahadashaYears × AntarPlanetYears) / 120
-                    double antardashaYears = (mahadashaYears * VIMSHOTTARI_YEARS.get(antardashaLord)) / 120.0;
-                    
-                    // Iterate through Pratyantar dashas
-                    for (int pratyIndex = 0; pratyIndex < VIMSHOTTARI_SEQUENCE.length && entriesGenerated < TARGET_ENTRIES; pratyIndex++) {
-                        String pratyantarLord = VIMSHOTTARI_SEQUENCE[(startMahadashaIndex + pratyIndex) % VIMSHOTTARI_SEQUENCE.length];
-                        
-                        // Step 6: Calculate Pratyantar duration using exact formula
-                        // Pratyantar Duration = (AntarYears × PratyantarPlanetYears) / 120
-                        double pratyantarYears = (antardashaYears * VIMSHOTTARI_YEARS.get(pratyantarLord)) / 120.0;
-                        double pratyantarDays = pratyantarYears * 365.2422; // Convert to days
-                        
-                        // Add days to current date
-                        LocalDate pratyantarEndDate = currentDate.plusDays((long) pratyantarDays);
-                        
-                        // Create dasha entry
-                        String periodName = abbreviatePlanet(mahadashaLord) + "-" + 
-                                           abbreviatePlanet(antardashaLord) + "-" + 
-                                           abbreviatePlanet(pratyantarLord);
-                        String dayName = pratyantarEndDate.getDayOfWeek().toString().substring(0, 3); // Mon, Tue, etc
-                        String formattedDate = pratyantarEndDate.format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-                        
-                        Map<String, String> dashaEntry = new HashMap<>();
-                        dashaEntry.put("period", periodName);
-                        dashaEntry.put("day", dayName);
-                        dashaEntry.put("endDate", formattedDate);
-                        
-                        dashaTable.add(dashaEntry);
-                        entriesGenerated++;
-                        
-                        currentDate = pratyantarEndDate;
-                        
-                        // Stop if we have enough entries
-                        if (entriesGenerated >= TARGET_ENTRIES) {
-                            break;
-                        }
-                    }
-                }
+    private boolean matches(VimshottariTimeline timeline, LocalDate dateOfBirth, String nakshatra, Double moonLongitude) {
+        if (dateOfBirth != null) {
+            // The stored birth moment is UTC; the date given is local to the birth place (UTC-12 .. UTC+14)
+            double sinceDate = timeline.getBirthEpochDay() - dateOfBirth.toEpochDay();
+            if (sinceDate < -14 / 24.0 || sinceDate >= 1 + 12 / 24.0) {
+                return false;
             }
-            
-        } catch (Exception e) {
-            log.error("Error generating detailed dasha table", e);
         }
-        
-        return dashaTable;
+        if (moonLongitude != null) {
+            double diff = Math.abs(timeline.getMoonLongitude() - ((moonLongitude % 360.0) + 360.0) % 360.0);
+            return diff < 1e-6;
+        }
+        if (nakshatra != null && !nakshatra.isBlank()) {
+            return (int) Math.floor(timeline.getMoonLongitude() / NAKSHATRA_SPAN) == getNakshatraNumber(nakshatra);
+        }
+        return true;
     }
 
-    /**
-     * Generate 15 pratyantar entries starting from today's date by traversing
-     * the birth timeline using exact Vimshottari formulas.
-     */
-    private List<Map<String, String>> generateDetailedDashaTableFromToday(
-            LocalDate dateOfBirth,
-            int startMahadashaIndex,
-            double startMahadashaYears,
-            double progressedUnitsInStartMahadasha,
-            int targetEntries
-    ) {
-        List<Map<String, String>> table = new ArrayList<>();
-        try {
-            // Build full timeline from birth until we reach today, then emit next entries
-            LocalDate pointer = dateOfBirth;
-            LocalDate today = LocalDate.now();
-            long daysToToday = java.time.temporal.ChronoUnit.DAYS.between(dateOfBirth, today);
-            long consumedDays = 0;
-
-            // Consume starting Mahadasha first
-            // Antardasha distribution measured on 120 base; determine starting antar/praty by progressed units
-            double remainingUnits = 120.0 - progressedUnitsInStartMahadasha; // units remaining in start Mahadasha
-
-            int mahaIdx = startMahadashaIndex;
-            int antarStartIdx = startMahadashaIndex; // Antardasha cycle starts with Mahadasha lord
-            double mahaYears = startMahadashaYears;
-
-            boolean locatedCurrent = false;
-
-            // Iterate over Mahadashas cyclically until we pass today
-            for (int mahaCount = 0; mahaCount < VIMSHOTTARI_SEQUENCE.length * 3 && !locatedCurrent; mahaCount++) {
-                String mahaLord = VIMSHOTTARI_SEQUENCE[mahaIdx % VIMSHOTTARI_SEQUENCE.length];
-                mahaYears = (mahaCount == 0) ? startMahadashaYears : VIMSHOTTARI_YEARS.get(mahaLord);
-
-                // Iterate Antardashas within this Mahadasha
-                for (int a = 0; a < VIMSHOTTARI_SEQUENCE.length && !locatedCurrent; a++) {
-                    int antarIdx = (antarStartIdx + a) % VIMSHOTTARI_SEQUENCE.length;
-                    String antarLord = VIMSHOTTARI_SEQUENCE[antarIdx];
-                    double antarYears = (mahaYears * VIMSHOTTARI_YEARS.get(antarLord)) / 120.0;
-                    double antarUnits = VIMSHOTTARI_YEARS.get(antarLord); // units on 120-base
-
-                    // Determine pratyantar start index
-                    int pratyStartIdx = antarIdx;
-
-                    // If in first Mahadasha and we still have remainingUnits, fast-forward into the correct antar/praty position
-                    if (mahaCount == 0 && remainingUnits > 0) {
-                        if (remainingUnits > antarUnits) {
-                            remainingUnits -= antarUnits; // skip this antardasha entirely
-                            continue;
-                        }
-                        // We're inside this antardasha; iterate pratyantars to locate today's position
-                        for (int p = 0; p < VIMSHOTTARI_SEQUENCE.length; p++) {
-                            int pratyIdx = (pratyStartIdx + p) % VIMSHOTTARI_SEQUENCE.length;
-                            String pratyLord = VIMSHOTTARI_SEQUENCE[pratyIdx];
-                            double pratyYears = (antarYears * VIMSHOTTARI_YEARS.get(pratyLord)) / 120.0;
-                            long pratyDays = Math.round(pratyYears * 365.2422);
-                            if (consumedDays + pratyDays >= daysToToday) {
-                                // Found current pratyantar; now emit targetEntries consecutively
-                                // Emit current and next (targetEntries) entries
-                                int emitted = 0;
-                                int emitMahaIdx = mahaIdx;
-                                int emitAntarIdx = antarIdx;
-                                int emitPratyIdx = pratyIdx;
-                                LocalDate emitPointer = today; // start emitting from today forward
-                                while (emitted < targetEntries) {
-                                    String eMaha = VIMSHOTTARI_SEQUENCE[emitMahaIdx % VIMSHOTTARI_SEQUENCE.length];
-                                    String eAntar = VIMSHOTTARI_SEQUENCE[emitAntarIdx % VIMSHOTTARI_SEQUENCE.length];
-                                    String ePraty = VIMSHOTTARI_SEQUENCE[emitPratyIdx % VIMSHOTTARI_SEQUENCE.length];
-                                    double eMahaYears = (emitMahaIdx == startMahadashaIndex) ? startMahadashaYears : VIMSHOTTARI_YEARS.get(eMaha);
-                                    double eAntarYears = (eMahaYears * VIMSHOTTARI_YEARS.get(eAntar)) / 120.0;
-                                    double ePratyYears = (eAntarYears * VIMSHOTTARI_YEARS.get(ePraty)) / 120.0;
-                                    long ePratyDays = Math.round(ePratyYears * 365.2422);
-
-                                    LocalDate eEnd = emitPointer.plusDays(ePratyDays);
-                                    String periodName = abbreviatePlanet(eMaha) + "-" + abbreviatePlanet(eAntar) + "-" + abbreviatePlanet(ePraty);
-                                    String dayName = eEnd.getDayOfWeek().toString().substring(0, 3);
-                                    String formattedDate = eEnd.format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-
-                                    Map<String, String> entry = new HashMap<>();
-                                    entry.put("period", periodName);
-                                    entry.put("day", dayName);
-                                    entry.put("endDate", formattedDate);
-                                    table.add(entry);
-
-                                    emitted++;
-                                    emitPointer = eEnd; // move forward
-
-                                    // advance praty/antar/maha indices
-                                    emitPratyIdx = (emitPratyIdx + 1) % VIMSHOTTARI_SEQUENCE.length;
-                                    if (emitPratyIdx == pratyStartIdx) {
-                                        emitAntarIdx = (emitAntarIdx + 1) % VIMSHOTTARI_SEQUENCE.length;
-                                        if (emitAntarIdx == antarStartIdx) {
-                                            emitMahaIdx = (emitMahaIdx + 1) % VIMSHOTTARI_SEQUENCE.length;
-                                        }
-                                    }
-                                }
-
-                                locatedCurrent = true;
-                                break;
-                            } else {
-                                consumedDays += pratyDays;
-                                pointer = pointer.plusDays(pratyDays);
-                            }
-                        }
-                        // After locating current, break out
-                        if (locatedCurrent) break;
-                        remainingUnits = 0; // if not located, remaining units exhausted
-                    }
-
-                    // If not in first Mahadasha or remainingUnits already handled, walk pratyantars normally
-                    for (int p = 0; p < VIMSHOTTARI_SEQUENCE.length && !locatedCurrent; p++) {
-                        int pratyIdx = (pratyStartIdx + p) % VIMSHOTTARI_SEQUENCE.length;
-                        String pratyLord = VIMSHOTTARI_SEQUENCE[pratyIdx];
-                        double pratyYears = (antarYears * VIMSHOTTARI_YEARS.get(pratyLord)) / 120.0;
-                        long pratyDays = Math.round(pratyYears * 365.2422);
-                        if (consumedDays + pratyDays >= daysToToday) {
-                            // Found current pratyantar; emit next entries
-                            LocalDate emitPointer = today;
-                            int emitted = 0;
-                            int emitMahaIdx = mahaIdx;
-                            int emitAntarIdx = antarIdx;
-                            int emitPratyIdx = pratyIdx;
-                            while (emitted < targetEntries) {
-                                String eMaha = VIMSHOTTARI_SEQUENCE[emitMahaIdx % VIMSHOTTARI_SEQUENCE.length];
-                                String eAntar = VIMSHOTTARI_SEQUENCE[emitAntarIdx % VIMSHOTTARI_SEQUENCE.length];
-                                String ePraty = VIMSHOTTARI_SEQUENCE[emitPratyIdx % VIMSHOTTARI_SEQUENCE.length];
-                                double eMahaYears = (emitMahaIdx == startMahadashaIndex) ? startMahadashaYears : VIMSHOTTARI_YEARS.get(eMaha);
-                                double eAntarYears = (eMahaYears * VIMSHOTTARI_YEARS.get(eAntar)) / 120.0;
-                                double ePratyYears = (eAntarYears * VIMSHOTTARI_YEARS.get(ePraty)) / 120.0;
-                                long ePratyDays = Math.round(ePratyYears * 365.2422);
-
-                                LocalDate eEnd = emitPointer.plusDays(ePratyDays);
-                                String periodName = abbreviatePlanet(eMaha) + "-" + abbreviatePlanet(eAntar) + "-" + abbreviatePlanet(ePraty);
-                                String dayName = eEnd.getDayOfWeek().toString().substring(0, 3);
-                                String formattedDate = eEnd.format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-
-                                Map<String, String> entry = new HashMap<>();
-                                entry.put("period", periodName);
-                                entry.put("day", dayName);
-                                entry.put("endDate", formattedDate);
-                                table.add(entry);
-
-                                emitted++;
-                                emitPointer = eEnd;
-
-                                // advance praty/antar/maha indices
-                                emitPratyIdx = (emitPratyIdx + 1) % VIMSHOTTARI_SEQUENCE.length;
-                                if (emitPratyIdx == pratyStartIdx) {
-                                    emitAntarIdx = (emitAntarIdx + 1) % VIMSHOTTARI_SEQUENCE.length;
-                                    if (emitAntarIdx == antarStartIdx) {
-                                        emitMahaIdx = (emitMahaIdx + 1) % VIMSHOTTARI_SEQUENCE.length;
-                                    }
-                                }
-                            }
-                            locatedCurrent = true;
-                            break;
-                        } else {
-                            consumedDays += pratyDays;
-                            pointer = pointer.plusDays(pratyDays);
-                        }
-                    }
-                }
-                mahaIdx = (mahaIdx + 1) % VIMSHOTTARI_SEQUENCE.length;
-                antarStartIdx = mahaIdx; // next mahadasha's antar cycle starts with itself
-            }
-        } catch (Exception e) {
-            log.error("Error generating dasha table from today", e);
-        }
-        return table;
+    private static double nowEpochDay() {
+        return System.currentTimeMillis() / 86_400_000.0;
+    }
+
+    private static String formatDate(VimshottariTimeline.Period period) {
+        return period == null ? null : period.startDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
     }
-    
+
+    private static String formatEndDate(VimshottariTimeline.Period period) {
+        return period == null ? null : period.endDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    }
+
     /**
-     * Get index of planet in Vimshottari sequence
+     * Period name as shown in dasha tables, e.g. "Ra-Ke-Ke"
      */
-    private int getPlanetIndex(String planet) {
-        for (int i = 0; i < VIMSHOTTARI_SEQUENCE.length; i++) {
-            if (VIMSHOTTARI_SEQUENCE[i].equalsIgnoreCase(planet)) {
-                return i;
+    private String periodName(VimshottariTimeline.Period period) {
+        StringBuilder name = new StringBuilder();
+        for (int level = 1; level <= period.level(); level++) {
+            if (level > 1) {
+                name.append('-');
             }
+            name.append(abbreviatePlanet(period.lord(level)));
         }
-        return 0;
+        return name.toString();
     }
-    
+
     /**
      * Abbreviate planet name for dasha display
      */
@@ -0,0 +1,230 @@
+package com.astro.backend.Services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import swisseph.SweDate;
+import swisseph.SwissEph;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-maps the Swiss Ephemeris data files (*.se1) once at startup.
+ * The mapped, read-only pages live in the OS page cache, so every pooled
+ * SwissEph instance reads warm data instead of hitting the disk on its first calculations.
+ */
+@Component
+@Slf4j
+public class EphemerisDataLoader {
+
+    @Value("${astro.ephemeris.path:libs/ephe}")
+    private String ephemerisPath;
+
+    @Value("${astro.ephemeris.preload:true}")
+    private boolean preload;
+
+    @Value("${astro.ephemeris.verify:false}")
+    private boolean verify;
+
+    // "<crc32 hex> <file name>" per line; default checksums.crc32 in the ephemeris directory
+    @Value("${astro.ephemeris.checksum-file:}")
+    private String checksumFile;
+
+    private final Map<String, MappedByteBuffer> mappedFiles = new LinkedHashMap<>();
+
+    private double coverageStartJd = Double.NaN;
+    private double coverageEndJd = Double.NaN;
+
+    @PostConstruct
+    public void init() {
+        Path dir = Paths.get(ephemerisPath);
+        if (!Files.isDirectory(dir)) {
+            log.warn("Ephemeris directory '{}' not found; SwissEph will fall back to the Moshier ephemeris",
+                    dir.toAbsolutePath());
+            return;
+        }
+        if (!preload) {
+            log.info("Ephemeris preloading disabled (astro.ephemeris.preload=false)");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long totalBytes = 0;
+        Map<String, Long> expectedChecksums = verify ? loadChecksums(dir) : Map.of();
+        List<String> corrupt = new ArrayList<>();
+        SwissEph headerReader = new SwissEph(ephemerisPath);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.se1")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                try {
+                    MappedByteBuffer buffer = map(file);
+                    if (buffer == null) {
+                        continue;
+                    }
+                    buffer.load();
+                    if (verify && !verifyFile(fileName, buffer, expectedChecksums)) {
+                        corrupt.add(fileName);
+                        continue;
+                    }
+                    recordCoverage(headerReader, fileName);
+
+                    mappedFiles.put(fileName, buffer);
+                    totalBytes += buffer.capacity();
+                } catch (Exception e) {
+                    log.error("Failed to preload ephemeris file {}: {}", fileName, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to list ephemeris directory {}: {}", dir, e.getMessage());
+        } finally {
+            headerReader.swe_close();
+        }
+
+        if (!corrupt.isEmpty()) {
+            // SwissEph would read these files anyway, so refuse to start on bad data
+            throw new IllegalStateException("Ephemeris files do not match their checksums: " + corrupt);
+        }
+        if (mappedFiles.isEmpty()) {
+            log.warn("No ephemeris files found in '{}'; SwissEph will fall back to the Moshier ephemeris",
+                    dir.toAbsolutePath());
+            return;
+        }
+
+        log.info("Preloaded {} ephemeris files ({} KB) from '{}' in {} ms{}",
+                mappedFiles.size(), totalBytes / 1024, dir.toAbsolutePath(),
+                System.currentTimeMillis() - start,
+                hasCoverage() ? ", coverage " + formatJd(coverageStartJd) + " to " + formatJd(coverageEndJd) : "");
+    }
+
+    /**
+     * True when real .se1 files were found and mapped.
+     */
+    public boolean isAvailable() {
+        return !mappedFiles.isEmpty();
+    }
+
+    /**
+     * True when at least one file header reported its Julian day range.
+     */
+    public boolean hasCoverage() {
+        return !Double.isNaN(coverageStartJd);
+    }
+
+    public double getCoverageStartJd() {
+        return coverageStartJd;
+    }
+
+    public double getCoverageEndJd() {
+        return coverageEndJd;
+    }
+
+    public Map<String, Long> getLoadedFiles() {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        mappedFiles.forEach((name, buffer) -> sizes.put(name, (long) buffer.capacity()));
+        return Collections.unmodifiableMap(sizes);
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0 || size > Integer.MAX_VALUE) {
+                log.warn("Skipping ephemeris file {} with unexpected size {}", file.getFileName(), size);
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Full read of the mapped file compared with its checksum from the manifest; false when it
+     * differs. Files missing from the manifest are only reported with the checksum to record.
+     */
+    private boolean verifyFile(String fileName, MappedByteBuffer buffer, Map<String, Long> expectedChecksums) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        Long expected = expectedChecksums.get(fileName);
+        if (expected == null) {
+            log.warn("Ephemeris file {} is not in the checksum manifest (crc32={})",
+                    fileName, Long.toHexString(crc.getValue()));
+            return true;
+        }
+        if (expected != crc.getValue()) {
+            log.error("Ephemeris file {} has crc32={}, expected {}",
+                    fileName, Long.toHexString(crc.getValue()), Long.toHexString(expected));
+            return false;
+        }
+        log.debug("Verified ephemeris file {} ({} bytes, crc32={})",
+                fileName, buffer.capacity(), Long.toHexString(crc.getValue()));
+        return true;
+    }
+
+    /**
+     * Expected CRC32 per file name from the checksum manifest; empty (every file unverified) when
+     * there is none.
+     */
+    private Map<String, Long> loadChecksums(Path dir) {
+        Path manifest = checksumFile == null || checksumFile.isBlank()
+                ? dir.resolve("checksums.crc32")
+                : Paths.get(checksumFile);
+        if (!Files.isRegularFile(manifest)) {
+            log.warn("Ephemeris checksum manifest '{}' not found; data files are read but not verified",
+                    manifest.toAbsolutePath());
+            return Map.of();
+        }
+        try {
+            Map<String, Long> checksums = new HashMap<>();
+            for (String line : Files.readAllLines(manifest)) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = trimmed.split("\\s+", 2);
+                if (parts.length != 2) {
+                    throw new IllegalStateException("Malformed line in " + manifest + ": " + line);
+                }
+                checksums.put(parts[1], Long.parseLong(parts[0], 16));
+            }
+            return checksums;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read ephemeris checksum manifest " + manifest + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parse the file header for its Julian day range and widen the overall coverage.
+     */
+    private void recordCoverage(SwissEph headerReader, String fileName) {
+        double[] range = headerReader.getDatafileTimerange(fileName);
+        if (range == null || range.length < 2 || range[0] >= range[1]) {
+            throw new RuntimeException("Invalid time range in header");
+        }
+        if (Double.isNaN(coverageStartJd) || range[0] < coverageStartJd) {
+            coverageStartJd = range[0];
+        }
+        if (Double.isNaN(coverageEndJd) || range[1] > coverageEndJd) {
+            coverageEndJd = range[1];
+        }
+    }
+
+    private String formatJd(double jd) {
+        SweDate date = new SweDate(jd);
+        return String.format("%d-%02d-%02d", date.getYear(), date.getMonth(), date.getDay());
+    }
+}
@@ -0,0 +1,230 @@
+package com.astro.backend.Services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of isolated SwissEph instances shared by all astrology services.
+ * SwissEph keeps sidereal mode and calculation caches per instance, so each
+ * calculation borrows an instance exclusively and sets its own ayanamsa.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EphemerisEngine {
+
+    /** Sentinel meaning "tropical / leave sidereal mode untouched". */
+    public static final int TROPICAL = -1;
+
+    // Injected so the data files are mapped and warm before any instance is created
+    private final EphemerisDataLoader ephemerisDataLoader;
+
+    @Value("${astro.ephemeris.path:libs/ephe}")
+    private String ephemerisPath;
+
+    @Value("${astro.ephemeris.pool-size:0}")
+    private int configuredPoolSize;
+
+    @Value("${astro.ephemeris.borrow-timeout-ms:5000}")
+    private long borrowTimeoutMs;
+
+    @Value("${astro.ephemeris.default-ayanamsa:lahiri}")
+    private String defaultAyanamsaName;
+
+    private BlockingQueue<PooledEphemeris> pool;
+    private int poolSize;
+    private int defaultSidMode;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong contendedBorrows = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalBusyNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        poolSize = configuredPoolSize > 0 ? configuredPoolSize : Runtime.getRuntime().availableProcessors();
+        defaultSidMode = resolveAyanamsa(defaultAyanamsaName);
+        pool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            pool.add(new PooledEphemeris(new SwissEph(ephemerisPath)));
+        }
+        log.info("Ephemeris engine started with {} SwissEph instances (path: {}, data files: {}, default ayanamsa: {})",
+                poolSize, ephemerisPath,
+                ephemerisDataLoader.isAvailable() ? ephemerisDataLoader.getLoadedFiles().size() : "none, Moshier fallback",
+                defaultAyanamsaName);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledEphemeris pooled;
+        while ((pooled = pool.poll()) != null) {
+            pooled.swissEph.swe_close();
+        }
+    }
+
+    /**
+     * Run work against an exclusively borrowed SwissEph instance with the given sidereal mode.
+     * Pass {@link #TROPICAL} when only tropical positions are needed.
+     */
+    public <T> T withEphemeris(int sidMode, Function<SwissEph, T> work) {
+        PooledEphemeris pooled = borrow();
+        long start = System.nanoTime();
+        try {
+            if (sidMode != TROPICAL && pooled.sidMode != sidMode) {
+                pooled.swissEph.swe_set_sid_mode(sidMode, 0, 0);
+                pooled.sidMode = sidMode;
+            }
+            return work.apply(pooled.swissEph);
+        } finally {
+            totalBusyNanos.addAndGet(System.nanoTime() - start);
+            pool.offer(pooled);
+        }
+    }
+
+    /**
+     * Position of a single body (xx[0..5] as returned by swe_calc).
+     */
+    public double[] calc(double julDay, int planet, int flags, int sidMode) {
+        return withEphemeris(sidMode, swe -> {
+            double[] xx = new double[6];
+            swe.swe_calc(julDay, planet, flags, xx, new StringBuffer());
+            return xx;
+        });
+    }
+
+    /**
+     * Positions of several bodies under one borrow; result[i] matches planets[i].
+     */
+    public double[][] calcAll(double julDay, int[] planets, int flags, int sidMode) {
+        return withEphemeris(sidMode, swe -> {
+            double[][] result = new double[planets.length][];
+            for (int i = 0; i < planets.length; i++) {
+                double[] xx = new double[6];
+                swe.swe_calc(julDay, planets[i], flags, xx, new StringBuffer());
+                result[i] = xx;
+            }
+            return result;
+        });
+    }
+
+    /**
+     * House cusps and angles for the given house system (e.g. 'P' Placidus, 'W' whole sign).
+     */
+    public Houses houses(double julDay, int flags, double lat, double lon, char houseSystem, int sidMode) {
+        return withEphemeris(sidMode, swe -> {
+            double[] cusps = new double[13];
+            double[] ascmc = new double[10];
+            swe.swe_houses(julDay, flags, lat, lon, houseSystem, cusps, ascmc);
+            return new Houses(cusps, ascmc);
+        });
+    }
+
+    /**
+     * Ayanamsa value at the given Julian day (ET) for the given sidereal mode.
+     */
+    public double ayanamsa(double julDay, int sidMode) {
+        return withEphemeris(sidMode, swe -> swe.swe_get_ayanamsa(julDay));
+    }
+
+    public int getDefaultSidMode() {
+        return defaultSidMode;
+    }
+
+    /**
+     * Map an ayanamsa name from requests/config to a SwissEph sidereal mode.
+     */
+    public int resolveAyanamsa(String name) {
+        if (name == null || name.isBlank()) {
+            return defaultSidMode;
+        }
+        return switch (name.trim().toLowerCase()) {
+            case "lahiri", "chitrapaksha" -> SweConst.SE_SIDM_LAHIRI;
+            case "raman" -> SweConst.SE_SIDM_RAMAN;
+            case "kp", "krishnamurti" -> SweConst.SE_SIDM_KRISHNAMURTI;
+            case "yukteshwar" -> SweConst.SE_SIDM_YUKTESHWAR;
+            case "fagan_bradley", "fagan-bradley" -> SweConst.SE_SIDM_FAGAN_BRADLEY;
+            case "true_chitra", "true-chitra" -> SweConst.SE_SIDM_TRUE_CITRA;
+            default -> SweConst.SE_SIDM_LAHIRI;
+        };
+    }
+
+    /**
+     * Pool utilization and wait-time metrics.
+     */
+    public Map<String, Object> getMetrics() {
+        long borrows = borrowCount.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("poolSize", poolSize);
+        metrics.put("inUse", poolSize - pool.size());
+        metrics.put("available", pool.size());
+        metrics.put("borrows", borrows);
+        metrics.put("contendedBorrows", contendedBorrows.get());
+        metrics.put("timeouts", timeoutCount.get());
+        metrics.put("avgWaitMs", borrows == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / borrows);
+        metrics.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+        metrics.put("avgBusyMs", borrows == 0 ? 0.0 : totalBusyNanos.get() / 1_000_000.0 / borrows);
+        metrics.put("dataFiles", ephemerisDataLoader.getLoadedFiles().keySet());
+        return metrics;
+    }
+
+    private PooledEphemeris borrow() {
+        PooledEphemeris pooled = pool.poll();
+        if (pooled != null) {
+            borrowCount.incrementAndGet();
+            return pooled;
+        }
+
+        long start = System.nanoTime();
+        try {
+            pooled = pool.poll(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for ephemeris engine");
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        contendedBorrows.incrementAndGet();
+
+        if (pooled == null) {
+            timeoutCount.incrementAndGet();
+            throw new RuntimeException("Ephemeris engine busy: no instance available within " + borrowTimeoutMs + " ms");
+        }
+        borrowCount.incrementAndGet();
+        return pooled;
+    }
+
+    /**
+     * House calculation result: cusps[1..12] and ascmc (ascmc[0] = ascendant, ascmc[1] = MC).
+     */
+    public record Houses(double[] cusps, double[] ascmc) {
+        public double ascendant() {
+            return ascmc[0];
+        }
+    }
+
+    private static final class PooledEphemeris {
+        private final SwissEph swissEph;
+        private int sidMode = TROPICAL;
+
+        private PooledEphemeris(SwissEph swissEph) {
+            this.swissEph = swissEph;
+        }
+    }
+}
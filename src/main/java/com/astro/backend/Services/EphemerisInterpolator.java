@@ -0,0 +1,471 @@
+package com.astro.backend.Services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import swisseph.SweConst;
+import swisseph.SweDate;
+import swisseph.SwissEph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chebyshev interpolation tables of the tropical longitude of every graha (and of the
+ * default ayanamsa) over a configurable year range, built once from SwissEph and kept in a
+ * memory-mapped file. Each series is checked against swe_calc when built, at 2n points per
+ * segment; a series that cannot meet astro.interpolation.max-error-arcsec is left out and served
+ * by swe_calc instead.
+ *
+ * Intended for bulk time scans (panchang elements, muhurat windows, transitions): a lookup is a
+ * few dozen multiply-adds on off-heap data, with no engine borrow.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EphemerisInterpolator {
+
+    /** Series id of the default-mode ayanamsa (graha series use their SweConst body id). */
+    public static final int AYANAMSA = 99;
+
+    private static final int MAGIC = 0x43484542; // "CHEB"
+    private static final int VERSION = 2;  // 2: error checked at extrema and between nodes
+    private static final int HEADER_BYTES = 48;
+    private static final int SERIES_BYTES = 40;
+    private static final double MIN_SEGMENT_DAYS = 0.5;
+
+    // body id, coefficients per segment, initial segment length in days
+    private static final double[][] SERIES_PLAN = {
+            {SweConst.SE_SUN, 12, 16},
+            {SweConst.SE_MOON, 12, 4},
+            {SweConst.SE_MERCURY, 12, 4},
+            {SweConst.SE_VENUS, 12, 16},
+            {SweConst.SE_MARS, 12, 8},
+            {SweConst.SE_JUPITER, 12, 8},
+            {SweConst.SE_SATURN, 12, 16},
+            {SweConst.SE_URANUS, 12, 16},
+            {SweConst.SE_NEPTUNE, 12, 16},
+            {SweConst.SE_PLUTO, 12, 16},
+            {SweConst.SE_MEAN_NODE, 12, 16},
+            {AYANAMSA, 8, 64}
+    };
+
+    private final EphemerisEngine ephemerisEngine;
+
+    @Value("${astro.interpolation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${astro.interpolation.start-year:1900}")
+    private int startYear;
+
+    @Value("${astro.interpolation.end-year:2100}")
+    private int endYear;
+
+    @Value("${astro.interpolation.file:data/ephemeris/chebyshev.bin}")
+    private String tableFile;
+
+    @Value("${astro.interpolation.max-error-arcsec:5.0}")
+    private double maxErrorArcsec;
+
+    @Value("${astro.ephemeris.path:libs/ephe}")
+    private String ephemerisPath;
+
+    private volatile Table table;
+    private final CountDownLatch prepared = new CountDownLatch(1);
+
+    private final AtomicLong fastLookups = new AtomicLong();
+    private final AtomicLong fallbackLookups = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Ephemeris interpolation disabled (astro.interpolation.enabled=false)");
+            prepared.countDown();
+            return;
+        }
+        // Building takes a while on first start; lookups fall back to swe_calc until the table is ready
+        Thread loader = new Thread(this::loadOrBuild, "ephemeris-interpolator");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return table != null;
+    }
+
+    /**
+     * Wait until the table has been loaded or built (or has failed / is disabled).
+     * Returns whether lookups are now served from the table.
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        prepared.await(timeout, unit);
+        return isReady();
+    }
+
+    /**
+     * Tropical geocentric longitude (0..360) of a body at a Julian day (UT),
+     * as computed by the services with SEFLG_SWIEPH.
+     */
+    public double longitude(int body, double julDay) {
+        Table current = table;
+        Series series = current != null ? current.series(body, julDay) : null;
+        if (series == null) {
+            fallbackLookups.incrementAndGet();
+            return ephemerisEngine.calc(julDay, body, SweConst.SEFLG_SWIEPH, EphemerisEngine.TROPICAL)[0];
+        }
+        fastLookups.incrementAndGet();
+        return normalize(current.evaluate(series, julDay));
+    }
+
+    /**
+     * Sidereal longitude in the default ayanamsa.
+     */
+    public double siderealLongitude(int body, double julDay) {
+        return normalize(longitude(body, julDay) - ayanamsa(julDay));
+    }
+
+    /**
+     * Default-mode ayanamsa at a Julian day (UT).
+     */
+    public double ayanamsa(double julDay) {
+        Table current = table;
+        Series series = current != null ? current.series(AYANAMSA, julDay) : null;
+        if (series == null) {
+            fallbackLookups.incrementAndGet();
+            return ephemerisEngine.ayanamsa(julDay, ephemerisEngine.getDefaultSidMode());
+        }
+        fastLookups.incrementAndGet();
+        return current.evaluate(series, julDay);
+    }
+
+    /**
+     * Bulk scan: out[i] = tropical longitude at startJd + i * stepDays.
+     */
+    public void longitudes(int body, double startJd, double stepDays, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = longitude(body, startJd + i * stepDays);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Table current = table;
+        metrics.put("ready", current != null);
+        metrics.put("fastLookups", fastLookups.get());
+        metrics.put("fallbackLookups", fallbackLookups.get());
+        if (current != null) {
+            metrics.put("startJd", current.startJd);
+            metrics.put("endJd", current.endJd);
+            metrics.put("bytes", current.buffer.capacity());
+            Map<String, Object> errors = new LinkedHashMap<>();
+            for (Series series : current.seriesById.values()) {
+                errors.put(String.valueOf(series.id), Map.of(
+                        "segmentDays", series.segmentDays,
+                        "maxErrorArcsec", series.maxErrorArcsec));
+            }
+            metrics.put("series", errors);
+        }
+        return metrics;
+    }
+
+    private void loadOrBuild() {
+        try {
+            Path file = Paths.get(tableFile);
+            double startJd = SweDate.getJulDay(startYear, 1, 1, 0);
+            double endJd = SweDate.getJulDay(endYear + 1, 1, 1, 0);
+            long sourceStamp = sourceStamp();
+            int sidMode = ephemerisEngine.getDefaultSidMode();
+
+            if (Files.isRegularFile(file)) {
+                Table existing = map(file);
+                if (existing.matches(startJd, endJd, sourceStamp, sidMode, maxErrorArcsec)) {
+                    table = existing;
+                    log.info("Loaded ephemeris interpolation table {} ({} KB)", file.toAbsolutePath(),
+                            existing.buffer.capacity() / 1024);
+                    return;
+                }
+                log.info("Ephemeris interpolation table {} is stale, rebuilding", file.toAbsolutePath());
+            }
+
+            long start = System.currentTimeMillis();
+            build(file, startJd, endJd, sourceStamp, sidMode);
+            table = map(file);
+            log.info("Built ephemeris interpolation table {} for {}-{} in {} ms ({} KB)",
+                    file.toAbsolutePath(), startYear, endYear, System.currentTimeMillis() - start,
+                    table.buffer.capacity() / 1024);
+        } catch (Exception e) {
+            log.error("Failed to prepare ephemeris interpolation table: {}", e.getMessage());
+        } finally {
+            prepared.countDown();
+        }
+    }
+
+    private void build(Path file, double startJd, double endJd, long sourceStamp, int sidMode) throws IOException {
+        // A dedicated instance, so the build never holds a pooled engine
+        SwissEph swe = new SwissEph(ephemerisPath);
+        swe.swe_set_sid_mode(sidMode, 0, 0);
+
+        List<double[]> coefficients = new ArrayList<>();
+        List<int[]> layouts = new ArrayList<>();       // id, nCoeff, segCount
+        List<double[]> accuracy = new ArrayList<>();   // segmentDays, maxErrorArcsec
+        for (double[] plan : SERIES_PLAN) {
+            int id = (int) plan[0];
+            int nCoeff = (int) plan[1];
+            for (double segmentDays = plan[2]; segmentDays >= MIN_SEGMENT_DAYS; segmentDays /= 2) {
+                double[] maxError = new double[1];
+                double[] fitted = fitSeries(swe, id, nCoeff, startJd, endJd, segmentDays, maxError);
+                if (fitted != null) {
+                    coefficients.add(fitted);
+                    layouts.add(new int[]{id, nCoeff, fitted.length / nCoeff});
+                    accuracy.add(new double[]{segmentDays, maxError[0]});
+                    break;
+                }
+                if (segmentDays / 2 < MIN_SEGMENT_DAYS) {
+                    log.warn("Ephemeris interpolation for body {} cannot meet {}\"; using swe_calc for it",
+                            id, maxErrorArcsec);
+                }
+            }
+        }
+        swe.swe_close();
+
+        long dataBytes = 0;
+        for (double[] fitted : coefficients) {
+            dataBytes += fitted.length * 8L;
+        }
+        int tableBytes = HEADER_BYTES + SERIES_BYTES * coefficients.size();
+        ByteBuffer out = ByteBuffer.allocate((int) (tableBytes + dataBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION)
+                .putDouble(startJd).putDouble(endJd)
+                .putLong(sourceStamp)
+                .putInt(sidMode).putInt(coefficients.size())
+                .putDouble(maxErrorArcsec);
+        long offset = tableBytes;
+        for (int i = 0; i < coefficients.size(); i++) {
+            int[] layout = layouts.get(i);
+            out.putInt(layout[0]).putInt(layout[1])
+                    .putDouble(accuracy.get(i)[0])
+                    .putInt(layout[2]).putInt(0)
+                    .putDouble(accuracy.get(i)[1])
+                    .putLong(offset);
+            offset += coefficients.get(i).length * 8L;
+        }
+        for (double[] fitted : coefficients) {
+            for (double c : fitted) {
+                out.putDouble(c);
+            }
+        }
+        out.flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "chebyshev", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Fit one series at Chebyshev nodes; null if any segment misses the error bound. The error is
+     * checked at 2n points per segment: the n + 1 extrema of T_n (both segment ends included),
+     * where the error of a near-minimax fit peaks, and halfway between neighbouring nodes. The
+     * bound recorded is the worst sampled error, i.e. a close estimate, not a proof.
+     */
+    private double[] fitSeries(SwissEph swe, int id, int nCoeff, double startJd, double endJd,
+                               double segmentDays, double[] maxError) {
+        int segCount = (int) Math.ceil((endJd - startJd) / segmentDays);
+        double[] result = new double[segCount * nCoeff];
+        double[] nodes = new double[nCoeff];
+        double[] values = new double[nCoeff];
+        double[] c = new double[nCoeff];
+        for (int k = 0; k < nCoeff; k++) {
+            nodes[k] = Math.cos(Math.PI * (k + 0.5) / nCoeff);
+        }
+        double[] checks = new double[2 * nCoeff];
+        for (int k = 0; k <= nCoeff; k++) {
+            checks[k] = Math.cos(Math.PI * k / nCoeff);
+        }
+        for (int k = 1; k < nCoeff; k++) {
+            checks[nCoeff + k] = (nodes[k - 1] + nodes[k]) / 2;
+        }
+
+        double worst = 0;
+        for (int seg = 0; seg < segCount; seg++) {
+            double segStart = startJd + seg * segmentDays;
+            for (int k = 0; k < nCoeff; k++) {
+                values[k] = sample(swe, id, segStart + (nodes[k] + 1) / 2 * segmentDays);
+                // Unwrap across 0/360 so the segment is continuous
+                if (k > 0 && id != AYANAMSA) {
+                    while (values[k] - values[k - 1] > 180) values[k] -= 360;
+                    while (values[k] - values[k - 1] < -180) values[k] += 360;
+                }
+            }
+            for (int j = 0; j < nCoeff; j++) {
+                double sum = 0;
+                for (int k = 0; k < nCoeff; k++) {
+                    sum += values[k] * Math.cos(Math.PI * j * (k + 0.5) / nCoeff);
+                }
+                c[j] = 2.0 * sum / nCoeff;
+            }
+            c[0] /= 2;
+
+            for (double x : checks) {
+                double expected = sample(swe, id, segStart + (x + 1) / 2 * segmentDays);
+                double diff = clenshaw(c, x) - expected;
+                if (id != AYANAMSA) {
+                    diff = ((diff % 360) + 540) % 360 - 180;
+                }
+                worst = Math.max(worst, Math.abs(diff) * 3600);
+                if (worst > maxErrorArcsec) {
+                    return null;
+                }
+            }
+            System.arraycopy(c, 0, result, seg * nCoeff, nCoeff);
+        }
+        maxError[0] = worst;
+        return result;
+    }
+
+    private double sample(SwissEph swe, int id, double julDay) {
+        if (id == AYANAMSA) {
+            return swe.swe_get_ayanamsa(julDay);
+        }
+        double[] xx = new double[6];
+        swe.swe_calc(julDay, id, SweConst.SEFLG_SWIEPH, xx, new StringBuffer());
+        return xx[0];
+    }
+
+    private static double clenshaw(double[] c, double x) {
+        double b1 = 0;
+        double b2 = 0;
+        for (int j = c.length - 1; j >= 1; j--) {
+            double t = 2 * x * b1 - b2 + c[j];
+            b2 = b1;
+            b1 = t;
+        }
+        return x * b1 - b2 + c[0];
+    }
+
+    private static double normalize(double degrees) {
+        double d = degrees % 360;
+        return d < 0 ? d + 360 : d;
+    }
+
+    /**
+     * Changes whenever the ephemeris data files change (0 = Moshier fallback).
+     */
+    private long sourceStamp() throws IOException {
+        Path dir = Paths.get(ephemerisPath);
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.se1")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        long stamp = 0;
+        for (Path file : files) {
+            stamp = stamp * 31 + file.getFileName().toString().hashCode();
+            stamp = stamp * 31 + Files.size(file);
+        }
+        return stamp;
+    }
+
+    private Table map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.load();
+            return new Table(buffer);
+        }
+    }
+
+    private record Series(int id, int nCoeff, double segmentDays, int segCount, double maxErrorArcsec, long offset) {
+    }
+
+    /**
+     * Read-only view of a mapped table. Only absolute reads are used, so it is safe to share.
+     */
+    private static final class Table {
+        private final ByteBuffer buffer;
+        private final int version;
+        private final double startJd;
+        private final double endJd;
+        private final long sourceStamp;
+        private final int sidMode;
+        private final double builtMaxErrorArcsec;
+        private final Map<Integer, Series> seriesById = new LinkedHashMap<>();
+        private final Series[] byBody = new Series[AYANAMSA + 1];
+
+        Table(ByteBuffer buffer) {
+            this.buffer = buffer;
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Not an ephemeris interpolation table");
+            }
+            this.version = buffer.getInt(4);
+            this.startJd = buffer.getDouble(8);
+            this.endJd = buffer.getDouble(16);
+            this.sourceStamp = buffer.getLong(24);
+            this.sidMode = buffer.getInt(32);
+            int seriesCount = buffer.getInt(36);
+            this.builtMaxErrorArcsec = buffer.getDouble(40);
+            for (int i = 0; i < seriesCount; i++) {
+                int base = HEADER_BYTES + i * SERIES_BYTES;
+                Series series = new Series(buffer.getInt(base), buffer.getInt(base + 4), buffer.getDouble(base + 8),
+                        buffer.getInt(base + 16), buffer.getDouble(base + 24), buffer.getLong(base + 32));
+                seriesById.put(series.id(), series);
+                byBody[series.id()] = series;
+            }
+        }
+
+        boolean matches(double startJd, double endJd, long sourceStamp, int sidMode, double maxErrorArcsec) {
+            return version == VERSION && this.startJd == startJd && this.endJd == endJd
+                    && this.sourceStamp == sourceStamp && this.sidMode == sidMode
+                    && builtMaxErrorArcsec <= maxErrorArcsec;
+        }
+
+        Series series(int id, double julDay) {
+            if (id < 0 || id >= byBody.length || julDay < startJd || julDay > endJd) {
+                return null;
+            }
+            return byBody[id];
+        }
+
+        double evaluate(Series series, double julDay) {
+            double t = (julDay - startJd) / series.segmentDays();
+            int seg = Math.min((int) t, series.segCount() - 1);
+            double x = 2 * (t - seg) - 1;
+            long base = series.offset() + (long) seg * series.nCoeff() * 8;
+
+            double b1 = 0;
+            double b2 = 0;
+            for (int j = series.nCoeff() - 1; j >= 1; j--) {
+                double tmp = 2 * x * b1 - b2 + buffer.getDouble((int) (base + j * 8L));
+                b2 = b1;
+                b1 = tmp;
+            }
+            return x * b1 - b2 + buffer.getDouble((int) base);
+        }
+    }
+}
@@ -0,0 +1,588 @@
+package com.astro.backend.Services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Astronomical events of the nine grahas: sidereal sign and nakshatra ingresses, retrograde and
+ * direct stations (Mars to Saturn) and solar/lunar eclipses.
+ *
+ * Ingresses and stations are found by scanning the interpolation tables (the Moon every six
+ * hours, the others daily) and refining each crossing to a second; eclipses come from
+ * swe_sol_eclipse_when_glob / swe_lun_eclipse_when. An index over a configurable range around
+ * the current year is built at startup and kept on disk (one unsigned int of seconds plus one
+ * byte per event), so "sign of Saturn on a date" or "eclipses next month" is a binary search.
+ * Ranges outside the index are scanned on demand for just the grahas asked for. Rahu is the
+ * mean node and Ketu is opposite it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GrahaEventIndex {
+
+    public enum Graha {
+        SUN("Sun", SweConst.SE_SUN, 0, false),
+        MOON("Moon", SweConst.SE_MOON, 0, false),
+        MARS("Mars", SweConst.SE_MARS, 0, true),
+        MERCURY("Mercury", SweConst.SE_MERCURY, 0, true),
+        JUPITER("Jupiter", SweConst.SE_JUPITER, 0, true),
+        VENUS("Venus", SweConst.SE_VENUS, 0, true),
+        SATURN("Saturn", SweConst.SE_SATURN, 0, true),
+        RAHU("Rahu", SweConst.SE_MEAN_NODE, 0, false),
+        KETU("Ketu", SweConst.SE_MEAN_NODE, 180, false);
+
+        private final String displayName;
+        private final int body;
+        private final double offset;
+        private final boolean stations;
+
+        Graha(String displayName, int body, double offset, boolean stations) {
+            this.displayName = displayName;
+            this.body = body;
+            this.offset = offset;
+            this.stations = stations;
+        }
+
+        public String displayName() {
+            return displayName;
+        }
+    }
+
+    public enum EventType {
+        SIGN_INGRESS, NAKSHATRA_INGRESS, STATION_RETROGRADE, STATION_DIRECT, SOLAR_ECLIPSE, LUNAR_ECLIPSE
+    }
+
+    /**
+     * One event at a Julian day (UT). For ingresses value is the sign (0-11) or nakshatra (0-26)
+     * entered and previousValue the one left; for stations value is the sign; for eclipses value
+     * is the SweConst.SE_ECL_* type bits and graha is the Sun or Moon. previousValue is -1 when
+     * not applicable.
+     */
+    public record Event(EventType type, Graha graha, double julDay, int value, int previousValue) {
+    }
+
+    private static final int MAGIC = 0x47524845; // "GRHE"
+    private static final int VERSION = 1;
+    private static final double MOON_STEP_DAYS = 0.25;
+    private static final double STEP_DAYS = 1.0;
+    private static final double PRECISION_DAYS = 1.0 / 86400;
+    private static final double STATION_PRECISION_DAYS = 1.0 / 1440;
+    private static final double NAKSHATRA_SPAN = 360.0 / 27.0;
+
+    // Series kinds per graha
+    private static final int SIGN = 0;
+    private static final int NAKSHATRA = 1;
+    private static final int MOTION = 2;
+    private static final int SOLAR = 0;
+    private static final int LUNAR = 1;
+
+    private final EphemerisInterpolator ephemerisInterpolator;
+    private final EphemerisEngine ephemerisEngine;
+
+    @Value("${astro.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${astro.events.years-back:10}")
+    private int yearsBack;
+
+    @Value("${astro.events.years-ahead:40}")
+    private int yearsAhead;
+
+    @Value("${astro.events.file:data/ephemeris/events.bin}")
+    private String indexFile;
+
+    private volatile EventTimeline index;
+
+    private final AtomicLong indexLookups = new AtomicLong();
+    private final AtomicLong scanLookups = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Graha event index disabled (astro.events.enabled=false)");
+            return;
+        }
+        Thread loader = new Thread(this::loadOrBuild, "graha-event-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Sidereal sign (0 = Aries) of a graha at a Julian day (UT).
+     */
+    public int signAt(Graha graha, double julDay) {
+        EventTimeline current = index;
+        if (current != null && current.covers(julDay)) {
+            indexLookups.incrementAndGet();
+            return current.series[graha.ordinal()][SIGN].valueAt(julDay);
+        }
+        return (int) (siderealLongitude(graha, julDay) / 30.0);
+    }
+
+    /**
+     * Whether a graha (Mars to Saturn) is retrograde at a Julian day (UT).
+     */
+    public boolean isRetrograde(Graha graha, double julDay) {
+        if (!graha.stations) {
+            // Mean nodes always move backwards; Sun and Moon never do
+            return graha == Graha.RAHU || graha == Graha.KETU;
+        }
+        EventTimeline current = index;
+        if (current != null && current.covers(julDay)) {
+            indexLookups.incrementAndGet();
+            return current.series[graha.ordinal()][MOTION].valueAt(julDay) == 1;
+        }
+        return speed(graha.body, julDay) < 0;
+    }
+
+    /**
+     * Events of the given types and grahas in [startJd, endJd), in time order.
+     */
+    public List<Event> events(double startJd, double endJd, Set<EventType> types, Set<Graha> grahas) {
+        if (!(endJd > startJd)) {
+            return List.of();
+        }
+        boolean eclipses = types.contains(EventType.SOLAR_ECLIPSE) || types.contains(EventType.LUNAR_ECLIPSE);
+        EventTimeline timeline = index;
+        if (timeline != null && timeline.covers(startJd) && timeline.covers(endJd)) {
+            indexLookups.incrementAndGet();
+        } else {
+            scanLookups.incrementAndGet();
+            timeline = scan(startJd, endJd, grahas, eclipses);
+        }
+
+        List<Event> result = new ArrayList<>();
+        for (Graha graha : grahas) {
+            Series[] series = timeline.series[graha.ordinal()];
+            if (types.contains(EventType.SIGN_INGRESS)) {
+                series[SIGN].collect(EventType.SIGN_INGRESS, graha, startJd, endJd, true, result);
+            }
+            if (types.contains(EventType.NAKSHATRA_INGRESS)) {
+                series[NAKSHATRA].collect(EventType.NAKSHATRA_INGRESS, graha, startJd, endJd, true, result);
+            }
+            if (series[MOTION] != null
+                    && (types.contains(EventType.STATION_RETROGRADE) || types.contains(EventType.STATION_DIRECT))) {
+                List<Event> stations = new ArrayList<>();
+                series[MOTION].collect(null, graha, startJd, endJd, false, stations);
+                for (Event station : stations) {
+                    EventType type = station.value() == 1 ? EventType.STATION_RETROGRADE : EventType.STATION_DIRECT;
+                    if (types.contains(type)) {
+                        result.add(new Event(type, graha, station.julDay(),
+                                signAt(graha, station.julDay()), -1));
+                    }
+                }
+            }
+        }
+        if (types.contains(EventType.SOLAR_ECLIPSE)) {
+            timeline.eclipses[SOLAR].collect(EventType.SOLAR_ECLIPSE, Graha.SUN, startJd, endJd, false, result);
+        }
+        if (types.contains(EventType.LUNAR_ECLIPSE)) {
+            timeline.eclipses[LUNAR].collect(EventType.LUNAR_ECLIPSE, Graha.MOON, startJd, endJd, false, result);
+        }
+        result.sort(Comparator.comparingDouble(Event::julDay));
+        return result;
+    }
+
+    /**
+     * Sign ingresses of one graha in [startJd, endJd), in time order.
+     */
+    public List<Event> signIngresses(Graha graha, double startJd, double endJd) {
+        return events(startJd, endJd, EnumSet.of(EventType.SIGN_INGRESS), EnumSet.of(graha));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        EventTimeline current = index;
+        metrics.put("ready", current != null);
+        metrics.put("indexLookups", indexLookups.get());
+        metrics.put("scanLookups", scanLookups.get());
+        if (current != null) {
+            metrics.put("startJd", current.startJd);
+            metrics.put("endJd", current.endJd);
+            metrics.put("events", current.size());
+        }
+        return metrics;
+    }
+
+    private void loadOrBuild() {
+        try {
+            int thisYear = Year.now().getValue();
+            double startJd = SweDate.getJulDay(thisYear - yearsBack, 1, 1, 0);
+            double endJd = SweDate.getJulDay(thisYear + yearsAhead + 1, 1, 1, 0);
+            int sidMode = ephemerisEngine.getDefaultSidMode();
+            Path file = Paths.get(indexFile);
+
+            if (Files.isRegularFile(file)) {
+                EventTimeline existing = read(file, startJd, endJd, sidMode);
+                if (existing != null) {
+                    index = existing;
+                    log.info("Loaded graha event index {} ({} bytes)", file.toAbsolutePath(), Files.size(file));
+                    return;
+                }
+                log.info("Graha event index {} is stale, rebuilding", file.toAbsolutePath());
+            }
+
+            ephemerisInterpolator.awaitReady(10, TimeUnit.MINUTES);
+            long start = System.currentTimeMillis();
+            EventTimeline built = scan(startJd, endJd, EnumSet.allOf(Graha.class), true);
+            write(file, built, sidMode);
+            index = built;
+            log.info("Built graha event index {} for {}-{} ({} events) in {} ms", file.toAbsolutePath(),
+                    thisYear - yearsBack, thisYear + yearsAhead, built.size(), System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to prepare graha event index: {}", e.getMessage());
+        }
+    }
+
+    private EventTimeline scan(double startJd, double endJd, Set<Graha> grahas, boolean eclipses) {
+        EventTimeline timeline = new EventTimeline(startJd, endJd);
+        for (Graha graha : grahas) {
+            scanGraha(timeline, graha);
+        }
+        if (eclipses) {
+            scanEclipses(timeline);
+        }
+        return timeline;
+    }
+
+    /**
+     * Steps are short enough that a graha crosses at most one nakshatra boundary per step (the
+     * Moon covers up to 16° a day, more than a nakshatra, so it is sampled every six hours).
+     */
+    private void scanGraha(EventTimeline timeline, Graha graha) {
+        double step = graha == Graha.MOON ? MOON_STEP_DAYS : STEP_DAYS;
+        int steps = (int) Math.ceil((timeline.endJd - timeline.startJd) / step) + 1;
+        double[] tropical = new double[steps];
+        ephemerisInterpolator.longitudes(graha.body, timeline.startJd, step, tropical);
+
+        Series signs = new Series();
+        Series nakshatras = new Series();
+        double sidereal = sidereal(graha, tropical[0], timeline.startJd);
+        signs.initial = (int) (sidereal / 30.0);
+        nakshatras.initial = Math.min((int) (sidereal / NAKSHATRA_SPAN), 26);
+        int sign = signs.initial;
+        int nakshatra = nakshatras.initial;
+
+        for (int i = 1; i < steps; i++) {
+            double jd = timeline.startJd + i * step;
+            sidereal = sidereal(graha, tropical[i], jd);
+            int newSign = (int) (sidereal / 30.0);
+            if (newSign != sign) {
+                signs.add(crossing(graha, sign, newSign, 12, 30.0, jd - step, jd), newSign);
+                sign = newSign;
+            }
+            int newNakshatra = Math.min((int) (sidereal / NAKSHATRA_SPAN), 26);
+            if (newNakshatra != nakshatra) {
+                nakshatras.add(crossing(graha, nakshatra, newNakshatra, 27, NAKSHATRA_SPAN, jd - step, jd), newNakshatra);
+                nakshatra = newNakshatra;
+            }
+        }
+
+        Series motion = null;
+        if (graha.stations) {
+            motion = new Series();
+            double previous = delta(tropical[1] - tropical[0]);
+            motion.initial = previous < 0 ? 1 : 0;
+            for (int i = 1; i + 1 < steps; i++) {
+                double current = delta(tropical[i + 1] - tropical[i]);
+                if ((current < 0) != (previous < 0)) {
+                    double jd = timeline.startJd + i * step;
+                    motion.add(station(graha.body, jd - step, jd + step), current < 0 ? 1 : 0);
+                }
+                previous = current;
+            }
+        }
+        timeline.series[graha.ordinal()] = new Series[]{signs, nakshatras, motion};
+    }
+
+    /**
+     * Time in [lo, hi] at which the graha crosses the boundary between two adjacent divisions
+     * (forward or, when retrograde, backward), by bracketed regula falsi to within a second.
+     */
+    private double crossing(Graha graha, int from, int to, int count, double span, double lo, double hi) {
+        boolean forward = Math.floorMod(to - from, count) == 1;
+        double boundary = (forward ? to : from) * span;
+        double fLo = offset(graha, lo, boundary);
+        double fHi = offset(graha, hi, boundary);
+        int side = 0;
+        while (hi - lo > PRECISION_DAYS) {
+            double mid = fHi != fLo ? hi - fHi * (hi - lo) / (fHi - fLo) : (lo + hi) / 2;
+            if (!(mid > lo && mid < hi)) {
+                mid = (lo + hi) / 2;
+            }
+            double fMid = offset(graha, mid, boundary);
+            if (Math.abs(fMid) < 1e-7) {
+                return mid;
+            }
+            if ((fMid < 0) == (fLo < 0)) {
+                lo = mid;
+                fLo = fMid;
+                if (side == -1) fHi /= 2;
+                side = -1;
+            } else {
+                hi = mid;
+                fHi = fMid;
+                if (side == 1) fLo /= 2;
+                side = 1;
+            }
+        }
+        return (lo + hi) / 2;
+    }
+
+    /**
+     * Moment in [lo, hi] where the daily motion changes sign, by bisection to a minute.
+     */
+    private double station(int body, double lo, double hi) {
+        boolean loRetrograde = speed(body, lo) < 0;
+        while (hi - lo > STATION_PRECISION_DAYS) {
+            double mid = (lo + hi) / 2;
+            if ((speed(body, mid) < 0) == loRetrograde) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return (lo + hi) / 2;
+    }
+
+    /**
+     * Maxima of every solar and lunar eclipse (all types) in the timeline range.
+     */
+    private void scanEclipses(EventTimeline timeline) {
+        timeline.eclipses[SOLAR] = new Series();
+        timeline.eclipses[LUNAR] = new Series();
+        int solarTypes = SweConst.SE_ECL_TOTAL | SweConst.SE_ECL_ANNULAR | SweConst.SE_ECL_PARTIAL
+                | SweConst.SE_ECL_ANNULAR_TOTAL;
+        int lunarTypes = SweConst.SE_ECL_TOTAL | SweConst.SE_ECL_PARTIAL | SweConst.SE_ECL_PENUMBRAL;
+        ephemerisEngine.withEphemeris(EphemerisEngine.TROPICAL, swe -> {
+            double[] tret = new double[10];
+            StringBuffer serr = new StringBuffer();
+            double jd = timeline.startJd;
+            while (jd < timeline.endJd) {
+                int flags = swe.swe_sol_eclipse_when_glob(jd, SweConst.SEFLG_SWIEPH, 0, tret, 0, serr);
+                if (flags < 0 || tret[0] >= timeline.endJd) {
+                    break;
+                }
+                timeline.eclipses[SOLAR].add(tret[0], flags & solarTypes);
+                jd = tret[0] + 20;
+            }
+            jd = timeline.startJd;
+            while (jd < timeline.endJd) {
+                int flags = swe.swe_lun_eclipse_when(jd, SweConst.SEFLG_SWIEPH, 0, tret, 0, serr);
+                if (flags < 0 || tret[0] >= timeline.endJd) {
+                    break;
+                }
+                timeline.eclipses[LUNAR].add(tret[0], flags & lunarTypes);
+                jd = tret[0] + 20;
+            }
+            return null;
+        });
+    }
+
+    private double siderealLongitude(Graha graha, double julDay) {
+        return sidereal(graha, ephemerisInterpolator.longitude(graha.body, julDay), julDay);
+    }
+
+    private double sidereal(Graha graha, double tropical, double julDay) {
+        double value = (tropical + graha.offset - ephemerisInterpolator.ayanamsa(julDay)) % 360;
+        return value < 0 ? value + 360 : value;
+    }
+
+    /**
+     * Signed angular distance of the graha past {@code boundary}, in (-180, 180].
+     */
+    private double offset(Graha graha, double julDay, double boundary) {
+        return delta(siderealLongitude(graha, julDay) - boundary);
+    }
+
+    /**
+     * Degrees per day from a centred difference; negative when retrograde.
+     */
+    private double speed(int body, double julDay) {
+        double h = 0.05;
+        return delta(ephemerisInterpolator.longitude(body, julDay + h)
+                - ephemerisInterpolator.longitude(body, julDay - h)) / (2 * h);
+    }
+
+    private static double delta(double diff) {
+        diff %= 360;
+        if (diff <= -180) diff += 360;
+        if (diff > 180) diff -= 360;
+        return diff;
+    }
+
+    /**
+     * File layout (little-endian): magic, version, startJd, endJd, sidMode, then per graha its
+     * sign, nakshatra and (Mars to Saturn) motion series, then the solar and lunar eclipse series.
+     * A series is its initial value, event count, then per event unsigned int seconds from startJd
+     * and one byte of value.
+     */
+    private void write(Path file, EventTimeline timeline, int sidMode) throws IOException {
+        List<Series> all = timeline.allSeries();
+        int bytes = 32;
+        for (Series series : all) {
+            bytes += 8 + series.size * 5;
+        }
+        ByteBuffer out = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION)
+                .putDouble(timeline.startJd).putDouble(timeline.endJd)
+                .putInt(sidMode).putInt(0);
+        for (Series series : all) {
+            out.putInt(series.initial).putInt(series.size);
+            for (int i = 0; i < series.size; i++) {
+                out.putInt((int) Math.round((series.times[i] - timeline.startJd) * 86400));
+                out.put((byte) series.values[i]);
+            }
+        }
+        out.flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "events", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The stored index, or null if it is for another range or ayanamsa.
+     */
+    private EventTimeline read(Path file, double startJd, double endJd, int sidMode) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < 32 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+            return null;
+        }
+        if (in.getDouble() != startJd || in.getDouble() != endJd || in.getInt() != sidMode) {
+            return null;
+        }
+        in.getInt();
+        EventTimeline timeline = new EventTimeline(startJd, endJd);
+        for (Graha graha : Graha.values()) {
+            timeline.series[graha.ordinal()] = new Series[]{
+                    readSeries(in, startJd), readSeries(in, startJd), graha.stations ? readSeries(in, startJd) : null
+            };
+        }
+        timeline.eclipses[SOLAR] = readSeries(in, startJd);
+        timeline.eclipses[LUNAR] = readSeries(in, startJd);
+        return timeline;
+    }
+
+    private static Series readSeries(ByteBuffer in, double startJd) {
+        Series series = new Series();
+        series.initial = in.getInt();
+        int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            double time = startJd + Integer.toUnsignedLong(in.getInt()) / 86400.0;
+            series.add(time, in.get() & 0xFF);
+        }
+        return series;
+    }
+
+    /**
+     * Event times of one kind in time order with the value each one switches to.
+     */
+    private static final class Series {
+        private int initial;
+        private double[] times = new double[16];
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(double julDay, int value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            times[size] = julDay;
+            values[size++] = value;
+        }
+
+        private int valueAt(double julDay) {
+            int pos = Arrays.binarySearch(times, 0, size, julDay);
+            pos = pos >= 0 ? pos : -pos - 2;
+            return pos < 0 ? initial : values[pos];
+        }
+
+        private void collect(EventType type, Graha graha, double startJd, double endJd, boolean withPrevious,
+                             List<Event> out) {
+            int pos = Arrays.binarySearch(times, 0, size, startJd);
+            pos = pos >= 0 ? pos : -pos - 1;
+            for (int i = pos; i < size && times[i] < endJd; i++) {
+                int previous = withPrevious ? (i == 0 ? initial : values[i - 1]) : -1;
+                out.add(new Event(type, graha, times[i], values[i], previous));
+            }
+        }
+    }
+
+    private static final class EventTimeline {
+        private final double startJd;
+        private final double endJd;
+        private final Series[][] series = new Series[Graha.values().length][];
+        private final Series[] eclipses = new Series[2];
+
+        private EventTimeline(double startJd, double endJd) {
+            this.startJd = startJd;
+            this.endJd = endJd;
+        }
+
+        private boolean covers(double julDay) {
+            return julDay >= startJd && julDay <= endJd;
+        }
+
+        private List<Series> allSeries() {
+            List<Series> all = new ArrayList<>();
+            for (Series[] perGraha : series) {
+                for (Series one : perGraha) {
+                    if (one != null) {
+                        all.add(one);
+                    }
+                }
+            }
+            all.add(eclipses[SOLAR]);
+            all.add(eclipses[LUNAR]);
+            return all;
+        }
+
+        private int size() {
+            int total = 0;
+            for (Series one : allSeries()) {
+                total += one.size;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.astro.backend.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Daily, weekly and monthly horoscopes of all 12 signs in every supported language, rendered
+ * ahead of time into response bodies (JSON bytes plus ETag) by a job shortly after midnight.
+ * Daily covers yesterday to tomorrow so clients in other timezones also hit the cache, weekly the
+ * week starting today and monthly the current and next month. Anything else is rendered on demand
+ * and not kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HoroscopeCacheService {
+
+    public static final List<Integer> LANGUAGES = List.of(PredictionService.ENGLISH, PredictionService.HINDI);
+
+    private final PredictionService predictionService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${astro.horoscope.timezone:Asia/Kolkata}")
+    private String timezone;
+
+    private final Map<String, Entry> rendered = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        Thread loader = new Thread(this::refresh, "horoscope-cache");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Today's date in the horoscope timezone, i.e. the day the pre-rendered window is built around.
+     */
+    public LocalDate today() {
+        return LocalDate.now(ZoneId.of(timezone));
+    }
+
+    public Entry getDaily(String sunSign, LocalDate date, int language) {
+        String sign = canonicalSign(sunSign);
+        return get(key("daily", sign, language, date.toString()),
+                () -> predictionService.generateDailyHoroscope(sign, date, language));
+    }
+
+    public Entry getWeekly(String sunSign, LocalDate weekStart, int language) {
+        String sign = canonicalSign(sunSign);
+        return get(key("weekly", sign, language, weekStart.toString()),
+                () -> predictionService.generateWeeklyHoroscope(sign, weekStart, language));
+    }
+
+    public Entry getMonthly(String sunSign, YearMonth month, int language) {
+        String sign = canonicalSign(sunSign);
+        return get(key("monthly", sign, language, month.toString()),
+                () -> predictionService.generateMonthlyHoroscope(sign, month.getMonthValue(), month.getYear(), language));
+    }
+
+    /**
+     * Render the current window for every sign and language and drop what fell out of it.
+     */
+    @Scheduled(cron = "${astro.horoscope.cron:0 1 0 * * *}", zone = "${astro.horoscope.timezone:Asia/Kolkata}")
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        try {
+            LocalDate today = today();
+            YearMonth month = YearMonth.from(today);
+            Map<String, Entry> window = new LinkedHashMap<>();
+            for (String sign : PredictionService.ZODIAC_SIGNS) {
+                for (int language : LANGUAGES) {
+                    for (LocalDate date = today.minusDays(1); !date.isAfter(today.plusDays(1)); date = date.plusDays(1)) {
+                        window.put(key("daily", sign, language, date.toString()),
+                                render(predictionService.generateDailyHoroscope(sign, date, language)));
+                    }
+                    window.put(key("weekly", sign, language, today.toString()),
+                            render(predictionService.generateWeeklyHoroscope(sign, today, language)));
+                    for (YearMonth m : List.of(month, month.plusMonths(1))) {
+                        window.put(key("monthly", sign, language, m.toString()),
+                                render(predictionService.generateMonthlyHoroscope(sign, m.getMonthValue(), m.getYear(), language)));
+                    }
+                }
+            }
+            rendered.putAll(window);
+            rendered.keySet().retainAll(window.keySet());
+            log.info("Pre-rendered {} horoscopes in {} ms", window.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to pre-render horoscopes: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", rendered.size());
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        return metrics;
+    }
+
+    private Entry get(String key, Supplier<Map<String, Object>> generator) {
+        Entry entry = rendered.get(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        return render(generator.get());
+    }
+
+    /**
+     * The endpoint's whole response body, serialized once.
+     */
+    private Entry render(Map<String, Object> horoscope) {
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("status", "success");
+            body.put("horoscope", horoscope);
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            String etag = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+            return new Entry(json, etag, LocalDateTime.now());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to render horoscope: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sign as listed in ZODIAC_SIGNS for any casing; other input is passed through unchanged.
+     */
+    private static String canonicalSign(String sunSign) {
+        String trimmed = sunSign == null ? "" : sunSign.trim();
+        for (String sign : PredictionService.ZODIAC_SIGNS) {
+            if (sign.equalsIgnoreCase(trimmed)) {
+                return sign;
+            }
+        }
+        return trimmed;
+    }
+
+    private static String key(String period, String sign, int language, String when) {
+        return period + ":" + sign + ":" + language + ":" + when;
+    }
+
+    /**
+     * One pre-rendered response body.
+     */
+    public record Entry(byte[] body, String etag, LocalDateTime computedAt) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.RequestDTO.PlanetaryPositionRequest;
+import com.astro.backend.ResponseDTO.PlanetaryPositionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Computes many charts in parallel on the kundli batch executor and streams
+ * each result as one NDJSON line in completion order.
+ */
+@Service
+@Slf4j
+public class KundliBatchService {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final PlanetaryCalculationService planetaryCalculationService;
+    private final Executor kundliBatchExecutor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${astro.batch.max-items:1000}")
+    private int maxItems;
+
+    @Value("${astro.batch.timeout-ms:300000}")
+    private long timeoutMs;
+
+    public KundliBatchService(PlanetaryCalculationService planetaryCalculationService,
+                              @Qualifier("kundliBatchExecutor") Executor kundliBatchExecutor,
+                              ObjectMapper objectMapper) {
+        this.planetaryCalculationService = planetaryCalculationService;
+        this.kundliBatchExecutor = kundliBatchExecutor;
+        this.objectMapper = objectMapper;
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * How long one batch response may stream before it is cut off.
+     */
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Write one line per item ({index, status, data|error}) as soon as it finishes,
+     * followed by a summary line. A failing item never aborts the batch.
+     */
+    public void streamBatch(List<PlanetaryPositionRequest> items, boolean includeHtml, OutputStream out)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        CompletionService<Map<String, Object>> completionService = new ExecutorCompletionService<>(kundliBatchExecutor);
+        List<Future<Map<String, Object>>> futures = new ArrayList<>(items.size());
+        int submitted = 0;
+        int succeeded = 0;
+        int failed = 0;
+
+        for (int i = 0; i < items.size(); i++) {
+            final int index = i;
+            final PlanetaryPositionRequest item = items.get(i);
+            try {
+                futures.add(completionService.submit(() -> computeItem(index, item, includeHtml)));
+                submitted++;
+            } catch (Exception e) {
+                // Executor queue full: report the item instead of failing the whole batch
+                writeLine(out, errorLine(index, "Server busy, item not scheduled"));
+                failed++;
+            }
+        }
+
+        try {
+            for (int done = 0; done < submitted; done++) {
+                Map<String, Object> line = completionService.take().get();
+                if ("success".equals(line.get("status"))) {
+                    succeeded++;
+                } else {
+                    failed++;
+                }
+                writeLine(out, line);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            return;
+        } catch (IOException e) {
+            // Client went away; stop the remaining work
+            log.warn("Kundli batch stream closed by client: {}", e.getMessage());
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new RuntimeException("Kundli batch failed: " + e.getMessage());
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("status", "complete");
+        summary.put("total", items.size());
+        summary.put("succeeded", succeeded);
+        summary.put("failed", failed);
+        summary.put("elapsedMs", System.currentTimeMillis() - start);
+        writeLine(out, summary);
+        log.info("Kundli batch of {} charts finished in {} ms ({} failed)",
+                items.size(), summary.get("elapsedMs"), failed);
+    }
+
+    private Map<String, Object> computeItem(int index, PlanetaryPositionRequest item, boolean includeHtml) {
+        try {
+            if (item == null || item.getYear() == null || item.getMonth() == null || item.getDate() == null) {
+                return errorLine(index, "year, month and date are required");
+            }
+            planetaryCalculationService.applyRequestDefaults(item);
+            PlanetaryPositionResponse response =
+                    planetaryCalculationService.calculatePlanetaryPositions(item, null, includeHtml);
+
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("index", index);
+            line.put("status", "success");
+            line.put("data", response);
+            return line;
+        } catch (Exception e) {
+            return errorLine(index, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> errorLine(int index, String message) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("index", index);
+        line.put("status", "error");
+        line.put("error", message != null ? message : "Unknown error");
+        return line;
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write(NEWLINE);
+        out.flush();
+    }
+}
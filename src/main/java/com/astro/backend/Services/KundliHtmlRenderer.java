@@ -0,0 +1,531 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.ResponseDTO.PlanetaryChart;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the kundli HTML report and its standalone sections from a {@link PlanetaryChart}.
+ * All static markup is precompiled into constant fragments; only the planet labels and
+ * tables are generated per chart, in a single pass, into any {@link Appendable}
+ * (a StringBuilder, a response Writer or a file Writer).
+ */
+@Component
+public class KundliHtmlRenderer {
+
+    private static final Map<String, String> PLANET_ABBR = Map.ofEntries(
+            Map.entry("Sun", "Su"),
+            Map.entry("Moon", "Mo"),
+            Map.entry("Mars", "Ma"),
+            Map.entry("Mercury", "Me"),
+            Map.entry("Jupiter", "Ju"),
+            Map.entry("Venus", "Ve"),
+            Map.entry("Saturn", "Sa"),
+            Map.entry("Rahu", "Ra"),
+            Map.entry("Ketu", "Ke"),
+            Map.entry("Ascendant", "As"),
+            Map.entry("Uranus", "Ur"),
+            Map.entry("Neptune", "Ne"),
+            Map.entry("Pluto", "Pl")
+    );
+
+    private static final String[] SIGN_NAMES = {
+            null, "Aries", "Taurus", "Gemini", "Cancer", "Leo", "Virgo",
+            "Libra", "Scorpio", "Sagittarius", "Capricorn", "Aquarius", "Pisces"
+    };
+
+    // Label anchors of the full report charts, indexed by house/sign 1..12
+    private static final int[][] REPORT_LABEL_COORDS = {
+            null,
+            {360, 85}, {285, 20}, {180, 76}, {70, 25}, {10, 90}, {70, 180},
+            {10, 255}, {70, 365}, {180, 300}, {265, 365}, {360, 300}, {265, 180}
+    };
+
+    // North-Indian fixed sign number positions of the section charts, indexed by house 1..12
+    private static final int[][] SECTION_SIGN_COORDS = {
+            null,
+            {325, 100}, {300, 75}, {200, 175}, {100, 75}, {75, 100}, {175, 200},
+            {75, 300}, {100, 325}, {200, 225}, {300, 320}, {325, 300}, {225, 200}
+    };
+
+    // Planet label anchors of the section charts, indexed by house 1..12
+    private static final int[][] SECTION_PLANET_COORDS = {
+            null,
+            {200, 110}, {300, 30}, {370, 100}, {300, 158}, {370, 300}, {300, 360},
+            {200, 290}, {100, 360}, {26, 300}, {100, 200}, {26, 95}, {100, 30}
+    };
+
+    private static final int SECTION_LINE_HEIGHT = 14;
+
+    // Bump whenever the report markup changes so stored artifacts are not reused
+    private static final String REPORT_VERSION = "1";
+
+    // Rendered report is ~12 KB and a section ~3.5 KB; avoids regrowing the buffers
+    private static final int REPORT_CAPACITY = 16 * 1024;
+    private static final int SECTION_CAPACITY = 4 * 1024;
+
+    private static final String REPORT_HEAD =
+            "<!DOCTYPE html>\n" +
+            "<html lang=\"hi\">\n" +
+            "<head>\n" +
+            "<meta charset=\"UTF-8\" />\n" +
+            "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n" +
+            "<title>Kundli Report</title>\n" +
+            "<style>\n" +
+            "*{box-sizing:border-box}\n" +
+            "html,body{width:100%;height:100%;margin:0;padding:0;font-size:16px;}\n" +
+            "body{margin:0;background:#cdb68a;font-family: Calibre, Georgia, \"Times New Roman\", serif;}\n" +
+            ".page{max-width:1200px;margin:20px auto;background:radial-gradient(circle,#f6e6c6,#e1c18a);border:10px solid #8a5a2b;box-shadow:0 0 30px rgba(0,0,0,.45);padding:25px;width:100%;}\n" +
+            ".header{display:grid;grid-template-columns:80px 1fr 80px;align-items:center;border-bottom:2px solid #8a5a2b;padding-bottom:15px;}\n" +
+            ".header .om{font-size:48px;color:#8a5a2b;}\n" +
+            ".header .title{text-align:center;}\n" +
+            ".footer {\n" +
+            "    background: #000;\n" +
+            "    color: #fff;\n" +
+            "    text-align: center;\n" +
+            "    padding: 15px;\n" +
+            "    font-size: 14px;\n" +
+            "    font-family: Arial, sans-serif;\n" +
+            "}\n" +
+            "\n" +
+            ".footer .bold {\n" +
+            "    font-weight: bold;\n" +
+            "}\n" +
+            "\n" +
+            ".footer .brand {\n" +
+            "    font-weight: bold;\n" +
+            "    background: linear-gradient(\n" +
+            "        90deg,\n" +
+            "        #f5d06f,\n" +
+            "        #d4af37,\n" +
+            "        #b8860b,\n" +
+            "        #ffd700\n" +
+            "    );\n" +
+            "    -webkit-background-clip: text;\n" +
+            "    -webkit-text-fill-color: transparent;\n" +
+            "}" +
+            ".header .title h1{margin:0;font-size:32px;}\n" +
+            ".header .title h2{margin:6px 0 0;font-weight:normal;font-size:18px;}\n" +
+            ".header .sun{font-size:48px;text-align:right;}\n" +
+            ".info{display:grid;grid-template-columns:1fr 1fr;gap:20px;margin-top:20px;font-size:16px;line-height:1.7;}\n" +
+            ".main{display:grid;grid-template-columns:1fr 1fr;gap:25px;margin-top:25px;width:100%;}\n" +
+            ".charts{display:grid;grid-template-columns:1fr 1fr;gap:25px;margin-top:25px;width:100%;}\n" +
+            ".data-section{display:grid;grid-template-columns:1fr 1fr;gap:25px;margin-top:25px;width:100%;}\n" +
+            ".box{border:3px solid #8a5a2b;padding:15px;background:rgba(255,255,255,.18);width:100%;}\n" +
+            ".box h3{text-align:center;margin:0 0 10px;font-size:20px;}\n" +
+            "svg{width:100%;height:auto;max-width:100%;}\n" +
+            "table{width:100%;border-collapse:collapse;font-size:16px;}\n" +
+            "th,td{border:1px solid #8a5a2b;padding:8px;font-size:16px;}\n" +
+            ".footer{margin-top:20px;text-align:center;font-size:16px;}\n" +
+            "@media screen and (max-width:1200px){.page{margin:10px;padding:20px;}}\n" +
+            "@media screen and (max-width:900px){.page{margin:5px;padding:15px;border-width:8px;}.charts{grid-template-columns:1fr !important;}.data-section{grid-template-columns:1fr !important;}.main{grid-template-columns:1fr !important;}}\n" +
+            "@media screen and (max-width:768px){.page{padding:12px;margin:0;border-width:6px;}.header{grid-template-columns:60px 1fr 60px;gap:10px;}.header .om{font-size:40px;}.header .sun{font-size:40px;}.header .title h1{font-size:26px;margin:0;}.header .title h2{font-size:16px;margin:3px 0 0;}.info{grid-template-columns:1fr;gap:12px;font-size:16px;}.charts{grid-template-columns:1fr !important;gap:15px;}.data-section{grid-template-columns:1fr !important;gap:15px;}.box{padding:10px;}.box h3{font-size:18px;margin:0 0 8px;}.box svg{max-height:300px;}.main{grid-template-columns:1fr !important;}table{font-size:16px;}th,td{padding:6px;font-size:16px;}}\n" +
+            "@media screen and (max-width:480px){.page{padding:10px;margin:0;border-width:4px;}.header{grid-template-columns:50px 1fr 50px;gap:8px;}.header .om{font-size:36px;}.header .sun{font-size:36px;}.header .title h1{font-size:22px;margin:0;}.header .title h2{font-size:14px;margin:2px 0 0;}.info{grid-template-columns:1fr;gap:8px;font-size:16px;}.charts{grid-template-columns:1fr !important;gap:12px;}.data-section{grid-template-columns:1fr !important;gap:12px;}.box{padding:8px;}.box h3{font-size:16px;margin:0 0 6px;}.box svg{max-height:250px;}.main{grid-template-columns:1fr !important;}table{font-size:16px;}th,td{padding:4px;font-size:16px;}}\n" +
+            "</style>\n" +
+            "</head>\n" +
+            "<body>\n" +
+            "<div class=\"page\">\n";
+
+    private static final String REPORT_CHART_FRAME =
+            "<svg width=\"100%\" viewBox=\"0 0 400 400\" xmlns=\"http://www.w3.org/2000/svg\">\n" +
+            "  <rect x=\"0\" y=\"0\" width=\"400\" height=\"400\" fill=\"none\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n" +
+            "  <line x1=\"0\" y1=\"0\" x2=\"400\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n" +
+            "  <line x1=\"400\" y1=\"0\" x2=\"0\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n" +
+            "  <line x1=\"200\" y1=\"0\" x2=\"400\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n" +
+            "  <line x1=\"400\" y1=\"200\" x2=\"200\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n" +
+            "  <line x1=\"200\" y1=\"400\" x2=\"0\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n" +
+            "  <line x1=\"0\" y1=\"200\" x2=\"200\" y2=\"0\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n" +
+            "  <text x=\"200\" y=\"200\" font-size=\"180\" fill=\"#8a5a2b\" opacity=\"0.06\" text-anchor=\"middle\" dominant-baseline=\"middle\">ॐ</text>\n" +
+            "  <g fill=\"#3b2414\" font-size=\"16\" font-weight=\"bold\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n" +
+            "    <text x=\"325\" y=\"100\">1</text>\n" +
+            "    <text x=\"300\" y=\"75\">2</text>\n" +
+            "    <text x=\"200\" y=\"175\">3</text>\n" +
+            "    <text x=\"100\" y=\"75\">4</text>\n" +
+            "    <text x=\"75\" y=\"100\">5</text>\n" +
+            "    <text x=\"175\" y=\"200\">6</text>\n" +
+            "    <text x=\"200\" y=\"225\">9</text>\n" +
+            "    <text x=\"75\" y=\"300\">7</text>\n" +
+            "    <text x=\"100\" y=\"325\">8</text>\n" +
+            "    <text x=\"300\" y=\"320\">10</text>\n" +
+            "    <text x=\"325\" y=\"300\">11</text>\n" +
+            "    <text x=\"225\" y=\"200\">12</text>\n" +
+            "  </g>\n";
+
+    private static final String REPORT_TAIL =
+            "<div class=\"footer\">\n" +
+            "    © <span class=\"bold\">Chart Generated</span> by \n" +
+            "    <span class=\"brand\">Astrro Adhyaay</span>\n" +
+            "</div>\n" +
+            "</div>\n" +
+            "</body>\n" +
+            "</html>";
+
+    private static final String SECTION_HEAD_START =
+            "<!DOCTYPE html>\n" +
+            "<html lang=\"hi\">\n" +
+            "<head>\n" +
+            "<meta charset=\"UTF-8\" />\n" +
+            "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n" +
+            "<title>";
+
+    private static final String SECTION_HEAD_END =
+            " - Kundli Report</title>\n" +
+            "<style>\n" +
+            ".footer {\n" +
+            "    background: #000;\n" +
+            "    color: #fff;\n" +
+            "    text-align: center;\n" +
+            "    padding: 15px;\n" +
+            "    font-size: 14px;\n" +
+            "    font-family: Arial, sans-serif;\n" +
+            "}\n" +
+            "\n" +
+            ".footer .bold {\n" +
+            "    font-weight: bold;\n" +
+            "}\n" +
+            "\n" +
+            ".footer .brand {\n" +
+            "    font-weight: bold;\n" +
+            "    background: linear-gradient(\n" +
+            "        90deg,\n" +
+            "        #f5d06f,\n" +
+            "        #d4af37,\n" +
+            "        #b8860b,\n" +
+            "        #ffd700\n" +
+            "    );\n" +
+            "    -webkit-background-clip: text;\n" +
+            "    -webkit-text-fill-color: transparent;\n" +
+            "}\n" +
+            "*{box-sizing:border-box}\n" +
+            "html,body{width:100%;height:100%;margin:0;padding:0;font-size:16px;}\n" +
+            "body{margin:0;background:#ead5be;font-family: Calibre, Calibri, Georgia, \"Times New Roman\", serif;}\n" +
+            ".page{max-width:920px;margin:0 auto;background:#ead5be;padding:0;width:100%;}\n" +
+            ".box{border:none;padding:0;background:#ead5be;width:100%;}\n" +
+            ".box h3{text-align:center;margin:6px 0 10px;font-size:18px;color:#9f3b2d;font-weight:600;}\n" +
+            "svg{width:100%;height:auto;max-width:100%;}\n" +
+            "table{width:100%;border-collapse:collapse;font-size:16px;}\n" +
+            "th,td{border:1px solid #8a5a2b;padding:8px;font-size:16px;}\n" +
+            ".footer{margin-top:8px;text-align:center;font-size:12px;color:#9f3b2d;opacity:.8;}\n" +
+            "@media screen and (max-width:768px){.page{padding:0;margin:0;}.box{padding:0;}.box h3{font-size:16px;margin:6px 0 8px;}table{font-size:15px;}th,td{padding:6px;font-size:15px;}}\n" +
+            "</style>\n" +
+            "</head>\n" +
+            "<body>\n" +
+            "<div class=\"page\">\n";
+
+    private static final String SECTION_TAIL =
+            "<div class=\"footer\">\n" +
+            "    © <span class=\"bold\">Chart Generated</span> by \n" +
+            "    <span class=\"brand\">Astrro Adhyaay</span>\n" +
+            "</div>\n" +
+            "</div>\n" +
+            "</body>\n" +
+            "</html>";
+
+    private static final String SECTION_CHART_FRAME =
+            "<svg width=\"100%\" viewBox=\"0 0 400 400\" xmlns=\"http://www.w3.org/2000/svg\">\n" +
+            "  <rect x=\"0\" y=\"0\" width=\"400\" height=\"400\" fill=\"#ead5be\" stroke=\"#a9ab87\" stroke-width=\"1.2\"/>\n" +
+            "  <line x1=\"0\" y1=\"0\" x2=\"400\" y2=\"400\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n" +
+            "  <line x1=\"400\" y1=\"0\" x2=\"0\" y2=\"400\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n" +
+            "  <line x1=\"200\" y1=\"0\" x2=\"400\" y2=\"200\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n" +
+            "  <line x1=\"400\" y1=\"200\" x2=\"200\" y2=\"400\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n" +
+            "  <line x1=\"200\" y1=\"400\" x2=\"0\" y2=\"200\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n" +
+            "  <line x1=\"0\" y1=\"200\" x2=\"200\" y2=\"0\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n" +
+            "  <g fill=\"#b33a2b\" font-size=\"16\" font-weight=\"500\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n";
+
+    private static final String CHART_END = "  </g>\n</svg>\n</div>\n";
+
+    private static final String SECTION_LABELS_START =
+            "  <g fill=\"#b33a2b\" font-size=\"11.5\" font-weight=\"600\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n";
+
+    /**
+     * Full report as a String (used for the JSON htmlContent field).
+     */
+    public String renderReport(PlanetaryChart chart) {
+        StringBuilder html = new StringBuilder(REPORT_CAPACITY);
+        try {
+            writeReport(chart, html);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return html.toString();
+    }
+
+    /**
+     * Stream the full report to a response or file Writer without building it in memory first.
+     */
+    public void writeReport(PlanetaryChart chart, Writer writer) throws IOException {
+        writeReport(chart, (Appendable) writer);
+        writer.flush();
+    }
+
+    /**
+     * Write the full report in one pass.
+     */
+    public void writeReport(PlanetaryChart chart, Appendable out) throws IOException {
+        List<List<String>> bySign = groupBySign(chart);
+        List<List<String>> byNavamshaSign = groupByNavamshaSign(chart);
+        List<List<String>> byTransitHouse = groupByTransitHouse(chart);
+
+        out.append(REPORT_HEAD);
+
+        // Charts section (Kundli, Navamsha)
+        out.append("<div class=\"charts\">\n<div>\n");
+        out.append("<div class=\"box\">\n<h3>Kundli Birth Chart</h3>\n");
+        writeReportChart(out, bySign);
+        out.append("<div class=\"box\">\n<h3>Navamsha  Chart</h3>\n");
+        writeReportChart(out, byNavamshaSign);
+        out.append("</div>\n</div>\n");
+
+        // Second row of charts (Transit chart)
+        out.append("<div class=\"charts\">\n<div>\n");
+        out.append("<div class=\"box\">\n<h3>Transit Chart (Today from Lagna)</h3>\n");
+        writeReportChart(out, byTransitHouse);
+        out.append("</div>\n</div>\n");
+
+        // Data section (Planetary Positions and Astrological Data)
+        out.append("<div class=\"data-section\">\n<div>\n");
+        out.append("  <div class=\"box\">\n");
+        out.append("    <h3>Planetary Positions</h3>\n");
+        out.append("    <table>\n");
+        out.append("      <tr><th>Planet</th><th>Sign</th><th>Degree</th><th>House</th></tr>\n");
+        writePositionRows(out, chart, "      ");
+        out.append("    </table>\n");
+        out.append("  </div>\n");
+
+        out.append("  <div class=\"box\" style=\"margin-top:20px;\">\n");
+        out.append("    <h3>Astrological Data</h3>\n");
+        writeAstrologicalData(out, chart, "    ");
+        out.append("  </div>\n");
+        out.append("</div>\n");
+        out.append("</div>\n");
+
+        out.append(REPORT_TAIL);
+    }
+
+    /**
+     * Content address of the full report: SHA-256 over exactly the values it renders
+     * (rounded as displayed) plus the markup version. Equal keys mean byte-identical reports.
+     */
+    public String artifactKey(PlanetaryChart chart) {
+        StringBuilder input = new StringBuilder(512);
+        input.append(REPORT_VERSION).append('|')
+                .append(chart.ascendantSign()).append('|')
+                .append(String.format("%.2f", chart.ascendantNormDegree())).append('|')
+                .append(chart.navamshaAscendantSign()).append('|')
+                .append(String.format("%.4f", chart.ayanamsa()));
+        for (PlanetaryChart.Graha graha : chart.natal()) {
+            input.append('|').append(graha.name())
+                    .append(',').append(graha.sign())
+                    .append(',').append(String.format("%.2f", graha.normDegree()))
+                    .append(',').append(graha.house())
+                    .append(',').append(graha.navamshaSign());
+        }
+        for (PlanetaryChart.Graha graha : chart.transit()) {
+            input.append("|t:").append(graha.name()).append(',').append(graha.house());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Standalone HTML documents for each chart and data block, keyed as in the JSON htmlSections field.
+     */
+    public Map<String, String> renderSections(PlanetaryChart chart) {
+        Map<String, String> sections = new LinkedHashMap<>();
+        int ascendantSign = chart.ascendantSign();
+
+        StringBuilder html = sectionStart("Kundli Birth Chart");
+        writeSectionChart(html, "Kundli Birth Chart", groupBySign(chart), ascendantSign, true);
+        sections.put("kundliChart", sectionEnd(html));
+
+        html = sectionStart("Navamsha Chart");
+        writeSectionChart(html, "Navamsha Chart", groupByNavamshaSign(chart), chart.navamshaAscendantSign(), true);
+        sections.put("navamshaChart", sectionEnd(html));
+
+        html = sectionStart("Transit Chart");
+        writeSectionChart(html, "Transit Chart (Today from Lagna)", groupByTransitHouse(chart), ascendantSign, false);
+        sections.put("transitChart", sectionEnd(html));
+
+        StringBuilder positions = sectionStart("Planetary Positions");
+        positions.append("<div class=\"box\">\n");
+        positions.append("<h3>Planetary Positions</h3>\n");
+        positions.append("<table>\n");
+        positions.append("  <tr><th>Planet</th><th>Sign</th><th>Degree</th><th>House</th></tr>\n");
+        appendUnchecked(() -> writePositionRows(positions, chart, "  "));
+        positions.append("</table>\n");
+        positions.append("</div>\n");
+        sections.put("planetaryPositions", sectionEnd(positions));
+
+        StringBuilder data = sectionStart("Astrological Data");
+        data.append("<div class=\"box\">\n");
+        data.append("<h3>Astrological Data</h3>\n");
+        appendUnchecked(() -> writeAstrologicalData(data, chart, ""));
+        data.append("</div>\n");
+        sections.put("astrologicalData", sectionEnd(data));
+
+        return sections;
+    }
+
+    private void writeReportChart(Appendable out, List<List<String>> labels) throws IOException {
+        out.append(REPORT_CHART_FRAME);
+        out.append("  <g fill=\"#000\" font-size=\"10\" font-weight=\"bold\">\n");
+        for (int house = 1; house <= 12; house++) {
+            int[] coord = REPORT_LABEL_COORDS[house];
+            List<String> planets = labels.get(house);
+            if (planets.size() > 1) {
+                // Multiple planets: use tspan for vertical stacking
+                out.append("    <text x=\"").append(Integer.toString(coord[0])).append("\" y=\"").append(Integer.toString(coord[1]))
+                        .append("\" font-size=\"10\" font-weight=\"bold\" text-anchor=\"start\" dominant-baseline=\"middle\">\n");
+                for (int i = 0; i < planets.size(); i++) {
+                    out.append("      <tspan x=\"").append(Integer.toString(coord[0])).append("\" dy=\"").append(i == 0 ? "0" : "10")
+                            .append("\">").append(abbreviation(planets.get(i))).append("</tspan>\n");
+                }
+                out.append("    </text>\n");
+            } else if (planets.size() == 1) {
+                out.append("    <text x=\"").append(Integer.toString(coord[0])).append("\" y=\"").append(Integer.toString(coord[1]))
+                        .append("\">").append(abbreviation(planets.get(0))).append("</text>\n");
+            }
+        }
+        out.append(CHART_END);
+    }
+
+    private void writeSectionChart(StringBuilder html, String title, List<List<String>> labels,
+                                   int ascendantSign, boolean labelsAreSignBased) {
+        html.append("<div class=\"box\">\n");
+        html.append("<h3>").append(title).append("</h3>\n");
+        html.append(SECTION_CHART_FRAME);
+
+        int startSign = (ascendantSign >= 1 && ascendantSign <= 12) ? ascendantSign : 1;
+        for (int house = 1; house <= 12; house++) {
+            int[] coord = SECTION_SIGN_COORDS[house];
+            // Signs move anti-clockwise from Ascendant sign in North-Indian layout.
+            int sign = ((startSign - house + 12) % 12) + 1;
+            html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1]).append("\">")
+                    .append(sign).append("</text>\n");
+        }
+        html.append("  </g>\n");
+
+        html.append(SECTION_LABELS_START);
+        for (int house = 1; house <= 12; house++) {
+            int[] coord = SECTION_PLANET_COORDS[house];
+            List<String> planets = labelsAreSignBased
+                    ? labels.get(((startSign - house + 12) % 12) + 1)
+                    : labels.get(house);
+            int startY = coord[1] - ((planets.size() - 1) * SECTION_LINE_HEIGHT) / 2;
+            for (int i = 0; i < planets.size(); i++) {
+                html.append("    <text x=\"").append(coord[0]).append("\" y=\"")
+                        .append(startY + (i * SECTION_LINE_HEIGHT)).append("\">")
+                        .append(abbreviation(planets.get(i))).append("</text>\n");
+            }
+        }
+        html.append(CHART_END);
+    }
+
+    private void writePositionRows(Appendable out, PlanetaryChart chart, String indent) throws IOException {
+        for (PlanetaryChart.Graha graha : chart.natal()) {
+            out.append(indent).append("<tr><td>").append(graha.name()).append("</td><td>")
+                    .append(SIGN_NAMES[graha.sign()])
+                    .append("</td><td>")
+                    .append(String.format("%.2f°", graha.normDegree()))
+                    .append("</td><td>")
+                    .append(Integer.toString(graha.house()))
+                    .append("</td></tr>\n");
+        }
+    }
+
+    private void writeAstrologicalData(Appendable out, PlanetaryChart chart, String indent) throws IOException {
+        PlanetaryChart.Graha sun = chart.natal("Sun");
+        PlanetaryChart.Graha moon = chart.natal("Moon");
+        out.append(indent).append("Ascendant: ").append(SIGN_NAMES[chart.ascendantSign()])
+                .append(String.format(" %.2f°", chart.ascendantNormDegree())).append("<br>\n");
+        out.append(indent).append("Sun Sign: ").append(sun != null ? SIGN_NAMES[sun.sign()] : "-").append("<br>\n");
+        out.append(indent).append("Moon Sign: ").append(moon != null ? SIGN_NAMES[moon.sign()] : "-").append("<br>\n");
+        out.append(indent).append("Ayanamsa: ").append(String.format("%.4f", chart.ayanamsa())).append("<br>\n");
+    }
+
+    private StringBuilder sectionStart(String title) {
+        StringBuilder html = new StringBuilder(SECTION_CAPACITY);
+        html.append(SECTION_HEAD_START).append(title).append(SECTION_HEAD_END);
+        return html;
+    }
+
+    private String sectionEnd(StringBuilder html) {
+        return html.append(SECTION_TAIL).toString();
+    }
+
+    private String abbreviation(String planetName) {
+        return PLANET_ABBR.getOrDefault(planetName, planetName.substring(0, Math.min(3, planetName.length())));
+    }
+
+    /**
+     * Rasi chart labels grouped by sign; Ascendant first in its sign
+     */
+    private List<List<String>> groupBySign(PlanetaryChart chart) {
+        List<List<String>> bySign = emptyGroups();
+        bySign.get(chart.ascendantSign()).add("Ascendant");
+        for (PlanetaryChart.Graha graha : chart.natal()) {
+            bySign.get(graha.sign()).add(graha.name());
+        }
+        return bySign;
+    }
+
+    /**
+     * Navamsha chart labels grouped by sign; Ascendant first in its sign
+     */
+    private List<List<String>> groupByNavamshaSign(PlanetaryChart chart) {
+        List<List<String>> bySign = emptyGroups();
+        bySign.get(chart.navamshaAscendantSign()).add("Ascendant");
+        for (PlanetaryChart.Graha graha : chart.natal()) {
+            bySign.get(graha.navamshaSign()).add(graha.name());
+        }
+        return bySign;
+    }
+
+    /**
+     * Transit chart labels grouped by house from the natal Lagna; Ascendant first in house 1
+     */
+    private List<List<String>> groupByTransitHouse(PlanetaryChart chart) {
+        List<List<String>> byHouse = emptyGroups();
+        byHouse.get(1).add("Ascendant");
+        for (PlanetaryChart.Graha graha : chart.transit()) {
+            byHouse.get(graha.house()).add(graha.name());
+        }
+        return byHouse;
+    }
+
+    private List<List<String>> emptyGroups() {
+        List<List<String>> groups = new ArrayList<>(13);
+        for (int i = 0; i <= 12; i++) {
+            groups.add(new ArrayList<>(4));
+        }
+        return groups;
+    }
+
+    private void appendUnchecked(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
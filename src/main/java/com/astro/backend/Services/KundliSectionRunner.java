@@ -0,0 +1,121 @@
+package com.astro.backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sections of a full kundli (doshas, vargas, panchang, dasha, planetary
+ * positions ...) concurrently on the kundli section executor.
+ * <p>
+ * All sections of one kundli share a deadline taken when their scope is opened, so a response
+ * waits for its slowest section, never for the sum of them. A section that fails or misses the
+ * deadline is replaced by its fallback and named in {@link Scope#degraded()}; a late section's
+ * thread is interrupted, and closing the scope interrupts every section nobody joined.
+ */
+@Service
+@Slf4j
+public class KundliSectionRunner {
+
+    private final ExecutorService kundliSectionExecutor;
+
+    @Value("${astro.kundli.section-timeout-ms:5000}")
+    private long sectionTimeoutMs;
+
+    public KundliSectionRunner(@Qualifier("kundliSectionExecutor") ExecutorService kundliSectionExecutor) {
+        this.kundliSectionExecutor = kundliSectionExecutor;
+    }
+
+    /**
+     * Start the sections of one kundli; the deadline runs from here. Close the scope when done.
+     */
+    public Scope open() {
+        return new Scope(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs));
+    }
+
+    public record Section<T>(String name, Future<T> future) {
+    }
+
+    /**
+     * Sections of one kundli. Fork from the request thread, then join each one there.
+     */
+    public final class Scope implements AutoCloseable {
+        private final long deadline;
+        private final List<Section<?>> forked = new ArrayList<>();
+        private final List<String> degraded = new ArrayList<>();
+
+        private Scope(long deadline) {
+            this.deadline = deadline;
+        }
+
+        public <T> Section<T> fork(String name, Supplier<T> task) {
+            Section<T> section = new Section<>(name, kundliSectionExecutor.submit(task::get));
+            forked.add(section);
+            return section;
+        }
+
+        /**
+         * A section that needs the result of another one; it fails when that one fails.
+         */
+        public <U, T> Section<T> then(String name, Section<U> previous, Function<? super U, ? extends T> task) {
+            return fork(name, () -> {
+                try {
+                    return task.apply(previous.future().get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for " + previous.name());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(previous.name() + " failed", e.getCause());
+                }
+            });
+        }
+
+        /**
+         * Result of a section, or the fallback when it failed or is still running at the deadline.
+         */
+        public <T> T join(Section<T> section, T fallback) {
+            try {
+                return section.future().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                section.future().cancel(true);
+                log.warn("Kundli section {} timed out after {} ms", section.name(), sectionTimeoutMs);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.warn("Kundli section {} failed: {}", section.name(), cause.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted waiting for kundli section {}", section.name());
+            }
+            degraded.add(section.name());
+            return fallback;
+        }
+
+        /**
+         * Names of the sections that fell back, in join order; empty when the kundli is complete.
+         */
+        public List<String> degraded() {
+            return degraded;
+        }
+
+        /**
+         * Interrupt the sections still running, e.g. the ones never joined because the kundli failed.
+         */
+        @Override
+        public void close() {
+            for (Section<?> section : forked) {
+                section.future().cancel(true);
+            }
+        }
+    }
+}
@@ -7,7 +7,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import swisseph.SweConst;
 import swisseph.SweDate;
-import swisseph.SwissEph;
 
 import java.util.*;
 
@@ -15,8 +14,7 @@ import java.util.*;
 @RequiredArgsConstructor
 public class KundliService {
 
-    private static final SweDate sweDate = new SweDate();
-    private static final SwissEph swissEph = new SwissEph("libs/ephe");
+    private final NatalChartCache natalChartCache;
 
     private static final Map<Integer, String> RASHI_MAP = Map.ofEntries(
             Map.entry(0, "Aries"), Map.entry(1, "Taurus"), Map.entry(2, "Gemini"),
@@ -36,13 +34,10 @@ public class KundliService {
                 SweConst.SE_SATURN, SweConst.SE_TRUE_NODE};
 
         List<PlanetPosition> planetPositions = new ArrayList<>();
+        NatalChartCache.NatalChart chart = natalChartCache.getChart(julDay, lat, lon, EphemerisEngine.TROPICAL, 'P');
 
         for (int p : planets) {
-            double[] xx = new double[6];
-            StringBuffer serr = new StringBuffer();
-
-            swissEph.swe_calc(julDay, p, SweConst.SEFLG_SWIEPH, xx, serr);
-            double lonDeg = xx[0];
+            double lonDeg = chart.longitude(p);
             int rashi = (int) (lonDeg / 30);
 
             planetPositions.add(PlanetPosition.builder()
@@ -53,14 +48,7 @@ public class KundliService {
         }
 
         // Compute Ascendant
-        double[] cusps = new double[13];
-        double[] ascmc = new double[10];
-
-        int flags = SweConst.SEFLG_SWIEPH;
-        swissEph.swe_houses(julDay, flags, lat, lon, 'P', cusps, ascmc);
-
-
-        double ascLong = ascmc[0];
+        double ascLong = chart.ascendant();
         int ascRashi = (int) (ascLong / 30);
 
         return KundliResponse.builder()
@@ -1,14 +1,16 @@
 package com.astro.backend.Services;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import swisseph.*;
 
 import java.util.*;
 
 @Service
+@RequiredArgsConstructor
 public class KundliSvgService {
 
-    private static final SwissEph swe = new SwissEph("libs/ephe");
+    private final EphemerisEngine ephemerisEngine;
 
     // =========================
     // HOUSE → SVG CENTER POSITIONS
@@ -48,8 +50,7 @@ public class KundliSvgService {
             Map<Integer, List<String>> housePlanets = new HashMap<>();
 
             // ===== Ascendant SIGN =====
-            double[] asc = new double[6];
-            swe.swe_calc(jd, SweConst.SE_ASC, flags, asc, new StringBuffer());
+            double[] asc = ephemerisEngine.calc(jd, SweConst.SE_ASC, flags, EphemerisEngine.TROPICAL);
             int ascSign = ((int) (asc[0] / 30)) + 1;
 
             // Ascendant marker
@@ -69,11 +70,10 @@ public class KundliSvgService {
                     SweConst.SE_MOON
             };
 
-            for (int i = 0; i < names.length; i++) {
-                double[] xx = new double[6];
-                swe.swe_calc(jd, ids[i], flags, xx, new StringBuffer());
+            double[][] positions = ephemerisEngine.calcAll(jd, ids, flags, EphemerisEngine.TROPICAL);
 
-                double lonp = xx[0];
+            for (int i = 0; i < names.length; i++) {
+                double lonp = positions[i][0];
                 if (names[i].equals("Ke")) {
                     lonp = (lonp + 180) % 360;
                 }
@@ -0,0 +1,285 @@
+package com.astro.backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lagna timetable: the instants each sidereal lagna rises over a local day, so "current lagna"
+ * and "next change" are lookups instead of a swe_houses call. Day tables are cached per
+ * (lat/lon grid cell, local date, zone) and computed for the centre of the cell, like rise/set.
+ * <p>
+ * The ascendant comes from mean sidereal time and mean obliquity with the default ayanamsa from
+ * the interpolation tables, so no ephemeris instance is borrowed. Sign changes are bracketed in
+ * 5-minute steps and bisected to a tenth of a second; across India they are within a second
+ * of swe_houses for present-day dates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LagnaService {
+
+    private static final double STEP_DAYS = 5.0 / 1440;
+    private static final double PRECISION_DAYS = 0.1 / 86400;
+
+    private final EphemerisInterpolator ephemerisInterpolator;
+
+    @Value("${astro.lagna.grid-degrees:0.05}")
+    private double gridDegrees;
+
+    @Value("${astro.lagna.max-entries:20000}")
+    private int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Map<CellDay, LagnaTable> lru = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CellDay, LagnaTable> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Lagnas of a local calendar date, midnight to midnight; the first and last period are cut
+     * at the day boundaries.
+     */
+    public LagnaTable getDayTable(double lat, double lon, LocalDate date, ZoneId zone) {
+        long latCell = Math.round(lat / gridDegrees);
+        long lonCell = Math.round(lon / gridDegrees);
+        CellDay key = new CellDay(latCell, lonCell, date, zone);
+
+        LagnaTable table;
+        synchronized (lru) {
+            table = lru.get(key);
+        }
+        if (table != null) {
+            hits.incrementAndGet();
+            return table;
+        }
+
+        misses.incrementAndGet();
+        ZonedDateTime dayStart = date.atStartOfDay(zone);
+        table = compute(latCell * gridDegrees, lonCell * gridDegrees,
+                TransitSnapshotService.toJulDayUt(dayStart.toInstant()),
+                TransitSnapshotService.toJulDayUt(dayStart.plusDays(1).toInstant()));
+        synchronized (lru) {
+            lru.put(key, table);
+        }
+        return table;
+    }
+
+    /**
+     * Lagna rising at an instant, when it rose and which lagna follows when. Looks into the
+     * neighbouring day tables when the lagna spans local midnight.
+     */
+    public CurrentLagna getCurrent(double lat, double lon, Instant now, ZoneId zone) {
+        LocalDate date = now.atZone(zone).toLocalDate();
+        LagnaTable today = getDayTable(lat, lon, date, zone);
+        int index = today.indexAt(TransitSnapshotService.toJulDayUt(now));
+        Period current = today.periods().get(index);
+
+        Period previous = index > 0 ? null : getDayTable(lat, lon, date.minusDays(1), zone).last();
+        double sinceJd = previous != null && previous.sign() == current.sign() ? previous.startJd() : current.startJd();
+
+        Period next;
+        if (index + 1 < today.periods().size()) {
+            next = today.periods().get(index + 1);
+        } else {
+            List<Period> tomorrow = getDayTable(lat, lon, date.plusDays(1), zone).periods();
+            next = tomorrow.get(0).sign() != current.sign() || tomorrow.size() == 1 ? tomorrow.get(0) : tomorrow.get(1);
+        }
+        return new CurrentLagna(current.sign(), TransitSnapshotService.toInstant(sinceJd),
+                next.sign(), next.start());
+    }
+
+    /**
+     * Uncached table for an exact location between two Julian days (UT).
+     */
+    public LagnaTable compute(double lat, double lon, double startJd, double endJd) {
+        List<Period> periods = new ArrayList<>(16);
+        double t = startJd;
+        int sign = lagnaSign(t, lat, lon);
+        while (t < endJd) {
+            double end = nextChange(t, sign, lat, lon, endJd);
+            periods.add(new Period(sign, t, end));
+            t = end;
+            sign = lagnaSign(t, lat, lon);
+        }
+        return new LagnaTable(startJd, endJd, List.copyOf(periods));
+    }
+
+    /**
+     * Sidereal sign (0 = Aries) rising at a Julian day (UT).
+     */
+    public int lagnaSign(double julDay, double lat, double lon) {
+        double ascendant = tropicalAscendant(julDay, lat, lon) - ephemerisInterpolator.ayanamsa(julDay);
+        ascendant %= 360;
+        if (ascendant < 0) ascendant += 360;
+        return (int) (ascendant / 30) % 12;
+    }
+
+    /**
+     * Tropical ascendant from mean sidereal time and mean obliquity, without borrowing an ephemeris
+     * instance. Within ten arc-seconds of swe_houses at Indian latitudes for present-day dates,
+     * i.e. under a second of lagna time.
+     */
+    public static double tropicalAscendant(double julDay, double lat, double lon) {
+        double d = julDay - 2451545.0;
+        double t = d / 36525.0;
+        double gmst = 280.46061837 + 360.98564736629 * d + 0.000387933 * t * t - t * t * t / 38710000.0;
+        double ramc = Math.toRadians(((gmst + lon) % 360 + 360) % 360);
+        double obliquity = Math.toRadians(23.4392911 - 0.0130042 * t);
+        double ascendant = Math.toDegrees(Math.atan2(Math.cos(ramc),
+                -(Math.sin(ramc) * Math.cos(obliquity) + Math.tan(Math.toRadians(lat)) * Math.sin(obliquity))));
+        return (ascendant + 360) % 360;
+    }
+
+    /**
+     * Local time of a lagna change to the second, e.g. 2026-10-18T06:25:31+05:30.
+     */
+    public static String format(Instant instant, ZoneId zone) {
+        return instant.atZone(zone).truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    /**
+     * Centre of the grid cell a coordinate falls in, i.e. the point day tables are computed for.
+     */
+    public double snapToGrid(double degrees) {
+        return Math.round(degrees / gridDegrees) * gridDegrees;
+    }
+
+    /**
+     * Hit/miss and size metrics.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (lru) {
+            metrics.put("size", lru.size());
+        }
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("gridDegrees", gridDegrees);
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        return metrics;
+    }
+
+    private double nextChange(double julDay, int sign, double lat, double lon, double limit) {
+        double lo = julDay;
+        double hi = julDay + STEP_DAYS;
+        while (hi < limit && lagnaSign(hi, lat, lon) == sign) {
+            lo = hi;
+            hi += STEP_DAYS;
+        }
+        if (hi >= limit) {
+            if (lagnaSign(limit, lat, lon) == sign) {
+                return limit;
+            }
+            hi = limit;
+        }
+        while (hi - lo > PRECISION_DAYS) {
+            double mid = (lo + hi) / 2;
+            if (lagnaSign(mid, lat, lon) == sign) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return hi;
+    }
+
+    private record CellDay(long latCell, long lonCell, LocalDate date, ZoneId zone) {
+    }
+
+    /**
+     * One lagna between two Julian days (UT).
+     */
+    public record Period(int sign, double startJd, double endJd) {
+
+        public String name() {
+            return VargaEngine.SIGNS[sign];
+        }
+
+        public Instant start() {
+            return TransitSnapshotService.toInstant(startJd);
+        }
+
+        public Instant end() {
+            return TransitSnapshotService.toInstant(endJd);
+        }
+    }
+
+    /**
+     * Consecutive lagnas covering [startJd, endJd).
+     */
+    public record LagnaTable(double startJd, double endJd, List<Period> periods) {
+
+        /**
+         * Index of the period holding a Julian day; clamped to the first or last period outside the table.
+         */
+        public int indexAt(double julDay) {
+            int lo = 0;
+            int hi = periods.size() - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (periods.get(mid).startJd() <= julDay) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+
+        public Period at(double julDay) {
+            return periods.get(indexAt(julDay));
+        }
+
+        public Period last() {
+            return periods.get(periods.size() - 1);
+        }
+
+        /**
+         * The periods as lagna, lagna number and local start/end times.
+         */
+        public List<Map<String, Object>> toList(ZoneId zone) {
+            List<Map<String, Object>> rows = new ArrayList<>(periods.size());
+            for (Period period : periods) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("lagna", period.name());
+                row.put("lagnaNumber", period.sign() + 1);
+                row.put("start", format(period.start(), zone));
+                row.put("end", format(period.end(), zone));
+                rows.add(row);
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * The lagna rising now, since when, and the lagna that follows it.
+     */
+    public record CurrentLagna(int sign, Instant since, int nextSign, Instant nextChange) {
+
+        public String name() {
+            return VargaEngine.SIGNS[sign];
+        }
+
+        public String nextName() {
+            return VargaEngine.SIGNS[nextSign];
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.Entity.MuhuratCalendar;
+import com.astro.backend.Repositry.MuhuratCalendarRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monthly muhurat calendars for the supported event types, precomputed for the next months by a
+ * daily job (so past days drop out), stored in muhurat_calendar and served from an in-memory read
+ * model. Other event types and months beyond the horizon are computed on demand.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MuhuratCalendarService {
+
+    public static final List<String> EVENT_TYPES =
+            List.of("marriage", "business", "journey", "property", "education", "medical");
+
+    private final MuhuratService muhuratService;
+    private final MuhuratCalendarRepository muhuratCalendarRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${astro.muhurat.calendar.months-ahead:12}")
+    private int monthsAhead;
+
+    @Value("${astro.muhurat.timezone:Asia/Kolkata}")
+    private String timezone;
+
+    private final Map<String, Entry> readModel = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            YearMonth current = YearMonth.now(zone());
+            for (MuhuratCalendar row : muhuratCalendarRepository.findByYearGreaterThanEqual(current.getYear())) {
+                YearMonth month = YearMonth.of(row.getYear(), row.getMonth());
+                if (!month.isBefore(current)) {
+                    readModel.put(key(row.getEventType(), month), toEntry(row));
+                }
+            }
+            log.info("Loaded {} precomputed muhurat calendars", readModel.size());
+        } catch (Exception e) {
+            log.error("Failed to load muhurat calendars: {}", e.getMessage());
+        }
+        // The application is already serving; misses are computed on demand meanwhile
+        refresh();
+    }
+
+    /**
+     * Zone the calendar months and days are counted in.
+     */
+    public ZoneId zone() {
+        return ZoneId.of(timezone);
+    }
+
+    /**
+     * Calendar of one event type and month; ETag and computedAt support HTTP caching.
+     */
+    public Entry getMonthlyCalendar(String eventType, YearMonth month) {
+        String eventKey = eventType.trim().toLowerCase(Locale.ROOT);
+        Entry entry = readModel.get(key(eventKey, month));
+        if (entry != null) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        YearMonth current = YearMonth.now(zone());
+        if (!EVENT_TYPES.contains(eventKey) || month.isBefore(current) || month.isAfter(current.plusMonths(monthsAhead))) {
+            return toEntry(muhuratService.getMonthlyAuspiciousDates(month.atDay(1), eventType), LocalDateTime.now(zone()));
+        }
+        return compute(eventKey, month);
+    }
+
+    /**
+     * Recompute every supported event type for the current month and the configured months ahead.
+     * Runs shortly after midnight so the current month stops listing past days. Skipped while a
+     * refresh is still running, e.g. the startup one when the cron fires during it.
+     */
+    @Scheduled(cron = "${astro.muhurat.calendar.cron:0 5 0 * * *}", zone = "${astro.muhurat.timezone:Asia/Kolkata}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            log.info("Muhurat calendar refresh already running; skipped");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDate today = LocalDate.now(zone());
+            YearMonth current = YearMonth.from(today);
+            int computed = 0;
+            for (int offset = 0; offset <= monthsAhead; offset++) {
+                YearMonth month = current.plusMonths(offset);
+                for (String eventType : EVENT_TYPES) {
+                    Entry existing = readModel.get(key(eventType, month));
+                    // The current month loses a day daily; later months are only refreshed monthly
+                    if (existing != null && offset > 0
+                            && existing.computedAt().toLocalDate().isAfter(today.minusDays(30))) {
+                        continue;
+                    }
+                    try {
+                        compute(eventType, month);
+                        computed++;
+                    } catch (Exception e) {
+                        log.error("Failed to precompute {} muhurat calendar for {}: {}", eventType, month, e.getMessage());
+                    }
+                }
+            }
+            readModel.keySet().removeIf(key -> YearMonth.parse(key.substring(key.indexOf(':') + 1)).isBefore(current));
+            log.info("Precomputed {} muhurat calendars in {} ms", computed, System.currentTimeMillis() - start);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", readModel.size());
+        metrics.put("monthsAhead", monthsAhead);
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        return metrics;
+    }
+
+    private Entry compute(String eventType, YearMonth month) {
+        Map<String, Object> data = muhuratService.getMonthlyAuspiciousDates(month.atDay(1), eventType);
+        LocalDateTime now = LocalDateTime.now(zone());
+        Entry entry = toEntry(data, now);
+        try {
+            MuhuratCalendar row = muhuratCalendarRepository
+                    .findByEventTypeAndYearAndMonth(eventType, month.getYear(), month.getMonthValue())
+                    .orElseGet(() -> MuhuratCalendar.builder()
+                            .eventType(eventType)
+                            .year(month.getYear())
+                            .month(month.getMonthValue())
+                            .build());
+            row.setLatitude(muhuratService.getDefaultLatitude());
+            row.setLongitude(muhuratService.getDefaultLongitude());
+            row.setPayload(objectMapper.writeValueAsString(data));
+            row.setEtag(entry.etag());
+            row.setComputedAt(now);
+            muhuratCalendarRepository.save(row);
+        } catch (Exception e) {
+            // Still served from memory; the next refresh stores it
+            log.error("Failed to store {} muhurat calendar for {}: {}", eventType, month, e.getMessage());
+        }
+        readModel.put(key(eventType, month), entry);
+        return entry;
+    }
+
+    private Entry toEntry(MuhuratCalendar row) throws Exception {
+        Map<String, Object> data = objectMapper.readValue(row.getPayload(), new TypeReference<LinkedHashMap<String, Object>>() {});
+        return new Entry(data, row.getEtag(), row.getComputedAt());
+    }
+
+    private Entry toEntry(Map<String, Object> data, LocalDateTime computedAt) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(data);
+            String etag = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+            return new Entry(data, etag, computedAt);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build muhurat calendar: " + e.getMessage());
+        }
+    }
+
+    private static String key(String eventType, YearMonth month) {
+        return eventType + ":" + month;
+    }
+
+    /**
+     * One month's calendar as served by /muhurat/monthly; computedAt is local time in {@link #zone()}.
+     */
+    public record Entry(Map<String, Object> data, String etag, LocalDateTime computedAt) {
+    }
+}
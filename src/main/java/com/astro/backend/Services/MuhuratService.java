@@ -1,237 +1,257 @@
 package com.astro.backend.Services;
 
+import com.astro.backend.Helper.AstrologyHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.*;
-
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Muhurat search from the actual panchang. A day is split at every tithi, nakshatra, yoga,
+ * karana and lagna boundary and at Rahu Kaal; each piece is a candidate window, rejected by the
+ * event's hard rules (vara, tithi, inauspicious yoga, Vishti karana, Rahu Kaal) and otherwise
+ * scored. Days are evaluated in parallel; a day is skipped before any lagna work when its vara
+ * or tithis rule it out, or when its best possible score cannot reach the current top results.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MuhuratService {
 
-    /**
-     * Find auspicious muhurat (timing) for various life events
-     * @param eventType Type of event (marriage, business, journey, etc.)
-     * @param startDate Date from which to find muhurat
-     * @param duration Duration in days to search
-     * @return List of auspicious timings
-     */
-    public List<MuhuratSlot> findAuspiciousMuhurat(String eventType, LocalDate startDate, int duration) {
-        try {
-            List<MuhuratSlot> auspiciousTimings = new ArrayList<>();
-
-            for (int day = 0; day < duration; day++) {
-                LocalDate checkDate = startDate.plusDays(day);
-                
-                if (isValidMuhuratDay(checkDate, eventType)) {
-                    List<LocalTime> timeSlots = getAuspiciousTimeSlots(checkDate, eventType);
-                    
-                    for (LocalTime time : timeSlots) {
-                        auspiciousTimings.add(MuhuratSlot.builder()
-                                .date(checkDate)
-                                .time(time)
-                                .event(eventType)
-                                .nakshatra(getNakshatraForDate(checkDate))
-                                .tithi(getTithiForDate(checkDate))
-                                .dayOfWeek(checkDate.getDayOfWeek().toString())
-                                .duration("2 hours")
-                                .auspiciousityScore(calculateAuspiciousityScore(checkDate, time, eventType))
-                                .build());
-                    }
-                }
-            }
+    // Score of a window: it passed the hard rules, plus its tithi, nakshatra and lagna
+    private static final int BASE_SCORE = 60;
+    private static final int FAVOURED_TITHI_SCORE = 15;
+    private static final int PERMITTED_TITHI_SCORE = 10;
+    private static final int NAKSHATRA_SCORE = 15;
+    private static final int LAGNA_SCORE = 10;
+    private static final int MAX_SCORE = BASE_SCORE + FAVOURED_TITHI_SCORE + NAKSHATRA_SCORE + LAGNA_SCORE;
 
-            // Sort by auspiciousness score
-            auspiciousTimings.sort((a, b) -> b.auspiciousityScore - a.auspiciousityScore);
-            return auspiciousTimings.stream().limit(10).toList();
+    // Vishkambha, Atiganda, Shula, Ganda, Vyaghata, Vajra, Vyatipata, Parigha, Vaidhriti
+    private static final Set<Integer> INAUSPICIOUS_YOGAS = Set.of(0, 5, 8, 9, 12, 14, 16, 18, 26);
+    private static final String VISHTI = "Vishti";
 
-        } catch (Exception e) {
-            log.error("Error finding muhurat", e);
-            throw new RuntimeException("Failed to find muhurat: " + e.getMessage());
-        }
-    }
+    private final TransitionEngine transitionEngine;
+    private final RiseSetService riseSetService;
+    private final LagnaService lagnaService;
 
-    /**
-     * Check if a day is suitable for the given event
-     */
-    private boolean isValidMuhuratDay(LocalDate date, String eventType) {
-        LocalDate today = LocalDate.now();
-        
-        // Cannot schedule for past dates
-        if (date.isBefore(today)) {
-            return false;
-        }
+    @Value("${astro.muhurat.latitude:28.6139}")
+    private double defaultLatitude;
 
-        String tithi = getTithiForDate(date);
-        int dayOfWeek = date.getDayOfWeek().getValue();
-
-        return switch (eventType.toLowerCase()) {
-            case "marriage" -> isGoodForMarriage(tithi, dayOfWeek);
-            case "business" -> isGoodForBusiness(tithi, dayOfWeek);
-            case "journey" -> isGoodForJourney(tithi, dayOfWeek);
-            case "property" -> isGoodForProperty(tithi, dayOfWeek);
-            case "education" -> isGoodForEducation(tithi, dayOfWeek);
-            case "medical" -> isGoodForMedical(tithi, dayOfWeek);
-            default -> true;
-        };
-    }
+    @Value("${astro.muhurat.longitude:77.2090}")
+    private double defaultLongitude;
 
-    private boolean isGoodForMarriage(String tithi, int dayOfWeek) {
-        // Good tithis: 2, 5, 7, 10, 11, 13 (Avoid 4, 8, 9, 12, 14, 15)
-        // Good days: Sunday, Wednesday, Thursday, Friday (Avoid Saturday)
-        String[] goodTithis = {"Dwitiya", "Panchami", "Saptami", "Dashami", "Ekadashi", "Trayodashi"};
-        int[] goodDays = {1, 3, 4, 5}; // Sun, Wed, Thu, Fri
+    @Value("${astro.muhurat.timezone:Asia/Kolkata}")
+    private String timezone;
 
-        return Arrays.asList(goodTithis).contains(tithi) && Arrays.stream(goodDays).anyMatch(d -> d == dayOfWeek);
-    }
+    @Value("${astro.muhurat.min-window-minutes:30}")
+    private int minWindowMinutes;
 
-    private boolean isGoodForBusiness(String tithi, int dayOfWeek) {
-        // Good tithis: 1, 2, 3, 6, 7, 10, 11, 13
-        String[] goodTithis = {"Pratipada", "Dwitiya", "Tritiya", "Shashthi", "Saptami", "Dashami", "Ekadashi", "Trayodashi"};
-        int[] goodDays = {1, 2, 3, 4, 5}; // Not Saturday, Sunday
+    @Value("${astro.muhurat.max-results:10}")
+    private int maxResults;
 
-        return Arrays.asList(goodTithis).contains(tithi) && Arrays.stream(goodDays).anyMatch(d -> d == dayOfWeek);
+    public double getDefaultLatitude() {
+        return defaultLatitude;
     }
 
-    private boolean isGoodForJourney(String tithi, int dayOfWeek) {
-        // Avoid amavasya, purnima and ekadashi
-        String[] badTithis = {"Amavasya", "Purnima", "Ekadashi"};
-        int[] badDays = {7}; // Avoid Saturday
-
-        return !Arrays.asList(badTithis).contains(tithi) && Arrays.stream(badDays).noneMatch(d -> d == dayOfWeek);
-    }
-
-    private boolean isGoodForProperty(String tithi, int dayOfWeek) {
-        // Good tithis: 1, 2, 5, 7, 10, 11
-        String[] goodTithis = {"Pratipada", "Dwitiya", "Panchami", "Saptami", "Dashami", "Ekadashi"};
-        int[] goodDays = {1, 2, 3, 4, 5}; // Not Saturday
-
-        return Arrays.asList(goodTithis).contains(tithi) && Arrays.stream(goodDays).anyMatch(d -> d == dayOfWeek);
-    }
-
-    private boolean isGoodForEducation(String tithi, int dayOfWeek) {
-        // Good tithis: 1, 2, 5, 7, 10, 11, 13
-        String[] goodTithis = {"Pratipada", "Dwitiya", "Panchami", "Saptami", "Dashami", "Ekadashi", "Trayodashi"};
-        int[] goodDays = {1, 2, 3, 4, 5}; // Not Saturday
-
-        return Arrays.asList(goodTithis).contains(tithi) && Arrays.stream(goodDays).anyMatch(d -> d == dayOfWeek);
-    }
-
-    private boolean isGoodForMedical(String tithi, int dayOfWeek) {
-        // Avoid eclipse days, purnima, amavasya
-        String[] badTithis = {"Amavasya", "Purnima"};
-
-        return !Arrays.asList(badTithis).contains(tithi);
+    public double getDefaultLongitude() {
+        return defaultLongitude;
     }
 
     /**
-     * Get auspicious time slots for a given day
+     * Find auspicious muhurat (timing) for various life events
+     * @param eventType Type of event (marriage, business, journey, etc.)
+     * @param startDate Date from which to find muhurat
+     * @param duration Duration in days to search
+     * @return List of auspicious timings
      */
-    private List<LocalTime> getAuspiciousTimeSlots(LocalDate date, String eventType) {
-        List<LocalTime> slots = new ArrayList<>();
-
-        // Simplified: Add morning and evening slots
-        // In real implementation, calculate based on planetary hours
-        
-        LocalTime morningStart = LocalTime.of(6, 0);
-        LocalTime afternoonStart = LocalTime.of(12, 0);
-        LocalTime eveningStart = LocalTime.of(17, 0);
-
-        slots.add(morningStart);
-        slots.add(afternoonStart);
-        slots.add(eveningStart);
-
-        return slots;
+    public List<MuhuratSlot> findAuspiciousMuhurat(String eventType, LocalDate startDate, int duration) {
+        return findAuspiciousMuhurat(eventType, startDate, duration, defaultLatitude, defaultLongitude);
     }
 
     /**
-     * Get nakshatra for a given date (simplified)
+     * Best muhurat windows at a location, highest score first.
      */
-    private String getNakshatraForDate(LocalDate date) {
-        String[] nakshatras = {
-                "Ashwini", "Bharani", "Krittika", "Rohini", "Mrigashirsha", "Ardra", "Punarvasu",
-                "Pushya", "Ashlesha", "Magha", "Purva Phalguni", "Uttara Phalguni", "Hasta",
-                "Chitra", "Swati", "Vishakha", "Anuradha", "Jyeshtha", "Mula", "Purva Ashadha",
-                "Uttara Ashadha", "Shravana", "Dhanishta", "Shatabhisha", "Purva Bhadrapada",
-                "Uttara Bhadrapada", "Revati"
-        };
-
-        int dayOfYear = date.getDayOfYear();
-        return nakshatras[dayOfYear % nakshatras.length];
+    public List<MuhuratSlot> findAuspiciousMuhurat(String eventType, LocalDate startDate, int duration,
+                                                   double lat, double lon) {
+        try {
+            EventRules rules = EventRules.of(eventType);
+            ZoneId zone = ZoneId.of(timezone);
+            TransitionEngine.Timeline timeline = timeline(startDate, startDate.plusDays(duration), zone);
+
+            // Score a window must beat to enter the current top results; lets days be skipped early
+            TopSlots top = new TopSlots(maxResults);
+            IntStream.range(0, duration).parallel().forEach(day -> {
+                LocalDate date = startDate.plusDays(day);
+                for (MuhuratSlot slot : evaluateDay(eventType, rules, date, lat, lon, zone, timeline, top.threshold)) {
+                    top.offer(slot);
+                }
+            });
+            return top.sorted();
+
+        } catch (Exception e) {
+            log.error("Error finding muhurat", e);
+            throw new RuntimeException("Failed to find muhurat: " + e.getMessage());
+        }
     }
 
-    /**
-     * Get tithi for a given date (simplified)
-     */
-    private String getTithiForDate(LocalDate date) {
-        String[] tithis = {
-                "Pratipada", "Dwitiya", "Tritiya", "Chaturthi", "Panchami", "Shashthi", "Saptami",
-                "Ashtami", "Navami", "Dashami", "Ekadashi", "Dwadashi", "Trayodashi", "Chaturdashi",
-                "Purnima"
-        };
-
-        int dayOfMonth = date.getDayOfMonth();
-        return tithis[dayOfMonth % tithis.length];
+    private TransitionEngine.Timeline timeline(LocalDate from, LocalDate to, ZoneId zone) {
+        // Through the next morning, since a Vedic day ends at the following sunrise
+        return transitionEngine.timeline(
+                TransitSnapshotService.toJulDayUt(from.atStartOfDay(zone).toInstant()),
+                TransitSnapshotService.toJulDayUt(to.plusDays(1).atTime(12, 0).atZone(zone).toInstant()));
     }
 
-    /**
-     * Calculate auspiciousness score (0-100)
-     */
-    private int calculateAuspiciousityScore(LocalDate date, LocalTime time, String eventType) {
-        int score = 70;
+    private List<MuhuratSlot> evaluateDay(String eventType, EventRules rules, LocalDate date, double lat, double lon,
+                                          ZoneId zone, TransitionEngine.Timeline timeline, AtomicInteger threshold) {
+        // Cannot schedule for past dates
+        if (date.isBefore(LocalDate.now(zone)) || !rules.days.contains(date.getDayOfWeek())) {
+            return List.of();
+        }
 
-        // Bonus for morning
-        if (time.getHour() >= 6 && time.getHour() <= 9) {
-            score += 10;
+        RiseSetService.RiseSetTimes riseSet = riseSetService.getRiseSet(lat, lon, date, zone);
+        if (riseSet.sunrise() == null || riseSet.sunset() == null) {
+            return List.of();
+        }
+        double dayStart = julDay(riseSet.sunrise());
+        double dayEnd;
+        if (rules.includeNight) {
+            ZonedDateTime nextSunrise = riseSetService.getRiseSet(lat, lon, date.plusDays(1), zone).sunrise();
+            dayEnd = nextSunrise != null ? julDay(nextSunrise) : dayStart + 1;
+        } else {
+            dayEnd = julDay(riseSet.sunset());
         }
 
-        // Bonus for evening
-        if (time.getHour() >= 17 && time.getHour() <= 19) {
-            score += 5;
+        // Prune: the day needs a permitted tithi somewhere, and a chance to beat the current top results
+        boolean tithiPossible = false;
+        boolean goodNakshatraPossible = false;
+        for (double t = dayStart; t < dayEnd; ) {
+            TransitionEngine.Span tithi = timeline.at(TransitionEngine.Limb.TITHI, t);
+            tithiPossible |= rules.tithiAllowed(AstrologyHelper.getTithiByIndex(tithi.index()));
+            t = tithi.endJd();
+        }
+        for (double t = dayStart; t < dayEnd; ) {
+            TransitionEngine.Span nakshatra = timeline.at(TransitionEngine.Limb.NAKSHATRA, t);
+            goodNakshatraPossible |= rules.nakshatras.contains(AstrologyHelper.getNakshatraByIndex(nakshatra.index()));
+            t = nakshatra.endJd();
         }
+        if (!tithiPossible || (goodNakshatraPossible ? MAX_SCORE : MAX_SCORE - NAKSHATRA_SCORE) < threshold.get()) {
+            return List.of();
+        }
+
+        ZonedDateTime[] rahuKaal = riseSet.rahuKaal();
+        double rahuStart = rahuKaal != null ? julDay(rahuKaal[0]) : Double.NaN;
+        double rahuEnd = rahuKaal != null ? julDay(rahuKaal[1]) : Double.NaN;
+        double minWindow = minWindowMinutes / 1440.0;
+
+        LagnaService.LagnaTable lagnas = lagnaService.compute(lat, lon, dayStart, dayEnd);
+        List<MuhuratSlot> slots = new ArrayList<>();
+        double t = dayStart;
+        while (t < dayEnd) {
+            TransitionEngine.Span tithi = timeline.at(TransitionEngine.Limb.TITHI, t);
+            TransitionEngine.Span nakshatra = timeline.at(TransitionEngine.Limb.NAKSHATRA, t);
+            TransitionEngine.Span yoga = timeline.at(TransitionEngine.Limb.YOGA, t);
+            TransitionEngine.Span karana = timeline.at(TransitionEngine.Limb.KARANA, t);
+            LagnaService.Period lagnaPeriod = lagnas.at(t);
+            int lagna = lagnaPeriod.sign();
+            double lagnaEnd = lagnaPeriod.endJd();
+            boolean inRahuKaal = t >= rahuStart && t < rahuEnd;
+
+            double end = Math.min(Math.min(Math.min(tithi.endJd(), nakshatra.endJd()),
+                    Math.min(yoga.endJd(), karana.endJd())), Math.min(lagnaEnd, dayEnd));
+            if (t < rahuStart && end > rahuStart) {
+                end = rahuStart;
+            } else if (inRahuKaal) {
+                end = Math.min(end, rahuEnd);
+            }
 
-        // Bonus for auspicious days
-        if (date.getDayOfWeek().getValue() == 4) { // Thursday
-            score += 5;
+            String tithiName = AstrologyHelper.getTithiByIndex(tithi.index());
+            String nakshatraName = AstrologyHelper.getNakshatraByIndex(nakshatra.index());
+            String karanaName = AstrologyHelper.getKaranaByIndex(karana.index());
+            if (!inRahuKaal
+                    && end - t >= minWindow
+                    && rules.tithiAllowed(tithiName)
+                    && !INAUSPICIOUS_YOGAS.contains(yoga.index())
+                    && !VISHTI.equals(karanaName)) {
+                int score = BASE_SCORE
+                        + (rules.tithis != null ? FAVOURED_TITHI_SCORE : PERMITTED_TITHI_SCORE)
+                        + (rules.nakshatras.contains(nakshatraName) ? NAKSHATRA_SCORE : 0)
+                        + (rules.lagnaNature == lagna % 3 ? LAGNA_SCORE : 0);
+                ZonedDateTime start = TransitSnapshotService.toInstant(t).atZone(zone);
+                ZonedDateTime finish = TransitSnapshotService.toInstant(end).atZone(zone);
+                slots.add(MuhuratSlot.builder()
+                        .date(date)
+                        .time(start.toLocalTime().withNano(0))
+                        .endTime(finish.toLocalTime().withNano(0))
+                        .event(eventType)
+                        .nakshatra(nakshatraName)
+                        .tithi(tithiName)
+                        .yoga(AstrologyHelper.getYogaByIndex(yoga.index()))
+                        .karana(karanaName)
+                        .lagna(AstrologyHelper.getRashiByIndex(lagna))
+                        .dayOfWeek(date.getDayOfWeek().toString())
+                        .duration(formatDuration(Math.round((end - t) * 1440)))
+                        .auspiciousityScore(score)
+                        .build());
+            }
+            t = end;
         }
+        return slots;
+    }
 
-        return Math.min(score, 100);
+    private static double julDay(ZonedDateTime time) {
+        return TransitSnapshotService.toJulDayUt(time.toInstant());
     }
 
     /**
      * Find auspicious dates for a month
      */
     public Map<String, Object> getMonthlyAuspiciousDates(LocalDate monthStart, String eventType) {
+        return getMonthlyAuspiciousDates(monthStart, eventType, defaultLatitude, defaultLongitude);
+    }
+
+    public Map<String, Object> getMonthlyAuspiciousDates(LocalDate monthStart, String eventType, double lat, double lon) {
         Map<String, Object> result = new LinkedHashMap<>();
         List<LocalDate> dates = new ArrayList<>();
         List<Map<String, Object>> entries = new ArrayList<>();
 
-        LocalDate current = monthStart;
+        EventRules rules = EventRules.of(eventType);
+        ZoneId zone = ZoneId.of(timezone);
         int daysInMonth = monthStart.lengthOfMonth();
+        TransitionEngine.Timeline timeline = timeline(monthStart, monthStart.plusDays(daysInMonth), zone);
+        List<List<MuhuratSlot>> byDay = IntStream.range(0, daysInMonth).parallel()
+                .mapToObj(day -> evaluateDay(eventType, rules, monthStart.plusDays(day), lat, lon, zone,
+                        timeline, new AtomicInteger(0)))
+                .toList();
+
         for (int day = 0; day < daysInMonth; day++) {
-            if (isValidMuhuratDay(current, eventType)) {
-                dates.add(current);
-
-                List<LocalTime> slots = getAuspiciousTimeSlots(current, eventType);
-                LocalTime bestSlot = slots.isEmpty() ? LocalTime.of(6, 0) : slots.get(0);
-                int bestScore = calculateAuspiciousityScore(current, bestSlot, eventType);
-
-                String bestTiming = formatTime(bestSlot) + " - " + formatTime(bestSlot.plusHours(2));
-
-                Map<String, Object> row = new LinkedHashMap<>();
-                row.put("date", current.toString());
-                row.put("event", eventType);
-                row.put("muhuratsCount", slots.size());
-                row.put("bestTiming", bestTiming);
-                row.put("auspiciousness", bestScore);
-                entries.add(row);
+            List<MuhuratSlot> slots = byDay.get(day);
+            if (slots.isEmpty()) {
+                continue;
             }
-            current = current.plusDays(1);
+            LocalDate current = monthStart.plusDays(day);
+            dates.add(current);
+
+            MuhuratSlot best = slots.stream()
+                    .max(Comparator.comparingInt((MuhuratSlot slot) -> slot.auspiciousityScore))
+                    .orElseThrow();
+            String bestTiming = formatTime(best.time) + " - " + formatTime(best.endTime);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("date", current.toString());
+            row.put("event", eventType);
+            row.put("muhuratsCount", slots.size());
+            row.put("bestTiming", bestTiming);
+            row.put("auspiciousness", best.auspiciousityScore);
+            entries.add(row);
         }
 
         result.put("event", eventType);
@@ -240,7 +260,7 @@ public class MuhuratService {
         result.put("auspiciousDates", dates);
         result.put("entries", entries);
         result.put("totalDays", dates.size());
-        result.put("recommendation", "Best dates for " + eventType + ": " + 
+        result.put("recommendation", "Best dates for " + eventType + ": " +
                 (dates.isEmpty() ? "No auspicious dates found" : dates.stream().limit(5).toList()));
 
         return result;
@@ -257,15 +277,117 @@ public class MuhuratService {
         return String.format("%02d:%02d %s", displayHour, minute, amPm);
     }
 
+    private String formatDuration(long minutes) {
+        long hours = minutes / 60;
+        long rest = minutes % 60;
+        if (hours == 0) {
+            return rest + " minutes";
+        }
+        return hours + (hours == 1 ? " hour" : " hours") + (rest > 0 ? " " + rest + " minutes" : "");
+    }
+
+    /**
+     * Per-event rules: permitted weekdays, tithis (a whitelist, or a blacklist when
+     * {@code tithis} is null), favourable nakshatras and the favoured lagna nature
+     * (0 movable, 1 fixed, 2 dual).
+     */
+    private record EventRules(Set<DayOfWeek> days, Set<String> tithis, Set<String> badTithis,
+                              Set<String> nakshatras, int lagnaNature, boolean includeNight) {
+
+        boolean tithiAllowed(String tithi) {
+            return tithis != null ? tithis.contains(tithi) : !badTithis.contains(tithi);
+        }
+
+        static EventRules of(String eventType) {
+            Set<DayOfWeek> weekdays = EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY,
+                    DayOfWeek.THURSDAY, DayOfWeek.FRIDAY);
+            return switch (eventType.toLowerCase()) {
+                // Good tithis: 2, 5, 7, 10, 11, 13; good days: Monday, Wednesday, Thursday, Friday
+                case "marriage" -> new EventRules(
+                        EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY),
+                        Set.of("Dwitiya", "Panchami", "Saptami", "Dashami", "Ekadashi", "Trayodashi"), null,
+                        Set.of("Rohini", "Mrigashirsha", "Magha", "Uttara Phalguni", "Hasta", "Swati",
+                                "Anuradha", "Mula", "Uttara Ashadha", "Uttara Bhadrapada", "Revati"),
+                        1, true);
+                case "business" -> new EventRules(weekdays,
+                        Set.of("Pratipada", "Dwitiya", "Tritiya", "Shashthi", "Saptami", "Dashami", "Ekadashi", "Trayodashi"), null,
+                        Set.of("Ashwini", "Rohini", "Pushya", "Uttara Phalguni", "Hasta", "Chitra", "Anuradha",
+                                "Uttara Ashadha", "Shravana", "Uttara Bhadrapada", "Revati"),
+                        1, false);
+                // Avoid amavasya, purnima and ekadashi, and Sunday
+                case "journey" -> new EventRules(EnumSet.complementOf(EnumSet.of(DayOfWeek.SUNDAY)),
+                        null, Set.of("Amavasya", "Purnima", "Ekadashi"),
+                        Set.of("Ashwini", "Mrigashirsha", "Punarvasu", "Pushya", "Hasta", "Anuradha",
+                                "Shravana", "Dhanishta", "Revati"),
+                        0, false);
+                case "property" -> new EventRules(weekdays,
+                        Set.of("Pratipada", "Dwitiya", "Panchami", "Saptami", "Dashami", "Ekadashi"), null,
+                        Set.of("Rohini", "Mrigashirsha", "Punarvasu", "Pushya", "Uttara Phalguni", "Hasta", "Chitra",
+                                "Swati", "Anuradha", "Uttara Ashadha", "Shravana", "Dhanishta", "Shatabhisha",
+                                "Uttara Bhadrapada", "Revati"),
+                        1, false);
+                case "education" -> new EventRules(weekdays,
+                        Set.of("Pratipada", "Dwitiya", "Panchami", "Saptami", "Dashami", "Ekadashi", "Trayodashi"), null,
+                        Set.of("Ashwini", "Mrigashirsha", "Punarvasu", "Pushya", "Hasta", "Chitra", "Swati",
+                                "Shravana", "Dhanishta", "Shatabhisha", "Revati"),
+                        2, false);
+                // Avoid purnima and amavasya
+                case "medical" -> new EventRules(EnumSet.allOf(DayOfWeek.class),
+                        null, Set.of("Amavasya", "Purnima"),
+                        Set.of("Ashwini", "Mrigashirsha", "Punarvasu", "Pushya", "Hasta", "Chitra", "Anuradha",
+                                "Shravana", "Revati"),
+                        2, false);
+                default -> new EventRules(EnumSet.allOf(DayOfWeek.class), null, Set.of(), Set.of(), -1, false);
+            };
+        }
+    }
+
+    /**
+     * Bounded best-first collection shared by the day workers. {@code threshold} is the lowest
+     * score still in the top results once they are full.
+     */
+    private static final class TopSlots {
+        private final int limit;
+        private final PriorityQueue<MuhuratSlot> heap;
+        private final AtomicInteger threshold = new AtomicInteger(0);
+
+        TopSlots(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Comparator.comparingInt((MuhuratSlot slot) -> slot.auspiciousityScore)
+                    .thenComparing((MuhuratSlot slot) -> slot.date, Comparator.reverseOrder())
+                    .thenComparing((MuhuratSlot slot) -> slot.time, Comparator.reverseOrder()));
+        }
+
+        synchronized void offer(MuhuratSlot slot) {
+            heap.offer(slot);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+            if (heap.size() == limit) {
+                threshold.set(heap.peek().auspiciousityScore);
+            }
+        }
+
+        synchronized List<MuhuratSlot> sorted() {
+            List<MuhuratSlot> result = new ArrayList<>(heap);
+            result.sort(heap.comparator().reversed());
+            return result;
+        }
+    }
+
     /**
      * Muhurat Slot DTO
      */
     public static class MuhuratSlot {
         public LocalDate date;
         public LocalTime time;
+        public LocalTime endTime;
         public String event;
         public String nakshatra;
         public String tithi;
+        public String yoga;
+        public String karana;
+        public String lagna;
         public String dayOfWeek;
         public String duration;
         public int auspiciousityScore;
@@ -277,9 +399,13 @@ public class MuhuratService {
         public static class Builder {
             private LocalDate date;
             private LocalTime time;
+            private LocalTime endTime;
             private String event;
             private String nakshatra;
             private String tithi;
+            private String yoga;
+            private String karana;
+            private String lagna;
             private String dayOfWeek;
             private String duration;
             private int auspiciousityScore;
@@ -294,6 +420,11 @@ public class MuhuratService {
                 return this;
             }
 
+            public Builder endTime(LocalTime endTime) {
+                this.endTime = endTime;
+                return this;
+            }
+
             public Builder event(String event) {
                 this.event = event;
                 return this;
@@ -309,6 +440,21 @@ public class MuhuratService {
                 return this;
             }
 
+            public Builder yoga(String yoga) {
+                this.yoga = yoga;
+                return this;
+            }
+
+            public Builder karana(String karana) {
+                this.karana = karana;
+                return this;
+            }
+
+            public Builder lagna(String lagna) {
+                this.lagna = lagna;
+                return this;
+            }
+
             public Builder dayOfWeek(String dayOfWeek) {
                 this.dayOfWeek = dayOfWeek;
                 return this;
@@ -328,9 +474,13 @@ public class MuhuratService {
                 MuhuratSlot slot = new MuhuratSlot();
                 slot.date = this.date;
                 slot.time = this.time;
+                slot.endTime = this.endTime;
                 slot.event = this.event;
                 slot.nakshatra = this.nakshatra;
                 slot.tithi = this.tithi;
+                slot.yoga = this.yoga;
+                slot.karana = this.karana;
+                slot.lagna = this.lagna;
                 slot.dayOfWeek = this.dayOfWeek;
                 slot.duration = this.duration;
                 slot.auspiciousityScore = this.auspiciousityScore;
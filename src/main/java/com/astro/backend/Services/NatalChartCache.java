@@ -0,0 +1,208 @@
+package com.astro.backend.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import swisseph.SweConst;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoizes natal ephemeris results (all grahas, house cusps, ayanamsa) keyed by
+ * birth moment, location, ayanamsa and house system.
+ * First tier is a bounded in-memory LRU; Redis is an optional shared second tier.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NatalChartCache {
+
+    /** Every body any chart service reads; positions are stored by SwissEph body id. */
+    private static final int[] BODIES = {
+            SweConst.SE_SUN, SweConst.SE_MOON, SweConst.SE_MERCURY, SweConst.SE_VENUS,
+            SweConst.SE_MARS, SweConst.SE_JUPITER, SweConst.SE_SATURN, SweConst.SE_URANUS,
+            SweConst.SE_NEPTUNE, SweConst.SE_PLUTO, SweConst.SE_MEAN_NODE, SweConst.SE_TRUE_NODE,
+            SweConst.SE_CHIRON
+    };
+    private static final int BODY_SLOTS = SweConst.SE_CHIRON + 1;
+
+    private static final String REDIS_PREFIX = "natal-chart:";
+
+    private final EphemerisEngine ephemerisEngine;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+
+    @Value("${astro.chart-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${astro.chart-cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${astro.chart-cache.redis.ttl-hours:168}")
+    private long redisTtlHours;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Map<ChartKey, NatalChart> lru = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ChartKey, NatalChart> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Cached natal chart. Pass {@link EphemerisEngine#TROPICAL} as sidMode for tropical positions.
+     */
+    public NatalChart getChart(double julDayUt, double lat, double lon, int sidMode, char houseSystem) {
+        ChartKey key = ChartKey.of(julDayUt, lat, lon, sidMode, houseSystem);
+
+        NatalChart chart;
+        synchronized (lru) {
+            chart = lru.get(key);
+        }
+        if (chart != null) {
+            hits.incrementAndGet();
+            return chart;
+        }
+
+        chart = readRedis(key);
+        if (chart != null) {
+            redisHits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            chart = compute(julDayUt, lat, lon, sidMode, houseSystem);
+            writeRedis(key, chart);
+        }
+
+        synchronized (lru) {
+            lru.put(key, chart);
+        }
+        return chart;
+    }
+
+    /**
+     * Uncached calculation, for moments that will not be asked for again (e.g. "now").
+     */
+    public NatalChart compute(double julDayUt, double lat, double lon, int sidMode, char houseSystem) {
+        int flags = sidMode == EphemerisEngine.TROPICAL ? SweConst.SEFLG_SWIEPH : SweConst.SEFLG_SIDEREAL;
+        return ephemerisEngine.withEphemeris(sidMode, swe -> {
+            double[][] positions = new double[BODY_SLOTS][];
+            for (int body : BODIES) {
+                double[] xx = new double[6];
+                swe.swe_calc(julDayUt, body, flags, xx, new StringBuffer());
+                positions[body] = xx;
+            }
+
+            double[] cusps = new double[13];
+            double[] ascmc = new double[10];
+            swe.swe_houses(julDayUt, flags, lat, lon, houseSystem, cusps, ascmc);
+
+            double ayanamsa = sidMode == EphemerisEngine.TROPICAL ? 0.0 : swe.swe_get_ayanamsa(julDayUt);
+            return new NatalChart(julDayUt, ayanamsa, positions, cusps, ascmc);
+        });
+    }
+
+    public void clear() {
+        synchronized (lru) {
+            lru.clear();
+        }
+    }
+
+    /**
+     * Hit/miss and size metrics for the in-memory and Redis tiers.
+     */
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.get();
+        long redisHitCount = redisHits.get();
+        long missCount = misses.get();
+        long total = hitCount + redisHitCount + missCount;
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (lru) {
+            metrics.put("size", lru.size());
+        }
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("hits", hitCount);
+        metrics.put("redisHits", redisHitCount);
+        metrics.put("misses", missCount);
+        metrics.put("evictions", evictions.get());
+        metrics.put("hitRate", total == 0 ? 0.0 : (double) (hitCount + redisHitCount) / total);
+        metrics.put("redisEnabled", redisEnabled);
+        return metrics;
+    }
+
+    private NatalChart readRedis(ChartKey key) {
+        StringRedisTemplate redis = redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        if (redis == null) {
+            return null;
+        }
+        try {
+            String json = redis.opsForValue().get(REDIS_PREFIX + key.asString());
+            return json != null ? objectMapper.readValue(json, NatalChart.class) : null;
+        } catch (Exception e) {
+            log.warn("Natal chart Redis read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(ChartKey key, NatalChart chart) {
+        StringRedisTemplate redis = redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(REDIS_PREFIX + key.asString(),
+                    objectMapper.writeValueAsString(chart), Duration.ofHours(redisTtlHours));
+        } catch (Exception e) {
+            log.warn("Natal chart Redis write failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cache key; the birth moment is quantized to the second and coordinates to ~1 cm
+     * so that floating point noise in the Julian day does not split entries.
+     */
+    record ChartKey(long utSecond, long latE7, long lonE7, int sidMode, char houseSystem) {
+        static ChartKey of(double julDayUt, double lat, double lon, int sidMode, char houseSystem) {
+            return new ChartKey(Math.round(julDayUt * 86400.0), Math.round(lat * 1e7),
+                    Math.round(lon * 1e7), sidMode, houseSystem);
+        }
+
+        String asString() {
+            return utSecond + ":" + latE7 + ":" + lonE7 + ":" + sidMode + ":" + houseSystem;
+        }
+    }
+
+    /**
+     * Natal ephemeris result, shared between callers and treated as read-only.
+     * positions[bodyId] is the swe_calc xx array; cusps[1..12] and ascmc[0] (ascendant) come from swe_houses.
+     */
+    public record NatalChart(double julDayUt, double ayanamsa, double[][] positions, double[] cusps, double[] ascmc) {
+
+        public double[] position(int body) {
+            return positions[body];
+        }
+
+        public double longitude(int body) {
+            return positions[body][0];
+        }
+
+        public double ascendant() {
+            return ascmc[0];
+        }
+    }
+}
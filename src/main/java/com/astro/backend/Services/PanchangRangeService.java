@@ -0,0 +1,189 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.Entity.PanchangData;
+import com.astro.backend.Helper.AstrologyHelper;
+import com.astro.backend.Repositry.PanchangDataRepository;
+import com.astro.backend.ResponseDTO.PanchangDayResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Panchang for every day of a date range in one pass. The tithi, karana, nakshatra and yoga
+ * boundaries of the whole range come from one TransitionEngine timeline (the startup index, or a
+ * single scan outside it); each day then reads the limbs prevailing at its sunrise, with their
+ * start and end times. Days are stored in panchang_data once per rise/set grid cell (by index),
+ * zone and date, and served from there once the whole range exists.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PanchangRangeService {
+
+    private static final String[] VARAS = {
+            "Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday"
+    };
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    private final TransitionEngine transitionEngine;
+    private final RiseSetService riseSetService;
+    private final PanchangDataRepository panchangDataRepository;
+
+    @Value("${astro.panchang.range.max-days:366}")
+    private int maxDays;
+
+    /**
+     * Panchang for each local date from..to (inclusive) at a location.
+     */
+    public List<PanchangDayResponse> getRange(double lat, double lon, LocalDate from, LocalDate to, String tz) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > maxDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxDays + " days");
+        }
+        ZoneId zone = ZoneId.of(tz);
+        int latCell = riseSetService.cellOf(lat);
+        int lonCell = riseSetService.cellOf(lon);
+
+        Map<LocalDate, PanchangData> stored = findStored(latCell, lonCell, zone, from, to);
+        if (stored.size() == days) {
+            return stored.values().stream().map(row -> toResponse(row, zone)).toList();
+        }
+
+        List<PanchangData> computed = computeRange(latCell, lonCell, from, to, zone);
+        List<PanchangData> missing = computed.stream()
+                .filter(row -> !stored.containsKey(row.getDate()))
+                .toList();
+        try {
+            panchangDataRepository.saveAll(missing);
+        } catch (DataIntegrityViolationException e) {
+            // Another request stored (some of) these days first; theirs are the same values
+            log.info("Panchang range {}..{} was stored concurrently", from, to);
+            Map<LocalDate, PanchangData> reread = findStored(latCell, lonCell, zone, from, to);
+            if (reread.size() == days) {
+                return reread.values().stream().map(row -> toResponse(row, zone)).toList();
+            }
+        } catch (Exception e) {
+            // The range is still returned; it is simply recomputed next time
+            log.error("Failed to store panchang range {}..{}: {}", from, to, e.getMessage());
+        }
+        return computed.stream().map(row -> toResponse(row, zone)).toList();
+    }
+
+    /**
+     * Uncached calculation for the centre of a rise/set grid cell.
+     */
+    public List<PanchangData> computeRange(int latCell, int lonCell, LocalDate from, LocalDate to, ZoneId zone) {
+        double lat = riseSetService.cellCentre(latCell);
+        double lon = riseSetService.cellCentre(lonCell);
+        double startJd = TransitSnapshotService.toJulDayUt(from.atStartOfDay(zone).toInstant());
+        double endJd = TransitSnapshotService.toJulDayUt(to.plusDays(1).atStartOfDay(zone).toInstant());
+        TransitionEngine.Timeline timeline = transitionEngine.timeline(startJd, endJd);
+
+        List<PanchangData> result = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            RiseSetService.RiseSetTimes riseSet = riseSetService.getRiseSet(lat, lon, date, zone);
+            // Without a sunrise (polar day/night) the limbs are taken at local noon
+            ZonedDateTime anchor = riseSet.sunrise() != null ? riseSet.sunrise() : date.atTime(12, 0).atZone(zone);
+            double anchorJd = TransitSnapshotService.toJulDayUt(anchor.toInstant());
+
+            TransitionEngine.Span tithi = timeline.at(TransitionEngine.Limb.TITHI, anchorJd);
+            TransitionEngine.Span karana = timeline.at(TransitionEngine.Limb.KARANA, anchorJd);
+            TransitionEngine.Span nakshatra = timeline.at(TransitionEngine.Limb.NAKSHATRA, anchorJd);
+            TransitionEngine.Span yoga = timeline.at(TransitionEngine.Limb.YOGA, anchorJd);
+            int weekday = date.getDayOfWeek().getValue() % 7;
+            ZonedDateTime[] rahuKaal = riseSet.rahuKaal();
+            ZonedDateTime[] yamagandam = riseSet.yamagandam();
+
+            result.add(PanchangData.builder()
+                    .date(date)
+                    .latCell(latCell)
+                    .lonCell(lonCell)
+                    .timezone(zone.getId())
+                    .vara(VARAS[weekday])
+                    .paksha(AstrologyHelper.getPakshaByTithiIndex(tithi.index()))
+                    .tithi(AstrologyHelper.getTithiByIndex(tithi.index()))
+                    .tithiStartTime(tithi.startJd())
+                    .tithiEndTime(tithi.endJd())
+                    .karana(AstrologyHelper.getKaranaByIndex(karana.index()))
+                    .karanaStartTime(karana.startJd())
+                    .karanaEndTime(karana.endJd())
+                    .nakshatra(AstrologyHelper.getNakshatraByIndex(nakshatra.index()))
+                    .nakshatraStartTime(nakshatra.startJd())
+                    .nakshatraEndTime(nakshatra.endJd())
+                    .yoga(AstrologyHelper.getYogaByIndex(yoga.index()))
+                    .yogaStartTime(yoga.startJd())
+                    .yogaEndTime(yoga.endJd())
+                    .sunrise(RiseSetService.RiseSetTimes.format(riseSet.sunrise()))
+                    .sunset(RiseSetService.RiseSetTimes.format(riseSet.sunset()))
+                    .moonrise(RiseSetService.RiseSetTimes.format(riseSet.moonrise()))
+                    .moonset(RiseSetService.RiseSetTimes.format(riseSet.moonset()))
+                    .rahu_kaal_start(rahuKaal != null ? RiseSetService.RiseSetTimes.format(rahuKaal[0]) : null)
+                    .rahu_kaal_end(rahuKaal != null ? RiseSetService.RiseSetTimes.format(rahuKaal[1]) : null)
+                    .yamagandam_start(yamagandam != null ? RiseSetService.RiseSetTimes.format(yamagandam[0]) : null)
+                    .yamagandam_end(yamagandam != null ? RiseSetService.RiseSetTimes.format(yamagandam[1]) : null)
+                    .build());
+        }
+        return result;
+    }
+
+    private Map<LocalDate, PanchangData> findStored(int latCell, int lonCell, ZoneId zone, LocalDate from, LocalDate to) {
+        Map<LocalDate, PanchangData> stored = new TreeMap<>();
+        for (PanchangData row : panchangDataRepository
+                .findByLatCellAndLonCellAndTimezoneAndDateBetweenOrderByDateAsc(latCell, lonCell, zone.getId(), from, to)) {
+            stored.put(row.getDate(), row);
+        }
+        return stored;
+    }
+
+    private static PanchangDayResponse toResponse(PanchangData row, ZoneId zone) {
+        return PanchangDayResponse.builder()
+                .date(row.getDate().toString())
+                .vara(row.getVara())
+                .paksha(row.getPaksha())
+                .tithi(row.getTithi())
+                .tithiStart(format(row.getTithiStartTime(), zone))
+                .tithiEnd(format(row.getTithiEndTime(), zone))
+                .nakshatra(row.getNakshatra())
+                .nakshatraStart(format(row.getNakshatraStartTime(), zone))
+                .nakshatraEnd(format(row.getNakshatraEndTime(), zone))
+                .yoga(row.getYoga())
+                .yogaStart(format(row.getYogaStartTime(), zone))
+                .yogaEnd(format(row.getYogaEndTime(), zone))
+                .karana(row.getKarana())
+                .karanaStart(format(row.getKaranaStartTime(), zone))
+                .karanaEnd(format(row.getKaranaEndTime(), zone))
+                .sunrise(row.getSunrise())
+                .sunset(row.getSunset())
+                .moonrise(row.getMoonrise())
+                .moonset(row.getMoonset())
+                .rahuKaalStart(row.getRahu_kaal_start())
+                .rahuKaalEnd(row.getRahu_kaal_end())
+                .yamagandamStart(row.getYamagandam_start())
+                .yamagandamEnd(row.getYamagandam_end())
+                .build();
+    }
+
+    private static String format(Double julDayUt, ZoneId zone) {
+        if (julDayUt == null) {
+            return null;
+        }
+        return TransitSnapshotService.toInstant(julDayUt).atZone(zone)
+                .truncatedTo(ChronoUnit.SECONDS).format(ISO);
+    }
+}
@@ -5,17 +5,18 @@ import com.astro.backend.Helper.AstrologyHelper;
 import com.astro.backend.ResponseDTO.PanchangResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import swisseph.SweConst;
 import swisseph.SweDate;
-import swisseph.SwissEph;
 
 import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 @Service
 @RequiredArgsConstructor
 public class PanchangService {
 
-    private final SwissEph swe = new SwissEph("libs/ephe");
+    private final TransitionEngine transitionEngine;
+    private final RiseSetService riseSetService;
 
     private final String[] tithiNames = {
             "Pratipada", "Dvitiya", "Tritiya", "Chaturthi", "Panchami",
@@ -54,56 +55,57 @@ public class PanchangService {
         SweDate sd = new SweDate(utc.getYear(), utc.getMonthValue(), utc.getDayOfMonth(), timeDecimal);
         double julDay = sd.getJulDay();
 
-        double[] sun = new double[6];
-        double[] moon = new double[6];
-
-        // ✔ FIX: initialize error buffer correctly
-        StringBuffer serr = new StringBuffer();
-
-        // ✔ Sun & Moon calculation with proper error buffer
-        swe.swe_calc(julDay, SweConst.SE_SUN, SweConst.SEFLG_SWIEPH, sun, serr);
-        swe.swe_calc(julDay, SweConst.SE_MOON, SweConst.SEFLG_SWIEPH, moon, serr);
-
-        double sunLon = sun[0];
-        double moonLon = moon[0];
+        // Limbs in effect, with their boundaries, from the transition index
+        TransitionEngine.Timeline timeline = transitionEngine.timeline(julDay, julDay);
+        TransitionEngine.Span tithiSpan = timeline.at(TransitionEngine.Limb.TITHI, julDay);
+        TransitionEngine.Span nakshatraSpan = timeline.at(TransitionEngine.Limb.NAKSHATRA, julDay);
+        TransitionEngine.Span yogaSpan = timeline.at(TransitionEngine.Limb.YOGA, julDay);
+        TransitionEngine.Span karanaSpan = timeline.at(TransitionEngine.Limb.KARANA, julDay);
 
         // TITHI
-        double tithiRaw = (moonLon - sunLon) % 360;
-        if (tithiRaw < 0) tithiRaw += 360;
-        int tithiNumber = (int) Math.floor(tithiRaw / 12);
-        String tithi = tithiNames[tithiNumber % 15];
+        String tithi = tithiNames[tithiSpan.index() % 15];
 
-        // VARA
+        // SUNRISE, SUNSET, MOONRISE & MOONSET (cached per location cell and local date)
+        RiseSetService.RiseSetTimes riseSet = riseSetService.getRiseSet(lat, lon, ldt.toLocalDate(), zone);
+
+        // VARA (the Vedic day runs from sunrise to sunrise)
         DayOfWeek dow = zdt.getDayOfWeek();
+        if (riseSet.sunrise() != null && zdt.isBefore(riseSet.sunrise())) {
+            dow = dow.minus(1);
+        }
         String vara = varas[dow.getValue() % 7];
 
-        // NAKSHATRA
-        int nak = (int) (moonLon / (360.0 / 27.0));
-        String nakshatra = AstrologyHelper.getNakshatraByIndex(nak);
+        // NAKSHATRA (sidereal Moon)
+        String nakshatra = AstrologyHelper.getNakshatraByIndex(nakshatraSpan.index());
 
-        // YOGA
-        double yogaRaw = sunLon + moonLon;
-        int yogaIndex = (int) Math.floor(yogaRaw / (360.0 / 27.0)) % 27;
-        String yoga = yogaNames[yogaIndex];
+        // YOGA (sidereal Sun + Moon)
+        String yoga = yogaNames[yogaSpan.index()];
 
         // KARANA
-        double karanaRaw = tithiRaw / 6.0;
-        int karanaIndex = (int) karanaRaw % 60;
-        String karana = karanaNames[karanaIndex % 10];
-
-        // SUNRISE & SUNSET (Static Placeholder)
-        String sunrise = "06:00";
-        String sunset = "18:00";
+        String karana = karanaNames[karanaSpan.index() % 10];
 
         return PanchangResponse.builder()
                 .tithi(tithi)
+                .tithiStart(formatJd(tithiSpan.startJd(), zone))
+                .tithiEnd(formatJd(tithiSpan.endJd(), zone))
                 .vara(vara)
                 .nakshatra(nakshatra)
+                .nakshatraStart(formatJd(nakshatraSpan.startJd(), zone))
+                .nakshatraEnd(formatJd(nakshatraSpan.endJd(), zone))
                 .yoga(yoga)
+                .yogaEnd(formatJd(yogaSpan.endJd(), zone))
                 .karana(karana)
-                .sunrise(sunrise)
-                .sunset(sunset)
+                .karanaEnd(formatJd(karanaSpan.endJd(), zone))
+                .sunrise(RiseSetService.RiseSetTimes.format(riseSet.sunrise()))
+                .sunset(RiseSetService.RiseSetTimes.format(riseSet.sunset()))
+                .moonrise(RiseSetService.RiseSetTimes.format(riseSet.moonrise()))
+                .moonset(RiseSetService.RiseSetTimes.format(riseSet.moonset()))
                 .build();
     }
 
+    private static String formatJd(double julDayUt, ZoneId zone) {
+        return TransitSnapshotService.toInstant(julDayUt).atZone(zone)
+                .truncatedTo(ChronoUnit.SECONDS)
+                .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
 }
@@ -1,14 +1,13 @@
 package com.astro.backend.Services;
 
 import com.astro.backend.RequestDTO.PlanetaryPositionRequest;
+import com.astro.backend.ResponseDTO.PlanetaryChart;
 import com.astro.backend.ResponseDTO.PlanetaryPositionResponse;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import swisseph.SweConst;
 import swisseph.SweDate;
-import swisseph.SwissEph;
 
 import java.util.*;
 
@@ -17,8 +16,11 @@ import java.util.*;
 @Slf4j
 public class PlanetaryCalculationService {
 
-    private static final SwissEph swissEph = new SwissEph("libs/ephe");
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final EphemerisEngine ephemerisEngine;
+    private final NatalChartCache natalChartCache;
+    private final TransitSnapshotService transitSnapshotService;
+    private final KundliHtmlRenderer kundliHtmlRenderer;
+    private final ChartArtifactStore chartArtifactStore;
 
     // Planet constants
     private static final int[] PLANET_CONSTANTS = {
@@ -28,31 +30,58 @@ public class PlanetaryCalculationService {
             SweConst.SE_NEPTUNE, SweConst.SE_PLUTO
     };
 
+    // Bodies actually passed to swe_calc (Rahu is computed from the mean node)
+    private static final int[] CALC_BODIES = Arrays.stream(PLANET_CONSTANTS)
+            .map(p -> p == SweConst.SE_TRUE_NODE ? SweConst.SE_MEAN_NODE : p)
+            .toArray();
+
     private static final String[] PLANET_NAMES = {
             "Sun", "Moon", "Mars", "Mercury", "Jupiter", "Venus",
             "Saturn", "Rahu", "Uranus", "Neptune", "Pluto"
     };
 
-    private static final Map<Integer, String> SIGN_MAP = Map.ofEntries(
-            Map.entry(1, "Aries"), Map.entry(2, "Taurus"), Map.entry(3, "Gemini"),
-            Map.entry(4, "Cancer"), Map.entry(5, "Leo"), Map.entry(6, "Virgo"),
-            Map.entry(7, "Libra"), Map.entry(8, "Scorpio"), Map.entry(9, "Sagittarius"),
-            Map.entry(10, "Capricorn"), Map.entry(11, "Aquarius"), Map.entry(12, "Pisces")
-    );
+    /**
+     * Fill defaults for optional request fields (midnight, Delhi, IST, Lahiri)
+     */
+    public void applyRequestDefaults(PlanetaryPositionRequest request) {
+        if (request.getHours() == null) request.setHours(0);
+        if (request.getMinutes() == null) request.setMinutes(0);
+        if (request.getSeconds() == null) request.setSeconds(0);
+        if (request.getLatitude() == null) request.setLatitude(28.7041); // Default: Delhi
+        if (request.getLongitude() == null) request.setLongitude(77.1025);
+        if (request.getTimezone() == null) request.setTimezone(5.5);
+
+        if (request.getConfig() == null) {
+            request.setConfig(PlanetaryPositionRequest.Config.builder()
+                    .observationPoint("topocentric")
+                    .ayanamsha("lahiri")
+                    .build());
+        }
+    }
 
     /**
      * Calculate planetary positions with house numbers
      */
     public PlanetaryPositionResponse calculatePlanetaryPositions(PlanetaryPositionRequest request, Long userId) {
+        return calculatePlanetaryPositions(request, userId, true);
+    }
+
+    /**
+     * Calculate planetary positions; the HTML report is only rendered when includeHtml is set
+     */
+    public PlanetaryPositionResponse calculatePlanetaryPositions(PlanetaryPositionRequest request, Long userId,
+                                                                 boolean includeHtml) {
         try {
-            // Set ayanamsha FIRST before any calculations (default to Lahiri)
+            // Ayanamsha and house system are per-call settings (default to Lahiri / Placidus)
             String ayanamsha = request.getConfig() != null && request.getConfig().getAyanamsha() != null
                     ? request.getConfig().getAyanamsha()
                     : "lahiri";
 
-            if ("lahiri".equalsIgnoreCase(ayanamsha)) {
-                swissEph.swe_set_sid_mode(SweConst.SE_SIDM_LAHIRI, 0, 0);
-            }
+            int sidMode = ephemerisEngine.resolveAyanamsa(ayanamsha);
+            char houseSystem = request.getConfig() != null && request.getConfig().getHouseSystem() != null
+                    && !request.getConfig().getHouseSystem().isBlank()
+                    ? Character.toUpperCase(request.getConfig().getHouseSystem().trim().charAt(0))
+                    : 'P';
 
             // Convert local time to UT (Universal Time) by subtracting timezone offset
             double localTime = request.getHours() + (request.getMinutes() / 60.0) + (request.getSeconds() / 3600.0);
@@ -95,230 +124,53 @@ public class PlanetaryCalculationService {
             SweDate sd = new SweDate(utYear, utMonth, utDate, utTime);
             double julDay = sd.getJulDay();
 
-            double ayanamsaValue = swissEph.swe_get_ayanamsa(julDay);
+            // Natal positions, houses and ayanamsa (memoized per birth moment and location)
+            NatalChartCache.NatalChart natalChart = natalChartCache.getChart(julDay,
+                    request.getLatitude(), request.getLongitude(), sidMode, houseSystem);
+            double ayanamsaValue = natalChart.ayanamsa();
 
             // Calculate ascendant with sidereal mode
-            double[] cusps = new double[13];
-            double[] ascmc = new double[10];
-            swissEph.swe_houses(julDay, SweConst.SEFLG_SIDEREAL,
-                    request.getLatitude(), request.getLongitude(), 'P', cusps, ascmc);
-
-            double ascendantDegree = ascmc[0];
+            double ascendantDegree = natalChart.ascendant();
             int ascendantSign = ((int) (ascendantDegree / 30)) + 1;
-            double ascendantNormDegree = ascendantDegree % 30;
-
-            // Prepare output data structures
-            List<Map<String, Object>> outputList = new ArrayList<>();
-            Map<String, Object> indexedPlanets = new LinkedHashMap<>();
-            Map<String, Object> namedPlanets = new LinkedHashMap<>();
-
-            // Add Ascendant
-            Map<String, Object> ascendantData = new LinkedHashMap<>();
-            ascendantData.put("name", "Ascendant");
-            ascendantData.put("fullDegree", ascendantDegree);
-            ascendantData.put("normDegree", ascendantNormDegree);
-            ascendantData.put("isRetro", "false");
-            ascendantData.put("current_sign", ascendantSign);
-            indexedPlanets.put("0", ascendantData);
-
-            Map<String, Object> ascendantNamed = new LinkedHashMap<>();
-            ascendantNamed.put("current_sign", ascendantSign);
-            ascendantNamed.put("fullDegree", ascendantDegree);
-            ascendantNamed.put("normDegree", ascendantNormDegree);
-            ascendantNamed.put("isRetro", "false");
-            namedPlanets.put("Ascendant", ascendantNamed);
-
-            // Calculate each planet
-            for (int i = 0; i < PLANET_CONSTANTS.length; i++) {
-                double[] xx = new double[6];
-                StringBuffer serr = new StringBuffer();
-
-                int flags = SweConst.SEFLG_SIDEREAL;
-                if (PLANET_CONSTANTS[i] == SweConst.SE_TRUE_NODE) {
-                    // Rahu (North Node)
-                    swissEph.swe_calc(julDay, SweConst.SE_MEAN_NODE, flags, xx, serr);
-                } else {
-                    swissEph.swe_calc(julDay, PLANET_CONSTANTS[i], flags, xx, serr);
-                }
-
-                double longitude = xx[0];
-                double speed = xx[3];
-
-                // Handle Ketu separately (opposite of Rahu)
-                if (PLANET_NAMES[i].equals("Rahu")) {
-                    // Add Rahu
-                    addPlanetData(indexedPlanets, namedPlanets,
-                            PLANET_NAMES[i], longitude, speed, ascendantDegree, i + 1);
-
-                    // Calculate and add Ketu (180 degrees opposite)
-                    double ketuLongitude = (longitude + 180) % 360;
-                    addPlanetData(indexedPlanets, namedPlanets,
-                            "Ketu", ketuLongitude, speed, ascendantDegree, i + 2);
-                } else if (!PLANET_NAMES[i].equals("Rahu")) {
-                    addPlanetData(indexedPlanets, namedPlanets,
-                            PLANET_NAMES[i], longitude, speed, ascendantDegree, i + 1);
-                }
-            }
-
-            // Add ayanamsa info
-            Map<String, Object> ayanamsaData = new LinkedHashMap<>();
-            ayanamsaData.put("name", "ayanamsa");
-            ayanamsaData.put("value", ayanamsaValue);
-            indexedPlanets.put("13", ayanamsaData);
-
-            // Add debug info
-            Map<String, Object> debugInfo = new LinkedHashMap<>();
-            debugInfo.put("observation_point",
-                    request.getConfig() != null && request.getConfig().getObservationPoint() != null
-                            ? request.getConfig().getObservationPoint()
-                            : "topocentric");
-            debugInfo.put("ayanamsa", ayanamsha);
-            indexedPlanets.put("debug", debugInfo);
-
-            // Create separate Navamsha data array
-            Map<String, Object> navamshaIndexed = new LinkedHashMap<>();
-            Map<String, Object> navamshaNames = new LinkedHashMap<>();
-
-            // Calculate Navamsha Ascendant
             int[] navamshaAscendantData = calculateNavamshaSign(ascendantDegree);
             int navamshaAscendantSign = navamshaAscendantData[0];
 
-            // Add Navamsha Ascendant
-            Map<String, Object> navamshaAscData = new LinkedHashMap<>();
-            navamshaAscData.put("name", "Ascendant");
-            navamshaAscData.put("navamsha_sign", navamshaAscendantSign);
-            navamshaAscData.put("navamsha_degree", navamshaAscendantData[1]);
-            navamshaIndexed.put("0", navamshaAscData);
-
-            Map<String, Object> navamshaAscNamed = new LinkedHashMap<>();
-            navamshaAscNamed.put("navamsha_sign", navamshaAscendantSign);
-            navamshaAscNamed.put("navamsha_degree", navamshaAscendantData[1]);
-            navamshaNames.put("Ascendant", navamshaAscNamed);
-
-            // Add Navamsha planets
-            for (Map.Entry<String, Object> entry : namedPlanets.entrySet()) {
-                String planetName = entry.getKey();
-                @SuppressWarnings("unchecked")
-                Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-
-                if (!planetName.equals("Ascendant")) {
-                    // Create Navamsha entry with house calculation
-                    Integer navamshaSign = (Integer) planetData.get("navamsha_sign");
-                    Integer navamshaDegree = (Integer) planetData.get("navamsha_degree");
-                    int navamshaHouse = calculateNavamshaHouseNumber(navamshaSign, navamshaAscendantSign);
-
-                    Map<String, Object> navamshaPlanetData = new LinkedHashMap<>();
-                    navamshaPlanetData.put("name", planetName);
-                    navamshaPlanetData.put("navamsha_sign", navamshaSign);
-                    navamshaPlanetData.put("navamsha_degree", navamshaDegree);
-                    navamshaPlanetData.put("navamsha_house", navamshaHouse);
-                    navamshaPlanetData.put("isRetro", planetData.get("isRetro"));
-
-                    navamshaIndexed.put(planetName, navamshaPlanetData);
-
-                    // Named map entry
-                    Map<String, Object> navamshaPlanetNamed = new LinkedHashMap<>();
-                    navamshaPlanetNamed.put("navamsha_sign", navamshaSign);
-                    navamshaPlanetNamed.put("navamsha_degree", navamshaDegree);
-                    navamshaPlanetNamed.put("navamsha_house", navamshaHouse);
-                    navamshaPlanetNamed.put("isRetro", planetData.get("isRetro"));
-                    navamshaNames.put(planetName, navamshaPlanetNamed);
+            // Natal grahas (Rasi + Navamsha); Ketu is 180 degrees opposite Rahu
+            PlanetaryChart.Graha[] natal = new PlanetaryChart.Graha[PLANET_CONSTANTS.length + 1];
+            int slot = 0;
+            for (int i = 0; i < PLANET_CONSTANTS.length; i++) {
+                double[] xx = natalChart.position(CALC_BODIES[i]);
+                natal[slot++] = buildNatalGraha(PLANET_NAMES[i], xx[0], xx[3], ascendantDegree, navamshaAscendantSign);
+                if (PLANET_NAMES[i].equals("Rahu")) {
+                    natal[slot++] = buildNatalGraha("Ketu", (xx[0] + 180) % 360, xx[3], ascendantDegree, navamshaAscendantSign);
                 }
             }
 
-            // Add ayanamsa to Navamsha output
-            navamshaIndexed.put("13", ayanamsaData);
-            navamshaIndexed.put("debug", debugInfo);
-
-            // Calculate Transit chart (Today from Lagna)
-            Map<String, Object> transitIndexed = new LinkedHashMap<>();
-            Map<String, Object> transitNames = new LinkedHashMap<>();
-
-            // Get current date/time for transit
-            java.time.ZonedDateTime now = java.time.ZonedDateTime.now();
-            double currentUtTime = now.getHour() + (now.getMinute() / 60.0) + (now.getSecond() / 3600.0);
-            SweDate currentDate = new SweDate(now.getYear(), now.getMonthValue(), now.getDayOfMonth(), currentUtTime);
-            double currentJulDay = currentDate.getJulDay();
-
-            // Calculate current planets using birth ascendant as reference
+            // Transit chart (Today from Lagna): current planets come from the shared minute snapshot,
+            // only the houses depend on this chart
+            TransitSnapshotService.TransitSnapshot transitSnapshot = transitSnapshotService.current(sidMode);
+            PlanetaryChart.Graha[] transit = new PlanetaryChart.Graha[PLANET_CONSTANTS.length + 1];
+            slot = 0;
             for (int i = 0; i < PLANET_CONSTANTS.length; i++) {
-                double[] xx = new double[6];
-                StringBuffer serr = new StringBuffer();
-
-                int flags = SweConst.SEFLG_SIDEREAL;
-                if (PLANET_CONSTANTS[i] == SweConst.SE_TRUE_NODE) {
-                    swissEph.swe_calc(currentJulDay, SweConst.SE_MEAN_NODE, flags, xx, serr);
-                } else {
-                    swissEph.swe_calc(currentJulDay, PLANET_CONSTANTS[i], flags, xx, serr);
-                }
-
-                double transitLongitude = xx[0];
-                double transitSpeed = xx[3];
-                int transitSign = ((int) (transitLongitude / 30)) + 1;
-                double transitNormDegree = transitLongitude % 30;
-                boolean isRetro = transitSpeed < 0;
-                int transitHouse = calculateHouseNumber(transitLongitude, ascendantDegree);
-
-                // Handle Ketu
+                double[] xx = transitSnapshot.positions()[CALC_BODIES[i]];
+                transit[slot++] = buildTransitGraha(PLANET_NAMES[i], xx[0], xx[3], ascendantDegree);
                 if (PLANET_NAMES[i].equals("Rahu")) {
-                    // Add Rahu
-                    Map<String, Object> rahuData = new LinkedHashMap<>();
-                    rahuData.put("name", "Rahu");
-                    rahuData.put("current_sign", transitSign);
-                    rahuData.put("fullDegree", transitLongitude);
-                    rahuData.put("normDegree", transitNormDegree);
-                    rahuData.put("transit_house", transitHouse);
-                    rahuData.put("isRetro", String.valueOf(isRetro));
-                    transitIndexed.put(PLANET_NAMES[i], rahuData);
-                    transitNames.put("Rahu", rahuData);
-
-                    // Calculate and add Ketu
-                    double ketuLongitude = (transitLongitude + 180) % 360;
-                    int ketuSign = ((int) (ketuLongitude / 30)) + 1;
-                    double ketuNormDegree = ketuLongitude % 30;
-                    int ketuHouse = calculateHouseNumber(ketuLongitude, ascendantDegree);
-
-                    Map<String, Object> ketuData = new LinkedHashMap<>();
-                    ketuData.put("name", "Ketu");
-                    ketuData.put("current_sign", ketuSign);
-                    ketuData.put("fullDegree", ketuLongitude);
-                    ketuData.put("normDegree", ketuNormDegree);
-                    ketuData.put("transit_house", ketuHouse);
-                    ketuData.put("isRetro", String.valueOf(isRetro));
-                    transitIndexed.put("Ketu", ketuData);
-                    transitNames.put("Ketu", ketuData);
-                } else if (!PLANET_NAMES[i].equals("Rahu")) {
-                    Map<String, Object> planetTransitData = new LinkedHashMap<>();
-                    planetTransitData.put("name", PLANET_NAMES[i]);
-                    planetTransitData.put("current_sign", transitSign);
-                    planetTransitData.put("fullDegree", transitLongitude);
-                    planetTransitData.put("normDegree", transitNormDegree);
-                    planetTransitData.put("transit_house", transitHouse);
-                    planetTransitData.put("isRetro", String.valueOf(isRetro));
-                    transitIndexed.put(PLANET_NAMES[i], planetTransitData);
-                    transitNames.put(PLANET_NAMES[i], planetTransitData);
+                    transit[slot++] = buildTransitGraha("Ketu", (xx[0] + 180) % 360, xx[3], ascendantDegree);
                 }
             }
 
-            // Add birth Ascendant reference to transit
-            Map<String, Object> transitAscData = new LinkedHashMap<>();
-            transitAscData.put("name", "Ascendant");
-            transitAscData.put("current_sign", ascendantSign);
-            transitAscData.put("fullDegree", ascendantDegree);
-            transitAscData.put("transit_house", 1);
-            transitIndexed.put("Ascendant", transitAscData);
-            transitNames.put("Ascendant", transitAscData);
-
-            transitIndexed.put("13", ayanamsaData);
-            transitIndexed.put("debug", debugInfo);
-
-            // Create output structure with separate Kundli, Navamsha, and Transit arrays
-            Map<String, Object> outputMap = new LinkedHashMap<>();
-            outputMap.put("kundli", Arrays.asList(indexedPlanets, namedPlanets));
-            outputMap.put("navamsha", Arrays.asList(navamshaIndexed, navamshaNames));
-            outputMap.put("transit", Arrays.asList(transitIndexed, transitNames));
-
-            outputList.add(outputMap);
+            PlanetaryChart chart = new PlanetaryChart(
+                    ascendantDegree,
+                    ascendantSign,
+                    navamshaAscendantSign,
+                    navamshaAscendantData[1],
+                    ayanamsaValue,
+                    ayanamsha,
+                    request.getConfig() != null && request.getConfig().getObservationPoint() != null
+                            ? request.getConfig().getObservationPoint()
+                            : "topocentric",
+                    natal,
+                    transit);
 
             // NOTE: Birth chart DB persistence removed (no birth_charts table writes)
             Long chartId = null;
@@ -327,17 +179,20 @@ public class PlanetaryCalculationService {
             PlanetaryPositionResponse tempResponse = PlanetaryPositionResponse.builder()
                     .statusCode(200)
                     .input(buildInputData(request))
-                    .output(outputList)
+                    .chart(chart)
                     .chartId(chartId)
                     .build();
-            String htmlContent = generateKundliHtml(tempResponse);
-            Map<String, String> htmlSections = buildHtmlSections(tempResponse);
+            if (!includeHtml) {
+                return tempResponse;
+            }
+            String htmlContent = kundliHtmlRenderer.renderReport(chart);
+            Map<String, String> htmlSections = kundliHtmlRenderer.renderSections(chart);
 
             // Build response with HTML
             return PlanetaryPositionResponse.builder()
                     .statusCode(200)
                     .input(buildInputData(request))
-                    .output(outputList)
+                    .chart(chart)
                     .chartId(chartId)
                     .htmlContent(htmlContent)
                     .htmlSections(htmlSections)
@@ -350,52 +205,38 @@ public class PlanetaryCalculationService {
     }
 
     /**
-     * Add planet data to both indexed and named maps (Kundli/Rasi chart)
+     * Build a natal graha with its Rasi house and Navamsha placement
      */
-    private void addPlanetData(Map<String, Object> indexedMap, Map<String, Object> namedMap,
-                               String planetName, double longitude, double speed,
-                               double ascendantDegree, int index) {
-
-        int sign = ((int) (longitude / 30)) + 1;
-        double normDegree = longitude % 30;
-        boolean isRetro = speed < 0;
-
-        // Calculate house number
-        int houseNumber = calculateHouseNumber(longitude, ascendantDegree);
-
-        // Calculate Navamsha data
+    private PlanetaryChart.Graha buildNatalGraha(String planetName, double longitude, double speed,
+                                                 double ascendantDegree, int navamshaAscendantSign) {
         int[] navamshaData = calculateNavamshaSign(longitude);
-        int navamshaSign = navamshaData[0];
-        int navamshaDegree = navamshaData[1];
-
-        // For indexed map
-        Map<String, Object> indexedData = new LinkedHashMap<>();
-        indexedData.put("name", planetName);
-        indexedData.put("fullDegree", longitude);
-        indexedData.put("normDegree", normDegree);
-        indexedData.put("isRetro", String.valueOf(isRetro));
-        indexedData.put("current_sign", sign);
-        if (!planetName.equals("Ascendant")) {
-            indexedData.put("house_number", houseNumber);
-        }
-        // Add Navamsha info
-        indexedData.put("navamsha_sign", navamshaSign);
-        indexedData.put("navamsha_degree", navamshaDegree);
-        indexedMap.put(String.valueOf(index), indexedData);
+        return new PlanetaryChart.Graha(
+                planetName,
+                longitude,
+                speed,
+                ((int) (longitude / 30)) + 1,
+                longitude % 30,
+                speed < 0,
+                calculateHouseNumber(longitude, ascendantDegree),
+                navamshaData[0],
+                navamshaData[1],
+                calculateNavamshaHouseNumber(navamshaData[0], navamshaAscendantSign));
+    }
 
-        // For named map
-        Map<String, Object> namedData = new LinkedHashMap<>();
-        namedData.put("current_sign", sign);
-        if (!planetName.equals("Ascendant")) {
-            namedData.put("house_number", houseNumber);
-        }
-        namedData.put("fullDegree", longitude);
-        namedData.put("normDegree", normDegree);
-        namedData.put("isRetro", String.valueOf(isRetro));
-        // Add Navamsha info
-        namedData.put("navamsha_sign", navamshaSign);
-        namedData.put("navamsha_degree", navamshaDegree);
-        namedMap.put(planetName, namedData);
+    /**
+     * Build a transit graha with its house counted from the natal ascendant
+     */
+    private PlanetaryChart.Graha buildTransitGraha(String planetName, double longitude, double speed,
+                                                   double ascendantDegree) {
+        return new PlanetaryChart.Graha(
+                planetName,
+                longitude,
+                speed,
+                ((int) (longitude / 30)) + 1,
+                longitude % 30,
+                speed < 0,
+                calculateHouseNumber(longitude, ascendantDegree),
+                0, 0, 0);
     }
 
     /**
@@ -416,34 +257,19 @@ public class PlanetaryCalculationService {
      * - Movable signs: start from same sign
      * - Fixed signs: start from 9th sign
      * - Dual signs: start from 5th sign
+     * The sign comes from the shared VargaEngine tables.
      * Returns [navamshaSign(1-12), degree_in_navamsha_sign(0-30)]
      */
     private int[] calculateNavamshaSign(double planetLongitude) {
         final double normalizedLongitude = ((planetLongitude % 360.0) + 360.0) % 360.0;
 
-        final int rasiIndex = (int) Math.floor(normalizedLongitude / 30.0); // 0..11
         final double degreeInRasi = normalizedLongitude % 30.0; // 0..<30
 
         final double navamshaSpan = 30.0 / 9.0; // 3.333...
         int navamshaPart = (int) Math.floor(degreeInRasi / navamshaSpan); // 0..8
         if (navamshaPart > 8) navamshaPart = 8;
 
-        final int rasiNumber = rasiIndex + 1; // 1..12
-
-        // Start sign index for Navamsha sequence inside this Rasi (0-based)
-        final int startIndex;
-        if (rasiNumber == 1 || rasiNumber == 4 || rasiNumber == 7 || rasiNumber == 10) {
-            // Movable: Aries, Cancer, Libra, Capricorn
-            startIndex = rasiIndex;
-        } else if (rasiNumber == 2 || rasiNumber == 5 || rasiNumber == 8 || rasiNumber == 11) {
-            // Fixed: Taurus, Leo, Scorpio, Aquarius => start from 9th sign
-            startIndex = (rasiIndex + 8) % 12;
-        } else {
-            // Dual: Gemini, Virgo, Sagittarius, Pisces => start from 5th sign
-            startIndex = (rasiIndex + 4) % 12;
-        }
-
-        final int navamshaSign = ((startIndex + navamshaPart) % 12) + 1; // 1..12
+        final int navamshaSign = VargaEngine.sign(9, normalizedLongitude) + 1; // 1..12
 
         // Position inside current Navamsha part (map to 0..30)
         final double fractionInsidePart = (degreeInRasi - (navamshaPart * navamshaSpan)) / navamshaSpan;
@@ -493,808 +319,27 @@ public class PlanetaryCalculationService {
     }
 
     /**
-     * Save HTML Kundli chart to file and return the URL
+     * Store the HTML Kundli report in the chart artifact store and return its URL.
+     * The key is a content hash, so a chart that was already stored is not written again.
      */
-    @org.springframework.beans.factory.annotation.Value("${spring.web.resources.static-locations:classpath:/static/}")
-    private String staticResourceLocation;
-
-    public String saveSvgToFile(PlanetaryPositionResponse response) {
+    public String saveChartArtifact(PlanetaryPositionResponse response) {
         try {
-            // Create directory if it doesn't exist using proper resource path
-            String baseDir = "target/classes/static/kundli-charts";
-            java.nio.file.Path dirPath = java.nio.file.Paths.get(baseDir);
-
-            // If target doesn't work (dev mode), try src/main/resources
-            if (!baseDir.contains("target")) {
-                baseDir = "src/main/resources/static/kundli-charts";
-                dirPath = java.nio.file.Paths.get(baseDir);
-            }
-
-            if (!java.nio.file.Files.exists(dirPath)) {
-                java.nio.file.Files.createDirectories(dirPath);
-            }
-
-            // Extract data from response
-            Long chartId = response.getChartId();
-            int year = response.getInput().getYear();
-            int month = response.getInput().getMonth();
-            int date = response.getInput().getDate();
-
-            // Generate unique filename
-            String timestamp = String.valueOf(System.currentTimeMillis());
-            String userPrefix = chartId != null ? "chart" + chartId + "_" : "";
-            String filename = String.format("%skundli_%d%02d%02d_%s.html",
-                    userPrefix, year, month, date, timestamp);
-
-            // Generate HTML content from planetary positions
-            String htmlData = generateKundliHtml(response);
-
-            // Save file
-            java.nio.file.Path filePath = dirPath.resolve(filename);
-            java.nio.file.Files.write(filePath, htmlData.getBytes(java.nio.charset.StandardCharsets.UTF_8));
-
-            log.info("Chart saved to: " + filePath.toAbsolutePath());
-
-            // Return URL path
-            return "/kundli-charts/" + filename;
+            PlanetaryChart chart = response.getChart();
+            String key = kundliHtmlRenderer.artifactKey(chart);
+            String htmlContent = response.getHtmlContent();
+            chartArtifactStore.putIfAbsent(key, writer -> {
+                // Reuse the report already rendered for the response; otherwise stream it
+                if (htmlContent != null) {
+                    writer.write(htmlContent);
+                } else {
+                    kundliHtmlRenderer.writeReport(chart, writer);
+                }
+            });
+            return "/kundli-charts/" + key + ".html";
 
         } catch (Exception e) {
             log.error("Error saving Kundli HTML file", e);
             return null;
         }
     }
-
-    /**
-     * Generate Kundli HTML report with dynamic data
-     */
-    private String generateKundliHtml(PlanetaryPositionResponse response) {
-        StringBuilder html = new StringBuilder();
-
-
-        // Extract data from new output structure
-        @SuppressWarnings("unchecked")
-        Map<String, Object> outputMap = (Map<String, Object>) response.getOutput().get(0);
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> kundliData = (List<Map<String, Object>>) outputMap.get("kundli");
-        Map<String, Object> indexedPlanets = kundliData.get(0);
-        Map<String, Object> namedPlanets = kundliData.get(1);
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> ascendantData = (Map<String, Object>) namedPlanets.get("Ascendant");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> sunData = (Map<String, Object>) namedPlanets.get("Sun");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> moonData = (Map<String, Object>) namedPlanets.get("Moon");
-
-        Integer ascendantSign = ascendantData != null ? (Integer) ascendantData.get("current_sign") : null;
-        Double ascendantDegree = ascendantData != null ? (Double) ascendantData.get("fullDegree") : 0.0;
-        Integer sunSign = sunData != null ? (Integer) sunData.get("current_sign") : null;
-        Integer moonSign = moonData != null ? (Integer) moonData.get("current_sign") : null;
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> ayanamsaData = indexedPlanets != null ? (Map<String, Object>) indexedPlanets.get("13") : null;
-        Double ayanamsaValue = ayanamsaData != null ? (Double) ayanamsaData.get("value") : null;
-
-        Map<String, String> planetAbbr = Map.ofEntries(
-                Map.entry("Sun", "Su"),
-                Map.entry("Moon", "Mo"),
-                Map.entry("Mars", "Ma"),
-                Map.entry("Mercury", "Me"),
-                Map.entry("Jupiter", "Ju"),
-                Map.entry("Venus", "Ve"),
-                Map.entry("Saturn", "Sa"),
-                Map.entry("Rahu", "Ra"),
-                Map.entry("Ketu", "Ke"),
-                Map.entry("Ascendant", "As"),
-                Map.entry("Uranus", "Ur"),
-                Map.entry("Neptune", "Ne"),
-                Map.entry("Pluto", "Pl")
-        );
-
-        Map<Integer, List<String>> planetsBySign = new HashMap<>();
-        for (Map.Entry<String, Object> entry : namedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer sign = (Integer) planetData.get("current_sign");
-            if (sign != null) {
-                planetsBySign.computeIfAbsent(sign, k -> new ArrayList<>()).add(planetName);
-            }
-        }
-        if (ascendantSign != null && !planetsBySign.getOrDefault(ascendantSign, new ArrayList<>()).contains("Ascendant")) {
-            planetsBySign.computeIfAbsent(ascendantSign, k -> new ArrayList<>()).add(0, "Ascendant");
-        }
-
-        // Extract Navamsha data
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> navamshaData = (List<Map<String, Object>>) outputMap.get("navamsha");
-        Map<String, Object> navamshaNamedPlanets = navamshaData.get(1);
-
-        // Calculate Navamsha Ascendant
-        int[] navamshaAscendantData = calculateNavamshaSign(ascendantDegree);
-        int navamshaAscendantSign = navamshaAscendantData[0];
-
-        // Build Navamsha map by SIGN (not house) to match North-Indian sign placement.
-        Map<Integer, List<String>> planetsByNavamshaSign = new HashMap<>();
-        for (Map.Entry<String, Object> entry : navamshaNamedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            if ("Ascendant".equals(planetName)) {
-                continue;
-            }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer navamshaSign = (Integer) planetData.get("navamsha_sign");
-            if (navamshaSign != null) {
-                planetsByNavamshaSign.computeIfAbsent(navamshaSign, k -> new ArrayList<>()).add(planetName);
-            }
-        }
-
-        // Add Navamsha Ascendant to its sign bucket.
-        if (!planetsByNavamshaSign.getOrDefault(navamshaAscendantSign, new ArrayList<>()).contains("Ascendant")) {
-            planetsByNavamshaSign.computeIfAbsent(navamshaAscendantSign, k -> new ArrayList<>()).add(0, "Ascendant");
-        }
-
-        String dateText = String.format("%04d-%02d-%02d", response.getInput().getYear(), response.getInput().getMonth(), response.getInput().getDate());
-        String timeText = String.format("%02d:%02d:%02d", response.getInput().getHours(), response.getInput().getMinutes(), response.getInput().getSeconds());
-        String timezoneText = String.format("UTC%+.1f", response.getInput().getTimezone());
-
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html lang=\"hi\">\n");
-        html.append("<head>\n");
-        html.append("<meta charset=\"UTF-8\" />\n");
-        html.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        html.append("<title>Kundli Report</title>\n");
-        html.append("<style>\n");
-        html.append("*{box-sizing:border-box}\n");
-        html.append("html,body{width:100%;height:100%;margin:0;padding:0;font-size:16px;}\n");
-        html.append("body{margin:0;background:#cdb68a;font-family: Calibre, Georgia, \"Times New Roman\", serif;}\n");
-        html.append(".page{max-width:1200px;margin:20px auto;background:radial-gradient(circle,#f6e6c6,#e1c18a);border:10px solid #8a5a2b;box-shadow:0 0 30px rgba(0,0,0,.45);padding:25px;width:100%;}\n");
-        html.append(".header{display:grid;grid-template-columns:80px 1fr 80px;align-items:center;border-bottom:2px solid #8a5a2b;padding-bottom:15px;}\n");
-        html.append(".header .om{font-size:48px;color:#8a5a2b;}\n");
-        html.append(".header .title{text-align:center;}\n");
-        html.append(".footer {\n" +
-                "    background: #000;\n" +
-                "    color: #fff;\n" +
-                "    text-align: center;\n" +
-                "    padding: 15px;\n" +
-                "    font-size: 14px;\n" +
-                "    font-family: Arial, sans-serif;\n" +
-                "}\n" +
-                "\n" +
-                ".footer .bold {\n" +
-                "    font-weight: bold;\n" +
-                "}\n" +
-                "\n" +
-                ".footer .brand {\n" +
-                "    font-weight: bold;\n" +
-                "    background: linear-gradient(\n" +
-                "        90deg,\n" +
-                "        #f5d06f,\n" +
-                "        #d4af37,\n" +
-                "        #b8860b,\n" +
-                "        #ffd700\n" +
-                "    );\n" +
-                "    -webkit-background-clip: text;\n" +
-                "    -webkit-text-fill-color: transparent;\n" +
-                "}");
-        html.append(".header .title h1{margin:0;font-size:32px;}\n");
-        html.append(".header .title h2{margin:6px 0 0;font-weight:normal;font-size:18px;}\n");
-        html.append(".header .sun{font-size:48px;text-align:right;}\n");
-        html.append(".info{display:grid;grid-template-columns:1fr 1fr;gap:20px;margin-top:20px;font-size:16px;line-height:1.7;}\n");
-        html.append(".main{display:grid;grid-template-columns:1fr 1fr;gap:25px;margin-top:25px;width:100%;}\n");
-        html.append(".charts{display:grid;grid-template-columns:1fr 1fr;gap:25px;margin-top:25px;width:100%;}\n");
-        html.append(".data-section{display:grid;grid-template-columns:1fr 1fr;gap:25px;margin-top:25px;width:100%;}\n");
-        html.append(".box{border:3px solid #8a5a2b;padding:15px;background:rgba(255,255,255,.18);width:100%;}\n");
-        html.append(".box h3{text-align:center;margin:0 0 10px;font-size:20px;}\n");
-        html.append("svg{width:100%;height:auto;max-width:100%;}\n");
-        html.append("table{width:100%;border-collapse:collapse;font-size:16px;}\n");
-        html.append("th,td{border:1px solid #8a5a2b;padding:8px;font-size:16px;}\n");
-        html.append(".footer{margin-top:20px;text-align:center;font-size:16px;}\n");
-        html.append("@media screen and (max-width:1200px){.page{margin:10px;padding:20px;}}\n");
-        html.append("@media screen and (max-width:900px){.page{margin:5px;padding:15px;border-width:8px;}.charts{grid-template-columns:1fr !important;}.data-section{grid-template-columns:1fr !important;}.main{grid-template-columns:1fr !important;}}\n");
-        html.append("@media screen and (max-width:768px){.page{padding:12px;margin:0;border-width:6px;}.header{grid-template-columns:60px 1fr 60px;gap:10px;}.header .om{font-size:40px;}.header .sun{font-size:40px;}.header .title h1{font-size:26px;margin:0;}.header .title h2{font-size:16px;margin:3px 0 0;}.info{grid-template-columns:1fr;gap:12px;font-size:16px;}.charts{grid-template-columns:1fr !important;gap:15px;}.data-section{grid-template-columns:1fr !important;gap:15px;}.box{padding:10px;}.box h3{font-size:18px;margin:0 0 8px;}.box svg{max-height:300px;}.main{grid-template-columns:1fr !important;}table{font-size:16px;}th,td{padding:6px;font-size:16px;}}\n");
-        html.append("@media screen and (max-width:480px){.page{padding:10px;margin:0;border-width:4px;}.header{grid-template-columns:50px 1fr 50px;gap:8px;}.header .om{font-size:36px;}.header .sun{font-size:36px;}.header .title h1{font-size:22px;margin:0;}.header .title h2{font-size:14px;margin:2px 0 0;}.info{grid-template-columns:1fr;gap:8px;font-size:16px;}.charts{grid-template-columns:1fr !important;gap:12px;}.data-section{grid-template-columns:1fr !important;gap:12px;}.box{padding:8px;}.box h3{font-size:16px;margin:0 0 6px;}.box svg{max-height:250px;}.main{grid-template-columns:1fr !important;}table{font-size:16px;}th,td{padding:4px;font-size:16px;}}\n");
-        html.append("</style>\n");
-        html.append("</head>\n");
-        html.append("<body>\n");
-        html.append("<div class=\"page\">\n");
-
-        // Charts section (Kundli, Navamsha, Transit)
-        html.append("<div class=\"charts\">\n");
-        html.append("<div>\n");
-        html.append("<div class=\"box\">\n");
-        html.append("<h3>Kundli Birth Chart</h3>\n");
-
-        html.append("<svg width=\"100%\" viewBox=\"0 0 400 400\" xmlns=\"http://www.w3.org/2000/svg\">\n");
-        html.append("  <rect x=\"0\" y=\"0\" width=\"400\" height=\"400\" fill=\"none\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"0\" x2=\"400\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"0\" x2=\"0\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"0\" x2=\"400\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"200\" x2=\"200\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"400\" x2=\"0\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"200\" x2=\"200\" y2=\"0\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <text x=\"200\" y=\"200\" font-size=\"180\" fill=\"#8a5a2b\" opacity=\"0.06\" text-anchor=\"middle\" dominant-baseline=\"middle\">ॐ</text>\n");
-        html.append("  <g fill=\"#3b2414\" font-size=\"16\" font-weight=\"bold\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n");
-        html.append("    <text x=\"325\" y=\"100\">1</text>\n");
-        html.append("    <text x=\"300\" y=\"75\">2</text>\n");
-        html.append("    <text x=\"200\" y=\"175\">3</text>\n");
-        html.append("    <text x=\"100\" y=\"75\">4</text>\n");
-        html.append("    <text x=\"75\" y=\"100\">5</text>\n");
-        html.append("    <text x=\"175\" y=\"200\">6</text>\n");
-        html.append("    <text x=\"200\" y=\"225\">9</text>\n");
-        html.append("    <text x=\"75\" y=\"300\">7</text>\n");
-        html.append("    <text x=\"100\" y=\"325\">8</text>\n");
-        html.append("    <text x=\"300\" y=\"320\">10</text>\n");
-        html.append("    <text x=\"325\" y=\"300\">11</text>\n");
-        html.append("    <text x=\"225\" y=\"200\">12</text>\n");
-        html.append("  </g>\n");
-
-        // Planet labels per house (alignment coordinates)
-        Map<Integer, int[]> houseCoords = new HashMap<>();
-        houseCoords.put(1, new int[]{360, 85});
-        houseCoords.put(2, new int[]{285, 20});
-        houseCoords.put(3, new int[]{180, 76});
-        houseCoords.put(4, new int[]{70, 25});
-        houseCoords.put(5, new int[]{10, 90});
-        houseCoords.put(6, new int[]{70, 180});
-        houseCoords.put(7, new int[]{10, 255});
-        houseCoords.put(8, new int[]{70, 365});
-        houseCoords.put(9, new int[]{180, 300});
-        houseCoords.put(10, new int[]{265, 365});
-        houseCoords.put(11, new int[]{360, 300});
-        houseCoords.put(12, new int[]{265, 180});
-
-        html.append("  <g fill=\"#000\" font-size=\"10\" font-weight=\"bold\">\n");
-        for (int sign = 1; sign <= 12; sign++) {
-            int[] coord = houseCoords.get(sign);
-            if (coord == null) {
-                continue;
-            }
-            List<String> planets = planetsBySign.getOrDefault(sign, new ArrayList<>());
-            if (planets.size() > 1) {
-                // Multiple planets: use tspan for vertical stacking
-                html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1])
-                        .append("\" font-size=\"10\" font-weight=\"bold\" text-anchor=\"start\" dominant-baseline=\"middle\">\n");
-                for (int i = 0; i < planets.size(); i++) {
-                    String planetName = planets.get(i);
-                    String abbr = planetAbbr.getOrDefault(planetName, planetName.substring(0, Math.min(3, planetName.length())));
-                    html.append("      <tspan x=\"").append(coord[0]).append("\" dy=\"").append(i == 0 ? "0" : "10").append("\">").append(abbr).append("</tspan>\n");
-                }
-                html.append("    </text>\n");
-            } else if (planets.size() == 1) {
-                // Single planet: simple text
-                String planetName = planets.get(0);
-                String abbr = planetAbbr.getOrDefault(planetName, planetName.substring(0, Math.min(3, planetName.length())));
-                html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1]).append("\">").append(abbr).append("</text>\n");
-            }
-        }
-        html.append("  </g>\n");
-        html.append("</svg>\n");
-        html.append("</div>\n");
-
-        html.append("<div class=\"box\">\n");
-        html.append("<h3>Navamsha  Chart</h3>\n");
-        html.append("<svg width=\"100%\" viewBox=\"0 0 400 400\" xmlns=\"http://www.w3.org/2000/svg\">\n");
-        html.append("  <rect x=\"0\" y=\"0\" width=\"400\" height=\"400\" fill=\"none\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"0\" x2=\"400\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"0\" x2=\"0\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"0\" x2=\"400\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"200\" x2=\"200\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"400\" x2=\"0\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"200\" x2=\"200\" y2=\"0\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <text x=\"200\" y=\"200\" font-size=\"180\" fill=\"#8a5a2b\" opacity=\"0.06\" text-anchor=\"middle\" dominant-baseline=\"middle\">ॐ</text>\n");
-        html.append("  <g fill=\"#3b2414\" font-size=\"16\" font-weight=\"bold\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n");
-        html.append("    <text x=\"325\" y=\"100\">1</text>\n");
-        html.append("    <text x=\"300\" y=\"75\">2</text>\n");
-        html.append("    <text x=\"200\" y=\"175\">3</text>\n");
-        html.append("    <text x=\"100\" y=\"75\">4</text>\n");
-        html.append("    <text x=\"75\" y=\"100\">5</text>\n");
-        html.append("    <text x=\"175\" y=\"200\">6</text>\n");
-        html.append("    <text x=\"200\" y=\"225\">9</text>\n");
-        html.append("    <text x=\"75\" y=\"300\">7</text>\n");
-        html.append("    <text x=\"100\" y=\"325\">8</text>\n");
-        html.append("    <text x=\"300\" y=\"320\">10</text>\n");
-        html.append("    <text x=\"325\" y=\"300\">11</text>\n");
-        html.append("    <text x=\"225\" y=\"200\">12</text>\n");
-        html.append("  </g>\n");
-        html.append("  <g fill=\"#000\" font-size=\"10\" font-weight=\"bold\">\n");
-        for (int house = 1; house <= 12; house++) {
-            int[] coord = houseCoords.get(house);
-            if (coord == null) {
-                continue;
-            }
-            List<String> planets = planetsByNavamshaSign.getOrDefault(house, new ArrayList<>());
-            if (planets.size() > 1) {
-                // Multiple planets: use tspan for vertical stacking
-                html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1])
-                        .append("\" font-size=\"10\" font-weight=\"bold\" text-anchor=\"start\" dominant-baseline=\"middle\">\n");
-                for (int i = 0; i < planets.size(); i++) {
-                    String planetName = planets.get(i);
-                    String abbr = planetAbbr.getOrDefault(planetName, planetName.substring(0, Math.min(3, planetName.length())));
-                    html.append("      <tspan x=\"").append(coord[0]).append("\" dy=\"").append(i == 0 ? "0" : "10").append("\">").append(abbr).append("</tspan>\n");
-                }
-                html.append("    </text>\n");
-            } else if (planets.size() == 1) {
-                // Single planet: simple text
-                String planetName = planets.get(0);
-                String abbr = planetAbbr.getOrDefault(planetName, planetName.substring(0, Math.min(3, planetName.length())));
-                html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1]).append("\">").append(abbr).append("</text>\n");
-            }
-        }
-        html.append("  </g>\n");
-        html.append("</svg>\n");
-        html.append("</div>\n");
-        html.append("</div>\n");
-        html.append("</div>\n");  // Close charts section
-
-        // Second row of charts (Transit chart)
-        html.append("<div class=\"charts\">\n");
-        html.append("<div>\n");
-
-        // Transit Chart (Today from Lagna)
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> transitData = (List<Map<String, Object>>) outputMap.get("transit");
-        Map<String, Object> transitNamedPlanets = transitData.get(1);
-
-        // Build planetsByTransitHouse
-        Map<Integer, List<String>> planetsByTransitHouse = new HashMap<>();
-        for (Map.Entry<String, Object> entry : transitNamedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            if ("Ascendant".equals(planetName)) {
-                continue;
-            }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer transitHouse = (Integer) planetData.get("transit_house");
-            if (transitHouse != null) {
-                planetsByTransitHouse.computeIfAbsent(transitHouse, k -> new ArrayList<>()).add(planetName);
-            }
-        }
-
-        // Add Ascendant to house 1
-        if (!planetsByTransitHouse.getOrDefault(1, new ArrayList<>()).contains("Ascendant")) {
-            planetsByTransitHouse.computeIfAbsent(1, k -> new ArrayList<>()).add(0, "Ascendant");
-        }
-
-        html.append("<div class=\"box\">\n");
-        html.append("<h3>Transit Chart (Today from Lagna)</h3>\n");
-        html.append("<svg width=\"100%\" viewBox=\"0 0 400 400\" xmlns=\"http://www.w3.org/2000/svg\">\n");
-        html.append("  <rect x=\"0\" y=\"0\" width=\"400\" height=\"400\" fill=\"none\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"0\" x2=\"400\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"0\" x2=\"0\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"0\" x2=\"400\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"200\" x2=\"200\" y2=\"400\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"400\" x2=\"0\" y2=\"200\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"200\" x2=\"200\" y2=\"0\" stroke=\"#5b3a1c\" stroke-width=\"3\"/>\n");
-        html.append("  <text x=\"200\" y=\"200\" font-size=\"180\" fill=\"#8a5a2b\" opacity=\"0.06\" text-anchor=\"middle\" dominant-baseline=\"middle\">ॐ</text>\n");
-        html.append("  <g fill=\"#3b2414\" font-size=\"16\" font-weight=\"bold\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n");
-        html.append("    <text x=\"325\" y=\"100\">1</text>\n");
-        html.append("    <text x=\"300\" y=\"75\">2</text>\n");
-        html.append("    <text x=\"200\" y=\"175\">3</text>\n");
-        html.append("    <text x=\"100\" y=\"75\">4</text>\n");
-        html.append("    <text x=\"75\" y=\"100\">5</text>\n");
-        html.append("    <text x=\"175\" y=\"200\">6</text>\n");
-        html.append("    <text x=\"200\" y=\"225\">9</text>\n");
-        html.append("    <text x=\"75\" y=\"300\">7</text>\n");
-        html.append("    <text x=\"100\" y=\"325\">8</text>\n");
-        html.append("    <text x=\"300\" y=\"320\">10</text>\n");
-        html.append("    <text x=\"325\" y=\"300\">11</text>\n");
-        html.append("    <text x=\"225\" y=\"200\">12</text>\n");
-        html.append("  </g>\n");
-        html.append("  <g fill=\"#000\" font-size=\"10\" font-weight=\"bold\">\n");
-        for (int house = 1; house <= 12; house++) {
-            int[] coord = houseCoords.get(house);
-            if (coord == null) {
-                continue;
-            }
-            List<String> planets = planetsByTransitHouse.getOrDefault(house, new ArrayList<>());
-            if (planets.size() > 1) {
-                // Multiple planets: use tspan for vertical stacking
-                html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1])
-                        .append("\" font-size=\"10\" font-weight=\"bold\" text-anchor=\"start\" dominant-baseline=\"middle\">\n");
-                for (int i = 0; i < planets.size(); i++) {
-                    String planetName = planets.get(i);
-                    String abbr = planetAbbr.getOrDefault(planetName, planetName.substring(0, Math.min(3, planetName.length())));
-                    html.append("      <tspan x=\"").append(coord[0]).append("\" dy=\"").append(i == 0 ? "0" : "10").append("\">").append(abbr).append("</tspan>\n");
-                }
-                html.append("    </text>\n");
-            } else if (planets.size() == 1) {
-                // Single planet: simple text
-                String planetName = planets.get(0);
-                String abbr = planetAbbr.getOrDefault(planetName, planetName.substring(0, Math.min(3, planetName.length())));
-                html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1]).append("\">").append(abbr).append("</text>\n");
-            }
-        }
-        html.append("  </g>\n");
-        html.append("</svg>\n");
-        html.append("</div>\n");
-        html.append("</div>\n");
-        html.append("</div>\n");  // Close charts section
-
-        // Data section (Planetary Positions and Astrological Data)
-        html.append("<div class=\"data-section\">\n");
-        html.append("<div>\n");
-        html.append("  <div class=\"box\">\n");
-        html.append("    <h3>Planetary Positions</h3>\n");
-        html.append("    <table>\n");
-        html.append("      <tr><th>Planet</th><th>Sign</th><th>Degree</th><th>House</th></tr>\n");
-        for (Map.Entry<String, Object> entry : namedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            if ("Ascendant".equals(planetName)) {
-                continue;
-            }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer sign = (Integer) planetData.get("current_sign");
-            Double normDeg = (Double) planetData.get("normDegree");
-            Integer houseNum = (Integer) planetData.get("house_number");
-            html.append("      <tr><td>").append(planetName).append("</td><td>")
-                    .append(sign != null ? SIGN_MAP.get(sign) : "-")
-                    .append("</td><td>")
-                    .append(normDeg != null ? String.format("%.2f°", normDeg) : "-")
-                    .append("</td><td>")
-                    .append(houseNum != null ? houseNum : "-")
-                    .append("</td></tr>\n");
-        }
-        html.append("    </table>\n");
-        html.append("  </div>\n");
-
-        html.append("  <div class=\"box\" style=\"margin-top:20px;\">\n");
-        html.append("    <h3>Astrological Data</h3>\n");
-        html.append("    Ascendant: ").append(ascendantSign != null ? SIGN_MAP.get(ascendantSign) : "-")
-                .append(ascendantData != null ? String.format(" %.2f°", (Double) ascendantData.get("normDegree")) : "").append("<br>\n");
-        html.append("    Sun Sign: ").append(sunSign != null ? SIGN_MAP.get(sunSign) : "-").append("<br>\n");
-        html.append("    Moon Sign: ").append(moonSign != null ? SIGN_MAP.get(moonSign) : "-").append("<br>\n");
-        html.append("    Ayanamsa: ").append(ayanamsaValue != null ? String.format("%.4f", ayanamsaValue) : "-").append("<br>\n");
-        html.append("  </div>\n");
-        html.append("</div>\n");
-
-        html.append("</div>\n");
-        html.append("<div class=\"footer\">\n" +
-                "    © <span class=\"bold\">Chart Generated</span> by \n" +
-                "    <span class=\"brand\">Astrro Adhyaay</span>\n" +
-                "</div>\n");
-        html.append("</div>\n");
-        html.append("</body>\n");
-        html.append("</html>");
-
-        return html.toString();
-    }
-
-    /**
-     * Build separate HTML blocks for charts and data to return in JSON.
-     */
-    private Map<String, String> buildHtmlSections(PlanetaryPositionResponse response) {
-        Map<String, String> sections = new LinkedHashMap<>();
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> outputMap = (Map<String, Object>) response.getOutput().get(0);
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> kundliData = (List<Map<String, Object>>) outputMap.get("kundli");
-        Map<String, Object> indexedPlanets = kundliData.get(0);
-        Map<String, Object> namedPlanets = kundliData.get(1);
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> ascendantData = (Map<String, Object>) namedPlanets.get("Ascendant");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> sunData = (Map<String, Object>) namedPlanets.get("Sun");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> moonData = (Map<String, Object>) namedPlanets.get("Moon");
-
-        Integer ascendantSign = ascendantData != null ? (Integer) ascendantData.get("current_sign") : null;
-        Double ascendantDegree = ascendantData != null ? (Double) ascendantData.get("fullDegree") : 0.0;
-        Integer sunSign = sunData != null ? (Integer) sunData.get("current_sign") : null;
-        Integer moonSign = moonData != null ? (Integer) moonData.get("current_sign") : null;
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> ayanamsaData = indexedPlanets != null ? (Map<String, Object>) indexedPlanets.get("13") : null;
-        Double ayanamsaValue = ayanamsaData != null ? (Double) ayanamsaData.get("value") : null;
-
-        Map<String, String> planetAbbr = Map.ofEntries(
-                Map.entry("Sun", "Su"),
-                Map.entry("Moon", "Mo"),
-                Map.entry("Mars", "Ma"),
-                Map.entry("Mercury", "Me"),
-                Map.entry("Jupiter", "Ju"),
-                Map.entry("Venus", "Ve"),
-                Map.entry("Saturn", "Sa"),
-                Map.entry("Rahu", "Ra"),
-                Map.entry("Ketu", "Ke"),
-                Map.entry("Ascendant", "As"),
-                Map.entry("Uranus", "Ur"),
-                Map.entry("Neptune", "Ne"),
-                Map.entry("Pluto", "Pl")
-        );
-
-        Map<Integer, int[]> houseCoords = new HashMap<>();
-        houseCoords.put(1, new int[]{360, 85});
-        houseCoords.put(2, new int[]{285, 20});
-        houseCoords.put(3, new int[]{180, 76});
-        houseCoords.put(4, new int[]{70, 25});
-        houseCoords.put(5, new int[]{10, 90});
-        houseCoords.put(6, new int[]{70, 180});
-        houseCoords.put(7, new int[]{10, 255});
-        houseCoords.put(8, new int[]{70, 365});
-        houseCoords.put(9, new int[]{180, 300});
-        houseCoords.put(10, new int[]{265, 365});
-        houseCoords.put(11, new int[]{360, 300});
-        houseCoords.put(12, new int[]{265, 180});
-
-        // Kundli planets by sign
-        Map<Integer, List<String>> planetsBySign = new HashMap<>();
-        for (Map.Entry<String, Object> entry : namedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer sign = (Integer) planetData.get("current_sign");
-            if (sign != null) {
-                planetsBySign.computeIfAbsent(sign, k -> new ArrayList<>()).add(planetName);
-            }
-        }
-        if (ascendantSign != null && !planetsBySign.getOrDefault(ascendantSign, new ArrayList<>()).contains("Ascendant")) {
-            planetsBySign.computeIfAbsent(ascendantSign, k -> new ArrayList<>()).add(0, "Ascendant");
-        }
-
-        // Navamsha planets by sign
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> navamshaData = (List<Map<String, Object>>) outputMap.get("navamsha");
-        Map<String, Object> navamshaNamedPlanets = navamshaData.get(1);
-        Map<Integer, List<String>> planetsByNavamshaSign = new HashMap<>();
-        for (Map.Entry<String, Object> entry : navamshaNamedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            if ("Ascendant".equals(planetName)) {
-                continue;
-            }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer navamshaSign = (Integer) planetData.get("navamsha_sign");
-            if (navamshaSign != null) {
-                planetsByNavamshaSign.computeIfAbsent(navamshaSign, k -> new ArrayList<>()).add(planetName);
-            }
-        }
-        Integer navamshaAscendantSign = ascendantSign;
-        @SuppressWarnings("unchecked")
-        Map<String, Object> navAscData = (Map<String, Object>) navamshaNamedPlanets.get("Ascendant");
-        if (navAscData != null && navAscData.get("navamsha_sign") instanceof Integer) {
-            navamshaAscendantSign = (Integer) navAscData.get("navamsha_sign");
-        }
-        if (!planetsByNavamshaSign.getOrDefault(navamshaAscendantSign, new ArrayList<>()).contains("Ascendant")) {
-            planetsByNavamshaSign.computeIfAbsent(navamshaAscendantSign, k -> new ArrayList<>()).add(0, "Ascendant");
-        }
-
-        // Transit planets by house
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> transitData = (List<Map<String, Object>>) outputMap.get("transit");
-        Map<String, Object> transitNamedPlanets = transitData.get(1);
-        Map<Integer, List<String>> planetsByTransitHouse = new HashMap<>();
-        for (Map.Entry<String, Object> entry : transitNamedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            if ("Ascendant".equals(planetName)) {
-                continue;
-            }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer transitHouse = (Integer) planetData.get("transit_house");
-            if (transitHouse != null) {
-                planetsByTransitHouse.computeIfAbsent(transitHouse, k -> new ArrayList<>()).add(planetName);
-            }
-        }
-        if (!planetsByTransitHouse.getOrDefault(1, new ArrayList<>()).contains("Ascendant")) {
-            planetsByTransitHouse.computeIfAbsent(1, k -> new ArrayList<>()).add(0, "Ascendant");
-        }
-        // Build sections with complete HTML
-        sections.put("kundliChart", wrapInCompleteHtml("Kundli Birth Chart",
-                buildChartHtml("Kundli Birth Chart", planetsBySign, planetAbbr, ascendantSign, true)));
-        sections.put("navamshaChart", wrapInCompleteHtml("Navamsha Chart",
-                buildChartHtml("Navamsha Chart", planetsByNavamshaSign, planetAbbr, navamshaAscendantSign, true)));
-        sections.put("transitChart", wrapInCompleteHtml("Transit Chart",
-                buildChartHtml("Transit Chart (Today from Lagna)", planetsByTransitHouse, planetAbbr, ascendantSign, false)));
-        sections.put("planetaryPositions", wrapInCompleteHtml("Planetary Positions", buildPlanetaryPositionsTable(namedPlanets)));
-        sections.put("astrologicalData", wrapInCompleteHtml("Astrological Data", buildAstrologicalDataSection(ascendantSign, ascendantData, sunSign, moonSign, ayanamsaValue)));
-
-        return sections;
-    }
-
-    private String buildChartHtml(String title, Map<Integer, List<String>> sourcePlanetsMap,
-                                  Map<String, String> planetAbbr, Integer ascendantSign,
-                                  boolean sourceMapIsSignBased) {
-        StringBuilder html = new StringBuilder();
-        html.append("<div class=\"box\">\n");
-        html.append("<h3>").append(title).append("</h3>\n");
-        html.append("<svg width=\"100%\" viewBox=\"0 0 400 400\" xmlns=\"http://www.w3.org/2000/svg\">\n");
-        html.append("  <rect x=\"0\" y=\"0\" width=\"400\" height=\"400\" fill=\"#ead5be\" stroke=\"#a9ab87\" stroke-width=\"1.2\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"0\" x2=\"400\" y2=\"400\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"0\" x2=\"0\" y2=\"400\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"0\" x2=\"400\" y2=\"200\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n");
-        html.append("  <line x1=\"400\" y1=\"200\" x2=\"200\" y2=\"400\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n");
-        html.append("  <line x1=\"200\" y1=\"400\" x2=\"0\" y2=\"200\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n");
-        html.append("  <line x1=\"0\" y1=\"200\" x2=\"200\" y2=\"0\" stroke=\"#a9ab87\" stroke-width=\"1.1\"/>\n");
-        html.append("  <g fill=\"#b33a2b\" font-size=\"16\" font-weight=\"500\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n");
-        Map<Integer, int[]> signCoords = new HashMap<>();
-        // North-Indian fixed number positions
-        signCoords.put(1, new int[]{325, 100});
-        signCoords.put(2, new int[]{300, 75});
-        signCoords.put(3, new int[]{200, 175});
-        signCoords.put(4, new int[]{100, 75});
-        signCoords.put(5, new int[]{75, 100});
-        signCoords.put(6, new int[]{175, 200});
-        signCoords.put(7, new int[]{75, 300});
-        signCoords.put(8, new int[]{100, 325});
-        signCoords.put(9, new int[]{200, 225});
-        signCoords.put(10, new int[]{300, 320});
-        signCoords.put(11, new int[]{325, 300});
-        signCoords.put(12, new int[]{225, 200});
-
-        int startSign = (ascendantSign != null && ascendantSign >= 1 && ascendantSign <= 12) ? ascendantSign : 1;
-        for (int house = 1; house <= 12; house++) {
-            int[] coord = signCoords.get(house);
-            if (coord == null) continue;
-            // Signs move anti-clockwise from Ascendant sign in North-Indian layout.
-            int sign = ((startSign - house + 12) % 12) + 1;
-            html.append("    <text x=\"").append(coord[0]).append("\" y=\"").append(coord[1]).append("\">")
-                    .append(sign).append("</text>\n");
-        }
-        html.append("  </g>\n");
-
-        Map<Integer, List<String>> planetsByHouse = new HashMap<>();
-        if (sourceMapIsSignBased) {
-            for (int house = 1; house <= 12; house++) {
-                int signForHouse = ((startSign - house + 12) % 12) + 1;
-                planetsByHouse.put(house, new ArrayList<>(
-                        sourcePlanetsMap.getOrDefault(signForHouse, new ArrayList<>())));
-            }
-        } else {
-            planetsByHouse.putAll(sourcePlanetsMap);
-        }
-
-        Map<Integer, int[]> planetCoords = new HashMap<>();
-        planetCoords.put(1, new int[]{200, 110});   // house1 top-center //12
-        planetCoords.put(2, new int[]{300, 30});    // house2 upper-right inner // 1
-        planetCoords.put(3, new int[]{370, 100});   // house3 top-right corner (pulled inward) //2
-        planetCoords.put(4, new int[]{300, 158});   // house4 right-center //3
-        planetCoords.put(5, new int[]{370, 300});   // house5 bottom-right corner (pulled inward) //4
-        planetCoords.put(6, new int[]{300, 360});   // house6 lower-right inner //5
-        planetCoords.put(7, new int[]{200, 290});   // house7 bottom-center //6
-        planetCoords.put(8, new int[]{100, 360});   // house8 lower-left inner //7
-        planetCoords.put(9, new int[]{26, 300});    // house9 bottom-left corner (pulled inward)//10
-        planetCoords.put(10, new int[]{100, 200});   // house10 left-center //9
-        planetCoords.put(11, new int[]{26, 95});    // house11 top-left corner (pulled inward)//8
-        planetCoords.put(12, new int[]{100, 30});   // house12 upper-left inner //11
-
-
-        html.append("  <g fill=\"#b33a2b\" font-size=\"11.5\" font-weight=\"600\" text-anchor=\"middle\" dominant-baseline=\"middle\">\n");
-        for (int house = 1; house <= 12; house++) {
-            int[] coord = planetCoords.get(house);
-            if (coord == null) {
-                continue;
-            }
-            List<String> planets = planetsByHouse.getOrDefault(house, new ArrayList<>());
-            if (!planets.isEmpty()) {
-                final int lineHeight = 14;
-                int startY = coord[1] - ((planets.size() - 1) * lineHeight) / 2;
-                for (int i = 0; i < planets.size(); i++) {
-                    String planetName = planets.get(i);
-                    String abbr = planetAbbr.getOrDefault(
-                            planetName,
-                            planetName.substring(0, Math.min(3, planetName.length()))
-                    );
-                    html.append("    <text x=\"").append(coord[0]).append("\" y=\"")
-                            .append(startY + (i * lineHeight)).append("\">")
-                            .append(abbr).append("</text>\n");
-                }
-            }
-        }
-        html.append("  </g>\n");
-        html.append("</svg>\n");
-        html.append("</div>\n");
-        return html.toString();
-    }
-
-    private String buildPlanetaryPositionsTable(Map<String, Object> namedPlanets) {
-        StringBuilder html = new StringBuilder();
-        html.append("<div class=\"box\">\n");
-        html.append("<h3>Planetary Positions</h3>\n");
-        html.append("<table>\n");
-        html.append("  <tr><th>Planet</th><th>Sign</th><th>Degree</th><th>House</th></tr>\n");
-        for (Map.Entry<String, Object> entry : namedPlanets.entrySet()) {
-            String planetName = entry.getKey();
-            if ("Ascendant".equals(planetName)) {
-                continue;
-            }
-            @SuppressWarnings("unchecked")
-            Map<String, Object> planetData = (Map<String, Object>) entry.getValue();
-            Integer sign = (Integer) planetData.get("current_sign");
-            Double normDeg = (Double) planetData.get("normDegree");
-            Integer houseNum = (Integer) planetData.get("house_number");
-            html.append("  <tr><td>").append(planetName).append("</td><td>")
-                    .append(sign != null ? SIGN_MAP.get(sign) : "-")
-                    .append("</td><td>")
-                    .append(normDeg != null ? String.format("%.2f°", normDeg) : "-")
-                    .append("</td><td>")
-                    .append(houseNum != null ? houseNum : "-")
-                    .append("</td></tr>\n");
-        }
-        html.append("</table>\n");
-        html.append("</div>\n");
-        return html.toString();
-    }
-
-    private String buildAstrologicalDataSection(Integer ascendantSign, Map<String, Object> ascendantData,
-                                                Integer sunSign, Integer moonSign, Double ayanamsaValue) {
-        StringBuilder html = new StringBuilder();
-        html.append("<div class=\"box\">\n");
-        html.append("<h3>Astrological Data</h3>\n");
-        html.append("Ascendant: ")
-                .append(ascendantSign != null ? SIGN_MAP.get(ascendantSign) : "-")
-                .append(ascendantData != null ? String.format(" %.2f°", (Double) ascendantData.get("normDegree")) : "")
-                .append("<br>\n");
-        html.append("Sun Sign: ").append(sunSign != null ? SIGN_MAP.get(sunSign) : "-").append("<br>\n");
-        html.append("Moon Sign: ").append(moonSign != null ? SIGN_MAP.get(moonSign) : "-").append("<br>\n");
-        html.append("Ayanamsa: ").append(ayanamsaValue != null ? String.format("%.4f", ayanamsaValue) : "-")
-                .append("<br>\n");
-        html.append("</div>\n");
-        return html.toString();
-    }
-
-    private String wrapInCompleteHtml(String title, String content) {
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html lang=\"hi\">\n");
-        html.append("<head>\n");
-        html.append("<meta charset=\"UTF-8\" />\n");
-        html.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        html.append("<title>").append(title).append(" - Kundli Report</title>\n");
-        html.append("<style>\n");
-        html.append(".footer {\n" +
-                "    background: #000;\n" +
-                "    color: #fff;\n" +
-                "    text-align: center;\n" +
-                "    padding: 15px;\n" +
-                "    font-size: 14px;\n" +
-                "    font-family: Arial, sans-serif;\n" +
-                "}\n" +
-                "\n" +
-                ".footer .bold {\n" +
-                "    font-weight: bold;\n" +
-                "}\n" +
-                "\n" +
-                ".footer .brand {\n" +
-                "    font-weight: bold;\n" +
-                "    background: linear-gradient(\n" +
-                "        90deg,\n" +
-                "        #f5d06f,\n" +
-                "        #d4af37,\n" +
-                "        #b8860b,\n" +
-                "        #ffd700\n" +
-                "    );\n" +
-                "    -webkit-background-clip: text;\n" +
-                "    -webkit-text-fill-color: transparent;\n" +
-                "}\n");
-        html.append("*{box-sizing:border-box}\n");
-        html.append("html,body{width:100%;height:100%;margin:0;padding:0;font-size:16px;}\n");
-        html.append("body{margin:0;background:#ead5be;font-family: Calibre, Calibri, Georgia, \"Times New Roman\", serif;}\n");
-        html.append(".page{max-width:920px;margin:0 auto;background:#ead5be;padding:0;width:100%;}\n");
-        html.append(".box{border:none;padding:0;background:#ead5be;width:100%;}\n");
-        html.append(".box h3{text-align:center;margin:6px 0 10px;font-size:18px;color:#9f3b2d;font-weight:600;}\n");
-        html.append("svg{width:100%;height:auto;max-width:100%;}\n");
-        html.append("table{width:100%;border-collapse:collapse;font-size:16px;}\n");
-        html.append("th,td{border:1px solid #8a5a2b;padding:8px;font-size:16px;}\n");
-        html.append(".footer{margin-top:8px;text-align:center;font-size:12px;color:#9f3b2d;opacity:.8;}\n");
-        html.append("@media screen and (max-width:768px){.page{padding:0;margin:0;}.box{padding:0;}.box h3{font-size:16px;margin:6px 0 8px;}table{font-size:15px;}th,td{padding:6px;font-size:15px;}}\n");
-        html.append("</style>\n");
-        html.append("</head>\n");
-        html.append("<body>\n");
-        html.append("<div class=\"page\">\n");
-        html.append(content);
-        html.append("<div class=\"footer\">\n" +
-                "    © <span class=\"bold\">Chart Generated</span> by \n" +
-                "    <span class=\"brand\">Astrro Adhyaay</span>\n" +
-                "</div>\n");
-        html.append("</div>\n");
-        html.append("</body>\n");
-        html.append("</html>");
-        return html.toString();
-    }
 }
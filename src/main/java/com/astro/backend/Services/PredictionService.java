@@ -1,38 +1,70 @@
 package com.astro.backend.Services;
 
+import com.astro.backend.Services.GrahaEventIndex.Event;
+import com.astro.backend.Services.GrahaEventIndex.EventType;
+import com.astro.backend.Services.GrahaEventIndex.Graha;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import swisseph.SweConst;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PredictionService {
-    private static final List<String> ZODIAC_SIGNS = List.of(
+    public static final int ENGLISH = 1;
+    public static final int HINDI = 2;
+
+    public static final List<String> ZODIAC_SIGNS = List.of(
             "Aries", "Taurus", "Gemini", "Cancer", "Leo", "Virgo",
             "Libra", "Scorpio", "Sagittarius", "Capricorn", "Aquarius", "Pisces"
     );
 
+    // Transit dates are reported as Indian calendar dates
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+    private static final int UPCOMING_DAYS = 60;
+    private static final int UPCOMING_LIMIT = 8;
+
+    // Grahas with an Ashtakavarga, in AshtakavargaEngine.PLANETS order
+    private static final Graha[] ASHTAKAVARGA_GRAHAS = {
+            Graha.SUN, Graha.MOON, Graha.MARS, Graha.MERCURY, Graha.JUPITER, Graha.VENUS, Graha.SATURN
+    };
+
+    private final GrahaEventIndex grahaEventIndex;
+
+    @Value("${astro.ashtakavarga.max-days:366}")
+    private int maxTransitScoreDays;
 
     /**
      * Generate daily horoscope based on user's birth chart
      */
     public Map<String, Object> generateDailyHoroscope(String sunSign, LocalDate date) {
+        return generateDailyHoroscope(sunSign, date, ENGLISH);
+    }
+
+    /**
+     * Daily horoscope in the given language (1 = English, 2 = Hindi). Same inputs always give
+     * the same text, so results can be pre-rendered and cached.
+     */
+    public Map<String, Object> generateDailyHoroscope(String sunSign, LocalDate date, int language) {
         try {
             Map<String, Object> horoscope = new LinkedHashMap<>();
 
             horoscope.put("date", date.toString());
             horoscope.put("sign", sunSign);
-            horoscope.put("overall", getOverallDayPrediction(sunSign, date));
-            horoscope.put("love", getLovePrediction(sunSign, date));
-            horoscope.put("career", getCareerPrediction(sunSign, date));
-            horoscope.put("health", getHealthPrediction(sunSign, date));
-            horoscope.put("finance", getFinancePrediction(sunSign, date));
-            horoscope.put("lucky", getLuckyDetails(sunSign, date));
-            horoscope.put("advice", getDailyAdvice(sunSign));
+            horoscope.put("overall", getOverallDayPrediction(sunSign, date, language));
+            horoscope.put("love", getLovePrediction(sunSign, date, language));
+            horoscope.put("career", getCareerPrediction(sunSign, date, language));
+            horoscope.put("health", getHealthPrediction(sunSign, date, language));
+            horoscope.put("finance", getFinancePrediction(sunSign, date, language));
+            horoscope.put("lucky", getLuckyDetails(sunSign, date, language));
+            horoscope.put("advice", getDailyAdvice(sunSign, language));
 
             return horoscope;
 
@@ -46,14 +78,18 @@ public class PredictionService {
      * Generate weekly horoscope
      */
     public Map<String, Object> generateWeeklyHoroscope(String sunSign, LocalDate weekStart) {
+        return generateWeeklyHoroscope(sunSign, weekStart, ENGLISH);
+    }
+
+    public Map<String, Object> generateWeeklyHoroscope(String sunSign, LocalDate weekStart, int language) {
         Map<String, Object> weeklyHoroscope = new LinkedHashMap<>();
 
         weeklyHoroscope.put("week", weekStart + " to " + weekStart.plusDays(6));
         weeklyHoroscope.put("sign", sunSign);
-        weeklyHoroscope.put("overview", getWeeklyOverview(sunSign));
-        weeklyHoroscope.put("dailyBreakdown", getDailyBreakdown(sunSign, weekStart));
-        weeklyHoroscope.put("weeklyLucky", getLuckyDetailsWeekly(sunSign));
-        weeklyHoroscope.put("weeklyAdvice", getWeeklyAdvice(sunSign));
+        weeklyHoroscope.put("overview", getWeeklyOverview(sunSign, language));
+        weeklyHoroscope.put("dailyBreakdown", getDailyBreakdown(sunSign, weekStart, language));
+        weeklyHoroscope.put("weeklyLucky", getLuckyDetailsWeekly(sunSign, language));
+        weeklyHoroscope.put("weeklyAdvice", getWeeklyAdvice(sunSign, language));
 
         return weeklyHoroscope;
     }
@@ -62,17 +98,21 @@ public class PredictionService {
      * Generate monthly horoscope
      */
     public Map<String, Object> generateMonthlyHoroscope(String sunSign, int month, int year) {
+        return generateMonthlyHoroscope(sunSign, month, year, ENGLISH);
+    }
+
+    public Map<String, Object> generateMonthlyHoroscope(String sunSign, int month, int year, int language) {
         Map<String, Object> monthlyHoroscope = new LinkedHashMap<>();
 
         monthlyHoroscope.put("month", month + "/" + year);
         monthlyHoroscope.put("sign", sunSign);
-        monthlyHoroscope.put("overview", getMonthlyOverview(sunSign, month));
-        monthlyHoroscope.put("love", getMonthlyLove(sunSign));
-        monthlyHoroscope.put("career", getMonthlyCareer(sunSign));
-        monthlyHoroscope.put("finance", getMonthlyFinance(sunSign));
-        monthlyHoroscope.put("health", getMonthlyHealth(sunSign));
-        monthlyHoroscope.put("important_dates", getImportantDates(month, sunSign));
-        monthlyHoroscope.put("monthly_advice", getMonthlyAdvice(sunSign));
+        monthlyHoroscope.put("overview", getMonthlyOverview(sunSign, month, language));
+        monthlyHoroscope.put("love", getMonthlyLove(sunSign, language));
+        monthlyHoroscope.put("career", getMonthlyCareer(sunSign, language));
+        monthlyHoroscope.put("finance", getMonthlyFinance(sunSign, language));
+        monthlyHoroscope.put("health", getMonthlyHealth(sunSign, language));
+        monthlyHoroscope.put("important_dates", getImportantDates(month, sunSign, language));
+        monthlyHoroscope.put("monthly_advice", getMonthlyAdvice(sunSign, language));
 
         return monthlyHoroscope;
     }
@@ -81,36 +121,42 @@ public class PredictionService {
      * Transit analysis based on current planetary positions
      */
     public Map<String, Object> getTransitAnalysis(String birthChart, LocalDate date) {
+        return getTransitAnalysis(birthChart, date, null);
+    }
+
+    /**
+     * Transit analysis weighed by the native's Ashtakavarga when given: each transit carries the
+     * graha's Bhinnashtakavarga bindus and the Sarvashtakavarga of the sign it transits
+     */
+    public Map<String, Object> getTransitAnalysis(String birthChart, LocalDate date, AshtakavargaEngine.Ashtakavarga ashtakavarga) {
         Map<String, Object> transitAnalysis = new LinkedHashMap<>();
 
-        String saturnSign = getApproxSaturnTransitSign(date);
-        String jupiterSign = getApproxJupiterTransitSign(date);
-        String rahuSign = getApproxRahuTransitSign(date);
+        double julDay = toJulDay(date);
+        String saturnSign = getTransitSign(Graha.SATURN, julDay);
+        String jupiterSign = getTransitSign(Graha.JUPITER, julDay);
+        String rahuSign = getTransitSign(Graha.RAHU, julDay);
 
         List<Map<String, String>> currentTransits = new ArrayList<>();
         currentTransits.add(buildTransit("Saturn", saturnSign, "High",
                 "Discipline, responsibility and karmic results are highlighted.",
-                "Current ~ next 2.5 years"));
+                getTransitDuration(Graha.SATURN, julDay)));
         currentTransits.add(buildTransit("Jupiter", jupiterSign, "Moderate",
                 "Growth in wisdom, guidance and opportunities.",
-                "Current ~ next 12 months"));
+                getTransitDuration(Graha.JUPITER, julDay)));
         currentTransits.add(buildTransit("Rahu", rahuSign, "Moderate",
                 "Unconventional shifts and strong material focus.",
-                "Current ~ next 18 months"));
-
-        List<Map<String, String>> upcomingEvents = List.of(
-                buildUpcomingEvent("Lunar Cycle Shift", date.plusDays(7).toString(),
-                        "Review emotional priorities and avoid impulsive reactions."),
-                buildUpcomingEvent("Mercury Transit Window", date.plusDays(15).toString(),
-                        "Double-check communication and travel plans."),
-                buildUpcomingEvent("New Moon Intention Day", date.plusDays(28).toString(),
-                        "Good period to start focused personal goals.")
-        );
+                getTransitDuration(Graha.RAHU, julDay)));
+
+        List<Map<String, String>> upcomingEvents = getUpcomingEvents(julDay);
 
         transitAnalysis.put("date", date.toString());
         transitAnalysis.put("birthChart", birthChart);
         transitAnalysis.put("currentTransits", currentTransits);
         transitAnalysis.put("upcoming", upcomingEvents);
+        if (ashtakavarga != null) {
+            addAshtakavargaStrength(currentTransits, ashtakavarga);
+            transitAnalysis.put("ashtakavarga", getAshtakavargaTransits(ashtakavarga, julDay));
+        }
 
         // Keep legacy keys for backward compatibility.
         transitAnalysis.put("majorTransits", currentTransits.stream()
@@ -123,13 +169,41 @@ public class PredictionService {
         return transitAnalysis;
     }
 
+    /**
+     * Ashtakavarga transit score (bindus the seven grahas collect in their transit signs, 0-56)
+     * for each of days consecutive dates, plus each graha's share
+     */
+    public List<Map<String, Object>> getTransitScores(AshtakavargaEngine.Ashtakavarga ashtakavarga, LocalDate from, int days) {
+        if (days < 1 || days > maxTransitScoreDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + maxTransitScoreDays);
+        }
+        int[] signs = new int[AshtakavargaEngine.PLANETS.length];
+        List<Map<String, Object>> scores = new ArrayList<>(days);
+        for (LocalDate date = from; date.isBefore(from.plusDays(days)); date = date.plusDays(1)) {
+            double julDay = toJulDay(date);
+            Map<String, Integer> bindus = new LinkedHashMap<>();
+            for (int p = 0; p < signs.length; p++) {
+                signs[p] = grahaEventIndex.signAt(ASHTAKAVARGA_GRAHAS[p], julDay);
+                bindus.put(AshtakavargaEngine.PLANETS[p], ashtakavarga.bindus(p, signs[p]));
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("date", date.toString());
+            row.put("score", ashtakavarga.transitScore(signs));
+            row.put("moonSarvashtakavarga", ashtakavarga.sarva(signs[1]));
+            row.put("bindus", bindus);
+            scores.add(row);
+        }
+        return scores;
+    }
+
     /**
      * Sade Sati (7.5 year Saturn transit) analysis
      */
     public Map<String, Object> getSadeSatiAnalysis(String moonSign, LocalDate currentDate) {
         Map<String, Object> sadeSati = new LinkedHashMap<>();
         String normalizedMoonSign = normalizeSign(moonSign);
-        String saturnSign = getApproxSaturnTransitSign(currentDate);
+        double julDay = toJulDay(currentDate);
+        String saturnSign = getTransitSign(Graha.SATURN, julDay);
 
         int moonIndex = getSignIndex(normalizedMoonSign);
         int saturnIndex = getSignIndex(saturnSign);
@@ -194,7 +268,8 @@ public class PredictionService {
     public Map<String, Object> getDhaiyaAnalysis(String moonSign, LocalDate currentDate) {
         Map<String, Object> dhaiya = new LinkedHashMap<>();
         String normalizedMoonSign = normalizeSign(moonSign);
-        String saturnSign = getApproxSaturnTransitSign(currentDate);
+        double julDay = toJulDay(currentDate);
+        String saturnSign = getTransitSign(Graha.SATURN, julDay);
 
         int moonIndex = getSignIndex(normalizedMoonSign);
         int saturnIndex = getSignIndex(saturnSign);
@@ -244,110 +319,177 @@ public class PredictionService {
 
     // Helper methods
 
-    private String getOverallDayPrediction(String sunSign, LocalDate date) {
+    private static String text(int language, String english, String hindi) {
+        return language == HINDI ? hindi : english;
+    }
+
+    private String getOverallDayPrediction(String sunSign, LocalDate date, int language) {
         return switch (sunSign.toLowerCase()) {
-            case "aries" -> "A dynamic day ahead. Take action on pending projects.";
-            case "taurus" -> "A stable day. Focus on financial matters.";
-            case "gemini" -> "Communication plays a key role. Express yourself clearly.";
-            case "cancer" -> "Emotional day. Trust your intuition.";
-            case "leo" -> "Shiny day ahead. Your charm works wonders.";
-            case "virgo" -> "Analytical energy. Perfect for planning.";
-            case "libra" -> "Balance is key. Weigh your decisions carefully.";
-            case "scorpio" -> "Transformation possible. Embrace changes.";
-            case "sagittarius" -> "Adventure awaits. Explore new possibilities.";
-            case "capricorn" -> "Hard work pays off. Stay disciplined.";
-            case "aquarius" -> "Innovation time. Think outside the box.";
-            case "pisces" -> "Dreamy energy. Follow your intuition.";
-            default -> "A day full of possibilities awaits you.";
+            case "aries" -> text(language, "A dynamic day ahead. Take action on pending projects.",
+                    "ऊर्जावान दिन है। लंबित कार्यों को पूरा करने के लिए कदम उठाएँ।");
+            case "taurus" -> text(language, "A stable day. Focus on financial matters.",
+                    "स्थिर दिन है। आर्थिक मामलों पर ध्यान दें।");
+            case "gemini" -> text(language, "Communication plays a key role. Express yourself clearly.",
+                    "संवाद की भूमिका अहम है। अपनी बात स्पष्ट रूप से रखें।");
+            case "cancer" -> text(language, "Emotional day. Trust your intuition.",
+                    "भावनात्मक दिन है। अपने अंतर्ज्ञान पर भरोसा करें।");
+            case "leo" -> text(language, "Shiny day ahead. Your charm works wonders.",
+                    "चमकदार दिन है। आपका आकर्षण कमाल दिखाएगा।");
+            case "virgo" -> text(language, "Analytical energy. Perfect for planning.",
+                    "विश्लेषण की ऊर्जा है। योजना बनाने के लिए उत्तम समय।");
+            case "libra" -> text(language, "Balance is key. Weigh your decisions carefully.",
+                    "संतुलन ही कुंजी है। निर्णय सोच-समझकर लें।");
+            case "scorpio" -> text(language, "Transformation possible. Embrace changes.",
+                    "परिवर्तन संभव है। बदलावों को अपनाएँ।");
+            case "sagittarius" -> text(language, "Adventure awaits. Explore new possibilities.",
+                    "रोमांच आपका इंतज़ार कर रहा है। नई संभावनाएँ तलाशें।");
+            case "capricorn" -> text(language, "Hard work pays off. Stay disciplined.",
+                    "मेहनत रंग लाएगी। अनुशासित रहें।");
+            case "aquarius" -> text(language, "Innovation time. Think outside the box.",
+                    "नवाचार का समय है। कुछ अलग सोचें।");
+            case "pisces" -> text(language, "Dreamy energy. Follow your intuition.",
+                    "कल्पनाशील ऊर्जा है। अपने अंतर्ज्ञान का अनुसरण करें।");
+            default -> text(language, "A day full of possibilities awaits you.",
+                    "संभावनाओं से भरा दिन आपका इंतज़ार कर रहा है।");
         };
     }
 
-    private String getLovePrediction(String sunSign, LocalDate date) {
-        return "Romantic energy surrounds you. Single natives may meet someone interesting.";
+    private String getLovePrediction(String sunSign, LocalDate date, int language) {
+        return text(language, "Romantic energy surrounds you. Single natives may meet someone interesting.",
+                "आपके आसपास प्रेमपूर्ण ऊर्जा है। अविवाहित जातकों की मुलाकात किसी दिलचस्प व्यक्ति से हो सकती है।");
     }
 
-    private String getCareerPrediction(String sunSign, LocalDate date) {
-        return "Professional growth is indicated. Good day for important meetings.";
+    private String getCareerPrediction(String sunSign, LocalDate date, int language) {
+        return text(language, "Professional growth is indicated. Good day for important meetings.",
+                "व्यावसायिक प्रगति के संकेत हैं। महत्वपूर्ण बैठकों के लिए अच्छा दिन है।");
     }
 
-    private String getHealthPrediction(String sunSign, LocalDate date) {
-        return "Health remains stable. Continue with your wellness routines.";
+    private String getHealthPrediction(String sunSign, LocalDate date, int language) {
+        return text(language, "Health remains stable. Continue with your wellness routines.",
+                "स्वास्थ्य स्थिर रहेगा। अपनी स्वस्थ दिनचर्या जारी रखें।");
     }
 
-    private String getFinancePrediction(String sunSign, LocalDate date) {
-        return "Financial gains are possible. However, avoid unnecessary expenses.";
+    private String getFinancePrediction(String sunSign, LocalDate date, int language) {
+        return text(language, "Financial gains are possible. However, avoid unnecessary expenses.",
+                "आर्थिक लाभ संभव है। फिर भी अनावश्यक खर्चों से बचें।");
     }
 
-    private Map<String, String> getLuckyDetails(String sunSign, LocalDate date) {
+    private Map<String, String> getLuckyDetails(String sunSign, LocalDate date, int language) {
         Map<String, String> lucky = new LinkedHashMap<>();
         lucky.put("number", String.valueOf((date.getDayOfMonth() * 7) % 9 + 1));
-        lucky.put("color", getSignColor(sunSign));
+        lucky.put("color", getSignColor(sunSign, language));
         lucky.put("time", "06:00 AM - 08:00 AM");
-        lucky.put("direction", getSignDirection(sunSign));
+        lucky.put("direction", getSignDirection(sunSign, language));
         return lucky;
     }
 
-    private String getDailyAdvice(String sunSign) {
-        return "Take time for self-reflection. Remember that challenges are opportunities for growth.";
+    private String getDailyAdvice(String sunSign, int language) {
+        return text(language, "Take time for self-reflection. Remember that challenges are opportunities for growth.",
+                "आत्मचिंतन के लिए समय निकालें। याद रखें कि चुनौतियाँ विकास के अवसर हैं।");
     }
 
-    private String getWeeklyOverview(String sunSign) {
-        return "An eventful week lies ahead. Balance work and personal life.";
+    private String getWeeklyOverview(String sunSign, int language) {
+        return text(language, "An eventful week lies ahead. Balance work and personal life.",
+                "आगे घटनापूर्ण सप्ताह है। काम और निजी जीवन में संतुलन रखें।");
     }
 
-    private List<Map<String, String>> getDailyBreakdown(String sunSign, LocalDate weekStart) {
+    private List<Map<String, String>> getDailyBreakdown(String sunSign, LocalDate weekStart, int language) {
         List<Map<String, String>> breakdown = new ArrayList<>();
         for (int i = 0; i < 7; i++) {
+            LocalDate date = weekStart.plusDays(i);
             Map<String, String> day = new LinkedHashMap<>();
-            day.put("date", weekStart.plusDays(i).toString());
-            day.put("prediction", "Day " + (i + 1) + " brings " + getRandomPrediction());
+            day.put("date", date.toString());
+            day.put("prediction", language == HINDI
+                    ? "दिन " + (i + 1) + " में " + getDayPrediction(sunSign, date, language) + " के योग हैं"
+                    : "Day " + (i + 1) + " brings " + getDayPrediction(sunSign, date, language));
             breakdown.add(day);
         }
         return breakdown;
     }
 
-    private Map<String, String> getLuckyDetailsWeekly(String sunSign) {
+    private Map<String, String> getLuckyDetailsWeekly(String sunSign, int language) {
         Map<String, String> lucky = new LinkedHashMap<>();
-        lucky.put("bestDay", "Thursday");
+        lucky.put("bestDay", text(language, "Thursday", "गुरुवार"));
         lucky.put("luckyNumber", "7");
-        lucky.put("luckyColor", getSignColor(sunSign));
+        lucky.put("luckyColor", getSignColor(sunSign, language));
         return lucky;
     }
 
-    private String getWeeklyAdvice(String sunSign) {
-        return "Focus on your goals. Do not let obstacles deter you from your path.";
+    private String getWeeklyAdvice(String sunSign, int language) {
+        return text(language, "Focus on your goals. Do not let obstacles deter you from your path.",
+                "अपने लक्ष्यों पर ध्यान दें। बाधाओं को अपने मार्ग से विचलित न करने दें।");
     }
 
-    private String getMonthlyOverview(String sunSign, int month) {
-        return "A transformative month. Significant changes may occur in your personal or professional life.";
+    private String getMonthlyOverview(String sunSign, int month, int language) {
+        return text(language, "A transformative month. Significant changes may occur in your personal or professional life.",
+                "परिवर्तनकारी महीना है। निजी या व्यावसायिक जीवन में महत्वपूर्ण बदलाव हो सकते हैं।");
     }
 
-    private String getMonthlyLove(String sunSign) {
-        return "Love and romance flourish. Great time for relationships.";
+    private String getMonthlyLove(String sunSign, int language) {
+        return text(language, "Love and romance flourish. Great time for relationships.",
+                "प्रेम और रोमांस फलेंगे-फूलेंगे। रिश्तों के लिए बढ़िया समय है।");
     }
 
-    private String getMonthlyCareer(String sunSign) {
-        return "Career prospects brighten. New opportunities may emerge.";
+    private String getMonthlyCareer(String sunSign, int language) {
+        return text(language, "Career prospects brighten. New opportunities may emerge.",
+                "करियर की संभावनाएँ उज्ज्वल होंगी। नए अवसर मिल सकते हैं।");
     }
 
-    private String getMonthlyFinance(String sunSign) {
-        return "Financial stability strengthens. Good month for investments.";
+    private String getMonthlyFinance(String sunSign, int language) {
+        return text(language, "Financial stability strengthens. Good month for investments.",
+                "आर्थिक स्थिरता मज़बूत होगी। निवेश के लिए अच्छा महीना है।");
     }
 
-    private String getMonthlyHealth(String sunSign) {
-        return "Health remains good. Maintain your fitness routine.";
+    private String getMonthlyHealth(String sunSign, int language) {
+        return text(language, "Health remains good. Maintain your fitness routine.",
+                "स्वास्थ्य अच्छा रहेगा। अपनी फिटनेस दिनचर्या बनाए रखें।");
     }
 
-    private List<String> getImportantDates(int month, String sunSign) {
+    private List<String> getImportantDates(int month, String sunSign, int language) {
         List<String> dates = new ArrayList<>();
-        dates.add("10th - Good for starting new ventures");
-        dates.add("15th - Financial gains possible");
-        dates.add("22nd - Social gatherings favorable");
+        dates.add(text(language, "10th - Good for starting new ventures", "10 तारीख - नए कार्य शुरू करने के लिए शुभ"));
+        dates.add(text(language, "15th - Financial gains possible", "15 तारीख - आर्थिक लाभ संभव"));
+        dates.add(text(language, "22nd - Social gatherings favorable", "22 तारीख - सामाजिक मेलजोल अनुकूल"));
         return dates;
     }
 
-    private String getMonthlyAdvice(String sunSign) {
-        return "Be proactive. The universe is supporting your endeavors. Take calculated risks.";
+    private String getMonthlyAdvice(String sunSign, int language) {
+        return text(language, "Be proactive. The universe is supporting your endeavors. Take calculated risks.",
+                "सक्रिय रहें। ब्रह्मांड आपके प्रयासों का साथ दे रहा है। सोच-समझकर जोखिम लें।");
+    }
+
+    private void addAshtakavargaStrength(List<Map<String, String>> currentTransits, AshtakavargaEngine.Ashtakavarga ashtakavarga) {
+        for (Map<String, String> transit : currentTransits) {
+            int sign = ZODIAC_SIGNS.indexOf(transit.get("sign"));
+            int planet = Arrays.asList(AshtakavargaEngine.PLANETS).indexOf(transit.get("planet"));
+            if (sign < 0) {
+                continue;
+            }
+            if (planet >= 0) {
+                transit.put("bindus", String.valueOf(ashtakavarga.bindus(planet, sign)));
+            }
+            transit.put("sarvashtakavarga", String.valueOf(ashtakavarga.sarva(sign)));
+        }
+    }
+
+    /**
+     * Where each of the seven grahas transits and how many bindus it finds there; 4 or more
+     * bindus (28 or more in the Sarvashtakavarga) mark a supportive transit.
+     */
+    private List<Map<String, Object>> getAshtakavargaTransits(AshtakavargaEngine.Ashtakavarga ashtakavarga, double julDay) {
+        List<Map<String, Object>> transits = new ArrayList<>();
+        for (int p = 0; p < ASHTAKAVARGA_GRAHAS.length; p++) {
+            int sign = grahaEventIndex.signAt(ASHTAKAVARGA_GRAHAS[p], julDay);
+            int bindus = ashtakavarga.bindus(p, sign);
+            Map<String, Object> transit = new LinkedHashMap<>();
+            transit.put("planet", AshtakavargaEngine.PLANETS[p]);
+            transit.put("sign", ZODIAC_SIGNS.get(sign));
+            transit.put("bindus", bindus);
+            transit.put("sarvashtakavarga", ashtakavarga.sarva(sign));
+            transit.put("favourable", bindus >= 4);
+            transits.add(transit);
+        }
+        return transits;
     }
 
     private Map<String, String> buildTransit(
@@ -387,7 +529,7 @@ public class PredictionService {
     }
 
     private List<String> getAffectedSigns(LocalDate date) {
-        String saturnSign = getApproxSaturnTransitSign(date);
+        String saturnSign = getTransitSign(Graha.SATURN, toJulDay(date));
         int saturnIndex = getSignIndex(saturnSign);
         return List.of(
                 ZODIAC_SIGNS.get(Math.floorMod(saturnIndex - 1, 12)),
@@ -409,21 +551,77 @@ public class PredictionService {
         return "Prioritize consistency, avoid impulsive decisions, and review long-term plans.";
     }
 
-    private String getApproxSaturnTransitSign(LocalDate date) {
-        int yearsFromBase = date.getYear() - 2023; // 2023 reference near Aquarius transit
-        int signOffset = Math.floorDiv(yearsFromBase, 3);
-        return ZODIAC_SIGNS.get(Math.floorMod(10 + signOffset, 12)); // Aquarius index = 10
+    /**
+     * Julian day (UT) of local noon on the date, so a date maps to the sign a graha holds for
+     * most of that day.
+     */
+    private static double toJulDay(LocalDate date) {
+        return TransitSnapshotService.toJulDayUt(date.atTime(LocalTime.NOON).atZone(ZONE).toInstant());
+    }
+
+    private static LocalDate toDate(double julDay) {
+        return TransitSnapshotService.toInstant(julDay).atZone(ZONE).toLocalDate();
+    }
+
+    private String getTransitSign(Graha graha, double julDay) {
+        return ZODIAC_SIGNS.get(grahaEventIndex.signAt(graha, julDay));
     }
 
-    private String getApproxJupiterTransitSign(LocalDate date) {
-        int yearsFromBase = date.getYear() - 2023; // 2023 reference near Aries transit
-        return ZODIAC_SIGNS.get(Math.floorMod(yearsFromBase, 12));
+    /**
+     * When the graha next changes sign (Saturn stays up to ~2.5 years, Rahu ~1.5, Jupiter ~1).
+     */
+    private String getTransitDuration(Graha graha, double julDay) {
+        List<Event> ingresses = grahaEventIndex.signIngresses(graha, julDay, julDay + 3 * 365.25);
+        if (ingresses.isEmpty()) {
+            return "Current ~ next 3 years";
+        }
+        Event next = ingresses.get(0);
+        return "Until " + toDate(next.julDay()) + " (then " + ZODIAC_SIGNS.get(next.value()) + ")";
+    }
+
+    /**
+     * Sign changes of the slower grahas, retrograde/direct stations and eclipses in the next
+     * {@value #UPCOMING_DAYS} days.
+     */
+    private List<Map<String, String>> getUpcomingEvents(double julDay) {
+        Set<Graha> grahas = EnumSet.complementOf(EnumSet.of(Graha.MOON));
+        Set<EventType> types = EnumSet.complementOf(EnumSet.of(EventType.NAKSHATRA_INGRESS));
+        List<Map<String, String>> upcoming = new ArrayList<>();
+        for (Event event : grahaEventIndex.events(julDay, julDay + UPCOMING_DAYS, types, grahas)) {
+            if (upcoming.size() == UPCOMING_LIMIT) {
+                break;
+            }
+            String date = toDate(event.julDay()).toString();
+            String graha = event.graha().displayName();
+            switch (event.type()) {
+                case SIGN_INGRESS -> upcoming.add(buildUpcomingEvent(
+                        graha + " enters " + ZODIAC_SIGNS.get(event.value()), date,
+                        "Themes of " + graha + " shift; review plans connected to this area of life."));
+                case STATION_RETROGRADE -> upcoming.add(buildUpcomingEvent(
+                        graha + " turns retrograde in " + ZODIAC_SIGNS.get(event.value()), date,
+                        "Revisit and refine pending matters rather than starting new ones."));
+                case STATION_DIRECT -> upcoming.add(buildUpcomingEvent(
+                        graha + " turns direct in " + ZODIAC_SIGNS.get(event.value()), date,
+                        "Delayed matters start moving; good time to act on reviewed plans."));
+                case SOLAR_ECLIPSE -> upcoming.add(buildUpcomingEvent(
+                        eclipseKind(event.value()) + " Solar Eclipse", date,
+                        "Avoid new beginnings around the eclipse; favour prayer and charity."));
+                case LUNAR_ECLIPSE -> upcoming.add(buildUpcomingEvent(
+                        eclipseKind(event.value()) + " Lunar Eclipse", date,
+                        "Keep emotions steady and postpone important decisions by a day."));
+                default -> {
+                }
+            }
+        }
+        return upcoming;
     }
 
-    private String getApproxRahuTransitSign(LocalDate date) {
-        long monthsFromBase = java.time.temporal.ChronoUnit.MONTHS.between(LocalDate.of(2023, 1, 1), date);
-        int signOffset = (int) Math.floorDiv(monthsFromBase, 18); // ~18 months per sign (retrograde)
-        return ZODIAC_SIGNS.get(Math.floorMod(11 - signOffset, 12)); // Pisces index = 11 (reverse movement)
+    private static String eclipseKind(int type) {
+        if ((type & SweConst.SE_ECL_ANNULAR_TOTAL) != 0) return "Hybrid";
+        if ((type & SweConst.SE_ECL_TOTAL) != 0) return "Total";
+        if ((type & SweConst.SE_ECL_ANNULAR) != 0) return "Annular";
+        if ((type & SweConst.SE_ECL_PARTIAL) != 0) return "Partial";
+        return "Penumbral";
     }
 
     private String normalizeSign(String sign) {
@@ -455,17 +653,19 @@ public class PredictionService {
         );
     }
 
+    /**
+     * Date Saturn next enters the 12th from the Moon. While Sade Sati is running, the search
+     * starts once Saturn has moved on past the 2nd from the Moon, so the next cycle is reported.
+     */
     private String getNextSadeSatiDate(String moonSign, LocalDate currentDate) {
         int moonIndex = getSignIndex(moonSign);
         int targetSaturnSign = Math.floorMod(moonIndex - 1, 12); // start of Sade Sati
-        for (int yearOffset = 1; yearOffset <= 40; yearOffset++) {
-            LocalDate checkDate = currentDate.plusYears(yearOffset);
-            int saturnIndex = getSignIndex(getApproxSaturnTransitSign(checkDate));
-            if (saturnIndex == targetSaturnSign) {
-                return LocalDate.of(checkDate.getYear(), 1, 1).toString();
-            }
-        }
-        return currentDate.plusYears(10).toString();
+        int lastSaturnSign = Math.floorMod(moonIndex + 1, 12);
+        double julDay = toJulDay(currentDate);
+        int saturnIndex = grahaEventIndex.signAt(Graha.SATURN, julDay);
+        boolean active = saturnIndex == targetSaturnSign || saturnIndex == moonIndex || saturnIndex == lastSaturnSign;
+        Event entry = nextSaturnEntry(julDay, 40, active ? Set.of(lastSaturnSign) : Set.of(), Set.of(targetSaturnSign));
+        return entry != null ? toDate(entry.julDay()).toString() : currentDate.plusYears(10).toString();
     }
 
     private String getDhaiyaCharacteristics(String moonSign) {
@@ -482,56 +682,79 @@ public class PredictionService {
         );
     }
 
+    /**
+     * Date Saturn next enters the 4th or 8th from the Moon, skipping the Dhaiya currently running.
+     */
     private String getNextDhaiyaDate(String moonSign, LocalDate currentDate) {
         int moonIndex = getSignIndex(moonSign);
         int targetOne = Math.floorMod(moonIndex + 3, 12);
         int targetTwo = Math.floorMod(moonIndex + 7, 12);
-        for (int yearOffset = 1; yearOffset <= 30; yearOffset++) {
-            LocalDate checkDate = currentDate.plusYears(yearOffset);
-            int saturnIndex = getSignIndex(getApproxSaturnTransitSign(checkDate));
-            if (saturnIndex == targetOne || saturnIndex == targetTwo) {
-                return LocalDate.of(checkDate.getYear(), 1, 1).toString();
+        double julDay = toJulDay(currentDate);
+        int saturnIndex = grahaEventIndex.signAt(Graha.SATURN, julDay);
+        Set<Integer> running = saturnIndex == targetOne || saturnIndex == targetTwo ? Set.of(saturnIndex) : Set.of();
+        Event entry = nextSaturnEntry(julDay, 30, running, Set.of(targetOne, targetTwo));
+        return entry != null ? toDate(entry.julDay()).toString() : currentDate.plusYears(5).toString();
+    }
+
+    /**
+     * First forward ingress of Saturn into one of the target signs within the horizon. When
+     * leaving is non-empty, entries only count after Saturn has moved forward out of that sign,
+     * and retrograde re-entries are never counted as a new start.
+     */
+    private Event nextSaturnEntry(double julDay, int horizonYears, Set<Integer> leaving, Set<Integer> targets) {
+        boolean waiting = !leaving.isEmpty();
+        for (Event ingress : grahaEventIndex.signIngresses(Graha.SATURN, julDay, julDay + horizonYears * 365.25)) {
+            boolean forward = ingress.value() == Math.floorMod(ingress.previousValue() + 1, 12);
+            if (!forward) {
+                continue;
+            }
+            if (waiting) {
+                waiting = !leaving.contains(ingress.previousValue());
+                continue;
+            }
+            if (targets.contains(ingress.value())) {
+                return ingress;
             }
         }
-        return currentDate.plusYears(5).toString();
+        return null;
     }
 
-    private String getSignColor(String sunSign) {
+    private String getSignColor(String sunSign, int language) {
         return switch (sunSign.toLowerCase()) {
-            case "aries" -> "Red";
-            case "taurus" -> "Green";
-            case "gemini" -> "Yellow";
-            case "cancer" -> "White";
-            case "leo" -> "Gold";
-            case "virgo" -> "Green";
-            case "libra" -> "Blue";
-            case "scorpio" -> "Red";
-            case "sagittarius" -> "Yellow";
-            case "capricorn" -> "Black/Blue";
-            case "aquarius" -> "Blue";
-            case "pisces" -> "Green";
-            default -> "Neutral";
+            case "aries", "scorpio" -> text(language, "Red", "लाल");
+            case "taurus", "virgo", "pisces" -> text(language, "Green", "हरा");
+            case "gemini", "sagittarius" -> text(language, "Yellow", "पीला");
+            case "cancer" -> text(language, "White", "सफ़ेद");
+            case "leo" -> text(language, "Gold", "सुनहरा");
+            case "libra", "aquarius" -> text(language, "Blue", "नीला");
+            case "capricorn" -> text(language, "Black/Blue", "काला/नीला");
+            default -> text(language, "Neutral", "तटस्थ");
         };
     }
 
-    private String getSignDirection(String sunSign) {
+    private String getSignDirection(String sunSign, int language) {
         return switch (sunSign.toLowerCase()) {
-            case "aries", "leo", "sagittarius" -> "North";
-            case "taurus", "virgo", "capricorn" -> "South";
-            case "gemini", "libra", "aquarius" -> "East";
-            case "cancer", "scorpio", "pisces" -> "West";
-            default -> "Any";
+            case "aries", "leo", "sagittarius" -> text(language, "North", "उत्तर");
+            case "taurus", "virgo", "capricorn" -> text(language, "South", "दक्षिण");
+            case "gemini", "libra", "aquarius" -> text(language, "East", "पूर्व");
+            case "cancer", "scorpio", "pisces" -> text(language, "West", "पश्चिम");
+            default -> text(language, "Any", "कोई भी");
         };
     }
 
-    private String getRandomPrediction() {
-        String[] predictions = {
-                "new opportunities",
-                "positive energy",
-                "important decisions",
-                "social connections",
-                "financial progress"
+    /**
+     * Theme for one sign and day; picked from the sign and date rather than at random so the
+     * same horoscope renders identically every time.
+     */
+    private String getDayPrediction(String sunSign, LocalDate date, int language) {
+        String[][] predictions = {
+                {"new opportunities", "नए अवसरों"},
+                {"positive energy", "सकारात्मक ऊर्जा"},
+                {"important decisions", "महत्वपूर्ण निर्णयों"},
+                {"social connections", "सामाजिक संबंधों"},
+                {"financial progress", "आर्थिक प्रगति"}
         };
-        return predictions[(int)(Math.random() * predictions.length)];
+        int index = Math.floorMod(Objects.hash(sunSign.toLowerCase(), date), predictions.length);
+        return predictions[index][language == HINDI ? 1 : 0];
     }
 }
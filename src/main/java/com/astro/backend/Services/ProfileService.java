@@ -14,8 +14,10 @@ import com.astro.backend.RequestDTO.UpdateEmailRequest;
 import com.astro.backend.RequestDTO.UpdateProfileRequest;
 import com.astro.backend.ResponseDTO.UpdateProfileResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import swisseph.SweConst;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -27,13 +29,19 @@ import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ProfileService {
 
+    // Profiles carry no birth time zone; birth details are entered in IST
+    private static final double BIRTH_TIMEZONE_OFFSET = 5.5;
+
     private final UserRepository userRepository;
     private final MobileUserProfileRepository mobileUserProfileRepository;
     private final GenderMasterRepository genderMasterRepository;
     private final DistrictMasterRepository districtMasterRepository;
     private final EmailOtpService emailOtpService;
+    private final DashaCalculationService dashaCalculationService;
+    private final AdvancedKundliService advancedKundliService;
 
     private int getEmailChangeCount(User user) {
         return user.getEmailChangeCount() == null ? 0 : user.getEmailChangeCount();
@@ -43,6 +51,62 @@ public class ProfileService {
         return getEmailChangeCount(user) < 1;
     }
 
+    private String birthDetailsKey(MobileUserProfile profile) {
+        return profile.getDateOfBirth() + "|" + profile.getBirthTime() + "|" + profile.getBirthAmPm()
+                + "|" + profile.getLatitude() + "|" + profile.getLongitude();
+    }
+
+    /**
+     * Store the Vimshottari timeline of a profile when its birth details were set or changed;
+     * the dasha endpoints only ever read it. Dropped when the details are not enough for a chart.
+     * Failures are logged and never fail the profile save.
+     */
+    private void refreshDashaTimeline(String previousBirthDetails, MobileUserProfile profile) {
+        if (Objects.equals(previousBirthDetails, birthDetailsKey(profile))) {
+            return;
+        }
+        VimshottariTimeline timeline;
+        try {
+            LocalDate dob = LocalDate.parse(profile.getDateOfBirth(), DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+            // The Moon longitude barely depends on the place, so a missing one is fine
+            NatalChartCache.NatalChart chart = advancedKundliService.getNatalChart(
+                    profile.getLatitude() != null ? profile.getLatitude() : 0.0,
+                    profile.getLongitude() != null ? profile.getLongitude() : 0.0,
+                    dob.getDayOfMonth(), dob.getMonthValue(), dob.getYear(),
+                    birthHours(profile.getBirthTime(), profile.getBirthAmPm()), BIRTH_TIMEZONE_OFFSET);
+            timeline = dashaCalculationService.getVimshottariTimeline(chart.julDayUt(), chart.longitude(SweConst.SE_MOON));
+        } catch (Exception e) {
+            log.warn("Birth details of user {} give no dasha timeline: {}", profile.getUserId(), e.getMessage());
+            timeline = null;
+        }
+        // A missing or stale timeline is recomputed on read
+        try {
+            if (timeline != null) {
+                dashaCalculationService.storeVimshottariTimeline(profile.getUserId(), timeline);
+            } else {
+                dashaCalculationService.invalidateChart(profile.getUserId());
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing dasha timeline for user {}", profile.getUserId(), e);
+        }
+    }
+
+    /**
+     * Birth time as decimal hours from "HH:MM" and an optional AM/PM; noon when it is not known.
+     */
+    private double birthHours(String birthTime, String amPm) {
+        if (birthTime == null || birthTime.isBlank()) {
+            return 12.0;
+        }
+        String[] parts = birthTime.trim().split(":");
+        int hour = Integer.parseInt(parts[0].trim());
+        int minute = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 0;
+        if (amPm != null && !amPm.isBlank()) {
+            hour = hour % 12 + ("PM".equalsIgnoreCase(amPm.trim()) ? 12 : 0);
+        }
+        return hour + minute / 60.0;
+    }
+
     private void updateEmailWithLimit(User user, MobileUserProfile profile, String emailInput) {
         if (emailInput == null || emailInput.isBlank()) {
             throw new RuntimeException("Valid email is required");
@@ -97,6 +161,7 @@ public class ProfileService {
                         .createdAt(LocalDateTime.now())
                         .updatedAt(LocalDateTime.now())
                         .build());
+        String previousBirthDetails = birthDetailsKey(profile);
 
         if (request.getName() != null && !request.getName().isBlank()) {
             String name = request.getName().trim();
@@ -164,6 +229,7 @@ public class ProfileService {
 
         userRepository.save(user);
         MobileUserProfile savedProfile = mobileUserProfileRepository.save(profile);
+        refreshDashaTimeline(previousBirthDetails, savedProfile);
 
         return UpdateProfileResponse.builder()
                 .userId(user.getId())
@@ -491,6 +557,9 @@ public class ProfileService {
             userRepository.save(user);
         }
 
+        // Birth details before this update; stored dasha timelines depend on them
+        String previousBirthDetails = birthDetailsKey(mobileProfile);
+
         try {
             // Parse and validate DOB
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -580,6 +649,7 @@ public class ProfileService {
 
             // Save to mobile_user_profiles only
             MobileUserProfile updatedProfile = mobileUserProfileRepository.save(mobileProfile);
+            refreshDashaTimeline(previousBirthDetails, updatedProfile);
 
             // Build and return response (data comes from mobile profile only)
                 return UpdateProfileResponse.builder()
@@ -704,6 +774,7 @@ public class ProfileService {
                         .osType("Unknown")
                         .build();
             }
+            String previousBirthDetails = birthDetailsKey(mobileProfile);
 
             // Update profile fields
             mobileProfile.setName(request.getName());
@@ -729,6 +800,7 @@ public class ProfileService {
             }
 
             MobileUserProfile savedProfile = mobileUserProfileRepository.save(mobileProfile);
+            refreshDashaTimeline(previousBirthDetails, savedProfile);
 
             // Build and return response
             return UpdateProfileResponse.builder()
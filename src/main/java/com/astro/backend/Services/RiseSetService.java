@@ -0,0 +1,207 @@
+package com.astro.backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import swisseph.DblObj;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sunrise, sunset, moonrise and moonset from swe_rise_trans, cached per
+ * (lat/lon grid cell, local date, zone). Times are computed for the centre of the
+ * cell, so every location in a cell gets the same answer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RiseSetService {
+
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    // Eighth of the daytime (0-based) holding Rahu Kaal and Yamagandam, Sunday first
+    private static final int[] RAHU_KAAL_PART = {7, 1, 6, 4, 5, 3, 2};
+    private static final int[] YAMAGANDAM_PART = {4, 3, 2, 1, 0, 6, 5};
+
+    private final EphemerisEngine ephemerisEngine;
+
+    @Value("${astro.rise-set.grid-degrees:0.05}")
+    private double gridDegrees;
+
+    @Value("${astro.rise-set.max-entries:20000}")
+    private int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Map<CellDay, RiseSetTimes> lru = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CellDay, RiseSetTimes> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Rise/set times on a local calendar date. Events that do not happen that day
+     * (polar day/night, moonrise skipping a date) are null.
+     */
+    public RiseSetTimes getRiseSet(double lat, double lon, LocalDate date, ZoneId zone) {
+        long latCell = Math.round(lat / gridDegrees);
+        long lonCell = Math.round(lon / gridDegrees);
+        CellDay key = new CellDay(latCell, lonCell, date, zone);
+
+        RiseSetTimes times;
+        synchronized (lru) {
+            times = lru.get(key);
+        }
+        if (times != null) {
+            hits.incrementAndGet();
+            return times;
+        }
+
+        misses.incrementAndGet();
+        times = compute(latCell * gridDegrees, lonCell * gridDegrees, date, zone);
+        synchronized (lru) {
+            lru.put(key, times);
+        }
+        return times;
+    }
+
+    /**
+     * Uncached calculation for an exact location.
+     */
+    public RiseSetTimes compute(double lat, double lon, LocalDate date, ZoneId zone) {
+        ZonedDateTime dayStart = date.atStartOfDay(zone);
+        double startJd = TransitSnapshotService.toJulDayUt(dayStart.toInstant());
+        double endJd = TransitSnapshotService.toJulDayUt(dayStart.plusDays(1).toInstant());
+        double[] geopos = {lon, lat, 0};
+
+        double[] events = ephemerisEngine.withEphemeris(EphemerisEngine.TROPICAL, swe -> new double[]{
+                riseOrSet(swe, SweConst.SE_SUN, SweConst.SE_CALC_RISE, startJd, endJd, geopos),
+                riseOrSet(swe, SweConst.SE_SUN, SweConst.SE_CALC_SET, startJd, endJd, geopos),
+                riseOrSet(swe, SweConst.SE_MOON, SweConst.SE_CALC_RISE, startJd, endJd, geopos),
+                riseOrSet(swe, SweConst.SE_MOON, SweConst.SE_CALC_SET, startJd, endJd, geopos)
+        });
+
+        return new RiseSetTimes(
+                toZoned(events[0], zone), toZoned(events[1], zone),
+                toZoned(events[2], zone), toZoned(events[3], zone));
+    }
+
+    /**
+     * Centre of the grid cell a coordinate falls in, i.e. the point getRiseSet computes for.
+     */
+    public double snapToGrid(double degrees) {
+        return Math.round(degrees / gridDegrees) * gridDegrees;
+    }
+
+    /**
+     * Index of the grid cell a coordinate falls in, counted from 0 degrees.
+     */
+    public int cellOf(double degrees) {
+        return (int) Math.round(degrees / gridDegrees);
+    }
+
+    /**
+     * Centre of a grid cell by its index.
+     */
+    public double cellCentre(int cell) {
+        return cell * gridDegrees;
+    }
+
+    /**
+     * Hit/miss and size metrics.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        synchronized (lru) {
+            metrics.put("size", lru.size());
+        }
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("gridDegrees", gridDegrees);
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        return metrics;
+    }
+
+    /**
+     * Julian day (UT) of the next rise/set after startJd, or NaN if it is not before endJd.
+     */
+    private double riseOrSet(SwissEph swe, int body, int event, double startJd, double endJd, double[] geopos) {
+        DblObj time = new DblObj();
+        StringBuffer error = new StringBuffer();
+        int rc = swe.swe_rise_trans(startJd, body, null, SweConst.SEFLG_SWIEPH, event, geopos, 0, 0, time, error);
+        if (rc == -2) {
+            // Circumpolar: the body stays above or below the horizon
+            return Double.NaN;
+        }
+        if (rc < 0) {
+            log.warn("swe_rise_trans failed for body {}: {}", body, error);
+            return Double.NaN;
+        }
+        return time.val < endJd ? time.val : Double.NaN;
+    }
+
+    private static ZonedDateTime toZoned(double julDayUt, ZoneId zone) {
+        if (Double.isNaN(julDayUt)) {
+            return null;
+        }
+        return TransitSnapshotService.toInstant(julDayUt).atZone(zone);
+    }
+
+    private record CellDay(long latCell, long lonCell, LocalDate date, ZoneId zone) {
+    }
+
+    /**
+     * Local rise/set times; any may be null when the event does not occur that day.
+     */
+    public record RiseSetTimes(ZonedDateTime sunrise, ZonedDateTime sunset,
+                               ZonedDateTime moonrise, ZonedDateTime moonset) {
+
+        public static String format(ZonedDateTime time) {
+            return time != null ? time.format(HH_MM) : "--:--";
+        }
+
+        /**
+         * Day length in seconds, or 0 if the sun does not rise and set on this date.
+         */
+        public long dayLengthSeconds() {
+            return sunrise != null && sunset != null && sunset.isAfter(sunrise)
+                    ? sunset.toEpochSecond() - sunrise.toEpochSecond()
+                    : 0;
+        }
+
+        /**
+         * Rahu Kaal as {start, end}, or null without a sunrise and sunset.
+         */
+        public ZonedDateTime[] rahuKaal() {
+            return daytimeEighth(RAHU_KAAL_PART[sunrise != null ? sunrise.getDayOfWeek().getValue() % 7 : 0]);
+        }
+
+        /**
+         * Yamagandam as {start, end}, or null without a sunrise and sunset.
+         */
+        public ZonedDateTime[] yamagandam() {
+            return daytimeEighth(YAMAGANDAM_PART[sunrise != null ? sunrise.getDayOfWeek().getValue() % 7 : 0]);
+        }
+
+        private ZonedDateTime[] daytimeEighth(int part) {
+            long dayLength = dayLengthSeconds();
+            if (dayLength == 0) {
+                return null;
+            }
+            return new ZonedDateTime[]{
+                    sunrise.plusSeconds(dayLength * part / 8),
+                    sunrise.plusSeconds(dayLength * (part + 1) / 8)
+            };
+        }
+    }
+}
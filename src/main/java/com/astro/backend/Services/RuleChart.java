@@ -0,0 +1,233 @@
+package com.astro.backend.Services;
+
+/**
+ * A chart reduced to the facts the Vedic rules test, one bit per fact: graha in house, in sign,
+ * in nakshatra, its dignity, house lords, running dasha, transits, conjunctions. Houses are whole
+ * signs from the lagna. A rule is then a handful of bit tests instead of string comparisons.
+ * <p>
+ * Grahas are indexed like {@link #GRAHAS}, signs from 0 = Aries, houses from 0 = 1st house.
+ */
+public final class RuleChart {
+
+    public static final String[] GRAHAS = {
+            "Sun", "Moon", "Mars", "Mercury", "Jupiter", "Venus", "Saturn", "Rahu", "Ketu"
+    };
+
+    public static final String[] SIGNS = VargaEngine.SIGNS;
+
+    public static final String[] NAKSHATRAS = {
+            "Ashwini", "Bharani", "Krittika", "Rohini", "Mrigashira", "Ardra", "Punarvasu",
+            "Pushya", "Ashlesha", "Magha", "Purva Phalguni", "Uttara Phalguni", "Hasta",
+            "Chitra", "Swati", "Vishakha", "Anuradha", "Jyeshtha", "Mula", "Purva Ashadha",
+            "Uttara Ashadha", "Shravana", "Dhanishta", "Shatabhisha", "Purva Bhadrapada",
+            "Uttara Bhadrapada", "Revati"
+    };
+
+    public static final String[] STATES = {
+            "Exalted", "Debilitated", "Own Sign", "Friendly Sign", "Neutral Sign", "Enemy Sign"
+    };
+
+    public static final int SUN = 0, MOON = 1, MARS = 2, MERCURY = 3, JUPITER = 4, VENUS = 5, SATURN = 6, RAHU = 7, KETU = 8;
+    public static final int EXALTED = 0, DEBILITATED = 1, OWN_SIGN = 2, FRIENDLY = 3, NEUTRAL = 4, ENEMY = 5;
+
+    private static final int G = GRAHAS.length;
+
+    // Fact layout: first bit of each group
+    static final int PLANET_HOUSE = 0;                          // graha * 12 + house
+    static final int PLANET_SIGN = PLANET_HOUSE + G * 12;       // graha * 12 + sign
+    static final int LORD_HOUSE = PLANET_SIGN + G * 12;         // house * 12 + house its lord sits in
+    static final int LORD_SIGN = LORD_HOUSE + 12 * 12;          // house * 12 + sign its lord sits in
+    static final int PLANET_NAKSHATRA = LORD_SIGN + 12 * 12;    // graha * 27 + nakshatra
+    static final int PLANET_STATE = PLANET_NAKSHATRA + G * 27;  // graha * 6 + state
+    static final int DASHA = PLANET_STATE + G * 6;              // mahadasha * 9 + antardasha
+    static final int DASHA_HOUSE = DASHA + G * G;               // house occupied or ruled by a running dasha lord
+    static final int TRANSIT_ASC = DASHA_HOUSE + 12;            // graha * 12 + transit house from lagna
+    static final int TRANSIT_MOON = TRANSIT_ASC + G * 12;       // graha * 12 + transit house from Moon
+    static final int CONJUNCT = TRANSIT_MOON + G * 12;          // graha * 9 + graha in the same sign
+    static final int FROM_MOON = CONJUNCT + G * G;              // graha * 12 + house counted from Moon
+    static final int KAAL_SARP = FROM_MOON + G * 12;            // all seven grahas on one side of the nodes
+    static final int FACT_COUNT = KAAL_SARP + 1;
+
+    static final int WORDS = (FACT_COUNT + 63) >>> 6;
+
+    private static final int[] SIGN_LORDS = {MARS, VENUS, MERCURY, MOON, SUN, MERCURY, VENUS, MARS, JUPITER, SATURN, SATURN, JUPITER};
+    private static final int[] EXALTATION = {0, 1, 9, 5, 3, 11, 6, 1, 7};
+    // Own signs as bit masks; Rahu co-rules Aquarius and Ketu Scorpio
+    private static final int[] OWN_SIGNS = {1 << 4, 1 << 3, 1 | 1 << 7, 1 << 2 | 1 << 5, 1 << 8 | 1 << 11, 1 << 1 | 1 << 6, 1 << 9 | 1 << 10, 1 << 10, 1 << 7};
+    // Natural friendship of the seven grahas: 1 friend, 0 neutral, -1 enemy
+    private static final int[][] FRIENDSHIP = {
+            { 1,  1,  1,  0,  1, -1, -1},
+            { 1,  1,  0,  1,  0,  0,  0},
+            { 1,  1,  1, -1,  1,  0,  0},
+            { 1, -1,  0,  1,  0,  1,  0},
+            { 1,  1,  1, -1,  1, -1,  0},
+            {-1, -1,  0,  1,  0,  1,  1},
+            {-1, -1, -1,  1,  0,  1,  1}
+    };
+    // Rahu is read like Saturn and Ketu like Mars for friendship
+    private static final int[] FRIENDSHIP_ROW = {SUN, MOON, MARS, MERCURY, JUPITER, VENUS, SATURN, SATURN, MARS};
+
+    private static final double NAKSHATRA_SPAN = 360.0 / 27.0;
+
+    private final long[] facts;
+    private final byte[] signs;
+    private final byte[] houses;
+    private final int lagnaSign;
+
+    private RuleChart(long[] facts, byte[] signs, byte[] houses, int lagnaSign) {
+        this.facts = facts;
+        this.signs = signs;
+        this.houses = houses;
+        this.lagnaSign = lagnaSign;
+    }
+
+    /**
+     * Pack a natal chart.
+     *
+     * @param longitudes sidereal longitudes of the nine grahas in {@link #GRAHAS} order
+     * @param ascendant  sidereal lagna longitude
+     * @param transits   current sidereal longitudes in the same order, or null to leave transit rules out
+     * @param mahadasha  running mahadasha lord (graha index), or -1 to leave dasha rules out
+     * @param antardasha running antardasha lord (graha index)
+     */
+    public static RuleChart of(double[] longitudes, double ascendant, double[] transits, int mahadasha, int antardasha) {
+        long[] facts = new long[WORDS];
+        byte[] signs = new byte[G];
+        byte[] houses = new byte[G];
+        int lagna = signOf(ascendant);
+
+        for (int g = 0; g < G; g++) {
+            double lon = normalize(longitudes[g]);
+            int sign = signOf(lon);
+            signs[g] = (byte) sign;
+            houses[g] = (byte) Math.floorMod(sign - lagna, 12);
+            set(facts, PLANET_HOUSE + g * 12 + houses[g]);
+            set(facts, PLANET_SIGN + g * 12 + sign);
+            set(facts, PLANET_NAKSHATRA + g * 27 + Math.min((int) (lon / NAKSHATRA_SPAN), 26));
+            set(facts, PLANET_STATE + g * 6 + state(g, sign));
+        }
+        int moonSign = signs[MOON];
+        for (int g = 0; g < G; g++) {
+            set(facts, FROM_MOON + g * 12 + Math.floorMod(signs[g] - moonSign, 12));
+            for (int other = 0; other < G; other++) {
+                if (other != g && signs[other] == signs[g]) {
+                    set(facts, CONJUNCT + g * G + other);
+                }
+            }
+        }
+        for (int house = 0; house < 12; house++) {
+            int lord = SIGN_LORDS[(lagna + house) % 12];
+            set(facts, LORD_HOUSE + house * 12 + houses[lord]);
+            set(facts, LORD_SIGN + house * 12 + signs[lord]);
+        }
+        if (isKaalSarp(longitudes)) {
+            set(facts, KAAL_SARP);
+        }
+        if (transits != null) {
+            for (int g = 0; g < G; g++) {
+                int sign = signOf(transits[g]);
+                set(facts, TRANSIT_ASC + g * 12 + Math.floorMod(sign - lagna, 12));
+                set(facts, TRANSIT_MOON + g * 12 + Math.floorMod(sign - moonSign, 12));
+            }
+        }
+        if (mahadasha >= 0 && antardasha >= 0) {
+            set(facts, DASHA + mahadasha * G + antardasha);
+            for (int house = 0; house < 12; house++) {
+                int lord = SIGN_LORDS[(lagna + house) % 12];
+                if (lord == mahadasha || lord == antardasha || houses[mahadasha] == house || houses[antardasha] == house) {
+                    set(facts, DASHA_HOUSE + house);
+                }
+            }
+        }
+        return new RuleChart(facts, signs, houses, lagna);
+    }
+
+    /**
+     * Graha index of a name as in {@link #GRAHAS} (any casing), or -1.
+     */
+    public static int graha(String name) {
+        return indexOf(GRAHAS, name);
+    }
+
+    public int sign(int graha) {
+        return signs[graha];
+    }
+
+    /**
+     * Whole-sign house of a graha, 1 to 12.
+     */
+    public int house(int graha) {
+        return houses[graha] + 1;
+    }
+
+    public int lagnaSign() {
+        return lagnaSign;
+    }
+
+    public boolean has(int fact) {
+        return (facts[fact >>> 6] & (1L << fact)) != 0;
+    }
+
+    long[] facts() {
+        return facts;
+    }
+
+    /**
+     * Dignity of a graha in a sign: exaltation and debilitation first, then own sign, then the
+     * natural friendship of the graha with the sign lord.
+     */
+    static int state(int graha, int sign) {
+        if (EXALTATION[graha] == sign) {
+            return EXALTED;
+        }
+        if ((EXALTATION[graha] + 6) % 12 == sign) {
+            return DEBILITATED;
+        }
+        if ((OWN_SIGNS[graha] & (1 << sign)) != 0) {
+            return OWN_SIGN;
+        }
+        return switch (FRIENDSHIP[FRIENDSHIP_ROW[graha]][SIGN_LORDS[sign]]) {
+            case 1 -> FRIENDLY;
+            case -1 -> ENEMY;
+            default -> NEUTRAL;
+        };
+    }
+
+    /**
+     * True when Sun to Saturn all lie on one side of the Rahu-Ketu axis.
+     */
+    private static boolean isKaalSarp(double[] longitudes) {
+        int ahead = 0;
+        for (int g = SUN; g <= SATURN; g++) {
+            if (normalize(longitudes[g] - longitudes[RAHU]) < 180.0) {
+                ahead++;
+            }
+        }
+        return ahead == 0 || ahead == SATURN + 1;
+    }
+
+    static int indexOf(String[] names, String name) {
+        if (name == null) {
+            return -1;
+        }
+        String trimmed = name.trim();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(trimmed)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void set(long[] facts, int fact) {
+        facts[fact >>> 6] |= 1L << fact;
+    }
+
+    private static int signOf(double longitude) {
+        return Math.min((int) (normalize(longitude) / 30.0), 11);
+    }
+
+    private static double normalize(double longitude) {
+        return ((longitude % 360.0) + 360.0) % 360.0;
+    }
+}
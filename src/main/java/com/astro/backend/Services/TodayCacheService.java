@@ -0,0 +1,239 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.Repositry.DistrictMasterRepository;
+import com.astro.backend.Repositry.MobileUserProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Today's panchang and lagna shared by everyone in the same place. A location is snapped to the
+ * nearest active DistrictMaster centre within astro.today.district-radius-km, or else to a grid
+ * cell, and reported as "computedFor". Tithi, nakshatra, yoga, karana and their progress change
+ * at any moment, so they come per request from the shared minute transit snapshot; what is cached
+ * per point and local date is the day-level part (sunrise, sunset, moonrise, moonset). Lagna is
+ * computed per request as well; the day's lagna table for the point is what is shared. A job at
+ * local midnight warms the new day for the districts with the most profiles.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TodayCacheService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final AdvancedKundliService advancedKundliService;
+    private final LagnaService lagnaService;
+    private final RiseSetService riseSetService;
+    private final DistrictMasterRepository districtMasterRepository;
+    private final MobileUserProfileRepository mobileUserProfileRepository;
+
+    @Value("${astro.today.timezone:Asia/Kolkata}")
+    private String timezone;
+
+    @Value("${astro.today.grid-degrees:0.1}")
+    private double gridDegrees;
+
+    @Value("${astro.today.district-radius-km:25}")
+    private double districtRadiusKm;
+
+    @Value("${astro.today.prewarm-districts:200}")
+    private int prewarmDistricts;
+
+    private volatile List<District> districts = List.of();
+
+    private final Map<Key, Map<String, Object>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong districtSnaps = new AtomicLong();
+    private final AtomicLong gridSnaps = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        loadDistricts();
+    }
+
+    public Map<String, Object> getTodayPanchang(double lat, double lon) {
+        Place place = snap(lat, lon);
+        ZoneId zone = ZoneId.of(timezone);
+        Map<String, Object> panchang = new LinkedHashMap<>(
+                advancedKundliService.calculateTodayPanchang(place.latitude(), place.longitude()));
+        panchang.putAll(dayAt(place, LocalDate.now(zone), zone));
+        return atPlace(panchang, place);
+    }
+
+    /**
+     * Lagna at this instant for the snapped point; its timetable is cached per point and day.
+     */
+    public Map<String, Object> getTodayLagna(double lat, double lon) {
+        Place place = snap(lat, lon);
+        return atPlace(advancedKundliService.calculateTodayLagna(place.latitude(), place.longitude()), place);
+    }
+
+    /**
+     * Reload the district centres, drop yesterday's entries and compute the rise/set times and
+     * the lagna table of the new day for the districts where most profiles are.
+     */
+    @Scheduled(cron = "${astro.today.prewarm-cron:0 0 0 * * *}", zone = "${astro.today.timezone:Asia/Kolkata}")
+    public void prewarm() {
+        long start = System.currentTimeMillis();
+        try {
+            loadDistricts();
+            evictExpired();
+            if (prewarmDistricts <= 0) {
+                return;
+            }
+            Map<Long, District> byId = new HashMap<>();
+            for (District district : districts) {
+                byId.put(district.id(), district);
+            }
+            ZoneId zone = ZoneId.of(timezone);
+            LocalDate today = LocalDate.now(zone);
+            int warmed = 0;
+            for (Long districtId : mobileUserProfileRepository.findTopDistrictIds(PageRequest.of(0, prewarmDistricts))) {
+                District district = byId.get(districtId);
+                if (district == null) {
+                    continue;
+                }
+                dayAt(snap(district.latitude(), district.longitude()), today, zone);
+                lagnaService.getDayTable(district.latitude(), district.longitude(), today, zone);
+                warmed++;
+            }
+            log.info("Pre-warmed today's panchang and lagna for {} districts in {} ms",
+                    warmed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to pre-warm today's panchang and lagna: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the entries of past days.
+     */
+    @Scheduled(fixedDelayString = "${astro.today.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        evictBefore(LocalDate.now(ZoneId.of(timezone)));
+    }
+
+    void evictBefore(LocalDate today) {
+        entries.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", entries.size());
+        metrics.put("districts", districts.size());
+        metrics.put("gridDegrees", gridDegrees);
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("districtSnaps", districtSnaps.get());
+        metrics.put("gridSnaps", gridSnaps.get());
+        return metrics;
+    }
+
+    /**
+     * Rise/set times at the place on a local date, computed once however many users ask at once.
+     */
+    private Map<String, Object> dayAt(Place place, LocalDate date, ZoneId zone) {
+        Key key = new Key(place.id(), date);
+        Map<String, Object> cached = entries.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        return entries.computeIfAbsent(key, k -> {
+            misses.incrementAndGet();
+            RiseSetService.RiseSetTimes times = riseSetService.compute(place.latitude(), place.longitude(), date, zone);
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("sunrise", RiseSetService.RiseSetTimes.format(times.sunrise()));
+            day.put("sunset", RiseSetService.RiseSetTimes.format(times.sunset()));
+            day.put("moonrise", RiseSetService.RiseSetTimes.format(times.moonrise()));
+            day.put("moonset", RiseSetService.RiseSetTimes.format(times.moonset()));
+            return Collections.unmodifiableMap(day);
+        });
+    }
+
+    /**
+     * A result computed for a snapped place, with the place it was computed for instead of the
+     * latitude/longitude the calculation echoes (which are not the caller's).
+     */
+    private static Map<String, Object> atPlace(Map<String, Object> computed, Place place) {
+        Map<String, Object> result = new LinkedHashMap<>(computed);
+        result.remove("latitude");
+        result.remove("longitude");
+        Map<String, Object> computedFor = new LinkedHashMap<>();
+        computedFor.put("latitude", place.latitude());
+        computedFor.put("longitude", place.longitude());
+        computedFor.put("district", place.district());
+        result.put("computedFor", computedFor);
+        return result;
+    }
+
+    /**
+     * Nearest district centre within the radius (a linear scan; there are a few hundred), else
+     * the centre of the grid cell.
+     */
+    private Place snap(double lat, double lon) {
+        District nearest = null;
+        double nearestKm = districtRadiusKm;
+        double cosLat = Math.cos(Math.toRadians(lat));
+        for (District district : districts) {
+            double dLat = Math.toRadians(district.latitude() - lat);
+            double dLon = Math.toRadians(district.longitude() - lon) * cosLat;
+            double km = EARTH_RADIUS_KM * Math.sqrt(dLat * dLat + dLon * dLon);
+            if (km <= nearestKm) {
+                nearest = district;
+                nearestKm = km;
+            }
+        }
+        if (nearest != null) {
+            districtSnaps.incrementAndGet();
+            return new Place("D" + nearest.id(), nearest.latitude(), nearest.longitude(), nearest.name());
+        }
+        gridSnaps.incrementAndGet();
+        long latCell = Math.round(lat / gridDegrees);
+        long lonCell = Math.round(lon / gridDegrees);
+        return new Place("G" + latCell + ":" + lonCell, latCell * gridDegrees, lonCell * gridDegrees, null);
+    }
+
+    private void loadDistricts() {
+        try {
+            if (districtRadiusKm <= 0) {
+                districts = List.of();
+                return;
+            }
+            districts = districtMasterRepository.findByIsActiveOrderByName(true).stream()
+                    .filter(d -> d.getLatitude() != null && d.getLongitude() != null
+                            && (d.getLatitude() != 0.0 || d.getLongitude() != 0.0))
+                    .map(d -> new District(d.getId(), d.getName(), d.getLatitude(), d.getLongitude()))
+                    .toList();
+            log.info("Loaded {} district centres for today's panchang/lagna cache", districts.size());
+        } catch (Exception e) {
+            log.error("Failed to load district centres: {}", e.getMessage());
+        }
+    }
+
+    private record District(Long id, String name, double latitude, double longitude) {
+    }
+
+    private record Place(String id, double latitude, double longitude, String district) {
+    }
+
+    private record Key(String place, LocalDate date) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.astro.backend.Services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import swisseph.SweConst;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Publishes the current sidereal positions of all grahas once a minute.
+ * Readers get an immutable snapshot through a volatile read, so transit
+ * blocks no longer call swe_calc per request.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransitSnapshotService {
+
+    private static final int[] BODIES = {
+            SweConst.SE_SUN, SweConst.SE_MOON, SweConst.SE_MERCURY, SweConst.SE_VENUS,
+            SweConst.SE_MARS, SweConst.SE_JUPITER, SweConst.SE_SATURN, SweConst.SE_URANUS,
+            SweConst.SE_NEPTUNE, SweConst.SE_PLUTO, SweConst.SE_MEAN_NODE, SweConst.SE_TRUE_NODE,
+            SweConst.SE_CHIRON
+    };
+    private static final int BODY_SLOTS = SweConst.SE_CHIRON + 1;
+    private static final double UNIX_EPOCH_JD = 2440587.5;
+
+    private final EphemerisEngine ephemerisEngine;
+
+    private volatile TransitSnapshot current;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Recompute at the top of every minute.
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public void refresh() {
+        try {
+            current = compute(Instant.now().truncatedTo(ChronoUnit.MINUTES), ephemerisEngine.getDefaultSidMode());
+        } catch (Exception e) {
+            log.error("Failed to refresh transit snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Latest snapshot in the default ayanamsa. Falls back to an inline calculation
+     * if the scheduler has fallen more than a minute behind.
+     */
+    public TransitSnapshot current() {
+        TransitSnapshot snapshot = current;
+        Instant minute = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        if (snapshot == null || snapshot.minute().isBefore(minute.minus(1, ChronoUnit.MINUTES))) {
+            snapshot = compute(minute, ephemerisEngine.getDefaultSidMode());
+            current = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshot for a specific ayanamsa; only the default ayanamsa is shared, other modes are computed.
+     */
+    public TransitSnapshot current(int sidMode) {
+        TransitSnapshot snapshot = current();
+        return snapshot.sidMode() == sidMode ? snapshot : compute(snapshot.minute(), sidMode);
+    }
+
+    public static double toJulDayUt(Instant instant) {
+        return UNIX_EPOCH_JD + instant.toEpochMilli() / 86_400_000.0;
+    }
+
+    public static Instant toInstant(double julDayUt) {
+        return Instant.ofEpochMilli(Math.round((julDayUt - UNIX_EPOCH_JD) * 86_400_000.0));
+    }
+
+    private TransitSnapshot compute(Instant minute, int sidMode) {
+        double julDay = toJulDayUt(minute);
+        int flags = SweConst.SEFLG_SIDEREAL | SweConst.SEFLG_SPEED;
+        return ephemerisEngine.withEphemeris(sidMode, swe -> {
+            double[][] positions = new double[BODY_SLOTS][];
+            for (int body : BODIES) {
+                double[] xx = new double[6];
+                swe.swe_calc(julDay, body, flags, xx, new StringBuffer());
+                positions[body] = xx;
+            }
+            return new TransitSnapshot(minute, julDay, sidMode, swe.swe_get_ayanamsa(julDay), positions);
+        });
+    }
+
+    /**
+     * Sidereal positions at a whole minute. positions[bodyId] holds the swe_calc xx array
+     * (longitude at [0], speed in longitude at [3]); treat as read-only.
+     */
+    public record TransitSnapshot(Instant minute, double julDayUt, int sidMode, double ayanamsa, double[][] positions) {
+
+        public double longitude(int body) {
+            return positions[body][0];
+        }
+
+        public double speed(int body) {
+            return positions[body][3];
+        }
+
+        public boolean isRetrograde(int body) {
+            return positions[body][3] < 0;
+        }
+    }
+}
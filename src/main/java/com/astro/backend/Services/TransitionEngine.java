@@ -0,0 +1,395 @@
+package com.astro.backend.Services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Start and end instants of tithi, karana, nakshatra and yoga. Boundaries are found by
+ * root-finding the Sun-Moon elongation (tithi, karana), sidereal Moon longitude (nakshatra)
+ * and sidereal Sun+Moon sum (yoga) against each limb boundary.
+ *
+ * An index of every boundary over a few years around the current one is built at startup and
+ * kept on disk as one int (seconds from the index start) per boundary, a few KB per year, so
+ * "current limb with its end time" is a binary search. Instants outside the index are scanned
+ * on demand.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransitionEngine {
+
+    public enum Limb {
+        TITHI(30, 12.0),
+        KARANA(60, 6.0),
+        NAKSHATRA(27, 360.0 / 27.0),
+        YOGA(27, 360.0 / 27.0);
+
+        private final int count;
+        private final double spanDegrees;
+
+        Limb(int count, double spanDegrees) {
+            this.count = count;
+            this.spanDegrees = spanDegrees;
+        }
+
+        public int count() {
+            return count;
+        }
+    }
+
+    /**
+     * One limb occurrence: index (0-based) and its start/end as Julian days (UT).
+     */
+    public record Span(Limb limb, int index, double startJd, double endJd) {
+    }
+
+    private static final int MAGIC = 0x50414E43; // "PANC"
+    private static final int VERSION = 1;
+    private static final double STEP_DAYS = 1.0 / 24;
+    private static final double PRECISION_DAYS = 1.0 / 86400;
+    // Longest tithi/nakshatra/yoga is under 27 hours
+    private static final double MARGIN_DAYS = 2.0;
+
+    private final EphemerisInterpolator ephemerisInterpolator;
+    private final EphemerisEngine ephemerisEngine;
+
+    @Value("${astro.transitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${astro.transitions.years-back:1}")
+    private int yearsBack;
+
+    @Value("${astro.transitions.years-ahead:2}")
+    private int yearsAhead;
+
+    @Value("${astro.transitions.file:data/ephemeris/transitions.bin}")
+    private String indexFile;
+
+    private volatile Timeline index;
+
+    private final AtomicLong indexLookups = new AtomicLong();
+    private final AtomicLong scanLookups = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Panchang transition index disabled (astro.transitions.enabled=false)");
+            return;
+        }
+        Thread loader = new Thread(this::loadOrBuild, "transition-index");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * The limb occurrence in effect at a Julian day (UT).
+     */
+    public Span current(Limb limb, double julDay) {
+        return timeline(julDay, julDay).at(limb, julDay);
+    }
+
+    /**
+     * Boundaries of every limb covering [startJd, endJd]: the startup index when it covers the
+     * range, otherwise a fresh scan.
+     */
+    public Timeline timeline(double startJd, double endJd) {
+        Timeline current = index;
+        if (current != null && current.covers(startJd) && current.covers(endJd)) {
+            indexLookups.incrementAndGet();
+            return current;
+        }
+        scanLookups.incrementAndGet();
+        return scan(startJd - MARGIN_DAYS, endJd + MARGIN_DAYS);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        Timeline current = index;
+        metrics.put("ready", current != null);
+        metrics.put("indexLookups", indexLookups.get());
+        metrics.put("scanLookups", scanLookups.get());
+        if (current != null) {
+            metrics.put("startJd", current.startJd);
+            metrics.put("endJd", current.endJd);
+            Map<String, Object> counts = new LinkedHashMap<>();
+            for (Limb limb : Limb.values()) {
+                counts.put(limb.name(), current.sizes[limb.ordinal()]);
+            }
+            metrics.put("transitions", counts);
+        }
+        return metrics;
+    }
+
+    private void loadOrBuild() {
+        try {
+            int thisYear = Year.now().getValue();
+            double startJd = SweDate.getJulDay(thisYear - yearsBack, 1, 1, 0);
+            double endJd = SweDate.getJulDay(thisYear + yearsAhead + 1, 1, 1, 0);
+            int sidMode = ephemerisEngine.getDefaultSidMode();
+            Path file = Paths.get(indexFile);
+
+            if (Files.isRegularFile(file)) {
+                Timeline existing = read(file, startJd, endJd, sidMode);
+                if (existing != null) {
+                    index = existing;
+                    log.info("Loaded panchang transition index {} ({} bytes)", file.toAbsolutePath(), Files.size(file));
+                    return;
+                }
+                log.info("Panchang transition index {} is stale, rebuilding", file.toAbsolutePath());
+            }
+
+            // Scanning from the interpolation tables takes seconds; from swe_calc, minutes
+            ephemerisInterpolator.awaitReady(10, TimeUnit.MINUTES);
+            long start = System.currentTimeMillis();
+            Timeline built = scan(startJd, endJd);
+            write(file, built, sidMode);
+            index = built;
+            log.info("Built panchang transition index {} for {}-{} in {} ms", file.toAbsolutePath(),
+                    thisYear - yearsBack, thisYear + yearsAhead, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to prepare panchang transition index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Hourly scan of [startJd, endJd]. Sun and Moon are always direct and the shortest limb
+     * (karana) lasts hours, so a step crosses at most one boundary per limb.
+     */
+    private Timeline scan(double startJd, double endJd) {
+        int steps = (int) Math.ceil((endJd - startJd) / STEP_DAYS) + 1;
+        double[] sun = new double[steps];
+        double[] moon = new double[steps];
+        ephemerisInterpolator.longitudes(SweConst.SE_SUN, startJd, STEP_DAYS, sun);
+        ephemerisInterpolator.longitudes(SweConst.SE_MOON, startJd, STEP_DAYS, moon);
+
+        Limb[] limbs = Limb.values();
+        Timeline timeline = new Timeline(startJd, startJd + (steps - 1) * STEP_DAYS, steps / 8 + 4);
+        int[] previous = new int[limbs.length];
+        double ayanamsa = ephemerisInterpolator.ayanamsa(startJd);
+        for (Limb limb : limbs) {
+            previous[limb.ordinal()] = indexOf(limb, angle(limb, sun[0], moon[0], ayanamsa));
+            timeline.firstIndex[limb.ordinal()] = previous[limb.ordinal()];
+        }
+
+        for (int i = 1; i < steps; i++) {
+            double jd = startJd + i * STEP_DAYS;
+            ayanamsa = ephemerisInterpolator.ayanamsa(jd);
+            for (Limb limb : limbs) {
+                int current = indexOf(limb, angle(limb, sun[i], moon[i], ayanamsa));
+                if (current != previous[limb.ordinal()]) {
+                    timeline.add(limb, findBoundary(limb, current, jd - STEP_DAYS, jd));
+                    previous[limb.ordinal()] = current;
+                }
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Root of (angle - boundary of {@code index}) in [lo, hi] by bracketed regula falsi
+     * (Illinois variant), to within a second.
+     */
+    private double findBoundary(Limb limb, int index, double lo, double hi) {
+        double target = index * limb.spanDegrees;
+        double fLo = offset(limb, lo, target);
+        double fHi = offset(limb, hi, target);
+        int side = 0;
+        while (hi - lo > PRECISION_DAYS) {
+            double mid = fHi != fLo ? hi - fHi * (hi - lo) / (fHi - fLo) : (lo + hi) / 2;
+            if (!(mid > lo && mid < hi)) {
+                mid = (lo + hi) / 2;
+            }
+            double fMid = offset(limb, mid, target);
+            if (fMid < 0) {
+                lo = mid;
+                fLo = fMid;
+                if (side == -1) fHi /= 2;
+                side = -1;
+            } else {
+                hi = mid;
+                fHi = fMid;
+                if (side == 1) fLo /= 2;
+                side = 1;
+            }
+            if (Math.abs(fMid) < 1e-7) {
+                return mid;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Signed angular distance of the limb angle past {@code target}, in (-180, 180].
+     */
+    private double offset(Limb limb, double julDay, double target) {
+        double value = angle(limb,
+                ephemerisInterpolator.longitude(SweConst.SE_SUN, julDay),
+                ephemerisInterpolator.longitude(SweConst.SE_MOON, julDay),
+                ephemerisInterpolator.ayanamsa(julDay));
+        double diff = (value - target) % 360;
+        if (diff <= -180) diff += 360;
+        if (diff > 180) diff -= 360;
+        return diff;
+    }
+
+    /**
+     * Tithi and karana come from the elongation (ayanamsa cancels), nakshatra and yoga from
+     * sidereal longitudes.
+     */
+    private static double angle(Limb limb, double sunLon, double moonLon, double ayanamsa) {
+        double angle = switch (limb) {
+            case TITHI, KARANA -> moonLon - sunLon;
+            case NAKSHATRA -> moonLon - ayanamsa;
+            case YOGA -> sunLon + moonLon - 2 * ayanamsa;
+        };
+        angle %= 360;
+        return angle < 0 ? angle + 360 : angle;
+    }
+
+    private static int indexOf(Limb limb, double angle) {
+        return Math.min((int) (angle / limb.spanDegrees), limb.count - 1);
+    }
+
+    /**
+     * File layout (little-endian): magic, version, startJd, endJd, sidMode, then per limb
+     * firstIndex, boundary count and the boundaries as int seconds from startJd.
+     */
+    private void write(Path file, Timeline timeline, int sidMode) throws IOException {
+        int bytes = 32;
+        for (int size : timeline.sizes) {
+            bytes += 8 + size * 4;
+        }
+        ByteBuffer out = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION)
+                .putDouble(timeline.startJd).putDouble(timeline.endJd)
+                .putInt(sidMode).putInt(0);
+        for (Limb limb : Limb.values()) {
+            int l = limb.ordinal();
+            out.putInt(timeline.firstIndex[l]).putInt(timeline.sizes[l]);
+            for (int i = 0; i < timeline.sizes[l]; i++) {
+                out.putInt((int) Math.round((timeline.times[l][i] - timeline.startJd) * 86400));
+            }
+        }
+        out.flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "transitions", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The stored index, or null if it is for another range or ayanamsa.
+     */
+    private Timeline read(Path file, double startJd, double endJd, int sidMode) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < 32 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+            return null;
+        }
+        double storedStart = in.getDouble();
+        double storedEnd = in.getDouble();
+        // The stored end is the last scan step, just past the requested end
+        if (storedStart != startJd || storedEnd < endJd || storedEnd > endJd + STEP_DAYS || in.getInt() != sidMode) {
+            return null;
+        }
+        in.getInt();
+        Timeline timeline = new Timeline(storedStart, storedEnd, 0);
+        for (Limb limb : Limb.values()) {
+            int l = limb.ordinal();
+            timeline.firstIndex[l] = in.getInt();
+            int size = in.getInt();
+            timeline.times[l] = new double[size];
+            for (int i = 0; i < size; i++) {
+                timeline.times[l][i] = storedStart + in.getInt() / 86400.0;
+            }
+            timeline.sizes[l] = size;
+        }
+        return timeline;
+    }
+
+    /**
+     * Boundary instants of every limb over [startJd, endJd], in time order. Limb indices are not
+     * stored: each boundary advances the index by one.
+     */
+    public static final class Timeline {
+        private final double startJd;
+        private final double endJd;
+        private final double[][] times = new double[Limb.values().length][];
+        private final int[] sizes = new int[Limb.values().length];
+        private final int[] firstIndex = new int[Limb.values().length];
+
+        private Timeline(double startJd, double endJd, int capacity) {
+            this.startJd = startJd;
+            this.endJd = endJd;
+            for (int l = 0; l < times.length; l++) {
+                times[l] = new double[capacity];
+            }
+        }
+
+        private void add(Limb limb, double julDay) {
+            int l = limb.ordinal();
+            if (sizes[l] == times[l].length) {
+                times[l] = Arrays.copyOf(times[l], Math.max(16, sizes[l] * 2));
+            }
+            times[l][sizes[l]++] = julDay;
+        }
+
+        /**
+         * Whether the occurrence in effect at julDay has both its boundaries in this timeline.
+         */
+        public boolean covers(double julDay) {
+            for (int l = 0; l < times.length; l++) {
+                if (sizes[l] < 2 || julDay < times[l][0] || julDay >= times[l][sizes[l] - 1]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The occurrence of a limb in effect at julDay (binary search).
+         */
+        public Span at(Limb limb, double julDay) {
+            int l = limb.ordinal();
+            int pos = Arrays.binarySearch(times[l], 0, sizes[l], julDay);
+            pos = pos >= 0 ? pos : -pos - 2;
+            if (pos < 0 || pos >= sizes[l] - 1) {
+                throw new IllegalArgumentException("Julian day " + julDay + " outside transition timeline");
+            }
+            int index = (firstIndex[l] + pos + 1) % limb.count;
+            return new Span(limb, index, times[l][pos], times[l][pos + 1]);
+        }
+    }
+}
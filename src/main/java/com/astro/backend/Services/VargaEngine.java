@@ -0,0 +1,179 @@
+package com.astro.backend.Services;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parashari Shodashavarga: the sixteen divisional charts D1 to D60.
+ * <p>
+ * Every varga splits a sign into slots and maps (sign, slot) to the varga sign through a table
+ * built once here, so placing a longitude in all sixteen charts is sixteen array reads. Equal
+ * divisions use one slot per part; the unequal Trimsamsa (D30) uses one slot per degree.
+ */
+public final class VargaEngine {
+
+    public static final int[] DIVISIONS = {1, 2, 3, 4, 7, 9, 10, 12, 16, 20, 24, 27, 30, 40, 45, 60};
+
+    public static final String[] NAMES = {
+            "Rasi", "Hora", "Drekkana", "Chaturthamsa", "Saptamsa", "Navamsa", "Dasamsa", "Dwadasamsa",
+            "Shodasamsa", "Vimsamsa", "Chaturvimsamsa", "Saptavimsamsa", "Trimsamsa", "Khavedamsa",
+            "Akshavedamsa", "Shashtiamsa"
+    };
+
+    public static final String[] SIGNS = {
+            "Aries", "Taurus", "Gemini", "Cancer", "Leo", "Virgo",
+            "Libra", "Scorpio", "Sagittarius", "Capricorn", "Aquarius", "Pisces"
+    };
+
+    private static final int ARIES = 0, CANCER = 3, LEO = 4, LIBRA = 6, SAGITTARIUS = 8;
+
+    // Trimsamsa: degree where each part ends and the sign of its lord, for odd and even signs
+    private static final int[] TRIMSAMSA_ODD_ENDS = {5, 10, 18, 25, 30};
+    private static final int[] TRIMSAMSA_ODD_SIGNS = {0, 10, 8, 2, 6};   // Mars, Saturn, Jupiter, Mercury, Venus
+    private static final int[] TRIMSAMSA_EVEN_ENDS = {5, 12, 20, 25, 30};
+    private static final int[] TRIMSAMSA_EVEN_SIGNS = {1, 5, 11, 9, 7};  // Venus, Mercury, Jupiter, Saturn, Mars
+
+    // Slots per sign and sign table (sign * slots + slot) for each varga, indexed like DIVISIONS
+    private static final int[] SLOTS = new int[DIVISIONS.length];
+    private static final byte[][] TABLES = new byte[DIVISIONS.length][];
+    private static final int[] VARGA_OF_DIVISION = new int[61];
+
+    static {
+        Arrays.fill(VARGA_OF_DIVISION, -1);
+        for (int v = 0; v < DIVISIONS.length; v++) {
+            int division = DIVISIONS[v];
+            VARGA_OF_DIVISION[division] = v;
+            int slots = division == 30 ? 30 : division;
+            SLOTS[v] = slots;
+            byte[] table = new byte[12 * slots];
+            for (int sign = 0; sign < 12; sign++) {
+                for (int slot = 0; slot < slots; slot++) {
+                    table[sign * slots + slot] = (byte) vargaSign(division, sign, slot);
+                }
+            }
+            TABLES[v] = table;
+        }
+    }
+
+    private VargaEngine() {
+    }
+
+    /**
+     * Sign (0 = Aries) of a sidereal longitude in the chart of the given division.
+     */
+    public static int sign(int division, double longitude) {
+        int varga = vargaIndex(division);
+        double lon = ((longitude % 360.0) + 360.0) % 360.0;
+        int sign = Math.min((int) (lon / 30.0), 11);
+        int slot = Math.min((int) ((lon - sign * 30.0) * SLOTS[varga] / 30.0), SLOTS[varga] - 1);
+        return TABLES[varga][sign * SLOTS[varga] + slot];
+    }
+
+    /**
+     * All sixteen vargas of every point (grahas, lagna) in one pass over the longitudes.
+     */
+    public static Shodashavarga compute(String[] points, double[] longitudes) {
+        byte[] signs = new byte[points.length * DIVISIONS.length];
+        for (int p = 0; p < points.length; p++) {
+            double lon = ((longitudes[p] % 360.0) + 360.0) % 360.0;
+            int sign = Math.min((int) (lon / 30.0), 11);
+            double degree = lon - sign * 30.0;
+            int base = p * DIVISIONS.length;
+            for (int v = 0; v < DIVISIONS.length; v++) {
+                int slots = SLOTS[v];
+                int slot = Math.min((int) (degree * slots / 30.0), slots - 1);
+                signs[base + v] = TABLES[v][sign * slots + slot];
+            }
+        }
+        return new Shodashavarga(points.clone(), signs);
+    }
+
+    private static int vargaIndex(int division) {
+        int varga = division > 0 && division < VARGA_OF_DIVISION.length ? VARGA_OF_DIVISION[division] : -1;
+        if (varga < 0) {
+            throw new IllegalArgumentException("Unsupported divisional chart: D" + division);
+        }
+        return varga;
+    }
+
+    /**
+     * Parashari rule for the varga sign of slot (part) within sign (both 0-based).
+     */
+    private static int vargaSign(int division, int sign, int slot) {
+        boolean odd = sign % 2 == 0;             // Aries (index 0) is the first, odd sign
+        int modality = sign % 3;                 // 0 movable, 1 fixed, 2 dual
+        return switch (division) {
+            case 1 -> sign;
+            case 2 -> odd == (slot == 0) ? LEO : CANCER;
+            case 3 -> (sign + slot * 4) % 12;
+            case 4 -> (sign + slot * 3) % 12;
+            case 7 -> (sign + (odd ? 0 : 6) + slot) % 12;
+            case 9 -> (sign * 9 + slot) % 12;
+            case 10 -> (sign + (odd ? 0 : 8) + slot) % 12;
+            case 12, 60 -> (sign + slot) % 12;
+            case 16, 45 -> (new int[]{ARIES, LEO, SAGITTARIUS}[modality] + slot) % 12;
+            case 20 -> (new int[]{ARIES, SAGITTARIUS, LEO}[modality] + slot) % 12;
+            case 24 -> ((odd ? LEO : CANCER) + slot) % 12;
+            case 27 -> (sign * 27 + slot) % 12;
+            case 30 -> trimsamsa(odd, slot);
+            case 40 -> ((odd ? ARIES : LIBRA) + slot) % 12;
+            default -> throw new IllegalArgumentException("Unsupported divisional chart: D" + division);
+        };
+    }
+
+    private static int trimsamsa(boolean odd, int degree) {
+        int[] ends = odd ? TRIMSAMSA_ODD_ENDS : TRIMSAMSA_EVEN_ENDS;
+        int[] signs = odd ? TRIMSAMSA_ODD_SIGNS : TRIMSAMSA_EVEN_SIGNS;
+        int i = 0;
+        while (degree >= ends[i]) {
+            i++;
+        }
+        return signs[i];
+    }
+
+    /**
+     * Varga signs of a set of points, one byte per point and varga. Serialize only the charts a
+     * caller needs with {@link #chart(int)} or {@link #charts(Collection)}.
+     */
+    public static final class Shodashavarga {
+        private final String[] points;
+        private final byte[] signs;
+
+        private Shodashavarga(String[] points, byte[] signs) {
+            this.points = points;
+            this.signs = signs;
+        }
+
+        /**
+         * Sign (0 = Aries) of the point at index in the chart of the given division.
+         */
+        public int sign(int point, int division) {
+            return signs[point * DIVISIONS.length + vargaIndex(division)];
+        }
+
+        /**
+         * One chart as point name -> sign name, in point order.
+         */
+        public Map<String, String> chart(int division) {
+            int varga = vargaIndex(division);
+            Map<String, String> chart = new LinkedHashMap<>();
+            for (int p = 0; p < points.length; p++) {
+                chart.put(points[p], SIGNS[signs[p * DIVISIONS.length + varga]]);
+            }
+            return chart;
+        }
+
+        /**
+         * The requested charts keyed "D9" etc.
+         */
+        public Map<String, Map<String, String>> charts(Collection<Integer> divisions) {
+            Map<String, Map<String, String>> charts = new LinkedHashMap<>();
+            for (int division : divisions) {
+                charts.put("D" + division, chart(division));
+            }
+            return charts;
+        }
+    }
+}
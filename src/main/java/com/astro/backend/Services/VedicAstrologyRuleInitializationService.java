@@ -324,6 +324,7 @@ public class VedicAstrologyRuleInitializationService implements CommandLineRunne
                                         + " में स्थित " + targetPlanet.nameHi + " को देखता है, तब " + sourcePlanet.themeHi
                                         + " की ऊर्जा " + targetPlanet.themeHi + " के फल को बदलती, प्रेरित करती या चुनौती देती है। अंतिम परिणाम शक्ति, गरिमा और स्वामित्व पर निर्भर करता है।",
                                 "type=planet_aspect_planet;sourcePlanet=" + sourcePlanet.nameEn + ";targetPlanet=" + targetPlanet.nameEn
+                                        + ";fromHouse=" + sourceHouse.number + ";toHouse=" + targetHouse.number
                         );
                     }
                 }
@@ -0,0 +1,540 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.Entity.VedicAstrologyRule;
+import com.astro.backend.Repositry.VedicAstrologyRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates the Vedic astrology rules (the seeded {@link VedicAstrologyRule} rows plus the built-in
+ * yogas and doshas) against {@link RuleChart}s.
+ * <p>
+ * Each rule's tags are compiled once into one or more terms, a term being a set of chart facts
+ * that must all hold (several terms = any of them). Terms are indexed by their most selective
+ * fact (the one the fewest charts have, estimated from the size of its fact group), so evaluating
+ * a chart walks only the facts it has and checks the few terms keyed on them; the cost follows the
+ * number of matches, not the number of rules.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VedicRuleEngine {
+
+    public static final String GAJ_KESARI_YOGA = "YOGA-GAJ-KESARI";
+    public static final String BUDHADITYA_YOGA = "YOGA-BUDHADITYA";
+    public static final String MANGAL_DOSHA = "DOSHA-MANGAL";
+    public static final String KAAL_SARP_DOSHA = "DOSHA-KAAL-SARP";
+    public static final String PITRU_DOSHA = "DOSHA-PITRU";
+    public static final String GRAHAN_DOSHA = "DOSHA-GRAHAN";
+
+    // Below this many charts a batch is evaluated on the calling thread
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private static final int[] KENDRAS = {0, 3, 6, 9};
+    private static final int[] MANGAL_HOUSES = {0, 3, 6, 7, 11};
+
+    private final VedicAstrologyRuleRepository vedicAstrologyRuleRepository;
+
+    @Value("${astro.rules.enabled:true}")
+    private boolean enabled;
+
+    @Value("${astro.rules.batch.max-charts:1000}")
+    private int maxBatchCharts;
+
+    private volatile CompiledRules compiled = new Compiler().build();
+
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicLong evaluationNanos = new AtomicLong();
+
+    /**
+     * Compile the stored rules once the rule seeding (a CommandLineRunner) has finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Recompile from the active rule rows; the built-in yogas and doshas are always present.
+     */
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        try {
+            Compiler compiler = new Compiler();
+            for (VedicAstrologyRule rule : vedicAstrologyRuleRepository.findAll()) {
+                if (!Boolean.FALSE.equals(rule.getIsActive())) {
+                    compiler.add(rule);
+                }
+            }
+            compiled = compiler.build();
+            log.info("Compiled {} Vedic astrology rules into {} terms ({} skipped) in {} ms",
+                    compiled.size(), compiled.terms(), compiled.skipped, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to compile Vedic astrology rules: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * All rules matched by one chart.
+     */
+    public RuleMatches evaluate(RuleChart chart) {
+        long start = System.nanoTime();
+        RuleMatches matches = compiled.evaluate(chart);
+        evaluations.incrementAndGet();
+        evaluationNanos.addAndGet(System.nanoTime() - start);
+        return matches;
+    }
+
+    /**
+     * All rules matched by each chart, in chart order. Every chart is evaluated against the same
+     * compiled rule set; large batches run in parallel.
+     */
+    public List<RuleMatches> evaluateAll(List<RuleChart> charts) {
+        if (charts.size() > maxBatchCharts) {
+            throw new IllegalArgumentException("At most " + maxBatchCharts + " charts are allowed");
+        }
+        try {
+            long start = System.nanoTime();
+            CompiledRules rules = compiled;
+            IntStream indexes = IntStream.range(0, charts.size());
+            if (charts.size() >= PARALLEL_THRESHOLD) {
+                indexes = indexes.parallel();
+            }
+            RuleMatches[] matches = new RuleMatches[charts.size()];
+            indexes.forEach(i -> matches[i] = rules.evaluate(charts.get(i)));
+            evaluations.addAndGet(charts.size());
+            evaluationNanos.addAndGet(System.nanoTime() - start);
+            return List.of(matches);
+        } catch (Exception e) {
+            log.error("Error evaluating Vedic astrology rules", e);
+            throw new RuntimeException("Failed to evaluate rules: " + e.getMessage());
+        }
+    }
+
+    public int getMaxBatchCharts() {
+        return maxBatchCharts;
+    }
+
+    public Map<String, Object> getMetrics() {
+        CompiledRules rules = compiled;
+        long count = evaluations.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("rules", rules.size());
+        metrics.put("terms", rules.terms());
+        metrics.put("skipped", rules.skipped);
+        metrics.put("evaluations", count);
+        metrics.put("avgEvaluationMicros", count == 0 ? 0.0 : Math.round(evaluationNanos.get() / 10.0 / count) / 100.0);
+        return metrics;
+    }
+
+    /**
+     * Rule definitions in compiled form: rule metadata by index, and the terms in a flat index
+     * keyed by fact (keyStart[fact] .. keyStart[fact + 1]) with each term's remaining facts.
+     */
+    private static final class CompiledRules {
+        final String[] codes, categories, subcategories, titles, titlesHindi, descriptions, descriptionsHindi;
+        final Map<String, Integer> indexByCode;
+        final int skipped;
+        final int[] keyStart;
+        final int[] termRule;
+        final int[] restStart;
+        final int[] restFacts;
+
+        CompiledRules(Compiler compiler) {
+            int size = compiler.codes.size();
+            codes = compiler.codes.toArray(new String[0]);
+            categories = compiler.categories.toArray(new String[0]);
+            subcategories = compiler.subcategories.toArray(new String[0]);
+            titles = compiler.titles.toArray(new String[0]);
+            titlesHindi = compiler.titlesHindi.toArray(new String[0]);
+            descriptions = compiler.descriptions.toArray(new String[0]);
+            descriptionsHindi = compiler.descriptionsHindi.toArray(new String[0]);
+            indexByCode = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                indexByCode.put(codes[i], i);
+            }
+            skipped = compiler.skipped;
+
+            int terms = compiler.terms.size();
+            keyStart = new int[RuleChart.FACT_COUNT + 1];
+            int restTotal = 0;
+            for (int[] term : compiler.terms) {
+                keyStart[term[0] + 1]++;
+                restTotal += term.length - 1;
+            }
+            for (int f = 0; f < RuleChart.FACT_COUNT; f++) {
+                keyStart[f + 1] += keyStart[f];
+            }
+            int[] slotOf = new int[terms];
+            int[] cursor = keyStart.clone();
+            for (int t = 0; t < terms; t++) {
+                slotOf[t] = cursor[compiler.terms.get(t)[0]]++;
+            }
+            int[][] bySlot = new int[terms][];
+            termRule = new int[terms];
+            for (int t = 0; t < terms; t++) {
+                bySlot[slotOf[t]] = compiler.terms.get(t);
+                termRule[slotOf[t]] = compiler.termRules.get(t);
+            }
+            restStart = new int[terms + 1];
+            restFacts = new int[restTotal];
+            for (int s = 0, r = 0; s < terms; s++) {
+                int[] term = bySlot[s];
+                for (int i = 1; i < term.length; i++) {
+                    restFacts[r++] = term[i];
+                }
+                restStart[s + 1] = r;
+            }
+        }
+
+        int size() {
+            return codes.length;
+        }
+
+        int terms() {
+            return termRule.length;
+        }
+
+        RuleMatches evaluate(RuleChart chart) {
+            long[] facts = chart.facts();
+            long[] matched = new long[(codes.length + 63) >>> 6];
+            for (int w = 0; w < facts.length; w++) {
+                long bits = facts[w];
+                while (bits != 0) {
+                    int fact = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    for (int t = keyStart[fact]; t < keyStart[fact + 1]; t++) {
+                        if (holds(facts, t)) {
+                            int rule = termRule[t];
+                            matched[rule >>> 6] |= 1L << rule;
+                        }
+                    }
+                }
+            }
+            return new RuleMatches(this, matched);
+        }
+
+        private boolean holds(long[] facts, int term) {
+            for (int i = restStart[term]; i < restStart[term + 1]; i++) {
+                int fact = restFacts[i];
+                if ((facts[fact >>> 6] & (1L << fact)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Collects rules and their terms; built-in yogas and doshas are added first.
+     */
+    private static final class Compiler {
+        final List<String> codes = new ArrayList<>();
+        final List<String> categories = new ArrayList<>();
+        final List<String> subcategories = new ArrayList<>();
+        final List<String> titles = new ArrayList<>();
+        final List<String> titlesHindi = new ArrayList<>();
+        final List<String> descriptions = new ArrayList<>();
+        final List<String> descriptionsHindi = new ArrayList<>();
+        final List<int[]> terms = new ArrayList<>();
+        final List<Integer> termRules = new ArrayList<>();
+        int skipped;
+
+        Compiler() {
+            int[] jupiterKendraFromMoon = new int[KENDRAS.length];
+            for (int i = 0; i < KENDRAS.length; i++) {
+                jupiterKendraFromMoon[i] = fromMoon(RuleChart.JUPITER, KENDRAS[i]);
+            }
+            builtIn(GAJ_KESARI_YOGA, "Yoga", "Gaj Kesari Yoga", "गज केसरी योग",
+                    anyOf(jupiterKendraFromMoon));
+            builtIn(BUDHADITYA_YOGA, "Yoga", "Budhaditya Yoga", "बुधादित्य योग",
+                    anyOf(conjunct(RuleChart.SUN, RuleChart.MERCURY)));
+
+            int[] mangal = new int[MANGAL_HOUSES.length * 2];
+            for (int i = 0; i < MANGAL_HOUSES.length; i++) {
+                mangal[2 * i] = planetHouse(RuleChart.MARS, MANGAL_HOUSES[i]);
+                mangal[2 * i + 1] = fromMoon(RuleChart.MARS, MANGAL_HOUSES[i]);
+            }
+            builtIn(MANGAL_DOSHA, "Dosha", "Mangal Dosha", "मंगल दोष", anyOf(mangal));
+            builtIn(KAAL_SARP_DOSHA, "Dosha", "Kaal Sarp Dosha", "काल सर्प दोष",
+                    anyOf(RuleChart.KAAL_SARP));
+            builtIn(PITRU_DOSHA, "Dosha", "Pitru Dosha", "पितृ दोष", new int[][]{
+                    {conjunct(RuleChart.SUN, RuleChart.RAHU)},
+                    {planetHouse(RuleChart.RAHU, 8)},
+                    {planetHouse(RuleChart.SUN, 8), conjunct(RuleChart.SUN, RuleChart.SATURN)}
+            });
+            builtIn(GRAHAN_DOSHA, "Dosha", "Grahan Dosha", "ग्रहण दोष", anyOf(
+                    conjunct(RuleChart.SUN, RuleChart.RAHU), conjunct(RuleChart.SUN, RuleChart.KETU),
+                    conjunct(RuleChart.MOON, RuleChart.RAHU), conjunct(RuleChart.MOON, RuleChart.KETU)));
+        }
+
+        void add(VedicAstrologyRule rule) {
+            int[][] ruleTerms;
+            try {
+                ruleTerms = compileTags(parseTags(rule.getTags()));
+            } catch (IllegalArgumentException e) {
+                ruleTerms = null;
+            }
+            if (ruleTerms == null) {
+                skipped++;
+                return;
+            }
+            addRule(rule.getRuleCode(), rule.getCategory(), rule.getSubcategory(), rule.getTitle(),
+                    rule.getTitleHindi(), rule.getDescriptionEn(), rule.getDescriptionHi(), ruleTerms);
+        }
+
+        CompiledRules build() {
+            return new CompiledRules(this);
+        }
+
+        private void builtIn(String code, String category, String title, String titleHindi, int[][] ruleTerms) {
+            addRule(code, category, null, title, titleHindi, null, null, ruleTerms);
+        }
+
+        private void addRule(String code, String category, String subcategory, String title, String titleHindi,
+                             String description, String descriptionHindi, int[][] ruleTerms) {
+            int index = codes.size();
+            codes.add(code);
+            categories.add(category);
+            subcategories.add(subcategory);
+            titles.add(title);
+            titlesHindi.add(titleHindi);
+            descriptions.add(description);
+            descriptionsHindi.add(descriptionHindi);
+            for (int[] term : ruleTerms) {
+                terms.add(bySelectivity(term));
+                termRules.add(index);
+            }
+        }
+
+        /**
+         * The facts of a term, the one the fewest charts have first (that one keys the index).
+         */
+        private static int[] bySelectivity(int[] term) {
+            return IntStream.of(term).boxed()
+                    .sorted(Comparator.comparingDouble(Compiler::share))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        /**
+         * Rough share of charts holding a fact: one over the number of values its group takes.
+         */
+        private static double share(int fact) {
+            if (fact >= RuleChart.KAAL_SARP) {
+                return 1.0 / 5;
+            } else if (fact >= RuleChart.DASHA_HOUSE && fact < RuleChart.TRANSIT_ASC) {
+                // houses occupied or ruled by the two running lords
+                return 1.0 / 2;
+            } else if (fact >= RuleChart.DASHA && fact < RuleChart.DASHA_HOUSE) {
+                return 1.0 / 81;
+            } else if (fact >= RuleChart.PLANET_STATE && fact < RuleChart.DASHA) {
+                return 1.0 / 6;
+            } else if (fact >= RuleChart.PLANET_NAKSHATRA && fact < RuleChart.PLANET_STATE) {
+                return 1.0 / 27;
+            }
+            // placements by house or sign, conjunctions
+            return 1.0 / 12;
+        }
+
+        /**
+         * Terms for one rule's tags; null for an unknown rule type.
+         */
+        private static int[][] compileTags(Map<String, String> tags) {
+            String type = tags.getOrDefault("type", "");
+            return switch (type) {
+                case "planet_in_house" -> anyOf(planetHouse(graha(tags, "planet"), house(tags, "house")));
+                case "planet_in_sign" -> anyOf(RuleChart.PLANET_SIGN + graha(tags, "planet") * 12 + sign(tags, "sign"));
+                case "house_lord_in_house" ->
+                        anyOf(RuleChart.LORD_HOUSE + house(tags, "sourceHouse") * 12 + house(tags, "targetHouse"));
+                case "house_lord_in_sign" ->
+                        anyOf(RuleChart.LORD_SIGN + house(tags, "sourceHouse") * 12 + sign(tags, "sign"));
+                // the aspected house follows from the house the graha occupies
+                case "planet_aspect_house" -> anyOf(planetHouse(graha(tags, "planet"), house(tags, "fromHouse")));
+                case "planet_aspect_planet" -> new int[][]{{
+                        planetHouse(graha(tags, "sourcePlanet"), house(tags, "fromHouse")),
+                        planetHouse(graha(tags, "targetPlanet"), house(tags, "toHouse"))}};
+                case "conjunction" -> new int[][]{{
+                        planetHouse(graha(tags, "planetOne"), house(tags, "house")),
+                        planetHouse(graha(tags, "planetTwo"), house(tags, "house"))}};
+                case "planet_in_nakshatra" ->
+                        anyOf(RuleChart.PLANET_NAKSHATRA + graha(tags, "planet") * 27 + index(RuleChart.NAKSHATRAS, tags, "nakshatra"));
+                case "dasha" -> anyOf(dasha(tags));
+                case "dasha_house_activation" -> new int[][]{{dasha(tags), RuleChart.DASHA_HOUSE + house(tags, "house")}};
+                case "transit_from_ascendant" ->
+                        anyOf(RuleChart.TRANSIT_ASC + graha(tags, "planet") * 12 + house(tags, "house"));
+                case "transit_from_moon" ->
+                        anyOf(RuleChart.TRANSIT_MOON + graha(tags, "planet") * 12 + house(tags, "house"));
+                case "planet_strength_in_house" -> new int[][]{{
+                        planetHouse(graha(tags, "planet"), house(tags, "house")),
+                        RuleChart.PLANET_STATE + graha(tags, "planet") * 6 + index(RuleChart.STATES, tags, "state")}};
+                default -> null;
+            };
+        }
+
+        private static Map<String, String> parseTags(String tags) {
+            Map<String, String> parsed = new HashMap<>();
+            if (tags != null) {
+                for (String pair : tags.split(";")) {
+                    int eq = pair.indexOf('=');
+                    if (eq > 0) {
+                        parsed.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+                    }
+                }
+            }
+            return parsed;
+        }
+
+        private static int dasha(Map<String, String> tags) {
+            return RuleChart.DASHA + graha(tags, "mahadasha") * RuleChart.GRAHAS.length + graha(tags, "antardasha");
+        }
+
+        private static int graha(Map<String, String> tags, String key) {
+            return index(RuleChart.GRAHAS, tags, key);
+        }
+
+        private static int sign(Map<String, String> tags, String key) {
+            return index(RuleChart.SIGNS, tags, key);
+        }
+
+        /**
+         * 0-based house of a 1-based house tag.
+         */
+        private static int house(Map<String, String> tags, String key) {
+            try {
+                int house = Integer.parseInt(tags.getOrDefault(key, ""));
+                if (house >= 1 && house <= 12) {
+                    return house - 1;
+                }
+            } catch (NumberFormatException ignored) {
+                // reported below
+            }
+            throw new IllegalArgumentException("Invalid " + key);
+        }
+
+        private static int index(String[] names, Map<String, String> tags, String key) {
+            int index = RuleChart.indexOf(names, tags.get(key));
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid " + key);
+            }
+            return index;
+        }
+
+        private static int planetHouse(int graha, int house) {
+            return RuleChart.PLANET_HOUSE + graha * 12 + house;
+        }
+
+        private static int fromMoon(int graha, int house) {
+            return RuleChart.FROM_MOON + graha * 12 + house;
+        }
+
+        private static int conjunct(int graha, int other) {
+            return RuleChart.CONJUNCT + graha * RuleChart.GRAHAS.length + other;
+        }
+
+        /**
+         * One single-fact term per fact.
+         */
+        private static int[][] anyOf(int... facts) {
+            int[][] ruleTerms = new int[facts.length][];
+            for (int i = 0; i < facts.length; i++) {
+                ruleTerms[i] = new int[]{facts[i]};
+            }
+            return ruleTerms;
+        }
+    }
+
+    /**
+     * The rules one chart matched, as a bit set over the compiled rule indexes.
+     */
+    public static final class RuleMatches {
+        private final CompiledRules rules;
+        private final long[] matched;
+
+        private RuleMatches(CompiledRules rules, long[] matched) {
+            this.rules = rules;
+            this.matched = matched;
+        }
+
+        public boolean contains(String code) {
+            Integer index = rules.indexByCode.get(code);
+            return index != null && (matched[index >>> 6] & (1L << index)) != 0;
+        }
+
+        public int count() {
+            int count = 0;
+            for (long word : matched) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        /**
+         * Matched rule codes, limited to the given categories when any are given.
+         */
+        public List<String> codes(Collection<String> categories) {
+            List<String> codes = new ArrayList<>();
+            forEach(index -> {
+                if (inCategories(categories, index)) {
+                    codes.add(rules.codes[index]);
+                }
+            });
+            return codes;
+        }
+
+        /**
+         * Matched rules (code, category, subcategory, title and, if asked, description) in the
+         * given language, limited to the given categories when any are given.
+         */
+        public List<Map<String, Object>> rules(Collection<String> categories, int language, boolean includeDescriptions) {
+            boolean hindi = language == PredictionService.HINDI;
+            List<Map<String, Object>> result = new ArrayList<>();
+            forEach(index -> {
+                if (!inCategories(categories, index)) {
+                    return;
+                }
+                Map<String, Object> rule = new LinkedHashMap<>();
+                rule.put("code", rules.codes[index]);
+                rule.put("category", rules.categories[index]);
+                rule.put("subcategory", rules.subcategories[index]);
+                rule.put("title", hindi ? rules.titlesHindi[index] : rules.titles[index]);
+                if (includeDescriptions) {
+                    rule.put("description", hindi ? rules.descriptionsHindi[index] : rules.descriptions[index]);
+                }
+                result.add(rule);
+            });
+            return result;
+        }
+
+        private boolean inCategories(Collection<String> categories, int index) {
+            return categories == null || categories.isEmpty() || categories.contains(rules.categories[index]);
+        }
+
+        private void forEach(IntConsumer action) {
+            for (int w = 0; w < matched.length; w++) {
+                long bits = matched[w];
+                while (bits != 0) {
+                    action.accept((w << 6) + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.astro.backend.Services;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Vimshottari dasha periods of one birth, from mahadasha down to prana, as an interval tree
+ * stored level by level in primitive start/end arrays (epoch days, UTC, fractional).
+ * <p>
+ * Level 1 holds ten mahadashas starting with the birth mahadasha (which begins before birth,
+ * by the part of the birth nakshatra the Moon has already covered), so at least 120 years after
+ * birth are covered. Every period splits into nine sub-periods in Vimshottari order starting with
+ * its own lord, each lasting parent × years / 120. Deeper levels are only built when first asked
+ * for; lookups are a binary search on one level.
+ */
+public final class VimshottariTimeline {
+
+    public static final int MAHADASHA = 1;
+    public static final int ANTARDASHA = 2;
+    public static final int PRATYANTARDASHA = 3;
+    public static final int SOOKSHMA = 4;
+    public static final int PRANA = 5;
+
+    public static final String[] LEVEL_NAMES = {
+            null, "Mahadasha", "Antardasha", "Pratyantardasha", "Sookshma", "Prana"
+    };
+
+    public static final String[] LORDS = {
+            "Ketu", "Venus", "Sun", "Moon", "Mars", "Rahu", "Jupiter", "Saturn", "Mercury"
+    };
+
+    static final int[] YEARS = {7, 20, 6, 10, 7, 18, 16, 19, 17};
+
+    public static final double DAYS_PER_YEAR = 365.2422;
+
+    private static final double NAKSHATRA_SPAN = 360.0 / 27.0;
+    private static final double UNIX_EPOCH_JD = 2440587.5;
+    private static final int MAHADASHA_COUNT = 10;
+
+    // Bump when the period arithmetic changes so stored timelines are recomputed
+    private static final byte FORMAT_VERSION = 2;
+
+    private final double birthEpochDay;
+    private final double moonLongitude;
+    private final int firstLord;
+
+    // levels[depth] once built; levels[0] is unused
+    private final double[][] starts = new double[PRANA + 1][];
+    private final double[][] ends = new double[PRANA + 1][];
+
+    /**
+     * @param birthEpochDay birth moment in (fractional) epoch days, UTC
+     * @param moonLongitude sidereal Moon longitude at birth in degrees
+     */
+    public VimshottariTimeline(double birthEpochDay, double moonLongitude) {
+        this.birthEpochDay = birthEpochDay;
+        this.moonLongitude = ((moonLongitude % 360.0) + 360.0) % 360.0;
+        int nakshatra = Math.min(26, (int) Math.floor(this.moonLongitude / NAKSHATRA_SPAN));
+        this.firstLord = nakshatra % LORDS.length;
+
+        double elapsed = (this.moonLongitude - nakshatra * NAKSHATRA_SPAN) / NAKSHATRA_SPAN;
+        double cycleStart = birthEpochDay - elapsed * YEARS[firstLord] * DAYS_PER_YEAR;
+
+        double[] start = new double[MAHADASHA_COUNT];
+        double[] end = new double[MAHADASHA_COUNT];
+        double t = cycleStart;
+        for (int i = 0; i < MAHADASHA_COUNT; i++) {
+            start[i] = t;
+            t += YEARS[(firstLord + i) % LORDS.length] * DAYS_PER_YEAR;
+            end[i] = t;
+        }
+        starts[MAHADASHA] = start;
+        ends[MAHADASHA] = end;
+    }
+
+    /**
+     * @param birthJulDayUt birth moment as a Julian day (UT); its fraction is the time of birth
+     * @param moonLongitude sidereal Moon longitude at birth in degrees
+     */
+    public static VimshottariTimeline of(double birthJulDayUt, double moonLongitude) {
+        return new VimshottariTimeline(birthJulDayUt - UNIX_EPOCH_JD, moonLongitude);
+    }
+
+    /**
+     * Compact form for storage: a version byte plus the two inputs every level is derived from,
+     * Base64 encoded (24 characters).
+     */
+    public String serialize() {
+        ByteBuffer buffer = ByteBuffer.allocate(17);
+        buffer.put(FORMAT_VERSION).putDouble(birthEpochDay).putDouble(moonLongitude);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    /**
+     * Timeline from {@link #serialize()} output, or null when it is missing, malformed or of
+     * another version.
+     */
+    public static VimshottariTimeline deserialize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(value.trim()));
+            if (buffer.remaining() != 17 || buffer.get() != FORMAT_VERSION) {
+                return null;
+            }
+            return new VimshottariTimeline(buffer.getDouble(), buffer.getDouble());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public double getBirthEpochDay() {
+        return birthEpochDay;
+    }
+
+    public double getMoonLongitude() {
+        return moonLongitude;
+    }
+
+    /**
+     * Period of the given level (1 = mahadasha .. 5 = prana) running at epochDay, or null when
+     * the date is outside the timeline.
+     */
+    public Period at(int level, double epochDay) {
+        int index = indexAt(level, epochDay);
+        return index < 0 ? null : period(level, index);
+    }
+
+    /**
+     * Periods of one level from the one running at fromEpochDay onwards, skipping offset of them.
+     */
+    public List<Period> periods(int level, double fromEpochDay, int offset, int limit) {
+        double[] start = starts(level);
+        int first = indexAt(level, fromEpochDay);
+        if (first < 0) {
+            // Before the timeline starts everything is upcoming, after it ends nothing is
+            first = fromEpochDay < start[0] ? 0 : start.length;
+        }
+        List<Period> result = new ArrayList<>(Math.max(0, limit));
+        for (int i = first + Math.max(0, offset); i < start.length && result.size() < limit; i++) {
+            result.add(period(level, i));
+        }
+        return result;
+    }
+
+    public int size(int level) {
+        return starts(level).length;
+    }
+
+    private int indexAt(int level, double epochDay) {
+        double[] start = starts(level);
+        int pos = Arrays.binarySearch(start, epochDay);
+        int index = pos >= 0 ? pos : -pos - 2;
+        if (index < 0 || epochDay >= ends[level][index]) {
+            return -1;
+        }
+        return index;
+    }
+
+    private Period period(int level, int index) {
+        int[] path = new int[level];
+        int divisor = 1;
+        for (int i = 1; i < level; i++) {
+            divisor *= LORDS.length;
+        }
+        int remainder = index;
+        int lord = (firstLord + remainder / divisor) % LORDS.length;
+        path[0] = lord;
+        for (int depth = 1; depth < level; depth++) {
+            remainder %= divisor;
+            divisor /= LORDS.length;
+            lord = (lord + remainder / divisor) % LORDS.length;
+            path[depth] = lord;
+        }
+        return new Period(level, index, path, starts[level][index], ends[level][index]);
+    }
+
+    private double[] starts(int level) {
+        if (level < MAHADASHA || level > PRANA) {
+            throw new IllegalArgumentException("Dasha level must be between 1 and " + PRANA);
+        }
+        synchronized (this) {
+            for (int depth = MAHADASHA + 1; depth <= level; depth++) {
+                if (starts[depth] == null) {
+                    build(depth);
+                }
+            }
+            return starts[level];
+        }
+    }
+
+    private void build(int depth) {
+        double[] parentStart = starts[depth - 1];
+        double[] parentEnd = ends[depth - 1];
+        int n = parentStart.length * LORDS.length;
+        double[] start = new double[n];
+        double[] end = new double[n];
+        int divisor = 1;
+        for (int i = 2; i < depth; i++) {
+            divisor *= LORDS.length;
+        }
+        for (int p = 0; p < parentStart.length; p++) {
+            int parentLord = lordOf(p, divisor);
+            double duration = parentEnd[p] - parentStart[p];
+            double t = parentStart[p];
+            for (int d = 0; d < LORDS.length; d++) {
+                int i = p * LORDS.length + d;
+                start[i] = t;
+                t += duration * YEARS[(parentLord + d) % LORDS.length] / 120.0;
+                end[i] = t;
+            }
+            // Keep children exactly inside the parent despite rounding
+            end[p * LORDS.length + LORDS.length - 1] = parentEnd[p];
+        }
+        starts[depth] = start;
+        ends[depth] = end;
+    }
+
+    /** Lord of period index at a level whose mahadasha index is index / divisor. */
+    private int lordOf(int index, int divisor) {
+        int lord = (firstLord + index / divisor) % LORDS.length;
+        int remainder = index % divisor;
+        while (divisor > 1) {
+            divisor /= LORDS.length;
+            lord = (lord + remainder / divisor) % LORDS.length;
+            remainder %= divisor;
+        }
+        return lord;
+    }
+
+    /**
+     * One period; lords holds the lord of each level from the mahadasha down.
+     */
+    public record Period(int level, int index, int[] lords, double startEpochDay, double endEpochDay) {
+
+        public String lord() {
+            return LORDS[lords[lords.length - 1]];
+        }
+
+        public String lord(int level) {
+            return LORDS[lords[level - 1]];
+        }
+
+        public LocalDate startDate() {
+            return LocalDate.ofEpochDay((long) Math.floor(startEpochDay));
+        }
+
+        public LocalDate endDate() {
+            return LocalDate.ofEpochDay((long) Math.floor(endEpochDay));
+        }
+
+        public Instant startInstant() {
+            return Instant.ofEpochSecond(Math.round(startEpochDay * 86400.0));
+        }
+
+        public Instant endInstant() {
+            return Instant.ofEpochSecond(Math.round(endEpochDay * 86400.0));
+        }
+    }
+}
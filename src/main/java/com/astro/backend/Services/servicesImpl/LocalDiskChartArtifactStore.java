@@ -0,0 +1,160 @@
+package com.astro.backend.Services.servicesImpl;
+
+import com.astro.backend.Services.ChartArtifactStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Chart artifact store on local disk, in a directory outside the classpath.
+ * Files are sharded by the first two key characters and written via temp file + atomic move.
+ * Entries older than max-age or beyond max-size (least recently stored/reused first) are evicted.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "astro.artifacts.backend", havingValue = "local", matchIfMissing = true)
+public class LocalDiskChartArtifactStore implements ChartArtifactStore {
+
+    private static final String SUFFIX = ".html";
+
+    @Value("${astro.artifacts.local.dir:data/kundli-charts}")
+    private String directory;
+
+    @Value("${astro.artifacts.local.max-size-mb:512}")
+    private long maxSizeMb;
+
+    @Value("${astro.artifacts.local.max-age-days:30}")
+    private long maxAgeDays;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        log.info("Chart artifact store at {} (max {} MB, {} days)", root, maxSizeMb, maxAgeDays);
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void putIfAbsent(String key, ContentWriter content) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            touch(target);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                content.writeTo(writer);
+            }
+            // Concurrent writers of the same key produce identical bytes, so last move wins safely
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource get(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+
+    /**
+     * Drop expired artifacts, then the oldest ones until the store fits its size budget.
+     */
+    @Scheduled(fixedDelayString = "${astro.artifacts.local.eviction-interval-ms:600000}",
+            initialDelayString = "${astro.artifacts.local.eviction-interval-ms:600000}")
+    public void evict() {
+        try {
+            Instant cutoff = Instant.now().minus(Duration.ofDays(maxAgeDays));
+            List<Entry> entries = new ArrayList<>();
+            long totalBytes = 0;
+            int expired = 0;
+
+            try (Stream<Path> files = Files.walk(root, 2)) {
+                for (Path path : (Iterable<Path>) files.filter(p -> p.toString().endsWith(SUFFIX))::iterator) {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attrs.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(path);
+                        expired++;
+                    } else {
+                        entries.add(new Entry(path, attrs.lastModifiedTime(), attrs.size()));
+                        totalBytes += attrs.size();
+                    }
+                }
+            }
+
+            long maxBytes = maxSizeMb * 1024 * 1024;
+            int trimmed = 0;
+            if (totalBytes > maxBytes) {
+                // Trim to 90% so eviction does not run on every pass
+                long targetBytes = maxBytes / 10 * 9;
+                entries.sort(Comparator.comparing(Entry::modified));
+                for (Entry entry : entries) {
+                    if (totalBytes <= targetBytes) {
+                        break;
+                    }
+                    Files.deleteIfExists(entry.path());
+                    totalBytes -= entry.size();
+                    trimmed++;
+                }
+            }
+
+            if (expired > 0 || trimmed > 0) {
+                log.info("Chart artifact eviction removed {} expired and {} over-budget files ({} MB kept)",
+                        expired, trimmed, totalBytes / (1024 * 1024));
+            }
+        } catch (IOException e) {
+            log.error("Failed to evict chart artifacts: {}", e.getMessage());
+        }
+    }
+
+    private Path resolve(String key) {
+        if (key == null || key.length() < 3 || !key.chars().allMatch(Character::isLetterOrDigit)) {
+            throw new IllegalArgumentException("Invalid artifact key");
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    /**
+     * Reuse counts as recent use for size-based eviction.
+     */
+    private void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            log.warn("Failed to touch chart artifact {}: {}", path.getFileName(), e.getMessage());
+        }
+    }
+
+    private record Entry(Path path, FileTime modified, long size) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.astro.backend.Services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bindus against a plain count over the benefic houses, and the fixed Ashtakavarga totals.
+ */
+class AshtakavargaEngineTest {
+
+    // Bhinnashtakavarga totals of Sun .. Saturn, whatever the chart
+    private static final int[] TOTALS = {48, 49, 39, 54, 56, 52, 39};
+    private static final int SARVA_TOTAL = 337;
+
+    // Sun Aries, Moon Cancer, Mars Libra, Mercury Taurus, Jupiter Leo, Venus Gemini, Saturn Sagittarius
+    private static final double[] LONGITUDES = {10, 100, 190, 40, 130, 70, 250};
+    private static final double ASCENDANT = 5;
+
+    @Test
+    void everyGrahaHasItsFixedTotalAndTheSarvaAddsUpTo337() {
+        Random random = new Random(3);
+        for (int chart = 0; chart < 2000; chart++) {
+            AshtakavargaEngine.Ashtakavarga ashtakavarga = AshtakavargaEngine.compute(randomSigns(random));
+            for (int p = 0; p < TOTALS.length; p++) {
+                int total = 0;
+                for (int sign = 0; sign < 12; sign++) {
+                    total += ashtakavarga.bindus(p, sign);
+                }
+                assertEquals(TOTALS[p], total, AshtakavargaEngine.PLANETS[p]);
+            }
+            int sarva = 0;
+            for (int sign = 0; sign < 12; sign++) {
+                sarva += ashtakavarga.sarva(sign);
+            }
+            assertEquals(SARVA_TOTAL, sarva);
+        }
+    }
+
+    @Test
+    void bindusMatchAPlainCountOfTheBeneficHouses() {
+        int[][][] benefic = (int[][][]) ReflectionTestUtils.getField(AshtakavargaEngine.class, "BENEFIC_HOUSES");
+        Random random = new Random(11);
+        for (int chart = 0; chart < 2000; chart++) {
+            int[] signs = randomSigns(random);
+            AshtakavargaEngine.Ashtakavarga ashtakavarga = AshtakavargaEngine.compute(signs);
+            for (int sign = 0; sign < 12; sign++) {
+                int sarva = 0;
+                for (int p = 0; p < AshtakavargaEngine.PLANETS.length; p++) {
+                    int bindus = 0;
+                    int contributors = 0;
+                    for (int c = 0; c < AshtakavargaEngine.CONTRIBUTORS.length; c++) {
+                        for (int house : benefic[p][c]) {
+                            if ((signs[c] + house - 1) % 12 == sign) {
+                                bindus++;
+                                contributors |= 1 << c;
+                            }
+                        }
+                    }
+                    assertEquals(bindus, ashtakavarga.bindus(p, sign));
+                    assertEquals(contributors, ashtakavarga.contributors(p, sign));
+                    sarva += bindus;
+                }
+                assertEquals(sarva, ashtakavarga.sarva(sign));
+            }
+        }
+    }
+
+    @Test
+    void referenceChartSunBindusInAries() {
+        AshtakavargaEngine.Ashtakavarga ashtakavarga = AshtakavargaEngine.compute(LONGITUDES, ASCENDANT);
+        // Aries is the 1st from the Sun, 10th from the Moon, 7th from Mars, 12th from Mercury and 9th
+        // from Jupiter (all benefic), 11th from Venus, 5th from Saturn and 1st from the lagna (not)
+        assertEquals(5, ashtakavarga.bindus(0, 0));
+        assertEquals(0b11111, ashtakavarga.contributors(0, 0));
+    }
+
+    @Test
+    void longitudesAndSignsGiveTheSameChart() {
+        AshtakavargaEngine.Ashtakavarga byLongitude = AshtakavargaEngine.compute(LONGITUDES, ASCENDANT + 720);
+        AshtakavargaEngine.Ashtakavarga bySign = AshtakavargaEngine.compute(new int[]{0, 3, 6, 1, 4, 2, 8, 0});
+        assertEquals(bySign.toMap(), byLongitude.toMap());
+    }
+
+    @Test
+    void transitScoreAddsTheBindusOfEachGrahaInItsTransitSign() {
+        AshtakavargaEngine.Ashtakavarga ashtakavarga = AshtakavargaEngine.compute(LONGITUDES, ASCENDANT);
+        int[] transits = {11, 3, 3, 10, 2, 0, 10};
+        int expected = 0;
+        for (int p = 0; p < transits.length; p++) {
+            expected += ashtakavarga.bindus(p, transits[p]);
+        }
+        assertEquals(expected, ashtakavarga.transitScore(transits));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sectionReportsTheTotals() {
+        Map<String, Object> section = AshtakavargaEngine.compute(LONGITUDES, ASCENDANT).toMap();
+        Map<String, Integer> totals = (Map<String, Integer>) section.get("totals");
+        for (int p = 0; p < TOTALS.length; p++) {
+            assertEquals(TOTALS[p], (int) totals.get(AshtakavargaEngine.PLANETS[p]));
+        }
+        assertEquals(SARVA_TOTAL, (int) totals.get("Sarvashtakavarga"));
+        assertEquals(12, ((Map<String, Integer>) section.get("sarvashtakavarga")).size());
+    }
+
+    private static int[] randomSigns(Random random) {
+        int[] signs = new int[AshtakavargaEngine.CONTRIBUTORS.length];
+        for (int c = 0; c < signs.length; c++) {
+            signs[c] = random.nextInt(12);
+        }
+        return signs;
+    }
+}
@@ -0,0 +1,146 @@
+package com.astro.backend.Services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The precomputed koota tables against the per-guna rules of calculateGunMilan, and bulk
+ * matching against a plain sort.
+ */
+class CompatibilityMatchingServiceTest {
+
+    // Unknown names score as index 0
+    private static final String[] SIGNS = {
+            "Aries", "Taurus", "Gemini", "Cancer", "Leo", "Virgo",
+            "Libra", "Scorpio", "Sagittarius", "Capricorn", "Aquarius", "Pisces", "Unknown"
+    };
+
+    private static final String[] NAKSHATRAS = {
+            "Ashwini", "Bharani", "Krittika", "Rohini", "Mrigashirsha", "Ardra", "Punarvasu",
+            "Pushya", "Ashlesha", "Magha", "Purva Phalguni", "Uttara Phalguni", "Hasta",
+            "Chitra", "Swati", "Vishakha", "Anuradha", "Jyeshtha", "Mula", "Purva Ashadha",
+            "Uttara Ashadha", "Shravana", "Dhanishta", "Shatabhisha", "Purva Bhadrapada",
+            "Uttara Bhadrapada", "Revati", "Unknown"
+    };
+
+    private CompatibilityMatchingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CompatibilityMatchingService();
+        ReflectionTestUtils.setField(service, "maxBulkCandidates", 50000);
+        ReflectionTestUtils.setField(service, "maxTopK", 500);
+    }
+
+    @Test
+    void tablesMatchTheGunaRulesForEverySignAndNakshatraPair() {
+        int pairs = 0;
+        for (int gs = 0; gs < SIGNS.length; gs++) {
+            for (int gn = 0; gn < NAKSHATRAS.length; gn++) {
+                boolean groomMangal = (gs + gn) % 3 == 0;
+                var groomGunas = service.buildGunasFromChart(SIGNS[gs], NAKSHATRAS[gn], groomMangal);
+                for (int bs = 0; bs < SIGNS.length; bs++) {
+                    for (int bn = 0; bn < NAKSHATRAS.length; bn++) {
+                        boolean brideMangal = (bs * bn) % 5 == 1;
+                        var expected = service.calculateGunMilan(groomGunas,
+                                service.buildGunasFromChart(SIGNS[bs], NAKSHATRAS[bn], brideMangal));
+                        var actual = service.calculateGunMilan(SIGNS[gs], NAKSHATRAS[gn], groomMangal,
+                                SIGNS[bs], NAKSHATRAS[bn], brideMangal);
+                        String pair = SIGNS[gs] + "/" + NAKSHATRAS[gn] + " x " + SIGNS[bs] + "/" + NAKSHATRAS[bn];
+                        assertEquals(expected.totalPoints, actual.totalPoints, pair);
+                        assertEquals(expected.categoryMatches, actual.categoryMatches, pair);
+                        assertEquals(expected.nadiDosha, actual.nadiDosha, pair);
+                        assertEquals(expected.bhakootDosha, actual.bhakootDosha, pair);
+                        assertEquals(expected.mangalDosha, actual.mangalDosha, pair);
+                        assertEquals(expected.prediction, actual.prediction, pair);
+                        pairs++;
+                    }
+                }
+            }
+        }
+        assertEquals(SIGNS.length * NAKSHATRAS.length * SIGNS.length * NAKSHATRAS.length, pairs);
+    }
+
+    @Test
+    void sameMoonSignAndNakshatraScoresTwentyFiveWithNadiDosha() {
+        var result = service.calculateGunMilan("Aries", "Ashwini", false, "Aries", "Ashwini", false);
+        // Varna 1, Vasya 2, Tara 0, Yoni 4, Graha Maitri 5, Gana 6, Bhakoot 7, Nadi 0
+        assertEquals(25, result.totalPoints);
+        assertEquals(36, result.outOf);
+        assertEquals(0, (int) result.categoryMatches.get("Nadi (Health Compatibility)"));
+        assertEquals(7, (int) result.categoryMatches.get("Bhakoot (Health/Wealth)"));
+        assertTrue(result.nadiDosha);
+        assertFalse(result.bhakootDosha);
+        assertFalse(result.mangalDosha);
+    }
+
+    @Test
+    void encodedChartsPackSignNakshatraAndMangal() {
+        assertEquals(0, CompatibilityMatchingService.encodeChart(null, null, false));
+        assertEquals(12 | (27 << 4) | (1 << 9), CompatibilityMatchingService.encodeChart("Pisces", "Revati", true));
+        assertEquals(1 | (1 << 4), CompatibilityMatchingService.encodeChart("Aries", "Ashwini", false));
+    }
+
+    @Test
+    void paddedMoonSignsScoreLikeTrimmedOnes() {
+        for (String sign : SIGNS) {
+            assertEquals(service.buildGunasFromChart(sign, "Magha", false),
+                    service.buildGunasFromChart("  " + sign + " ", " Magha ", false), sign);
+            assertEquals(CompatibilityMatchingService.encodeChart(sign, "Magha", false),
+                    CompatibilityMatchingService.encodeChart(" " + sign + "\t", "Magha ", false), sign);
+            var padded = service.calculateGunMilan(" " + sign, "Rohini", false, "Leo ", "Magha", true);
+            var trimmed = service.calculateGunMilan(sign, "Rohini", false, "Leo", "Magha", true);
+            assertEquals(trimmed.totalPoints, padded.totalPoints, sign);
+            assertEquals(trimmed.categoryMatches, padded.categoryMatches, sign);
+        }
+        assertEquals(service.buildGunasFromChart(null, null, false), service.buildGunasFromChart(" ", "", false));
+    }
+
+    @Test
+    void bulkMatchesAreTheTopKOfAFullSortWithTiesInRequestOrder() {
+        Random random = new Random(17);
+        int chart = CompatibilityMatchingService.encodeChart("Leo", "Magha", false);
+        var chartGunas = service.buildGunasFromChart("Leo", "Magha", false);
+        // Sizes on both sides of the parallel threshold
+        for (int size : new int[]{10, 500, 5000}) {
+            int[] candidates = new int[size];
+            int[] points = new int[size];
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                String sign = SIGNS[random.nextInt(12)];
+                String nakshatra = NAKSHATRAS[random.nextInt(27)];
+                boolean mangal = random.nextBoolean();
+                candidates[i] = CompatibilityMatchingService.encodeChart(sign, nakshatra, mangal);
+                points[i] = service.calculateGunMilan(chartGunas,
+                        service.buildGunasFromChart(sign, nakshatra, mangal)).totalPoints;
+                expected.add(i);
+            }
+            int topK = Math.min(50, size);
+            expected.sort(Comparator.<Integer>comparingInt(i -> -points[i]).thenComparingInt(i -> i));
+
+            var top = service.findTopMatches(chart, candidates, topK);
+            assertEquals(topK, top.size());
+            for (int i = 0; i < topK; i++) {
+                assertEquals((int) expected.get(i), top.get(i).index(), "rank " + i + " of " + size);
+            }
+        }
+    }
+
+    @Test
+    void bulkMatchLimitsAreEnforced() {
+        assertThrows(IllegalArgumentException.class, () -> service.findTopMatches(0, new int[50001], 10));
+        assertThrows(IllegalArgumentException.class, () -> service.findTopMatches(0, new int[10], 0));
+        assertThrows(IllegalArgumentException.class, () -> service.findTopMatches(0, new int[10], 501));
+    }
+}
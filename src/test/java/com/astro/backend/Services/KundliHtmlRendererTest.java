@@ -0,0 +1,85 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.ResponseDTO.PlanetaryChart;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * The renderer's report and sections, byte for byte, against golden HTML written by the generator
+ * it replaced (src/test/resources/kundli, one chart per seed of {@link #randomChart}).
+ */
+class KundliHtmlRendererTest {
+
+    private static final String[] NAMES = {
+            "Sun", "Moon", "Mars", "Mercury", "Jupiter", "Venus", "Saturn", "Rahu", "Ketu", "Uranus", "Neptune", "Pluto"
+    };
+    private static final String[] SECTIONS = {
+            "kundliChart", "navamshaChart", "transitChart", "planetaryPositions", "astrologicalData"
+    };
+
+    private final KundliHtmlRenderer renderer = new KundliHtmlRenderer();
+
+    @Test
+    void reportIsIdenticalToTheGoldenHtml() throws IOException {
+        for (int seed = 1; seed <= 3; seed++) {
+            PlanetaryChart chart = randomChart(new Random(seed));
+            String expected = golden("chart-" + seed + ".html");
+            assertEquals(expected, renderer.renderReport(chart), "chart " + seed);
+
+            StringWriter writer = new StringWriter();
+            renderer.writeReport(chart, writer);
+            assertEquals(expected, writer.toString(), "chart " + seed);
+        }
+    }
+
+    @Test
+    void sectionsAreIdenticalToTheGoldenHtml() throws IOException {
+        Map<String, String> sections = renderer.renderSections(randomChart(new Random(1)));
+        assertEquals(SECTIONS.length, sections.size());
+        for (String section : SECTIONS) {
+            assertEquals(golden("chart-1-sections/" + section + ".html"), sections.get(section), section);
+        }
+    }
+
+    @Test
+    void artifactKeyFollowsTheRenderedReport() {
+        Random random = new Random(3);
+        PlanetaryChart chart = randomChart(random);
+        assertEquals(renderer.artifactKey(chart), renderer.artifactKey(chart));
+        assertNotEquals(renderer.artifactKey(chart), renderer.artifactKey(randomChart(random)));
+    }
+
+    private static String golden(String name) throws IOException {
+        try (InputStream in = KundliHtmlRendererTest.class.getResourceAsStream("/kundli/" + name)) {
+            assertNotNull(in, name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static PlanetaryChart randomChart(Random random) {
+        double ascendant = random.nextDouble() * 360;
+        PlanetaryChart.Graha[] natal = new PlanetaryChart.Graha[NAMES.length];
+        PlanetaryChart.Graha[] transit = new PlanetaryChart.Graha[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            double longitude = random.nextDouble() * 360;
+            natal[i] = new PlanetaryChart.Graha(NAMES[i], longitude, random.nextGaussian(), (int) (longitude / 30) + 1,
+                    longitude % 30, random.nextBoolean(), random.nextInt(12) + 1, random.nextInt(12) + 1,
+                    random.nextInt(30), random.nextInt(12) + 1);
+            double transitLongitude = random.nextDouble() * 360;
+            transit[i] = new PlanetaryChart.Graha(NAMES[i], transitLongitude, 0, (int) (transitLongitude / 30) + 1,
+                    transitLongitude % 30, false, random.nextInt(12) + 1, 0, 0, 0);
+        }
+        return new PlanetaryChart(ascendant, (int) (ascendant / 30) + 1, random.nextInt(12) + 1, random.nextInt(30),
+                23.8 + random.nextDouble(), "lahiri", "topocentric", natal, transit);
+    }
+}
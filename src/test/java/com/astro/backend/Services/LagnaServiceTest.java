@@ -0,0 +1,134 @@
+package com.astro.backend.Services;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import swisseph.SweConst;
+import swisseph.SweDate;
+import swisseph.SwissEph;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lagna boundaries from the mean sidereal time ascendant against the sidereal ascendant of
+ * swe_houses, with the Lahiri ayanamsa on both sides.
+ */
+class LagnaServiceTest {
+
+    private static final double SECOND = 1.0 / 86400;
+    private static final double DELHI_LAT = 28.6139, DELHI_LON = 77.2090;
+    private static final ZoneId KOLKATA = ZoneId.of("Asia/Kolkata");
+
+    private static SwissEph swe;
+    private static LagnaService lagnaService;
+
+    @BeforeAll
+    static void setUp() {
+        swe = new SwissEph();
+        swe.swe_set_sid_mode(SweConst.SE_SIDM_LAHIRI, 0, 0);
+        lagnaService = new LagnaService(new LahiriInterpolator());
+        ReflectionTestUtils.setField(lagnaService, "gridDegrees", 0.05);
+        ReflectionTestUtils.setField(lagnaService, "maxEntries", 100);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        swe.swe_close();
+    }
+
+    @Test
+    void boundariesAgreeWithSweHousesToUnderASecond() {
+        double start = new SweDate(2026, 1, 1, 0).getJulDay();
+        // Delhi through the year, and the far north and south of India
+        for (int day = 0; day < 365; day += 7) {
+            assertBoundariesAgree(DELHI_LAT, DELHI_LON, start + day);
+        }
+        assertBoundariesAgree(34.08, 74.80, start + 100);
+        assertBoundariesAgree(8.50, 76.90, start + 200);
+        assertBoundariesAgree(DELHI_LAT, DELHI_LON, new SweDate(2000, 6, 21, 0).getJulDay());
+        assertBoundariesAgree(DELHI_LAT, DELHI_LON, new SweDate(2045, 12, 21, 0).getJulDay());
+    }
+
+    @Test
+    void dayTableCoversTheLocalDayWithConsecutiveSigns() {
+        LagnaService.LagnaTable table = lagnaService.getDayTable(DELHI_LAT, DELHI_LON, LocalDate.of(2026, 10, 18), KOLKATA);
+        assertEquals(Instant.parse("2026-10-17T18:30:00Z"), table.periods().get(0).start());
+        assertEquals(Instant.parse("2026-10-18T18:30:00Z"), table.last().end());
+        // Every sign rises once a day, the first and last may be the same sign cut at midnight
+        assertTrue(table.periods().size() == 12 || table.periods().size() == 13);
+        for (int i = 1; i < table.periods().size(); i++) {
+            LagnaService.Period previous = table.periods().get(i - 1);
+            LagnaService.Period period = table.periods().get(i);
+            assertEquals(previous.endJd(), period.startJd());
+            assertEquals((previous.sign() + 1) % 12, period.sign());
+        }
+        assertEquals(table, lagnaService.getDayTable(DELHI_LAT + 0.01, DELHI_LON, LocalDate.of(2026, 10, 18), KOLKATA));
+    }
+
+    @Test
+    void currentLagnaReportsTheNextChange() {
+        Instant now = Instant.parse("2026-10-18T06:00:00Z");
+        LagnaService.CurrentLagna current = lagnaService.getCurrent(DELHI_LAT, DELHI_LON, now, KOLKATA);
+        double julDay = TransitSnapshotService.toJulDayUt(now);
+        double lat = lagnaService.snapToGrid(DELHI_LAT), lon = lagnaService.snapToGrid(DELHI_LON);
+        assertEquals(siderealSign(julDay, lat, lon), current.sign());
+        assertEquals((current.sign() + 1) % 12, current.nextSign());
+        assertTrue(!current.since().isAfter(now) && current.nextChange().isAfter(now));
+        assertEquals(current.nextSign(), siderealSign(TransitSnapshotService.toJulDayUt(current.nextChange()) + 2 * SECOND, lat, lon));
+    }
+
+    /**
+     * Every boundary of a day at the location is within a second of the swe_houses boundary.
+     */
+    private static void assertBoundariesAgree(double lat, double lon, double startJd) {
+        LagnaService.LagnaTable table = lagnaService.compute(lat, lon, startJd, startJd + 1);
+        for (LagnaService.Period period : table.periods()) {
+            assertEquals(siderealSign(period.startJd() + SECOND, lat, lon), period.sign());
+            if (period.startJd() == table.startJd()) {
+                continue;
+            }
+            // Bisect the swe_houses sign change near the boundary to a millisecond
+            double lo = period.startJd() - 5 * SECOND;
+            double hi = period.startJd() + 5 * SECOND;
+            int before = siderealSign(lo, lat, lon);
+            assertEquals((period.sign() + 11) % 12, before);
+            while (hi - lo > SECOND / 1000) {
+                double mid = (lo + hi) / 2;
+                if (siderealSign(mid, lat, lon) == before) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+            assertEquals(hi, period.startJd(), SECOND, "boundary at " + period.start() + " for " + lat + ", " + lon);
+        }
+    }
+
+    private static int siderealSign(double julDay, double lat, double lon) {
+        double[] cusps = new double[13];
+        double[] ascmc = new double[10];
+        swe.swe_houses(julDay, SweConst.SEFLG_SIDEREAL, lat, lon, 'P', cusps, ascmc);
+        return (int) (ascmc[0] / 30) % 12;
+    }
+
+    /**
+     * The ayanamsa the interpolation tables fall back to, straight from Swiss Ephemeris.
+     */
+    private static final class LahiriInterpolator extends EphemerisInterpolator {
+
+        LahiriInterpolator() {
+            super(null);
+        }
+
+        @Override
+        public double ayanamsa(double julDay) {
+            return swe.swe_get_ayanamsa(julDay);
+        }
+    }
+}
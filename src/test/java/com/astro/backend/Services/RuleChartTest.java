@@ -0,0 +1,129 @@
+package com.astro.backend.Services;
+
+import org.junit.jupiter.api.Test;
+
+import static com.astro.backend.Services.RuleChart.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chart facts of one reference chart, dignities and Kaal Sarp.
+ */
+class RuleChartTest {
+
+    // Lagna Aries 5°. Sun Aries, Moon Cancer (Pushya), Mars Libra, Mercury Taurus, Jupiter Leo,
+    // Venus Gemini, Saturn Sagittarius, Rahu Aquarius, Ketu Leo
+    private static final double[] NATAL = {10, 100, 190, 40, 130, 70, 250, 300, 120};
+    private static final double ASCENDANT = 5;
+
+    // Sun in Pisces, Saturn in Cancer, the rest where they were at birth
+    private static final double[] TRANSITS = {340, 100, 190, 40, 130, 70, 95, 300, 120};
+
+    private static final RuleChart CHART = RuleChart.of(NATAL, ASCENDANT, TRANSITS, SATURN, MERCURY);
+
+    @Test
+    void grahasArePlacedInWholeSignHousesFromTheLagna() {
+        int[] houses = {1, 4, 7, 2, 5, 3, 9, 11, 5};
+        for (int g = 0; g < GRAHAS.length; g++) {
+            assertEquals(houses[g], CHART.house(g), GRAHAS[g]);
+            assertTrue(CHART.has(PLANET_HOUSE + g * 12 + houses[g] - 1), GRAHAS[g]);
+            assertTrue(CHART.has(PLANET_SIGN + g * 12 + (int) (NATAL[g] / 30)), GRAHAS[g]);
+        }
+        assertEquals(0, CHART.lagnaSign());
+        assertFalse(CHART.has(PLANET_HOUSE + SUN * 12 + 1));
+    }
+
+    @Test
+    void nakshatrasAreThirteenDegreesTwentyMinutesEach() {
+        assertTrue(CHART.has(PLANET_NAKSHATRA + SUN * 27));                 // Ashwini
+        assertTrue(CHART.has(PLANET_NAKSHATRA + MOON * 27 + 7));            // Pushya
+        assertTrue(CHART.has(PLANET_NAKSHATRA + SATURN * 27 + 18));         // Mula
+        assertEquals("Pushya", NAKSHATRAS[7]);
+    }
+
+    @Test
+    void houseLordsAreFollowedToTheirHouseAndSign() {
+        // 1st lord Mars in the 7th (Libra), 4th lord Moon in the 4th, 10th lord Saturn in the 9th
+        assertTrue(CHART.has(LORD_HOUSE + 0 * 12 + 6));
+        assertTrue(CHART.has(LORD_SIGN + 0 * 12 + 6));
+        assertTrue(CHART.has(LORD_HOUSE + 3 * 12 + 3));
+        assertTrue(CHART.has(LORD_HOUSE + 9 * 12 + 8));
+        assertTrue(CHART.has(LORD_SIGN + 9 * 12 + 8));
+    }
+
+    @Test
+    void dignitiesFollowExaltationOwnSignAndFriendship() {
+        assertTrue(CHART.has(PLANET_STATE + SUN * 6 + EXALTED));
+        assertTrue(CHART.has(PLANET_STATE + MOON * 6 + OWN_SIGN));
+        assertTrue(CHART.has(PLANET_STATE + RAHU * 6 + OWN_SIGN));
+        assertTrue(CHART.has(PLANET_STATE + JUPITER * 6 + FRIENDLY));
+        assertEquals(DEBILITATED, RuleChart.state(SATURN, 0));
+        assertEquals(DEBILITATED, RuleChart.state(MOON, 7));
+        assertEquals(EXALTED, RuleChart.state(JUPITER, 3));
+        assertEquals(OWN_SIGN, RuleChart.state(VENUS, 6));
+        assertEquals(ENEMY, RuleChart.state(VENUS, 4));
+        assertEquals(NEUTRAL, RuleChart.state(MARS, 6));
+        assertEquals(NEUTRAL, RuleChart.state(SATURN, 8));
+    }
+
+    @Test
+    void conjunctionsAndPlacementsFromTheMoonUseSigns() {
+        assertTrue(CHART.has(CONJUNCT + JUPITER * GRAHAS.length + KETU));
+        assertTrue(CHART.has(CONJUNCT + KETU * GRAHAS.length + JUPITER));
+        assertFalse(CHART.has(CONJUNCT + JUPITER * GRAHAS.length + JUPITER));
+        assertFalse(CHART.has(CONJUNCT + SUN * GRAHAS.length + MERCURY));
+        assertTrue(CHART.has(FROM_MOON + MOON * 12));
+        assertTrue(CHART.has(FROM_MOON + MARS * 12 + 3));
+        assertTrue(CHART.has(FROM_MOON + JUPITER * 12 + 1));
+    }
+
+    @Test
+    void transitsAreCountedFromTheLagnaAndFromTheMoon() {
+        assertTrue(CHART.has(TRANSIT_ASC + SUN * 12 + 11));
+        assertTrue(CHART.has(TRANSIT_MOON + SUN * 12 + 8));
+        assertTrue(CHART.has(TRANSIT_ASC + SATURN * 12 + 3));
+        assertTrue(CHART.has(TRANSIT_MOON + SATURN * 12));
+
+        RuleChart natalOnly = RuleChart.of(NATAL, ASCENDANT, null, -1, -1);
+        for (int fact = TRANSIT_ASC; fact < CONJUNCT; fact++) {
+            assertFalse(natalOnly.has(fact));
+        }
+        for (int fact = DASHA; fact < TRANSIT_ASC; fact++) {
+            assertFalse(natalOnly.has(fact));
+        }
+    }
+
+    @Test
+    void runningDashaLordsActivateTheHousesTheyRuleOrOccupy() {
+        assertTrue(CHART.has(DASHA + SATURN * GRAHAS.length + MERCURY));
+        assertFalse(CHART.has(DASHA + MERCURY * GRAHAS.length + SATURN));
+        // Saturn rules the 10th and 11th and sits in the 9th; Mercury rules the 3rd and 6th and sits in the 2nd
+        boolean[] active = new boolean[12];
+        for (int house : new int[]{1, 2, 5, 8, 9, 10}) {
+            active[house] = true;
+        }
+        for (int house = 0; house < 12; house++) {
+            assertEquals(active[house], CHART.has(DASHA_HOUSE + house), "house " + (house + 1));
+        }
+    }
+
+    @Test
+    void kaalSarpNeedsTheSevenGrahasOnOneSideOfTheNodes() {
+        assertFalse(CHART.has(KAAL_SARP));
+        double[] hemmed = {10, 30, 50, 70, 90, 110, 130, 0, 180};
+        assertTrue(RuleChart.of(hemmed, 200, null, -1, -1).has(KAAL_SARP));
+        double[] otherSide = {190, 210, 230, 250, 270, 290, 310, 0, 180};
+        assertTrue(RuleChart.of(otherSide, 200, null, -1, -1).has(KAAL_SARP));
+        double[] oneOut = {10, 30, 50, 70, 90, 110, 200, 0, 180};
+        assertFalse(RuleChart.of(oneOut, 200, null, -1, -1).has(KAAL_SARP));
+    }
+
+    @Test
+    void grahaNamesAreMatchedInAnyCase() {
+        assertEquals(JUPITER, RuleChart.graha(" jupiter "));
+        assertEquals(KETU, RuleChart.graha("KETU"));
+        assertEquals(-1, RuleChart.graha("Pluto"));
+        assertEquals(-1, RuleChart.graha(null));
+    }
+}
@@ -0,0 +1,152 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.Entity.DistrictMaster;
+import com.astro.backend.Repositry.DistrictMasterRepository;
+import com.astro.backend.Repositry.MobileUserProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Snapping to district centres and grid cells, and the rise/set part cached per place and day
+ * while the panchang itself is computed per request.
+ */
+class TodayCacheServiceTest {
+
+    private static final ZoneId KOLKATA = ZoneId.of("Asia/Kolkata");
+
+    private AdvancedKundliService advancedKundliService;
+    private CountingRiseSet riseSetService;
+    private TodayCacheService service;
+    private int panchangs;
+
+    @BeforeEach
+    void setUp() {
+        advancedKundliService = mock(AdvancedKundliService.class);
+        riseSetService = new CountingRiseSet();
+        DistrictMasterRepository districts = mock(DistrictMasterRepository.class);
+        when(districts.findByIsActiveOrderByName(true)).thenReturn(List.of(
+                district(1L, "New Delhi", 28.6139, 77.2090),
+                district(2L, "Gurugram", 28.4595, 77.0266),
+                district(3L, "Unmapped", 0.0, 0.0)));
+
+        service = new TodayCacheService(advancedKundliService, null, riseSetService, districts,
+                mock(MobileUserProfileRepository.class));
+        ReflectionTestUtils.setField(service, "timezone", "Asia/Kolkata");
+        ReflectionTestUtils.setField(service, "gridDegrees", 0.1);
+        ReflectionTestUtils.setField(service, "districtRadiusKm", 25.0);
+        service.init();
+    }
+
+    @Test
+    void nearestDistrictWithinTheRadiusIsTheComputedForPoint() {
+        // About 6 km from the New Delhi centre and 30 km from Gurugram
+        stubPanchang(28.6139, 77.2090);
+        Map<String, Object> panchang = service.getTodayPanchang(28.65, 77.25);
+
+        assertEquals(Map.of("latitude", 28.6139, "longitude", 77.2090, "district", "New Delhi"),
+                panchang.get("computedFor"));
+        assertFalse(panchang.containsKey("latitude"));
+        assertFalse(panchang.containsKey("longitude"));
+        assertEquals("Dwitiya", panchang.get("tithi"));
+        assertEquals("06:12", panchang.get("sunrise"));
+        assertEquals(1L, service.getMetrics().get("districtSnaps"));
+    }
+
+    @Test
+    void outsideEveryRadiusTheGridCellCentreIsUsed() {
+        // Lucknow, hundreds of km from both districts; the (0, 0) district is ignored
+        stubPanchang(26.8, 80.9);
+        Map<String, Object> panchang = service.getTodayPanchang(26.8467, 80.9462);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> computedFor = (Map<String, Object>) panchang.get("computedFor");
+        assertEquals(26.8, (double) computedFor.get("latitude"), 1e-9);
+        assertEquals(80.9, (double) computedFor.get("longitude"), 1e-9);
+        assertNull(computedFor.get("district"));
+        assertEquals(1L, service.getMetrics().get("gridSnaps"));
+        assertEquals(2, service.getMetrics().get("districts"));
+    }
+
+    @Test
+    void riseSetIsComputedOncePerPlaceAndDay() {
+        stubPanchang(28.6139, 77.2090);
+        stubPanchang(28.4595, 77.0266);
+        service.getTodayPanchang(28.65, 77.25);
+        service.getTodayPanchang(28.60, 77.20);
+        service.getTodayPanchang(28.45, 77.03);
+
+        // Two places, each computed at its snapped point for today's local date
+        assertEquals(2, riseSetService.computed);
+        assertEquals(List.of(28.6139, 28.4595), riseSetService.latitudes);
+        assertEquals(1L, service.getMetrics().get("hits"));
+        assertEquals(2L, service.getMetrics().get("misses"));
+        assertEquals(3, panchangs);
+    }
+
+    @Test
+    void entriesOfPastDaysAreEvicted() {
+        stubPanchang(28.6139, 77.2090);
+        service.getTodayPanchang(28.65, 77.25);
+        LocalDate today = LocalDate.now(KOLKATA);
+
+        service.evictBefore(today);
+        assertEquals(1, service.getMetrics().get("size"));
+
+        service.evictBefore(today.plusDays(1));
+        assertEquals(0, service.getMetrics().get("size"));
+        service.getTodayPanchang(28.65, 77.25);
+        assertEquals(2, riseSetService.computed);
+    }
+
+    private void stubPanchang(double lat, double lon) {
+        Map<String, Object> panchang = new LinkedHashMap<>();
+        panchang.put("tithi", "Dwitiya");
+        panchang.put("latitude", lat);
+        panchang.put("longitude", lon);
+        when(advancedKundliService.calculateTodayPanchang(lat, lon)).thenAnswer(invocation -> {
+            panchangs++;
+            return panchang;
+        });
+    }
+
+    private static DistrictMaster district(Long id, String name, double lat, double lon) {
+        return DistrictMaster.builder().id(id).name(name).latitude(lat).longitude(lon).isActive(true).build();
+    }
+
+    /**
+     * Fixed rise/set times that count the calculations.
+     */
+    private static final class CountingRiseSet extends RiseSetService {
+
+        private int computed;
+        private final List<Double> latitudes = new ArrayList<>();
+
+        CountingRiseSet() {
+            super(null);
+        }
+
+        @Override
+        public RiseSetTimes compute(double lat, double lon, LocalDate date, ZoneId zone) {
+            computed++;
+            latitudes.add(lat);
+            ZonedDateTime midnight = date.atStartOfDay(zone);
+            return new RiseSetTimes(midnight.plusHours(6).plusMinutes(12), midnight.plusHours(17).plusMinutes(48),
+                    null, midnight.plusHours(9));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.astro.backend.Services;
+
+import org.junit.jupiter.api.Test;
+import swisseph.SweConst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Limb boundaries found by the root finder against the limb angle itself, on a Sun and Moon
+ * moving like the real ones (mean motion plus the Moon's equation of centre).
+ */
+class TransitionEngineTest {
+
+    private static final double J2000 = 2451545.0;
+    private static final double SECOND = 1.0 / 86400;
+
+    private final TransitionEngine engine = new TransitionEngine(new ModelInterpolator(), null);
+
+    @Test
+    void everyBoundaryIsWithinASecondOfTheRoot() {
+        double start = J2000 + 100;
+        double end = start + 60;
+        TransitionEngine.Timeline timeline = engine.timeline(start, end);
+        for (TransitionEngine.Limb limb : TransitionEngine.Limb.values()) {
+            int boundaries = 0;
+            TransitionEngine.Span span = timeline.at(limb, start);
+            while (span.endJd() < end) {
+                TransitionEngine.Span next = timeline.at(limb, span.endJd());
+                assertEquals(span.endJd(), next.startJd(), limb.name());
+                assertEquals((span.index() + 1) % limb.count(), next.index(), limb.name());
+                // The limb index changes within a second of the boundary
+                assertEquals(span.index(), indexAt(limb, next.startJd() - SECOND), limb + " before " + next.startJd());
+                assertEquals(next.index(), indexAt(limb, next.startJd() + SECOND), limb + " after " + next.startJd());
+                span = next;
+                boundaries++;
+            }
+            assertTrue(boundaries > 50, limb + " boundaries " + boundaries);
+        }
+    }
+
+    @Test
+    void currentIsTheLimbInEffectAtTheInstant() {
+        for (double jd = J2000 + 1000; jd < J2000 + 1030; jd += 0.37) {
+            for (TransitionEngine.Limb limb : TransitionEngine.Limb.values()) {
+                TransitionEngine.Span span = engine.current(limb, jd);
+                assertEquals(indexAt(limb, jd), span.index(), limb + " at " + jd);
+                assertTrue(span.startJd() <= jd && jd < span.endJd());
+            }
+        }
+    }
+
+    @Test
+    void tithisLastBetweenTwentyAndTwentySevenHours() {
+        TransitionEngine.Timeline timeline = engine.timeline(J2000, J2000 + 90);
+        TransitionEngine.Span tithi = timeline.at(TransitionEngine.Limb.TITHI, J2000 + 1);
+        int count = 0;
+        while (tithi.endJd() < J2000 + 89) {
+            tithi = timeline.at(TransitionEngine.Limb.TITHI, tithi.endJd());
+            double hours = (tithi.endJd() - tithi.startJd()) * 24;
+            assertTrue(hours > 20 && hours < 27, "tithi " + tithi.index() + " lasted " + hours + " hours");
+            count++;
+        }
+        // 30 tithis per synodic month of 29.53 days
+        assertEquals(87 * 30 / 29.53, count, 2);
+    }
+
+    @Test
+    void lookupsOutsideTheTimelineAreRejected() {
+        TransitionEngine.Timeline timeline = engine.timeline(J2000, J2000 + 5);
+        assertTrue(timeline.covers(J2000 + 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> timeline.at(TransitionEngine.Limb.NAKSHATRA, J2000 + 30));
+    }
+
+    private static int indexAt(TransitionEngine.Limb limb, double jd) {
+        double sun = ModelInterpolator.sun(jd);
+        double moon = ModelInterpolator.moon(jd);
+        double ayanamsa = ModelInterpolator.ayanamsaAt(jd);
+        double angle = switch (limb) {
+            case TITHI, KARANA -> moon - sun;
+            case NAKSHATRA -> moon - ayanamsa;
+            case YOGA -> sun + moon - 2 * ayanamsa;
+        };
+        angle = ((angle % 360) + 360) % 360;
+        return (int) (angle / (360.0 / limb.count()));
+    }
+
+    /**
+     * Tropical Sun and Moon from their mean motions, the Moon with its largest periodic term, so
+     * the limb angles speed up and slow down as the real ones do.
+     */
+    private static final class ModelInterpolator extends EphemerisInterpolator {
+
+        ModelInterpolator() {
+            super(null);
+        }
+
+        static double sun(double jd) {
+            return normalize(280.46 + 0.9856474 * (jd - J2000));
+        }
+
+        static double moon(double jd) {
+            double d = jd - J2000;
+            return normalize(218.316 + 13.176396 * d + 6.289 * Math.sin(Math.toRadians(134.963 + 13.064993 * d)));
+        }
+
+        static double ayanamsaAt(double jd) {
+            return 23.853 + 1.397 * (jd - J2000) / 36525;
+        }
+
+        @Override
+        public double longitude(int body, double julDay) {
+            return body == SweConst.SE_SUN ? sun(julDay) : moon(julDay);
+        }
+
+        @Override
+        public void longitudes(int body, double startJd, double stepDays, double[] out) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = longitude(body, startJd + i * stepDays);
+            }
+        }
+
+        @Override
+        public double ayanamsa(double julDay) {
+            return ayanamsaAt(julDay);
+        }
+
+        private static double normalize(double longitude) {
+            return ((longitude % 360) + 360) % 360;
+        }
+    }
+}
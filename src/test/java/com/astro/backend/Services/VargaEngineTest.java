@@ -0,0 +1,179 @@
+package com.astro.backend.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Varga signs against the Parashari rules, one reference placement per rule and chart.
+ */
+class VargaEngineTest {
+
+    private static final int ARIES = 0, TAURUS = 1, GEMINI = 2, CANCER = 3, LEO = 4, VIRGO = 5,
+            LIBRA = 6, SCORPIO = 7, SAGITTARIUS = 8, CAPRICORN = 9, AQUARIUS = 10, PISCES = 11;
+
+    @Test
+    void rasiIsTheSignItself() {
+        for (int sign = 0; sign < 12; sign++) {
+            assertEquals(sign, VargaEngine.sign(1, sign * 30 + 17.5));
+        }
+    }
+
+    @Test
+    void horaIsSunThenMoonInOddSignsAndMoonThenSunInEven() {
+        assertEquals(LEO, VargaEngine.sign(2, 10));           // Aries, first half
+        assertEquals(CANCER, VargaEngine.sign(2, 20));        // Aries, second half
+        assertEquals(CANCER, VargaEngine.sign(2, 30 + 10));   // Taurus, first half
+        assertEquals(LEO, VargaEngine.sign(2, 30 + 20));      // Taurus, second half
+    }
+
+    @Test
+    void drekkanaIsTheSignThenItsFifthAndNinth() {
+        assertEquals(ARIES, VargaEngine.sign(3, 5));
+        assertEquals(LEO, VargaEngine.sign(3, 15));
+        assertEquals(SAGITTARIUS, VargaEngine.sign(3, 25));
+        assertEquals(TAURUS, VargaEngine.sign(3, 270 + 15));     // Capricorn, 2nd part
+    }
+
+    @Test
+    void chaturthamsaStepsThroughTheKendras() {
+        assertEquals(ARIES, VargaEngine.sign(4, 3));
+        assertEquals(CANCER, VargaEngine.sign(4, 10));
+        assertEquals(LIBRA, VargaEngine.sign(4, 20));
+        assertEquals(CAPRICORN, VargaEngine.sign(4, 25));
+    }
+
+    @Test
+    void saptamsaStartsFromTheSignInOddSignsAndTheSeventhInEven() {
+        assertEquals(ARIES, VargaEngine.sign(7, 1));
+        assertEquals(SCORPIO, VargaEngine.sign(7, 30 + 1));     // Taurus -> Scorpio
+        assertEquals(TAURUS, VargaEngine.sign(7, 30 + 29));     // Taurus, 7th part
+    }
+
+    @Test
+    void navamsaStartsFromTheMovableSignOfTheElement() {
+        assertEquals(ARIES, VargaEngine.sign(9, 1));            // fire from Aries
+        assertEquals(CAPRICORN, VargaEngine.sign(9, 30 + 1));   // earth from Capricorn
+        assertEquals(LIBRA, VargaEngine.sign(9, 60 + 1));       // air from Libra
+        assertEquals(CANCER, VargaEngine.sign(9, 90 + 1));      // water from Cancer
+        assertEquals(LEO, VargaEngine.sign(9, 120 + 15));       // Leo 15: vargottama
+        assertEquals(PISCES, VargaEngine.sign(9, 359.9));
+    }
+
+    @Test
+    void navamsaMatchesTheContinuousRuleItReplaced() {
+        for (double lon = 0; lon < 360; lon += 0.37) {
+            assertEquals((int) (lon * 9 / 30) % 12, VargaEngine.sign(9, lon), "longitude " + lon);
+        }
+    }
+
+    @Test
+    void dasamsaStartsFromTheNinthInEvenSigns() {
+        assertEquals(ARIES, VargaEngine.sign(10, 1));
+        assertEquals(CAPRICORN, VargaEngine.sign(10, 29));      // Aries, 10th part
+        assertEquals(CAPRICORN, VargaEngine.sign(10, 30 + 1));  // Taurus -> 9th from Taurus
+        assertEquals(LIBRA, VargaEngine.sign(10, 30 + 29));     // Taurus, 10th part
+    }
+
+    @Test
+    void dwadasamsaAndShashtiamsaCountFromTheSign() {
+        assertEquals(TAURUS, VargaEngine.sign(12, 3));
+        assertEquals(PISCES, VargaEngine.sign(12, 29));
+        assertEquals(TAURUS, VargaEngine.sign(60, 0.75));
+        assertEquals(GEMINI, VargaEngine.sign(60, 30 + 0.5));   // Taurus, 2nd part
+    }
+
+    @Test
+    void shodasamsaAndAkshavedamsaStartByModality() {
+        assertEquals(ARIES, VargaEngine.sign(16, 1));           // movable
+        assertEquals(LEO, VargaEngine.sign(16, 30 + 1));        // fixed
+        assertEquals(SAGITTARIUS, VargaEngine.sign(16, 60 + 1)); // dual
+        assertEquals(ARIES, VargaEngine.sign(45, 0.5));
+        assertEquals(LEO, VargaEngine.sign(45, 30 + 0.5));
+        assertEquals(SAGITTARIUS, VargaEngine.sign(45, 60 + 0.5));
+    }
+
+    @Test
+    void vimsamsaStartsByModality() {
+        assertEquals(ARIES, VargaEngine.sign(20, 1));
+        assertEquals(SAGITTARIUS, VargaEngine.sign(20, 30 + 1));
+        assertEquals(LEO, VargaEngine.sign(20, 60 + 1));
+    }
+
+    @Test
+    void chaturvimsamsaStartsFromLeoOrCancer() {
+        assertEquals(LEO, VargaEngine.sign(24, 1));
+        assertEquals(CANCER, VargaEngine.sign(24, 30 + 1));
+    }
+
+    @Test
+    void saptavimsamsaStartsFromTheMovableSignOfTheElement() {
+        assertEquals(ARIES, VargaEngine.sign(27, 0.5));
+        assertEquals(CANCER, VargaEngine.sign(27, 30 + 0.5));
+        assertEquals(LIBRA, VargaEngine.sign(27, 60 + 0.5));
+        assertEquals(CAPRICORN, VargaEngine.sign(27, 90 + 0.5));
+    }
+
+    @Test
+    void trimsamsaFollowsTheUnequalParts() {
+        // Odd sign: Mars 0-5, Saturn 5-10, Jupiter 10-18, Mercury 18-25, Venus 25-30
+        assertEquals(ARIES, VargaEngine.sign(30, 4.9));
+        assertEquals(AQUARIUS, VargaEngine.sign(30, 5));
+        assertEquals(SAGITTARIUS, VargaEngine.sign(30, 17.9));
+        assertEquals(GEMINI, VargaEngine.sign(30, 18));
+        assertEquals(LIBRA, VargaEngine.sign(30, 29.9));
+        // Even sign: Venus 0-5, Mercury 5-12, Jupiter 12-20, Saturn 20-25, Mars 25-30
+        assertEquals(TAURUS, VargaEngine.sign(30, 30 + 4.9));
+        assertEquals(VIRGO, VargaEngine.sign(30, 30 + 11.9));
+        assertEquals(PISCES, VargaEngine.sign(30, 30 + 12));
+        assertEquals(CAPRICORN, VargaEngine.sign(30, 30 + 24.9));
+        assertEquals(SCORPIO, VargaEngine.sign(30, 30 + 25));
+    }
+
+    @Test
+    void khavedamsaStartsFromAriesOrLibra() {
+        assertEquals(ARIES, VargaEngine.sign(40, 0.5));
+        assertEquals(LIBRA, VargaEngine.sign(40, 30 + 0.5));
+    }
+
+    @Test
+    void longitudesAreNormalised() {
+        assertEquals(ARIES, VargaEngine.sign(1, 360));
+        assertEquals(PISCES, VargaEngine.sign(1, -0.5));
+        assertEquals(VargaEngine.sign(9, 95.25), VargaEngine.sign(9, 95.25 + 720));
+    }
+
+    @Test
+    void computeAgreesWithSignForEveryPointAndDivision() {
+        String[] points = {"Sun", "Moon", "Mars", "Lagna"};
+        double[] longitudes = {0.0, 123.456, 299.99, 359.999};
+        VargaEngine.Shodashavarga vargas = VargaEngine.compute(points, longitudes);
+        for (int p = 0; p < points.length; p++) {
+            for (int division : VargaEngine.DIVISIONS) {
+                assertEquals(VargaEngine.sign(division, longitudes[p]), vargas.sign(p, division),
+                        points[p] + " D" + division);
+            }
+        }
+    }
+
+    @Test
+    void chartsSerializeTheRequestedDivisions() {
+        VargaEngine.Shodashavarga vargas = VargaEngine.compute(new String[]{"Sun", "Moon"}, new double[]{135, 31});
+        Map<String, Map<String, String>> charts = vargas.charts(List.of(9, 10));
+        assertEquals(List.of("D9", "D10"), List.copyOf(charts.keySet()));
+        assertEquals(Map.of("Sun", "Leo", "Moon", "Capricorn"), charts.get("D9"));
+        assertEquals(Map.of("Sun", "Capricorn", "Moon", "Capricorn"), charts.get("D10"));
+    }
+
+    @Test
+    void unsupportedDivisionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> VargaEngine.sign(5, 10));
+        assertThrows(IllegalArgumentException.class, () -> VargaEngine.sign(61, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> VargaEngine.compute(new String[]{"Sun"}, new double[]{10}).chart(0));
+    }
+}
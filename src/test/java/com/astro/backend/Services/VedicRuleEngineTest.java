@@ -0,0 +1,241 @@
+package com.astro.backend.Services;
+
+import com.astro.backend.Entity.VedicAstrologyRule;
+import com.astro.backend.Repositry.VedicAstrologyRuleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compiled rules against the rule tags worked out directly from the longitudes, and the built-in
+ * yogas and doshas on reference charts.
+ */
+class VedicRuleEngineTest {
+
+    private static final String[] GRAHAS = RuleChart.GRAHAS;
+    private static final String[] SIGNS = RuleChart.SIGNS;
+    private static final String[] NAKSHATRAS = RuleChart.NAKSHATRAS;
+    private static final int[] SIGN_LORDS = {2, 5, 3, 1, 0, 3, 5, 2, 4, 6, 6, 4};
+    private static final List<String> YOGAS_AND_DOSHAS = List.of("Yoga", "Dosha");
+
+    @Test
+    void referenceChartHasOnlyMangalDosha() {
+        VedicRuleEngine engine = engine(List.of());
+        // Lagna Aries 5°, Mars in the 7th in Libra
+        double[] longitudes = {10, 100, 190, 40, 130, 70, 250, 300, 120};
+        VedicRuleEngine.RuleMatches matches = engine.evaluate(RuleChart.of(longitudes, 5, null, -1, -1));
+        assertEquals(List.of(VedicRuleEngine.MANGAL_DOSHA), matches.codes(YOGAS_AND_DOSHAS));
+        assertEquals(1, matches.count());
+    }
+
+    @Test
+    void builtInYogasAndDoshasFollowTheirPlacements() {
+        VedicRuleEngine engine = engine(List.of());
+        // Jupiter with the Moon in Cancer, Sun and Mercury together in Aries, Mars in the 2nd
+        double[] yogas = {10, 100, 40, 20, 95, 70, 250, 300, 120};
+        assertEquals(List.of(VedicRuleEngine.GAJ_KESARI_YOGA, VedicRuleEngine.BUDHADITYA_YOGA),
+                engine.evaluate(RuleChart.of(yogas, 5, null, -1, -1)).codes(YOGAS_AND_DOSHAS));
+
+        // Every graha between Rahu at 0° and Ketu at 180°, Sun with Rahu in Aries, Mars in the 8th
+        double[] kaalSarp = {10, 30, 50, 70, 90, 110, 130, 0, 180};
+        VedicRuleEngine.RuleMatches matches = engine.evaluate(RuleChart.of(kaalSarp, 200, null, -1, -1));
+        assertTrue(matches.contains(VedicRuleEngine.KAAL_SARP_DOSHA));
+        assertTrue(matches.contains(VedicRuleEngine.PITRU_DOSHA));
+        assertTrue(matches.contains(VedicRuleEngine.GRAHAN_DOSHA));
+        assertTrue(matches.contains(VedicRuleEngine.MANGAL_DOSHA));
+        assertFalse(matches.contains(VedicRuleEngine.GAJ_KESARI_YOGA));
+    }
+
+    @Test
+    void storedRulesMatchTheirTagsOnRandomCharts() {
+        List<VedicAstrologyRule> rules = new ArrayList<>();
+        for (int p = 0; p < 9; p++) {
+            for (int h = 1; h <= 12; h++) {
+                rules.add(rule("PIH-" + p + "-" + h, "type=planet_in_house;planet=" + GRAHAS[p] + ";house=" + h));
+                rules.add(rule("TFA-" + p + "-" + h, "type=transit_from_ascendant;planet=" + GRAHAS[p] + ";house=" + h));
+                rules.add(rule("TFM-" + p + "-" + h, "type=transit_from_moon;planet=" + GRAHAS[p] + ";house=" + h));
+                for (int q = p + 1; q < 9; q++) {
+                    rules.add(rule("CONJ-" + p + "-" + q + "-" + h,
+                            "type=conjunction;planetOne=" + GRAHAS[p] + ";planetTwo=" + GRAHAS[q] + ";house=" + h));
+                }
+            }
+            for (String sign : SIGNS) {
+                rules.add(rule("PIS-" + p + "-" + sign, "type=planet_in_sign;planet=" + GRAHAS[p] + ";sign=" + sign));
+            }
+            for (String nakshatra : NAKSHATRAS) {
+                rules.add(rule("PIN-" + p + "-" + nakshatra,
+                        "type=planet_in_nakshatra;planet=" + GRAHAS[p] + ";nakshatra=" + nakshatra));
+            }
+            for (int x = 0; x < 9; x++) {
+                rules.add(rule("DASHA-" + p + "-" + x, "type=dasha;mahadasha=" + GRAHAS[p] + ";antardasha=" + GRAHAS[x]));
+                for (int h = 1; h <= 12; h++) {
+                    rules.add(rule("DHH-" + p + "-" + x + "-" + h, "type=dasha_house_activation;mahadasha="
+                            + GRAHAS[p] + ";antardasha=" + GRAHAS[x] + ";house=" + h));
+                }
+            }
+        }
+        for (int h = 1; h <= 12; h++) {
+            for (int t = 1; t <= 12; t++) {
+                rules.add(rule("HLH-" + h + "-" + t, "type=house_lord_in_house;sourceHouse=" + h + ";targetHouse=" + t));
+            }
+            for (String sign : SIGNS) {
+                rules.add(rule("HLS-" + h + "-" + sign, "type=house_lord_in_sign;sourceHouse=" + h + ";sign=" + sign));
+            }
+        }
+        VedicRuleEngine engine = engine(rules);
+
+        Random random = new Random(7);
+        // Enough charts for the batch to run in parallel
+        int count = 500;
+        List<RuleChart> charts = new ArrayList<>();
+        List<Set<String>> expected = new ArrayList<>();
+        for (int c = 0; c < count; c++) {
+            double[] longitudes = randomLongitudes(random);
+            double[] transits = randomLongitudes(random);
+            double ascendant = random.nextDouble() * 360;
+            int mahadasha = random.nextInt(9);
+            int antardasha = random.nextInt(9);
+            charts.add(RuleChart.of(longitudes, ascendant, transits, mahadasha, antardasha));
+            expected.add(expectedCodes(longitudes, ascendant, transits, mahadasha, antardasha));
+        }
+
+        List<VedicRuleEngine.RuleMatches> results = engine.evaluateAll(charts);
+        for (int c = 0; c < count; c++) {
+            Set<String> codes = new TreeSet<>(results.get(c).codes(null));
+            codes.removeIf(code -> code.startsWith("YOGA-") || code.startsWith("DOSHA-"));
+            assertEquals(new TreeSet<>(expected.get(c)), codes, "chart " + c);
+            assertEquals(results.get(c).codes(null), engine.evaluate(charts.get(c)).codes(null));
+        }
+    }
+
+    @Test
+    void strengthRulesCombineHouseAndDignity() {
+        VedicRuleEngine engine = engine(List.of(
+                rule("SUN-EXALTED-1", "type=planet_strength_in_house;planet=Sun;state=Exalted;house=1"),
+                rule("SUN-EXALTED-2", "type=planet_strength_in_house;planet=Sun;state=Exalted;house=2"),
+                rule("SATURN-DEBILITATED-1", "type=planet_strength_in_house;planet=Saturn;state=Debilitated;house=1")));
+        double[] longitudes = {10, 100, 190, 40, 130, 70, 15, 300, 120};
+        VedicRuleEngine.RuleMatches matches = engine.evaluate(RuleChart.of(longitudes, 5, null, -1, -1));
+        assertTrue(matches.contains("SUN-EXALTED-1"));
+        assertFalse(matches.contains("SUN-EXALTED-2"));
+        assertTrue(matches.contains("SATURN-DEBILITATED-1"));
+    }
+
+    @Test
+    void unusableAndInactiveRulesAreLeftOut() {
+        VedicAstrologyRule inactive = rule("INACTIVE", "type=planet_in_house;planet=Sun;house=1");
+        inactive.setIsActive(false);
+        VedicRuleEngine engine = engine(List.of(
+                rule("GOOD", "type=planet_in_house;planet=Sun;house=1"),
+                rule("BAD-TYPE", "type=nope;x=1"),
+                rule("BAD-PLANET", "type=planet_in_house;planet=Pluto;house=1"),
+                rule("BAD-HOUSE", "type=planet_in_house;planet=Sun;house=13"),
+                rule("NO-TAGS", null),
+                inactive));
+        Map<String, Object> metrics = engine.getMetrics();
+        assertEquals(6 + 1, metrics.get("rules"));
+        assertEquals(4, metrics.get("skipped"));
+
+        double[] longitudes = {10, 100, 190, 40, 130, 70, 250, 300, 120};
+        VedicRuleEngine.RuleMatches matches = engine.evaluate(RuleChart.of(longitudes, 5, null, -1, -1));
+        assertTrue(matches.contains("GOOD"));
+        assertFalse(matches.contains("INACTIVE"));
+        assertFalse(matches.contains("UNKNOWN"));
+        List<Map<String, Object>> hindi = matches.rules(List.of("Test"), PredictionService.HINDI, true);
+        assertEquals(1, hindi.size());
+        assertEquals("GOOD हिंदी", hindi.get(0).get("title"));
+    }
+
+    @Test
+    void batchesOverTheLimitAreRejected() {
+        VedicRuleEngine engine = engine(List.of());
+        ReflectionTestUtils.setField(engine, "maxBatchCharts", 2);
+        RuleChart chart = RuleChart.of(new double[9], 0, null, -1, -1);
+        assertEquals(2, engine.evaluateAll(List.of(chart, chart)).size());
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.evaluateAll(Collections.nCopies(3, chart)));
+    }
+
+    private static VedicRuleEngine engine(List<VedicAstrologyRule> rules) {
+        VedicAstrologyRuleRepository repository = mock(VedicAstrologyRuleRepository.class);
+        when(repository.findAll()).thenReturn(rules);
+        VedicRuleEngine engine = new VedicRuleEngine(repository);
+        ReflectionTestUtils.setField(engine, "maxBatchCharts", 1000);
+        engine.reload();
+        return engine;
+    }
+
+    private static VedicAstrologyRule rule(String code, String tags) {
+        return VedicAstrologyRule.builder()
+                .ruleCode(code)
+                .category("Test")
+                .title(code)
+                .titleHindi(code + " हिंदी")
+                .tags(tags)
+                .isActive(true)
+                .build();
+    }
+
+    private static double[] randomLongitudes(Random random) {
+        double[] longitudes = new double[9];
+        for (int g = 0; g < 8; g++) {
+            longitudes[g] = random.nextDouble() * 360;
+        }
+        longitudes[RuleChart.KETU] = (longitudes[RuleChart.RAHU] + 180) % 360;
+        return longitudes;
+    }
+
+    /**
+     * The codes of the rules built in storedRulesMatchTheirTagsOnRandomCharts that should hold.
+     */
+    private static Set<String> expectedCodes(double[] longitudes, double ascendant, double[] transits,
+                                             int mahadasha, int antardasha) {
+        int lagna = (int) (ascendant / 30);
+        int moonSign = (int) (longitudes[RuleChart.MOON] / 30);
+        int[] signs = new int[9];
+        int[] houses = new int[9];
+        for (int g = 0; g < 9; g++) {
+            signs[g] = (int) (longitudes[g] / 30);
+            houses[g] = (signs[g] - lagna + 12) % 12 + 1;
+        }
+        Set<String> codes = new HashSet<>();
+        for (int p = 0; p < 9; p++) {
+            codes.add("PIH-" + p + "-" + houses[p]);
+            codes.add("PIS-" + p + "-" + SIGNS[signs[p]]);
+            codes.add("PIN-" + p + "-" + NAKSHATRAS[(int) (longitudes[p] / (360.0 / 27))]);
+            for (int q = p + 1; q < 9; q++) {
+                if (houses[p] == houses[q]) {
+                    codes.add("CONJ-" + p + "-" + q + "-" + houses[p]);
+                }
+            }
+            int transitSign = (int) (transits[p] / 30);
+            codes.add("TFA-" + p + "-" + ((transitSign - lagna + 12) % 12 + 1));
+            codes.add("TFM-" + p + "-" + ((transitSign - moonSign + 12) % 12 + 1));
+        }
+        for (int h = 1; h <= 12; h++) {
+            int lord = SIGN_LORDS[(lagna + h - 1) % 12];
+            codes.add("HLH-" + h + "-" + houses[lord]);
+            codes.add("HLS-" + h + "-" + SIGNS[signs[lord]]);
+            if (lord == mahadasha || lord == antardasha || houses[mahadasha] == h || houses[antardasha] == h) {
+                codes.add("DHH-" + mahadasha + "-" + antardasha + "-" + h);
+            }
+        }
+        codes.add("DASHA-" + mahadasha + "-" + antardasha);
+        return codes;
+    }
+}
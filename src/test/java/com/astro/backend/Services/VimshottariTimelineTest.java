@@ -0,0 +1,168 @@
+package com.astro.backend.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vimshottari period arithmetic: the birth balance, sub-period lengths, level nesting and the
+ * stored form.
+ */
+class VimshottariTimelineTest {
+
+    private static final double YEAR = VimshottariTimeline.DAYS_PER_YEAR;
+    private static final double EPSILON = 1e-6;
+
+    // 2000-01-01 12:00 UT
+    private static final double J2000 = 2451545.0;
+    private static final double J2000_EPOCH_DAY = 10957.5;
+
+    @Test
+    void moonAtTheStartOfAshwiniBeginsAFullKetuDashaAtBirth() {
+        VimshottariTimeline timeline = new VimshottariTimeline(0, 0);
+        VimshottariTimeline.Period first = timeline.periods(VimshottariTimeline.MAHADASHA, -1, 0, 1).get(0);
+        assertEquals("Ketu", first.lord());
+        assertEquals(0, first.startEpochDay(), EPSILON);
+        assertEquals(7 * YEAR, first.endEpochDay(), EPSILON);
+    }
+
+    @Test
+    void birthBalanceIsThePartOfTheNakshatraStillToRun() {
+        // Moon in the middle of Bharani: half of the 20-year Venus dasha is left at birth
+        VimshottariTimeline timeline = new VimshottariTimeline(0, 360.0 / 27 * 1.5);
+        VimshottariTimeline.Period venus = timeline.at(VimshottariTimeline.MAHADASHA, 0);
+        assertEquals("Venus", venus.lord());
+        assertEquals(-10 * YEAR, venus.startEpochDay(), EPSILON);
+        assertEquals(10 * YEAR, venus.endEpochDay(), EPSILON);
+
+        // Moon at 205 degrees, Vishakha (Jupiter, 16 years) 5 of 13°20' covered: 10 years left
+        VimshottariTimeline vishakha = new VimshottariTimeline(0, 205);
+        VimshottariTimeline.Period jupiter = vishakha.at(VimshottariTimeline.MAHADASHA, 0);
+        assertEquals("Jupiter", jupiter.lord());
+        assertEquals(10 * YEAR, jupiter.endEpochDay(), EPSILON);
+    }
+
+    @Test
+    void mahadashasFollowTheVimshottariOrderForOneHundredAndTwentyYears() {
+        VimshottariTimeline timeline = new VimshottariTimeline(0, 140);   // Purva Phalguni, Venus
+        List<VimshottariTimeline.Period> mahadashas =
+                timeline.periods(VimshottariTimeline.MAHADASHA, -1e6, 0, 20);
+        assertEquals(10, mahadashas.size());
+        String[] expected = {"Venus", "Sun", "Moon", "Mars", "Rahu", "Jupiter", "Saturn", "Mercury", "Ketu", "Venus"};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], mahadashas.get(i).lord());
+        }
+        assertEquals(120 * YEAR, mahadashas.get(9).startEpochDay() - mahadashas.get(0).startEpochDay(), EPSILON);
+        assertNotNull(timeline.at(VimshottariTimeline.MAHADASHA, 120 * YEAR - 1));
+    }
+
+    @Test
+    void subPeriodsLastParentTimesYearsOverOneHundredAndTwenty() {
+        VimshottariTimeline timeline = new VimshottariTimeline(0, 0);
+        List<VimshottariTimeline.Period> antardashas =
+                timeline.periods(VimshottariTimeline.ANTARDASHA, 0, 0, 9);
+        String[] expected = {"Ketu", "Venus", "Sun", "Moon", "Mars", "Rahu", "Jupiter", "Saturn", "Mercury"};
+        for (int i = 0; i < expected.length; i++) {
+            VimshottariTimeline.Period period = antardashas.get(i);
+            assertEquals("Ketu", period.lord(VimshottariTimeline.MAHADASHA));
+            assertEquals(expected[i], period.lord());
+            assertEquals(7.0 * VimshottariTimeline.YEARS[i] / 120 * YEAR,
+                    period.endEpochDay() - period.startEpochDay(), EPSILON, expected[i]);
+        }
+        // Ketu-Ketu: 7 x 7 / 120 years, i.e. 4 months 27 days
+        assertEquals(149.14, antardashas.get(0).endEpochDay() - antardashas.get(0).startEpochDay(), 0.01);
+    }
+
+    @Test
+    void everyLevelTilesItsParentExactly() {
+        VimshottariTimeline timeline = VimshottariTimeline.of(J2000, 123.4);
+        for (int level = VimshottariTimeline.ANTARDASHA; level <= VimshottariTimeline.PRANA; level++) {
+            assertEquals(10 * (int) Math.pow(9, level - 1), timeline.size(level));
+            List<VimshottariTimeline.Period> periods = timeline.periods(level, -1e6, 0, timeline.size(level));
+            for (int i = 0; i < periods.size(); i++) {
+                VimshottariTimeline.Period period = periods.get(i);
+                VimshottariTimeline.Period parent = timeline.at(level - 1, period.startEpochDay());
+                for (int depth = 1; depth < level; depth++) {
+                    assertEquals(parent.lord(depth), period.lord(depth));
+                }
+                if (i % 9 == 0) {
+                    assertEquals(parent.startEpochDay(), period.startEpochDay());
+                    assertEquals(period.lord(level - 1), period.lord());
+                }
+                if (i % 9 == 8) {
+                    assertEquals(parent.endEpochDay(), period.endEpochDay());
+                } else {
+                    assertEquals(period.endEpochDay(), periods.get(i + 1).startEpochDay());
+                }
+            }
+        }
+    }
+
+    @Test
+    void lookupsFindThePeriodRunningAtAnInstant() {
+        VimshottariTimeline timeline = VimshottariTimeline.of(J2000, 277.7);
+        double when = J2000_EPOCH_DAY + 12345.678;
+        VimshottariTimeline.Period prana = timeline.at(VimshottariTimeline.PRANA, when);
+        VimshottariTimeline.Period sookshma = timeline.at(VimshottariTimeline.SOOKSHMA, when);
+        VimshottariTimeline.Period mahadasha = timeline.at(VimshottariTimeline.MAHADASHA, when);
+        assertEquals(mahadasha.lord(), prana.lord(VimshottariTimeline.MAHADASHA));
+        assertEquals(sookshma.lord(), prana.lord(VimshottariTimeline.SOOKSHMA));
+        assertTrue(prana.startEpochDay() <= when && when < prana.endEpochDay());
+
+        assertNull(timeline.at(VimshottariTimeline.MAHADASHA, J2000_EPOCH_DAY - 200 * YEAR));
+        assertNull(timeline.at(VimshottariTimeline.PRANA, J2000_EPOCH_DAY + 200 * YEAR));
+        assertEquals(0, timeline.periods(VimshottariTimeline.MAHADASHA, J2000_EPOCH_DAY + 200 * YEAR, 0, 5).size());
+        assertThrows(IllegalArgumentException.class, () -> timeline.at(6, when));
+    }
+
+    @Test
+    void theTimelineStartsAtTheBirthInstantNotItsDate() {
+        VimshottariTimeline timeline = VimshottariTimeline.of(J2000, 0);
+        assertEquals(J2000_EPOCH_DAY, timeline.getBirthEpochDay(), EPSILON);
+        VimshottariTimeline.Period ketu = timeline.at(VimshottariTimeline.MAHADASHA, J2000_EPOCH_DAY);
+        assertEquals(Instant.parse("2000-01-01T12:00:00Z"), ketu.startInstant());
+        assertNull(timeline.at(VimshottariTimeline.MAHADASHA, J2000_EPOCH_DAY - 0.25));
+    }
+
+    @Test
+    void serializedTimelinesRoundTrip() {
+        VimshottariTimeline timeline = VimshottariTimeline.of(2447892.3, 371.25);
+        String stored = timeline.serialize();
+        assertEquals(24, stored.length());
+
+        VimshottariTimeline restored = VimshottariTimeline.deserialize(stored);
+        assertNotNull(restored);
+        assertEquals(timeline.getBirthEpochDay(), restored.getBirthEpochDay());
+        assertEquals(11.25, restored.getMoonLongitude(), EPSILON);
+        double when = timeline.getBirthEpochDay() + 9000;
+        VimshottariTimeline.Period before = timeline.at(VimshottariTimeline.PRANA, when);
+        VimshottariTimeline.Period after = restored.at(VimshottariTimeline.PRANA, when);
+        assertEquals(before.index(), after.index());
+        assertArrayEquals(before.lords(), after.lords());
+        assertEquals(before.startEpochDay(), after.startEpochDay());
+        assertEquals(before.endEpochDay(), after.endEpochDay());
+    }
+
+    @Test
+    void unusableStoredValuesDeserializeToNull() {
+        assertNull(VimshottariTimeline.deserialize(null));
+        assertNull(VimshottariTimeline.deserialize(" "));
+        assertNull(VimshottariTimeline.deserialize("not base64!"));
+        assertNull(VimshottariTimeline.deserialize(Base64.getEncoder().encodeToString(new byte[16])));
+
+        // Same layout, older format version
+        ByteBuffer buffer = ByteBuffer.allocate(17);
+        buffer.put((byte) 1).putDouble(J2000_EPOCH_DAY).putDouble(10);
+        assertNull(VimshottariTimeline.deserialize(Base64.getEncoder().encodeToString(buffer.array())));
+    }
+}